@@ -2,7 +2,6 @@ package controller;
 
 import enumerations.PlayerBoardState;
 import enumerations.PossibleAction;
-import model.Game;
 import model.player.UserPlayer;
 
 import java.util.EnumSet;
@@ -33,8 +32,11 @@ public class ActionManager {
     /**
      * Method that sets the possible actions a player has due to his state, when the game is in NORMAL state
      * If the game has the terminator, every player in his turn must always do also the terminator action
+     *
+     * @param player              the Player whose actions need to be set
+     * @param isTerminatorPresent boolean that specifies if the terminator is present in the game
      */
-    static void setPossibleActions(UserPlayer player) {
+    static void setPossibleActions(UserPlayer player, boolean isTerminatorPresent) {
         PlayerBoardState currentPlayerBoardState = player.getPlayerBoard().getBoardState();
 
         switch (currentPlayerBoardState) {
@@ -48,7 +50,7 @@ public class ActionManager {
                 player.setPossibleActions(EnumSet.of(PossibleAction.MOVE, PossibleAction.ADRENALINE_PICK, PossibleAction.ADRENALINE_SHOOT));
         }
 
-        if (Game.getInstance().isBotPresent()) {
+        if (isTerminatorPresent) {
             player.addAction(PossibleAction.BOT_ACTION);
         }
     }
@@ -58,15 +60,16 @@ public class ActionManager {
      *
      * @param player      the Player whose actions need to be set
      * @param turnManager TurnManager of the game containing the lists of different frenzyPlayers
+     * @param isTerminatorPresent boolean that specifies if the terminator is present in the game
      */
-    static void setFrenzyPossibleActions(UserPlayer player, TurnManager turnManager) {
+    static void setFrenzyPossibleActions(UserPlayer player, TurnManager turnManager, boolean isTerminatorPresent) {
         if (turnManager.getAfterFrenzy().contains(player)) {
             player.setPossibleActions(EnumSet.of(PossibleAction.FRENZY_MOVE, PossibleAction.FRENZY_PICK, PossibleAction.FRENZY_SHOOT));
         } else {
             player.setPossibleActions(EnumSet.of(PossibleAction.LIGHT_FRENZY_SHOOT, PossibleAction.LIGHT_FRENZY_PICK));
         }
 
-        if (Game.getInstance().isBotPresent()) {
+        if (isTerminatorPresent) {
             player.addAction(PossibleAction.BOT_ACTION);
         }
     }
@@ -2,10 +2,12 @@ package controller;
 
 import enumerations.PlayerColor;
 import exceptions.game.MaxPlayerException;
-import model.Game;
 import network.message.GameVoteMessage;
 import network.message.LobbyMessage;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 
@@ -36,6 +38,71 @@ class GameLobby implements Serializable {
         this.skullNum = skullNum;
     }
 
+    /**
+     * Writes the state of the lobby in the save format: the settings of the game, the players in the lobby and their
+     * votes
+     *
+     * @param out the destination of the state
+     * @throws IOException if the state can not be written
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeBoolean(terminator);
+        out.writeByte(skullNum);
+
+        out.writeByte(inLobbyPlayers.size());
+        for (LobbyMessage lobbyMessage : inLobbyPlayers) {
+            out.writeUTF(lobbyMessage.getSenderUsername());
+            writeToken(out, lobbyMessage.getToken());
+            out.writeByte(lobbyMessage.getChosenColor() == null ? -1 : lobbyMessage.getChosenColor().ordinal());
+            out.writeBoolean(lobbyMessage.isDisconnection());
+        }
+
+        out.writeByte(votedPlayers.size());
+        for (GameVoteMessage voteMessage : votedPlayers) {
+            out.writeUTF(voteMessage.getSenderUsername());
+            writeToken(out, voteMessage.getToken());
+            out.writeByte(voteMessage.getMapVote());
+        }
+    }
+
+    /**
+     * Reads a lobby written by {@link #writeState(DataOutput) writeState}
+     *
+     * @param in the source of the state
+     * @return the lobby
+     * @throws IOException if the state can not be read
+     */
+    static GameLobby readState(DataInput in) throws IOException {
+        GameLobby lobby = new GameLobby(in.readBoolean(), in.readByte());
+
+        int inLobby = in.readByte();
+        for (int i = 0; i < inLobby; ++i) {
+            String username = in.readUTF();
+            String token = readToken(in);
+            int color = in.readByte();
+
+            lobby.inLobbyPlayers.add(new LobbyMessage(username, token, color < 0 ? null : PlayerColor.values()[color], in.readBoolean()));
+        }
+
+        int voted = in.readByte();
+        for (int i = 0; i < voted; ++i) {
+            lobby.votedPlayers.add(new GameVoteMessage(in.readUTF(), readToken(in), in.readByte()));
+        }
+
+        return lobby;
+    }
+
+    private static void writeToken(DataOutput out, String token) throws IOException {
+        out.writeBoolean(token != null);
+        if (token != null) {
+            out.writeUTF(token);
+        }
+    }
+
+    private static String readToken(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
     /**
      * Adds a {@link model.player.UserPlayer UserPlayer} to the lobby. This means adding a {@link LobbyMessage LobbyMessage}
      * containing his name
@@ -79,10 +146,11 @@ class GameLobby implements Serializable {
     }
 
     /**
+     * @param random the generator of the game, used if no Map received a vote
      * @return the Integer corresponding to the favourite Map for the {@link model.player.UserPlayer UserPlayers}
      * in the Lobby
      */
-    Integer getFavouriteMap() {
+    Integer getFavouriteMap(SplittableRandom random) {
         if (!votedPlayers.isEmpty()) {
             ArrayList<Integer> playersVotes = new ArrayList<>();
 
@@ -97,18 +165,19 @@ class GameLobby implements Serializable {
             if (voteMap != null) {
                 return voteMap.getKey();
             } else {
-                return getRandomMap();
+                return getRandomMap(random);
             }
         } else {
-            return getRandomMap();
+            return getRandomMap(random);
         }
     }
 
     /**
+     * @param random the generator of the game
      * @return a random Integer between 1 and 4 in case the Map did not receive any vote
      */
-    private int getRandomMap() {
-        return Game.rand.nextInt(4) + 1;
+    private int getRandomMap(SplittableRandom random) {
+        return random.nextInt(4) + 1;
     }
 
     /**
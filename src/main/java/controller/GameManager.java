@@ -9,15 +9,24 @@ import model.Game;
 import model.actions.BotAction;
 import model.player.*;
 import network.message.*;
-import network.server.Server;
+import network.server.MessageSender;
 import utility.InputValidator;
 import utility.LobbyTimer;
+import utility.LogCategory;
+import utility.TaskExecutor;
+import utility.TimerWheel;
 import utility.TimerRunListener;
-import utility.persistency.SaveGame;
+import utility.persistency.GameJournal;
+import utility.persistency.GameSaver;
+import utility.persistency.MatchRecorder;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 
@@ -25,55 +34,253 @@ import java.util.stream.Collectors;
  * This Class is the Controller that receives Messages, validates them and moves the Game State to make the game evolve
  */
 public class GameManager implements TimerRunListener, Serializable {
+    private static final Logger LOGGER = LogCategory.CONTROLLER.getLogger();
     private static final int MIN_PLAYERS = 3;
     private static final int MAX_PLAYERS = 5;
     private static final long serialVersionUID = 7587280124972034331L;
 
-    private final transient Server server;
+    private final transient MessageSender server;
     private PossibleGameState gameState;
     private final Game gameInstance;
     private final GameLobby lobby;
     private transient RoundManager roundManager;
+    private transient GameStateTracker stateTracker;
+    private transient GameSaver saver;
+    private transient GameJournal journal;
+    private transient MatchRecorder recorder;
+    private transient boolean updatesEnabled = true;
     private ShootParameters shootParameters;
 
     private final transient int lobbyTimeoutTime;
-    private transient Timer lobbyTimer;
+    private transient TimerWheel.Timeout lobbyTimer;
     private transient boolean lobbyTimerRunning = false;
+    private transient boolean lobbyTimerEnabled = true;
 
     /**
-     * Creates an instance of {@link GameManager GameManager} binding the server tha will send messages to him
+     * Creates an instance of {@link GameManager GameManager} binding the server tha will send messages to him, it
+     * controls the {@link Game Game} bound to the current thread
      *
      * @param server           the Server to be bind
      * @param skullNum         number of skulls in this game
      * @param lobbyTimeoutTime the lobby timeout time in seconds
      */
-    public GameManager(Server server, boolean terminator, int skullNum, int lobbyTimeoutTime) {
+    public GameManager(MessageSender server, boolean terminator, int skullNum, int lobbyTimeoutTime) {
+        this(server, Game.getInstance(), terminator, skullNum, lobbyTimeoutTime);
+    }
+
+    /**
+     * Creates an instance of {@link GameManager GameManager} controlling its own {@link Game Game}, used when many
+     * matches are hosted by the same server
+     *
+     * @param server           the destination of the messages of this match
+     * @param gameInstance     the {@link Game Game} controlled by this manager
+     * @param terminator       {@code true} if the bot is present, {@code false} otherwise
+     * @param skullNum         number of skulls in this game
+     * @param lobbyTimeoutTime the lobby timeout time in seconds
+     */
+    public GameManager(MessageSender server, Game gameInstance, boolean terminator, int skullNum, int lobbyTimeoutTime) {
         this.server = server;
         this.gameState = PossibleGameState.GAME_ROOM;
         this.lobby = new GameLobby(terminator, skullNum);
-        this.gameInstance = Game.getInstance();
+        this.gameInstance = gameInstance;
         this.roundManager = new RoundManager(this);
+        this.stateTracker = new GameStateTracker();
+        this.saver = GameSaver.NONE;
 
         this.lobbyTimeoutTime = lobbyTimeoutTime * 1000;
     }
 
     /**
      * Creates an instance of {@link GameManager GameManager} binding the new server and the GameManager of the game
-     * that is going to be reloaded
+     * that is going to be reloaded, it controls the {@link Game Game} bound to the current thread
      *
      * @param server           the Server to be bind
      * @param savedGameManager the saved {@link GameManager GameManager} from which the {@link Game Game} is going to restart
      * @param lobbyTimeoutTime the lobby timeout time in seconds
      */
-    public GameManager(Server server, GameManager savedGameManager, int lobbyTimeoutTime) {
+    public GameManager(MessageSender server, GameManager savedGameManager, int lobbyTimeoutTime) {
+        this(server, Game.getInstance(), savedGameManager, lobbyTimeoutTime);
+    }
+
+    /**
+     * Creates an instance of {@link GameManager GameManager} binding the new server and the GameManager of the game
+     * that is going to be reloaded into the specified {@link Game Game}
+     *
+     * @param server           the destination of the messages of this match
+     * @param gameInstance     the {@link Game Game} in which the saved one is going to be reloaded
+     * @param savedGameManager the saved {@link GameManager GameManager} from which the {@link Game Game} is going to restart
+     * @param lobbyTimeoutTime the lobby timeout time in seconds
+     */
+    public GameManager(MessageSender server, Game gameInstance, GameManager savedGameManager, int lobbyTimeoutTime) {
         this.server = server;
         this.gameState = savedGameManager.gameState;
         this.lobby = savedGameManager.lobby;
-        this.gameInstance = Game.getInstance();
+        this.gameInstance = gameInstance;
         this.shootParameters = savedGameManager.shootParameters;
 
         this.lobbyTimeoutTime = lobbyTimeoutTime * 1000;
         this.roundManager = new RoundManager(this);
+        this.stateTracker = new GameStateTracker();
+        this.saver = GameSaver.NONE;
+    }
+
+    /**
+     * Creates an instance of {@link GameManager GameManager} for a match read by {@link #readState(DataInput, MessageSender, int) readState}
+     *
+     * @param server           the destination of the messages of this match
+     * @param gameInstance     the {@link Game Game} of the match, already read
+     * @param lobby            the lobby of the match
+     * @param gameState        the state of the match
+     * @param lobbyTimeoutTime the lobby timeout time in seconds
+     */
+    private GameManager(MessageSender server, Game gameInstance, GameLobby lobby, PossibleGameState gameState, int lobbyTimeoutTime) {
+        this.server = server;
+        this.gameState = gameState;
+        this.lobby = lobby;
+        this.gameInstance = gameInstance;
+
+        this.lobbyTimeoutTime = lobbyTimeoutTime * 1000;
+        this.roundManager = new RoundManager(this);
+        this.stateTracker = new GameStateTracker();
+        this.saver = GameSaver.NONE;
+    }
+
+    /**
+     * Writes the state of this match in the save format, see {@link utility.persistency.SaveFormat SaveFormat}: the
+     * {@link Game Game}, the state of this manager, the lobby and the {@link TurnManager TurnManager}, if the match
+     * has started
+     *
+     * @param out the destination of the state
+     * @throws IOException if the state can not be written
+     */
+    public void writeState(DataOutput out) throws IOException {
+        TurnManager turnManager = roundManager.getTurnManager();
+
+        gameInstance.writeState(out);
+        out.writeByte(gameState.ordinal());
+        lobby.writeState(out);
+
+        out.writeBoolean(turnManager != null);
+        if (turnManager != null) {
+            turnManager.writeState(out, gameInstance);
+        }
+    }
+
+    /**
+     * Reads a match written by {@link #writeState(DataOutput) writeState} into a new {@link Game Game} instance
+     *
+     * @param in               the source of the state
+     * @param server           the destination of the messages of the read match
+     * @param lobbyTimeoutTime the lobby timeout time in seconds
+     * @return the {@link GameManager GameManager} of the read match
+     * @throws IOException if the state can not be read
+     */
+    public static GameManager readState(DataInput in, MessageSender server, int lobbyTimeoutTime) throws IOException {
+        Game game = new Game();
+        game.readState(in);
+
+        PossibleGameState gameState = PossibleGameState.values()[in.readByte()];
+        GameManager gameManager = new GameManager(server, game, GameLobby.readState(in), gameState, lobbyTimeoutTime);
+
+        if (in.readBoolean()) {
+            gameManager.roundManager.initTurnManager(TurnManager.readState(in, game));
+        }
+
+        return gameManager;
+    }
+
+    /**
+     * Sets the way the status of this match is stored after every valid action, by default it is not stored
+     *
+     * @param saver the {@link GameSaver GameSaver} to use
+     */
+    public void setSaver(GameSaver saver) {
+        this.saver = saver;
+    }
+
+    /**
+     * Journals the inputs accepted by this manager and saves the status of this match through the journal, see
+     * {@link GameJournal GameJournal}
+     *
+     * @param journal the {@link GameJournal GameJournal} of this match
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+        this.saver = journal;
+    }
+
+    /**
+     * Records the inputs accepted by this manager from now on, see {@link MatchRecorder MatchRecorder}
+     *
+     * @param recorder the {@link MatchRecorder MatchRecorder} of this match
+     */
+    public void setRecorder(MatchRecorder recorder) {
+        this.recorder = recorder;
+        recorder.start(this);
+    }
+
+    /**
+     * Serializes a message for the {@link GameJournal GameJournal} and the {@link MatchRecorder MatchRecorder} of
+     * this match before it is handled, as handling it can change the objects it refers to
+     *
+     * @param message the message to be handled
+     * @return the serialized message, null if this match has neither a journal nor a recorder
+     */
+    private byte[] journalInput(Message message) {
+        return journal == null && recorder == null ? null : GameJournal.serialize(message);
+    }
+
+    /**
+     * Appends an input to the {@link GameJournal GameJournal} and to the {@link MatchRecorder MatchRecorder} of this
+     * match, if any, unless it has been rejected
+     *
+     * @param input    the kind of the input
+     * @param message  the serialized message of the input
+     * @param response the response to the input
+     */
+    private void journal(GameJournal.Input input, byte[] message, Message response) {
+        if (response instanceof Response && ((Response) response).getStatus() == MessageStatus.ERROR) {
+            return;
+        }
+
+        if (journal != null) {
+            journal.record(this, input, message);
+        }
+
+        if (recorder != null) {
+            recorder.record(this, input, message);
+        }
+    }
+
+    /**
+     * Stores the status of this match with its {@link GameSaver GameSaver}
+     */
+    void saveGame() {
+        if (recorder != null) {
+            recorder.boundaryReached();
+        }
+
+        saver.save(this);
+    }
+
+    /**
+     * Enables or disables the updates of the state of the match sent to the players after every valid action,
+     * they can be disabled when no client is connected to the match
+     *
+     * @param updatesEnabled {@code true} to send the updates, {@code false} otherwise
+     */
+    public void setUpdatesEnabled(boolean updatesEnabled) {
+        this.updatesEnabled = updatesEnabled;
+    }
+
+    /**
+     * Enables or disables the lobby timer. When it is disabled the match only starts when the lobby is full or when
+     * {@link #onTimerRun() onTimerRun} is called by the owner of this manager
+     *
+     * @param lobbyTimerEnabled {@code true} to start the match after the lobby timeout, {@code false} otherwise
+     */
+    public void setLobbyTimerEnabled(boolean lobbyTimerEnabled) {
+        this.lobbyTimerEnabled = lobbyTimerEnabled;
     }
 
     /**
@@ -220,13 +427,33 @@ public class GameManager implements TimerRunListener, Serializable {
      * @return a {@link Message Message} which contains the result of the received message
      */
     public Message onMessage(Message receivedMessage) {
+        Game previousGame = Game.bind(gameInstance);
+
+        try {
+            byte[] input = journalInput(receivedMessage);
+            Message response = handleMessage(receivedMessage);
+            journal(GameJournal.Input.MESSAGE, input, response);
+            return response;
+        } finally {
+            Game.bind(previousGame);
+        }
+    }
+
+    /**
+     * Validates and executes a received message, the {@link Game Game} of this manager must be bound to the
+     * current thread
+     *
+     * @param receivedMessage Message received by the server from a Client that wants to act
+     * @return a {@link Message Message} which contains the result of the received message
+     */
+    private Message handleMessage(Message receivedMessage) {
         if (gameState == PossibleGameState.GAME_ENDED) {
             return new Response("GAME ENDED", MessageStatus.ERROR);
         }
 
         if (!InputValidator.validateInput(receivedMessage) ||
                 (gameState != PossibleGameState.GAME_ROOM &&
-                        !Game.getInstance().doesPlayerExists(receivedMessage.getSenderUsername()))) {
+                        !gameInstance.doesPlayerExists(receivedMessage.getSenderUsername()))) {
             return buildInvalidResponse();
         }
 
@@ -282,6 +509,26 @@ public class GameManager implements TimerRunListener, Serializable {
      * @return a {@link Message Message} which contains the result of the received message
      */
     public Message onConnectionMessage(Message receivedConnectionMessage) {
+        Game previousGame = Game.bind(gameInstance);
+
+        try {
+            byte[] input = journalInput(receivedConnectionMessage);
+            Message response = handleConnectionMessage(receivedConnectionMessage);
+            journal(GameJournal.Input.CONNECTION, input, response);
+            return response;
+        } finally {
+            Game.bind(previousGame);
+        }
+    }
+
+    /**
+     * Handles a connection or disconnection message, the {@link Game Game} of this manager must be bound to the
+     * current thread
+     *
+     * @param receivedConnectionMessage Message received by the server from a connecting or disconnecting {@link UserPlayer UserPlayer}
+     * @return a {@link Message Message} which contains the result of the received message
+     */
+    private Message handleConnectionMessage(Message receivedConnectionMessage) {
         if (gameState == PossibleGameState.GAME_ENDED) {
             return new Response("GAME ENDED", MessageStatus.ERROR);
         }
@@ -355,7 +602,7 @@ public class GameManager implements TimerRunListener, Serializable {
             ((UserPlayer) gameInstance.getPlayerByName(receivedConnectionMessage.getSenderUsername())).setPlayerState(PossiblePlayerState.PLAYING);
 
             return new ReconnectionMessage(receivedConnectionMessage.getToken(),
-                    new GameStateMessage(receivedConnectionMessage.getSenderUsername(),
+                    stateTracker.snapshot(gameInstance, receivedConnectionMessage.getSenderUsername(),
                             roundManager.getTurnManager().getTurnOwner().getUsername(), false));
         } else {
             return new Response("Reconnection message from already in lobby Player", MessageStatus.ERROR);
@@ -515,7 +762,7 @@ public class GameManager implements TimerRunListener, Serializable {
 
                 // if the death player has been overkilled, he marks his overkiller
                 if (respawnedPlayer.getPlayerBoard().getDamageCount() > 11) {
-                    gameInstance.getPlayerByName(respawnedPlayer.getPlayerBoard().getDamages().get(11)).getPlayerBoard().addMark(respawnedPlayer, 1);
+                    gameInstance.getPlayerByName(respawnedPlayer.getPlayerBoard().getDamageDealer(11)).getPlayerBoard().addMark(respawnedPlayer, 1);
                 }
 
                 // then I set back the playerboard to the inistial state
@@ -709,7 +956,7 @@ public class GameManager implements TimerRunListener, Serializable {
 
         // in the end I set the map and the number of Skulls chosen
         try {
-            gameInstance.setGameMap(lobby.getFavouriteMap());
+            gameInstance.setGameMap(lobby.getFavouriteMap(gameInstance.nextRandom()));
         } catch (InvalidMapNumberException e) {
             // never reached here the lobby returns always a valid number
         }
@@ -768,7 +1015,7 @@ public class GameManager implements TimerRunListener, Serializable {
                 lobby.addPlayer(lobbyMessage);
 
                 server.sendMessageToAll(new LobbyPlayersResponse(new ArrayList<>(lobby.getInLobbyPlayers().stream().map(LobbyMessage::getSenderUsername).collect(Collectors.toList()))));
-                Server.LOGGER.log(Level.INFO, "{0} joined the lobby", lobbyMessage.getSenderUsername());
+                LOGGER.log(Level.INFO, "{0} joined the lobby", lobbyMessage.getSenderUsername());
                 timerCheck();
             } else {
                 return buildInvalidResponse();
@@ -777,7 +1024,7 @@ public class GameManager implements TimerRunListener, Serializable {
             inLobbyPlayers.remove(lobbyMessage);
             removeVote(lobbyMessage.getSenderUsername());
             server.sendMessageToAll(new LobbyPlayersResponse(new ArrayList<>(lobby.getInLobbyPlayers().stream().map(LobbyMessage::getSenderUsername).collect(Collectors.toList()))));
-            Server.LOGGER.log(Level.INFO, "{0} left the lobby", lobbyMessage.getSenderUsername());
+            LOGGER.log(Level.INFO, "{0} left the lobby", lobbyMessage.getSenderUsername());
             timerCheck();
             sendPrivateUpdates();
             return new Response("Player removed from Lobby", MessageStatus.OK);
@@ -797,13 +1044,12 @@ public class GameManager implements TimerRunListener, Serializable {
             if (inLobbyPlayers.size() < MIN_PLAYERS) {
                 lobbyTimer.cancel();
                 lobbyTimerRunning = false;
-                Server.LOGGER.info("Lobby timer stopped");
+                LOGGER.info("Lobby timer stopped");
             }
         } else {
-            if (inLobbyPlayers.size() >= MIN_PLAYERS) {
-                lobbyTimer = new Timer();
-                lobbyTimer.schedule(new LobbyTimer(this), lobbyTimeoutTime);
-                Server.LOGGER.log(Level.INFO, "Lobby timer started ({0} s)", lobbyTimeoutTime / 1000);
+            if (lobbyTimerEnabled && inLobbyPlayers.size() >= MIN_PLAYERS) {
+                lobbyTimer = TaskExecutor.schedule(Game.bound(gameInstance, new LobbyTimer(this)), lobbyTimeoutTime);
+                LOGGER.log(Level.INFO, "Lobby timer started ({0} s)", lobbyTimeoutTime / 1000);
                 lobbyTimerRunning = true;
             }
         }
@@ -812,8 +1058,15 @@ public class GameManager implements TimerRunListener, Serializable {
 
     @Override
     public void onTimerRun() {
-        Server.LOGGER.info("Lobby timer ended, game is starting");
-        gameSetupHandler();
+        Game previousGame = Game.bind(gameInstance);
+
+        try {
+            LOGGER.info("Lobby timer ended, game is starting");
+            gameSetupHandler();
+            journal(GameJournal.Input.TIMER, new byte[0], null);
+        } finally {
+            Game.bind(previousGame);
+        }
     }
 
     /**
@@ -827,8 +1080,10 @@ public class GameManager implements TimerRunListener, Serializable {
 
         if ((lobby.getTerminatorPresence() && inLobbyPlayers.size() == MAX_PLAYERS - 1) ||
                 (!lobby.getTerminatorPresence() && inLobbyPlayers.size() == MAX_PLAYERS)) {
-            lobbyTimer.cancel();
-            lobbyTimerRunning = false;
+            if (lobbyTimerRunning) {
+                lobbyTimer.cancel();
+                lobbyTimerRunning = false;
+            }
             gameSetupHandler();
             return new Response("Last player added to lobby, game is starting...", MessageStatus.OK);
         } else {
@@ -952,7 +1207,7 @@ public class GameManager implements TimerRunListener, Serializable {
             finalFrenzySetup();
         }
 
-        SaveGame.saveGame(this);
+        saveGame();
         sendPrivateUpdates();
         return tempResponse;
     }
@@ -972,7 +1227,7 @@ public class GameManager implements TimerRunListener, Serializable {
         }
 
         for (UserPlayer player : gameInstance.getPlayers()) {
-            ActionManager.setFrenzyPossibleActions(player, roundManager.getTurnManager());
+            ActionManager.setFrenzyPossibleActions(player, roundManager.getTurnManager(), gameInstance.isBotPresent());
             if (player.getPlayerBoard().getDamageCount() == 0) {
                 try {
                     player.getPlayerBoard().flipBoard();
@@ -991,30 +1246,17 @@ public class GameManager implements TimerRunListener, Serializable {
     private void distributePoints(Player deathPlayer) {
         PlayerBoard deathsPlayerBoard = deathPlayer.getPlayerBoard();
         Integer[] boardPoints = deathsPlayerBoard.getBoardPoints();
-        List<String> pointsReceivers = deathsPlayerBoard.getDamages().stream().distinct().collect(Collectors.toList());
-        Map<String, DamageCountWrapper> receivers = new HashMap<>();
+        List<String> orderedReceivers = deathsPlayerBoard.getDamageRanking();
         Player firstBlooder;
 
-        for (int i = 0; i < pointsReceivers.size(); ++i) {
-            int frequency = Collections.frequency(deathsPlayerBoard.getDamages(), pointsReceivers.get(i));
-            DamageCountWrapper damageCountWrapper = new DamageCountWrapper(i, frequency);
-            receivers.put(pointsReceivers.get(i), damageCountWrapper);
-        }
-
-        Map<String, DamageCountWrapper> orderedReceivers = receivers
-                .entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByValue())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
-
         if (!deathsPlayerBoard.isBoardFlipped()) {     // first blood assignment
-            firstBlooder = gameInstance.getUserPlayerByUsername(deathsPlayerBoard.getDamages().get(0));
+            firstBlooder = gameInstance.getUserPlayerByUsername(deathsPlayerBoard.getDamageDealer(0));
             firstBlooder.addPoints(1);
         }
 
         int pointsIndex = 0;
-        for (Map.Entry entry : orderedReceivers.entrySet()) {
-            Player tempReceiver = gameInstance.getUserPlayerByUsername((String) entry.getKey());
+        for (String receiver : orderedReceivers) {
+            Player tempReceiver = gameInstance.getUserPlayerByUsername(receiver);
             tempReceiver.addPoints(boardPoints[pointsIndex]);
             ++pointsIndex;
         }
@@ -1029,9 +1271,9 @@ public class GameManager implements TimerRunListener, Serializable {
     private void moveSkull(Player deathPlayer) {
         int points;
         KillShot killShot;
-        String killer = deathPlayer.getPlayerBoard().getDamages().get(10);
+        String killer = deathPlayer.getPlayerBoard().getDamageDealer(10);
 
-        if (deathPlayer.getPlayerBoard().getDamages().size() == 12) {
+        if (deathPlayer.getPlayerBoard().getDamageCount() == 12) {
             points = 2;
         } else {
             points = 1;
@@ -1250,15 +1492,11 @@ public class GameManager implements TimerRunListener, Serializable {
 
     /**
      * This method sends to all clients the new state of the {@link Game Game}, contained in the
-     * {@link model.GameSerialized GameSerialized}. This method is used to send an update of the
-     * {@link Game Game} everytime that a normal action is completed
+     * {@link model.GameSerialized GameSerialized} or in the changes to the one previously sent to them.
+     * This method is used to send an update of the {@link Game Game} everytime that a normal action is completed
      */
     public void sendPrivateUpdates() {
-        List<UserPlayer> players = gameInstance.getPlayers();
-
-        for (UserPlayer player : players) {
-            server.sendMessage(player.getUsername(), new GameStateMessage(player.getUsername(), roundManager.getTurnManager().getTurnOwner().getUsername(), false));
-        }
+        sendUpdates(false);
     }
 
     /**
@@ -1266,10 +1504,28 @@ public class GameManager implements TimerRunListener, Serializable {
      * assigned to a player that may use a TAGBACK GRENADE
      */
     void sendGrenadePrivateUpdates() {
-        List<UserPlayer> players = gameInstance.getPlayers();
+        sendUpdates(true);
+    }
 
-        for (UserPlayer player : players) {
-            server.sendMessage(player.getUsername(), new GameStateMessage(player.getUsername(), roundManager.getTurnManager().getTurnOwner().getUsername(), true));
+    /**
+     * Makes the next update sent to a player a full state of the {@link Game Game}, used when the updates queued for
+     * him have been dropped because he was too slow to receive them
+     *
+     * @param username the username of the player
+     */
+    public void resync(String username) {
+        stateTracker.resync(username);
+    }
+
+    private void sendUpdates(boolean grenadeUsage) {
+        if (!updatesEnabled || gameInstance.getPlayers().isEmpty()) {
+            return;
+        }
+
+        Map<String, Message> updates = stateTracker.updates(gameInstance, roundManager.getTurnManager().getTurnOwner().getUsername(), grenadeUsage);
+
+        for (Map.Entry<String, Message> update : updates.entrySet()) {
+            server.sendMessage(update.getKey(), update.getValue());
         }
     }
 
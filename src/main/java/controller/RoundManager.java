@@ -18,10 +18,10 @@ import model.cards.PowerupCard;
 import model.map.Square;
 import model.player.Bot;
 import model.player.Player;
+import model.player.PlayerBoard;
 import model.player.UserPlayer;
 import network.message.*;
 import utility.GameConstants;
-import utility.persistency.SaveGame;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -47,7 +47,7 @@ public class RoundManager {
      * @param gameManager the {@link GameManager GameManager} of the started {@link Game Game}
      */
     RoundManager(GameManager gameManager) {
-        this.gameInstance = Game.getInstance();
+        this.gameInstance = gameManager.getGameInstance();
         this.gameManager = gameManager;
     }
 
@@ -78,7 +78,7 @@ public class RoundManager {
         if (gameInstance.getState() == GameState.NORMAL && turnManager.getTurnOwner().getPlayerState() == PossiblePlayerState.FIRST_SPAWN) {
             ActionManager.setStartingPossibleActions(turnManager.getTurnOwner(), gameInstance.isBotPresent());
         } else if (gameInstance.getState() == GameState.NORMAL && turnManager.getTurnOwner().getPlayerState() == PossiblePlayerState.PLAYING) {
-            ActionManager.setPossibleActions(turnManager.getTurnOwner());
+            ActionManager.setPossibleActions(turnManager.getTurnOwner(), gameInstance.isBotPresent());
         }
     }
 
@@ -258,10 +258,7 @@ public class RoundManager {
         }
 
         // before marking I save the marks of each player as If a multiple action does not work I can set them back
-        List<List<String>> oldMarks = gameInstance.getPlayers().stream().map(player -> player.getPlayerBoard().getMarks()).collect(Collectors.toList());
-        if (gameInstance.isBotPresent()) {
-            oldMarks.add(gameInstance.getBot().getPlayerBoard().getMarks());
-        }
+        List<PlayerBoard> oldMarks = savePlayerBoards();
 
         for (Integer index : granadeMessage.getPowerup()) {
             tempResponse = grenadeUsage(index, granadeMessage);
@@ -369,10 +366,7 @@ public class RoundManager {
         }
 
         // before going to use a SCOPE I save the damages on each player's board as I can reset them back in case one scope does not work
-        List<List<String>> oldDamage = gameInstance.getPlayers().stream().map(player -> player.getPlayerBoard().getDamages()).collect(Collectors.toList());
-        if (gameInstance.isBotPresent()) {
-            oldDamage.add(gameInstance.getBot().getPlayerBoard().getDamages());
-        }
+        List<PlayerBoard> oldDamage = savePlayerBoards();
 
         switch (sizeDifference) {
             case 0:
@@ -448,12 +442,32 @@ public class RoundManager {
         }
     }
 
+    /**
+     * Method that copies the {@link PlayerBoard PlayerBoard} of each player, the one of the {@link Bot Bot} being the
+     * last one, so that they can be set back if a multiple action does not work
+     *
+     * @return the copies of the boards
+     */
+    private List<PlayerBoard> savePlayerBoards() {
+        List<PlayerBoard> savedBoards = new ArrayList<>();
+
+        for (UserPlayer player : gameInstance.getPlayers()) {
+            savedBoards.add(new PlayerBoard(player.getPlayerBoard()));
+        }
+
+        if (gameInstance.isBotPresent()) {
+            savedBoards.add(new PlayerBoard(gameInstance.getBot().getPlayerBoard()));
+        }
+
+        return savedBoards;
+    }
+
     /**
      * Method that sets back the damages of each player if a multiple action did not work
      *
-     * @param oldDamage the List of ArrayLists of Strings containing the damages
+     * @param oldDamage the List of the copies of the boards containing the damages
      */
-    private void resetDamage(List<List<String>> oldDamage) {
+    private void resetDamage(List<PlayerBoard> oldDamage) {
         if (oldDamage.size() > gameInstance.getPlayers().size()) {
             gameInstance.getBot().getPlayerBoard().setDamages(oldDamage.get(oldDamage.size() - 1));
             oldDamage.remove(oldDamage.size() - 1);
@@ -467,9 +481,9 @@ public class RoundManager {
     /**
      * Method that sets back the damages of each player if a multiple action did not work
      *
-     * @param oldMarks the List of ArrayLists of Strings containing the marks
+     * @param oldMarks the List of the copies of the boards containing the marks
      */
-    private void resetMarks(List<List<String>> oldMarks) {
+    private void resetMarks(List<PlayerBoard> oldMarks) {
         if (oldMarks.size() > gameInstance.getPlayers().size()) {
             gameInstance.getBot().getPlayerBoard().setMarks(oldMarks.get(oldMarks.size() - 1));
             oldMarks.remove(oldMarks.size() - 1);
@@ -1174,7 +1188,7 @@ public class RoundManager {
         }
 
         // then I reset the missing cards on the board
-        gameInstance.getGameMap().addMissingCards();
+        gameInstance.getGameMap().addMissingCards(gameInstance);
 
         if (arrivingState == PossibleGameState.PASS_NORMAL_TURN) {
             gameManager.changeState(PossibleGameState.GAME_STARTED);
@@ -1184,11 +1198,11 @@ public class RoundManager {
             return buildPositiveResponse("Reload action done and turn passed");
         } else if (arrivingState == PossibleGameState.PASS_FRENZY_TURN) {
             gameManager.changeState(PossibleGameState.FINAL_FRENZY);
-            SaveGame.saveGame(gameManager);
+            gameManager.saveGame();
             return new Response("Turn Passed and Frenzy Starting", MessageStatus.OK);
         } else if (arrivingState == PossibleGameState.PASS_NORMAL_BOT_TURN) {
             gameManager.changeState(PossibleGameState.GAME_STARTED);
-            SaveGame.saveGame(gameManager);
+            gameManager.saveGame();
             return new Response("Turn Passed after bot action", MessageStatus.OK);
         } else {
             throw new InvalidGameStateException();
@@ -1219,14 +1233,15 @@ public class RoundManager {
      * @param spawnTerminator if true the {@link Bot Bot} hasn't spawned yet
      */
     void handleRandomSpawn(boolean spawnPlayer, boolean spawnTerminator) {
-        int randomIndex = Game.rand.nextInt(1);
+        SplittableRandom random = gameInstance.nextRandom();
+        int randomIndex = random.nextInt(getTurnManager().getTurnOwner().getPowerups().length);
 
         PowerupCard spawningPowerup = getTurnManager().getTurnOwner().getPowerups()[randomIndex];
         RoomColor spawnColor = null;
 
         if (spawnTerminator && getTurnManager().getTurnOwner().getPossibleActions().contains(PossibleAction.SPAWN_BOT)) {
             try {
-                gameInstance.spawnTerminator(gameInstance.getGameMap().getSpawnSquare(RoomColor.getRandomSpawnColor()));
+                gameInstance.spawnTerminator(gameInstance.getGameMap().getSpawnSquare(RoomColor.getRandomSpawnColor(random)));
             } catch (InvalidSpawnColorException e) {
                 // never reached random color is always a correct color
             }
@@ -1267,7 +1282,7 @@ public class RoundManager {
     private PowerupCard drawPowerup() {
         PowerupCard drawnPowerup = (PowerupCard) gameInstance.getPowerupCardsDeck().draw();
         if(drawnPowerup == null) {
-            gameInstance.getPowerupCardsDeck().flush();
+            gameInstance.getPowerupCardsDeck().shuffle(gameInstance.nextRandom());
             drawnPowerup = (PowerupCard) gameInstance.getPowerupCardsDeck().draw();
         }
 
@@ -1285,7 +1300,7 @@ public class RoundManager {
      */
     private Response buildPositiveResponse(String reason) {
         gameManager.sendPrivateUpdates();
-        SaveGame.saveGame(gameManager);
+        gameManager.saveGame();
         return new Response(reason, MessageStatus.OK);
     }
 
@@ -1299,7 +1314,7 @@ public class RoundManager {
      */
     private Response buildGrenadePositiveResponse(String reason) {
         gameManager.sendGrenadePrivateUpdates();
-        SaveGame.saveGame(gameManager);
+        gameManager.saveGame();
         return new Response(reason, MessageStatus.OK);
     }
 
@@ -1311,7 +1326,7 @@ public class RoundManager {
      */
     private Response buildScopePositiveResponse() {
         gameManager.sendPrivateUpdates();
-        SaveGame.saveGame(gameManager);
+        gameManager.saveGame();
         return new Response("Shoot Action done, shooter can use a Scope", MessageStatus.NEED_PLAYER_ACTION);
     }
 
@@ -1,10 +1,14 @@
 package controller;
 
 import enumerations.PossibleGameState;
+import model.Game;
 import model.player.Player;
 import model.player.UserPlayer;
 import utility.GameConstants;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -85,6 +89,122 @@ public class TurnManager implements Serializable {
         this.turnCount = other.turnCount;
     }
 
+    /**
+     * Creates an empty Instance of {@link TurnManager TurnManager} to be filled by {@link #readState(DataInput, Game) readState}
+     *
+     * @param lastRoundPlayer the last {@link UserPlayer UserPlayer} of each round
+     */
+    private TurnManager(UserPlayer lastRoundPlayer) {
+        this.lastRoundPlayer = lastRoundPlayer;
+    }
+
+    /**
+     * Writes the state of the {@link TurnManager TurnManager} in the save format, the {@link Player Players} are
+     * written as their index in the {@link Game Game}, the {@link model.player.Bot Bot} as the number of players
+     *
+     * @param out  the destination of the state
+     * @param game the {@link Game Game} of the players
+     * @throws IOException if the state can not be written
+     */
+    void writeState(DataOutput out, Game game) throws IOException {
+        out.writeByte(indexOf(game, lastRoundPlayer));
+        out.writeByte(indexOf(game, turnOwner));
+        out.writeByte(indexOf(game, lastPlayer));
+        out.writeByte(indexOf(game, frenzyActivator));
+        writePlayers(out, game, players);
+        writePlayers(out, game, damagedPlayers);
+        writePlayers(out, game, deathPlayers);
+        writePlayers(out, game, afterFrenzy);
+        writePlayers(out, game, beforeFrenzy);
+        out.writeByte(indexOf(game, markedByGrenadePlayer));
+
+        out.writeBoolean(markingTerminator);
+        out.writeBoolean(firstTurn);
+        out.writeBoolean(secondAction);
+        out.writeByte(arrivingGameState == null ? -1 : arrivingGameState.ordinal());
+        out.writeInt(count);
+        out.writeInt(turnCount);
+    }
+
+    /**
+     * Reads a {@link TurnManager TurnManager} written by {@link #writeState(DataOutput, Game) writeState}
+     *
+     * @param in   the source of the state
+     * @param game the {@link Game Game} of the players, already read
+     * @return the {@link TurnManager TurnManager}
+     * @throws IOException if the state can not be read
+     */
+    static TurnManager readState(DataInput in, Game game) throws IOException {
+        TurnManager turnManager = new TurnManager((UserPlayer) playerAt(game, in.readByte()));
+
+        turnManager.turnOwner = (UserPlayer) playerAt(game, in.readByte());
+        turnManager.lastPlayer = (UserPlayer) playerAt(game, in.readByte());
+        turnManager.frenzyActivator = playerAt(game, in.readByte());
+        turnManager.players = readPlayers(in, game);
+        turnManager.damagedPlayers = readPlayers(in, game);
+        turnManager.deathPlayers = readPlayers(in, game);
+        turnManager.afterFrenzy = readPlayers(in, game);
+        turnManager.beforeFrenzy = readPlayers(in, game);
+        turnManager.markedByGrenadePlayer = (UserPlayer) playerAt(game, in.readByte());
+
+        turnManager.markingTerminator = in.readBoolean();
+        turnManager.firstTurn = in.readBoolean();
+        turnManager.secondAction = in.readBoolean();
+
+        int arriving = in.readByte();
+        turnManager.arrivingGameState = arriving < 0 ? null : PossibleGameState.values()[arriving];
+        turnManager.count = in.readInt();
+        turnManager.turnCount = in.readInt();
+
+        return turnManager;
+    }
+
+    /**
+     * Writes a list of players, a {@code null} list as a negative size
+     */
+    private static void writePlayers(DataOutput out, Game game, List<? extends Player> list) throws IOException {
+        out.writeByte(list == null ? -1 : list.size());
+
+        if (list != null) {
+            for (Player player : list) {
+                out.writeByte(indexOf(game, player));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Player> List<T> readPlayers(DataInput in, Game game) throws IOException {
+        int size = in.readByte();
+
+        if (size < 0) {
+            return null;
+        }
+
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            list.add((T) playerAt(game, in.readByte()));
+        }
+
+        return list;
+    }
+
+    private static int indexOf(Game game, Player player) {
+        if (player == null) {
+            return -1;
+        }
+
+        int index = game.getPlayers().indexOf(player);
+        return index < 0 ? game.getPlayers().size() : index;
+    }
+
+    private static Player playerAt(Game game, int index) {
+        if (index < 0) {
+            return null;
+        }
+
+        return index < game.getPlayers().size() ? game.getPlayers().get(index) : game.getBot();
+    }
+
     /**
      * @return the {@link UserPlayer UserPlayer} owning the Turn
      */
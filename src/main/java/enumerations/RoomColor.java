@@ -2,7 +2,7 @@ package enumerations;
 
 import exceptions.game.InexistentColorException;
 
-import static model.Game.rand;
+import java.util.SplittableRandom;
 
 /**
  * Represents all the possible RoomColors that can appear on the Map
@@ -31,11 +31,12 @@ public enum RoomColor {
     /**
      * Utility method used to randomly obtain a RoomColor when a Player needs to respawn but he is disconnected
      *
+     * @param random the generator of the game
      * @return the randomly picked RoomColor
      */
-    public static RoomColor getRandomSpawnColor() {
+    public static RoomColor getRandomSpawnColor(SplittableRandom random) {
 
-        switch (rand.nextInt(2)) {
+        switch (random.nextInt(3)) {
             case 0:
                 return RED;
             case 1:
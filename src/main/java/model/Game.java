@@ -3,12 +3,20 @@ package model;
 import controller.ActionManager;
 import enumerations.PlayerColor;
 import enumerations.GameState;
+import enumerations.PossibleAction;
+import enumerations.PossiblePlayerState;
 import enumerations.SquareType;
 import exceptions.game.*;
 import exceptions.map.InvalidPlayerPositionException;
 import model.cards.AmmoTile;
+import model.cards.Card;
 import model.cards.Deck;
+import model.cards.PowerupCard;
 import model.cards.WeaponCard;
+import model.cards.weaponstates.ChargedWeapon;
+import model.cards.weaponstates.SemiChargedWeapon;
+import model.cards.weaponstates.UnchargedWeapon;
+import model.cards.weaponstates.WeaponState;
 import model.map.CardSquare;
 import model.map.GameMap;
 import model.map.SpawnSquare;
@@ -18,20 +26,24 @@ import utility.AmmoTileParser;
 import utility.GameConstants;
 import utility.PowerupParser;
 import utility.WeaponParser;
-import utility.persistency.NotTransientPlayer;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 public class Game implements Serializable {
-    public static final Random rand = new Random();
     private static final int MAX_KILLSHOT = 8;
+    private static final long SEED_GAMMA = 0xBF58476D1CE4E5B9L;
     private static final long serialVersionUID = -7643292361816314018L;
 
-    private static Game instance;
+    private static final ThreadLocal<Game> boundInstance = new ThreadLocal<>();
 
     private GameState currentState;
     private boolean gameStarted;
@@ -50,11 +62,26 @@ public class Game implements Serializable {
     private Deck ammoTileDeck;
 
     private GameMap gameMap;
+    private transient OccupancyIndex occupancy;
+
+    private long seed;
+    private long randomCount;
+
+    /**
+     * Initializes a new Game instance with a random seed, every match hosted by the server owns its own one
+     */
+    public Game() {
+        this(new SplittableRandom().nextLong());
+    }
 
     /**
-     * Initializes singleton Game instance
+     * Initializes a new Game instance whose random choices are all derived from the seed, so that the same messages
+     * played on two games with the same seed lead to the same match
+     *
+     * @param seed the seed of the game
      */
-    private Game() {
+    public Game(long seed) {
+        this.seed = seed;
         init();
     }
 
@@ -62,6 +89,7 @@ public class Game implements Serializable {
      * Game initialization
      */
     public void init() {
+        resetOccupancy();
         players = new ArrayList<>();
         bot = null;
         this.currentState = GameState.NORMAL;
@@ -70,6 +98,7 @@ public class Game implements Serializable {
         botPresent = false;
         gameStarted = false;
         killShotNum = 0;
+        randomCount = 0;
 
         weaponsCardsDeck = null;
         powerupCardsDeck = null;
@@ -78,70 +107,387 @@ public class Game implements Serializable {
     }
 
     /**
-     * Game load initialization
-     */
-    public void loadGame(Game savedGame, List<NotTransientPlayer> notTransientPlayers) {
-        currentState = savedGame.currentState;
-        gameStarted = savedGame.gameStarted;
-        players = savedGame.players;
-        loadTransientPlayers(notTransientPlayers);
-        botPresent = savedGame.botPresent;
-        if(botPresent) {
-            bot = savedGame.bot;
-            loadTransientBot(notTransientPlayers);
+     * Writes the mutable state of the game in the save format, see {@link utility.persistency.SaveFormat SaveFormat}.
+     * Cards are written as their ids, as their definitions are parsed again when the game is read
+     *
+     * @param out the destination of the state
+     * @throws IOException if the state can not be written
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeLong(randomCount);
+        out.writeByte(currentState.ordinal());
+        out.writeBoolean(gameStarted);
+        out.writeByte(killShotNum);
+        out.writeBoolean(botPresent);
+
+        out.writeByte(players.size());
+        for (UserPlayer player : players) {
+            writePlayer(out, player);
         }
-        killShotNum = savedGame.killShotNum;
-        killShotsTrack = savedGame.killShotsTrack;
-        finalFrenzyKillShots = savedGame.finalFrenzyKillShots;
 
-        weaponsCardsDeck = savedGame.weaponsCardsDeck;
-        powerupCardsDeck = savedGame.powerupCardsDeck;
-        ammoTileDeck = savedGame.ammoTileDeck;
+        out.writeBoolean(bot != null);
+        if (bot != null) {
+            writePlayer(out, bot);
+        }
 
-        gameMap = savedGame.gameMap;
+        for (KillShot killShot : killShotsTrack) {
+            writeKillShot(out, killShot);
+        }
+
+        out.writeByte(finalFrenzyKillShots.size());
+        for (KillShot killShot : finalFrenzyKillShots) {
+            writeKillShot(out, killShot);
+        }
+
+        out.writeBoolean(weaponsCardsDeck != null);
+        if (weaponsCardsDeck != null) {
+            weaponsCardsDeck.writeState(out);
+            powerupCardsDeck.writeState(out);
+            ammoTileDeck.writeState(out);
+        }
+
+        out.writeByte(gameMap == null ? 0 : gameMap.getMapID());
+        if (gameMap != null) {
+            writeMapCards(out);
+        }
     }
 
     /**
-     * Method that reloads all the transient attributes of each player in the saved {@link Game Game}
+     * Replaces the state of the game with the one written by {@link #writeState(DataOutput) writeState}
      *
-     * @param notTransientPlayers ArrayList of objects containing all the needed information to reset each {@link UserPlayer player} old state
+     * @param in the source of the state
+     * @throws IOException if the state can not be read
      */
-    private void loadTransientPlayers(List<NotTransientPlayer> notTransientPlayers) {
-        for(UserPlayer player : players) {
-            for(NotTransientPlayer notTransientPlayer : notTransientPlayers) {
-                if(player.getUsername().equals(notTransientPlayer.getUserName())) {
-                    player.setPoints(notTransientPlayer.getPoints());
-                    player.setPossibleActions(notTransientPlayer.getPossibleActions());
-                    player.setPlayerState(notTransientPlayer.getPlayerState());
-                    player.setPowerups(notTransientPlayer.getPowerups());
-                    player.setSpawningCard(notTransientPlayer.getSpawningCard());
+    public void readState(DataInput in) throws IOException {
+        Card[] weapons = cardsById(WeaponParser.parseCards());
+        Card[] powerups = cardsById(PowerupParser.parseCards());
+        Card[] ammoTiles = cardsById(AmmoTileParser.parseCards());
+
+        init();
+        seed = in.readLong();
+        randomCount = in.readLong();
+        currentState = GameState.values()[in.readByte()];
+        gameStarted = in.readBoolean();
+        killShotNum = in.readByte();
+        botPresent = in.readBoolean();
+
+        int playersNumber = in.readByte();
+        for (int i = 0; i < playersNumber; ++i) {
+            players.add((UserPlayer) readPlayer(in, weapons, powerups));
+        }
+
+        if (in.readBoolean()) {
+            bot = readPlayer(in, weapons, powerups);
+        }
+
+        for (int i = 0; i < MAX_KILLSHOT; ++i) {
+            killShotsTrack[i] = readKillShot(in);
+        }
+
+        int frenzyKillShots = in.readByte();
+        for (int i = 0; i < frenzyKillShots; ++i) {
+            finalFrenzyKillShots.add(readKillShot(in));
+        }
+
+        if (in.readBoolean()) {
+            weaponsCardsDeck = Deck.readState(in, false, weapons);
+            powerupCardsDeck = Deck.readState(in, true, powerups);
+            ammoTileDeck = Deck.readState(in, true, ammoTiles);
+        }
+
+        int mapId = in.readByte();
+        if (mapId != 0) {
+            gameMap = new GameMap(mapId);
+            readMapCards(in, weapons, ammoTiles);
+        }
+
+        resetOccupancy();
+    }
+
+    /**
+     * Writes the ammo tile of every TILE square, if it has one, and the three weapon slots of every SPAWN square
+     */
+    private void writeMapCards(DataOutput out) throws IOException {
+        for (int i = 0; i < GameMap.MAX_ROWS; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS; ++j) {
+                Square square = gameMap.getSquare(i, j);
+
+                if (square instanceof CardSquare) {
+                    CardSquare cardSquare = (CardSquare) square;
+
+                    out.writeBoolean(cardSquare.isAmmoTilePresent());
+                    if (cardSquare.isAmmoTilePresent()) {
+                        writeCardId(out, cardSquare.getAmmoTile());
+                    }
+                } else if (square instanceof SpawnSquare) {
+                    for (WeaponCard weapon : ((SpawnSquare) square).getWeapons()) {
+                        writeCardId(out, weapon);
+                    }
                 }
             }
         }
     }
 
+    private void readMapCards(DataInput in, Card[] weapons, Card[] ammoTiles) throws IOException {
+        for (int i = 0; i < GameMap.MAX_ROWS; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS; ++j) {
+                Square square = gameMap.getSquare(i, j);
+
+                if (square instanceof CardSquare && in.readBoolean()) {
+                    ((CardSquare) square).setAmmoTile((AmmoTile) readCard(in, ammoTiles));
+                } else if (square instanceof SpawnSquare) {
+                    WeaponCard[] slots = ((SpawnSquare) square).getWeapons();
+
+                    for (int k = 0; k < slots.length; ++k) {
+                        slots[k] = (WeaponCard) readCard(in, weapons);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writePlayer(DataOutput out, Player player) throws IOException {
+        out.writeUTF(player.getUsername());
+        out.writeByte(player.getColor() == null ? -1 : player.getColor().ordinal());
+        writePosition(out, player.getPosition());
+        out.writeShort(player.getPoints());
+        player.getPlayerBoard().writeState(out);
+
+        if (player instanceof Bot) {
+            out.writeBoolean(((Bot) player).isSpawnTurn());
+            return;
+        }
+
+        UserPlayer userPlayer = (UserPlayer) player;
+        Set<PossibleAction> possibleActions = userPlayer.getPossibleActions();
+        int actions = 0;
+
+        if (possibleActions != null) {
+            for (PossibleAction action : possibleActions) {
+                actions |= 1 << action.ordinal();
+            }
+        }
+
+        out.writeBoolean(userPlayer.isFirstPlayer());
+        out.writeByte(userPlayer.getPlayerState() == null ? -1 : userPlayer.getPlayerState().ordinal());
+        out.writeBoolean(possibleActions != null);
+        out.writeInt(actions);
+
+        out.writeByte(userPlayer.getWeapons().length);
+        for (WeaponCard weapon : userPlayer.getWeapons()) {
+            out.writeShort(weapon.getId());
+            out.writeByte(weapon.status());
+        }
+
+        out.writeByte(userPlayer.getPowerups().length);
+        for (PowerupCard powerup : userPlayer.getPowerups()) {
+            out.writeShort(powerup.getId());
+        }
+
+        writeCardId(out, userPlayer.getSpawningCard());
+    }
+
+    private static Player readPlayer(DataInput in, Card[] weapons, Card[] powerups) throws IOException {
+        String username = in.readUTF();
+        int color = in.readByte();
+        PlayerPosition position = readPosition(in);
+        int points = in.readShort();
+        PlayerBoard playerBoard = PlayerBoard.readState(in);
+        PlayerColor playerColor = color < 0 ? null : PlayerColor.values()[color];
+
+        if (username.equals(GameConstants.BOT_NAME)) {
+            Bot readBot = new Bot(playerColor, playerBoard);
+
+            readBot.setPosition(position);
+            readBot.setPoints(points);
+            readBot.setSpawnTurn(in.readBoolean());
+            return readBot;
+        }
+
+        UserPlayer player = new UserPlayer(username, playerColor, playerBoard);
+        player.setPosition(position);
+        player.setPoints(points);
+
+        if (in.readBoolean()) {
+            player.setFirstPlayer();
+        }
+
+        int playerState = in.readByte();
+        player.setPlayerState(playerState < 0 ? null : PossiblePlayerState.values()[playerState]);
+
+        boolean hasActions = in.readBoolean();
+        int actions = in.readInt();
+        EnumSet<PossibleAction> possibleActions = EnumSet.noneOf(PossibleAction.class);
+
+        for (PossibleAction action : PossibleAction.values()) {
+            if ((actions & 1 << action.ordinal()) != 0) {
+                possibleActions.add(action);
+            }
+        }
+
+        player.setPossibleActions(hasActions ? possibleActions : null);
+
+        List<WeaponCard> playerWeapons = new ArrayList<>();
+        int weaponsNumber = in.readByte();
+
+        for (int i = 0; i < weaponsNumber; ++i) {
+            WeaponCard weapon = (WeaponCard) weapons[in.readShort()];
+            weapon.setStatus(weaponState(in.readByte()));
+            playerWeapons.add(weapon);
+        }
+
+        List<PowerupCard> playerPowerups = new ArrayList<>();
+        int powerupsNumber = in.readByte();
+
+        for (int i = 0; i < powerupsNumber; ++i) {
+            playerPowerups.add((PowerupCard) powerups[in.readShort()]);
+        }
+
+        player.setWeapons(playerWeapons);
+        player.setPowerups(playerPowerups);
+        player.setSpawningCard((PowerupCard) readCard(in, powerups));
+
+        return player;
+    }
+
+    private static WeaponState weaponState(int status) {
+        switch (status) {
+            case WeaponCard.CHARGED:
+                return new ChargedWeapon();
+            case WeaponCard.UNCHARGED:
+                return new UnchargedWeapon();
+            default:
+                return new SemiChargedWeapon();
+        }
+    }
+
+    private static void writeKillShot(DataOutput out, KillShot killShot) throws IOException {
+        out.writeBoolean(killShot != null);
+        if (killShot != null) {
+            out.writeUTF(killShot.getKiller());
+            out.writeByte(killShot.getPoints());
+        }
+    }
+
+    private static KillShot readKillShot(DataInput in) throws IOException {
+        return in.readBoolean() ? new KillShot(in.readUTF(), in.readByte()) : null;
+    }
+
+    private static void writePosition(DataOutput out, PlayerPosition position) throws IOException {
+        out.writeByte(position == null ? -1 : position.getRow());
+        out.writeByte(position == null ? -1 : position.getColumn());
+    }
+
+    private static PlayerPosition readPosition(DataInput in) throws IOException {
+        int row = in.readByte();
+        int column = in.readByte();
+
+        return row < 0 ? null : new PlayerPosition(row, column);
+    }
+
+    private static void writeCardId(DataOutput out, Card card) throws IOException {
+        out.writeShort(card == null ? -1 : card.getId());
+    }
+
+    private static Card readCard(DataInput in, Card[] cardsById) throws IOException {
+        int id = in.readShort();
+        return id < 0 ? null : cardsById[id];
+    }
+
     /**
-     * Method that reloads the only transient attribute of the {@link Bot Terminator} that are his points
-     *
-     * @param notTransientPlayers ArrayList of objects containing also the information for the {@link Bot Terminator}'s old state
+     * @return the cards of a newly parsed deck indexed by id
      */
-    private void loadTransientBot(List<NotTransientPlayer> notTransientPlayers) {
-        for(NotTransientPlayer notTransientPlayer : notTransientPlayers) {
-            if(notTransientPlayer.getUserName().equals(GameConstants.BOT_NAME)) {
-                bot.setPoints(notTransientPlayer.getPoints());
-            }
+    private static Card[] cardsById(Deck deck) {
+        List<Card> cards = deck.toList();
+        Card[] cardsById = new Card[cards.size()];
+
+        for (Card card : cards) {
+            cardsById[card.getId()] = card;
         }
+
+        return cardsById;
     }
 
     /**
-     * The singleton instance of the game returns, if it has not been created it allocates it as well
+     * @return the seed of the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the number of generators given by {@link #nextRandom() nextRandom} since the game was initialized
+     */
+    public long getRandomCount() {
+        return randomCount;
+    }
+
+    /**
+     * Every random choice of the game gets its own generator, derived from the seed and the number of generators
+     * already given: the state of the randomness is just the count, which is saved with the game, so a loaded game
+     * goes on making the same choices
+     *
+     * @return a new generator for a single random choice
+     */
+    public SplittableRandom nextRandom() {
+        return new SplittableRandom(seed + (++randomCount) * SEED_GAMMA);
+    }
+
+    /**
+     * Returns the game the current thread is working on. This is the instance bound with {@link #bind(Game) bind}
+     * by the controller of the match
      *
-     * @return the singleton instance
+     * @return the game bound to the current thread
+     * @throws IllegalStateException if no game is bound to the current thread
      */
     public static Game getInstance() {
-        if (instance == null)
-            instance = new Game();
-        return instance;
+        Game bound = boundInstance.get();
+
+        if (bound == null) {
+            throw new IllegalStateException("No game bound to the current thread");
+        }
+
+        return bound;
+    }
+
+    /**
+     * Binds a game to the current thread, so that the model reached from this thread works on it.
+     * The returned game must be passed back to this method once the work on the bound game is done
+     *
+     * @param game the game to bind, {@code null} to unbind the current one
+     * @return the game previously bound to the current thread, {@code null} if there was none
+     */
+    public static Game bind(Game game) {
+        Game previous = boundInstance.get();
+
+        if (game == null) {
+            boundInstance.remove();
+        } else {
+            boundInstance.set(game);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Wraps a task so that it works on a game wherever it is run, like the tasks scheduled by a match on the
+     * {@link utility.TaskExecutor TaskExecutor}
+     *
+     * @param game the game to bind while the task runs
+     * @param task the task to wrap
+     * @return the task running with the game bound to its thread
+     */
+    public static Runnable bound(Game game, Runnable task) {
+        return () -> {
+            Game previous = bind(game);
+
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
     }
 
     public List<KillShot> getFinalFrenzyKillShots() {
@@ -187,6 +533,7 @@ public class Game implements Serializable {
             throw new InvalidMapNumberException();
         }
         this.gameMap = new GameMap(mapType);
+        resetOccupancy();
     }
 
     public void setKillShotNum(int killShotNum) throws InvalidKillshotNumberException {
@@ -217,6 +564,7 @@ public class Game implements Serializable {
         if (player == null) throw new NullPointerException("Player cannot be null");
         if (players.size() >= 5 || (players.size() >= 4 && botPresent)) throw new MaxPlayerException();
         players.add(player);
+        resetOccupancy();
     }
 
     /**
@@ -265,7 +613,7 @@ public class Game implements Serializable {
      * Picks the first player and reorders the players list
      */
     private void pickFirstPlayer() {
-        int first = (new Random()).nextInt(players.size());
+        int first = nextRandom().nextInt(players.size());
         players.get(first).setFirstPlayer();
 
         List<UserPlayer> newPlayerList = new ArrayList<>();
@@ -279,6 +627,7 @@ public class Game implements Serializable {
         }
 
         players = newPlayerList;
+        resetOccupancy();
     }
 
     /**
@@ -316,12 +665,16 @@ public class Game implements Serializable {
     }
 
     /**
-     * Initializes the three decks: {@code weaponsCardDeck}, {@code ammoTileDeck} and {@code powerupCardsDeck}
+     * Initializes and shuffles the three decks: {@code weaponsCardDeck}, {@code ammoTileDeck} and {@code powerupCardsDeck}
      */
     public void initializeDecks() {
         this.weaponsCardsDeck = WeaponParser.parseCards();
         this.ammoTileDeck = AmmoTileParser.parseCards();
         this.powerupCardsDeck = PowerupParser.parseCards();
+
+        weaponsCardsDeck.shuffle(nextRandom());
+        ammoTileDeck.shuffle(nextRandom());
+        powerupCardsDeck.shuffle(nextRandom());
     }
 
     public void stopGame() {
@@ -379,6 +732,7 @@ public class Game implements Serializable {
         if (players.size() >= 5 && terminatorPresent)
             throw new MaxPlayerException("Can not add Terminator with 5 players");
         this.botPresent = terminatorPresent;
+        resetOccupancy();
     }
 
     /**
@@ -386,6 +740,7 @@ public class Game implements Serializable {
      */
     public void buildTerminator() {
         this.bot = new Bot(firstColorUnused(), new PlayerBoard());
+        resetOccupancy();
     }
 
     /**
@@ -480,6 +835,32 @@ public class Game implements Serializable {
         return gameMap;
     }
 
+    /**
+     * Returns the index of the squares and rooms occupied by the players and the bot of the game. The index is built
+     * on the first query after the players, the bot or the map change and then kept updated as the players move
+     *
+     * @param map the map the queries are made on
+     * @return the occupancy index of the game
+     */
+    public OccupancyIndex getOccupancy(GameMap map) {
+        OccupancyIndex index = occupancy;
+
+        if (index == null || !index.isOf(map)) {
+            resetOccupancy();
+            index = new OccupancyIndex(map, players, botPresent ? bot : null);
+            occupancy = index;
+        }
+
+        return index;
+    }
+
+    private void resetOccupancy() {
+        if (occupancy != null) {
+            occupancy.detach();
+            occupancy = null;
+        }
+    }
+
     /**
      * @return the List of players in the game
      */
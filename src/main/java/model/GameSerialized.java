@@ -1,10 +1,10 @@
 package model;
 
 import enumerations.GameState;
-import enumerations.PossibleAction;
 import model.cards.PowerupCard;
 import model.cards.WeaponCard;
 import model.map.GameMap;
+import model.map.Square;
 import model.player.KillShot;
 import model.player.Player;
 import model.player.Bot;
@@ -34,9 +34,35 @@ public class GameSerialized implements Serializable {
     private PowerupCard[] powerupCards;
     private PowerupCard spawningPowerup;
 
+    /**
+     * Creates an empty state, whose fields are set by the binary codec of the network messages
+     */
+    private GameSerialized() {
+        // the fields are set by the codec
+    }
+
     public GameSerialized(String userName) {
-        Game instance = Game.getInstance();
+        this(Game.getInstance(), userName);
+    }
+
+    /**
+     * Builds the serialized state of a specific {@link Game Game} as seen by one of its players
+     *
+     * @param instance the {@link Game Game} to serialize
+     * @param userName the username of the player receiving the state
+     */
+    public GameSerialized(Game instance, String userName) {
+        this(instance);
+        setSecretAttributes(new SecretAttributes(instance, userName));
+    }
 
+    /**
+     * Builds the part of the serialized state of a specific {@link Game Game} which is the same for every player,
+     * without the {@link SecretAttributes SecretAttributes}
+     *
+     * @param instance the {@link Game Game} to serialize
+     */
+    public GameSerialized(Game instance) {
         currentState = instance.getState();
 
         if (instance.getPlayers() != null) {
@@ -48,10 +74,8 @@ public class GameSerialized implements Serializable {
         botPresent = instance.isBotPresent();
         if (botPresent) {
             bot = (Bot) instance.getBot();
-            botActionDone = !((UserPlayer) Game.getInstance().getPlayerByName(userName)).getPossibleActions().contains(PossibleAction.BOT_ACTION);
-        } else {
-            botActionDone = true;
         }
+        botActionDone = true;
 
         killShotsTrack = instance.getKillShotsTrack() != null ? Arrays.copyOf(instance.getKillShotsTrack(), instance.getKillShotsTrack().length) : null;
         killShotNum = instance.getKillShotNum();
@@ -63,16 +87,77 @@ public class GameSerialized implements Serializable {
         }
 
         gameMap = new GameMap(instance.getGameMap());
-        setSecretAttributes(userName);
     }
 
-    private void setSecretAttributes(String userName) {
-        Player receivingPlayer = Game.getInstance().getUserPlayerByUsername(userName);
-        UserPlayer userPlayer = (UserPlayer) receivingPlayer;
+    /**
+     * Builds the serialized state as seen by a player adding his {@link SecretAttributes SecretAttributes} to the
+     * state shared by every player, which is not modified
+     *
+     * @param shared  the state shared by every player
+     * @param secrets the secret attributes of the receiving player
+     */
+    public GameSerialized(GameSerialized shared, SecretAttributes secrets) {
+        currentState = shared.currentState;
+        gameMap = shared.gameMap;
+
+        players = new ArrayList<>(shared.players);
+        bot = shared.bot;
+        botPresent = shared.botPresent;
+
+        killShotNum = shared.killShotNum;
+        killShotsTrack = shared.killShotsTrack;
+        finalFrenzyKillShots = new ArrayList<>(shared.finalFrenzyKillShots);
+
+        setSecretAttributes(secrets);
+    }
+
+    /**
+     * Builds the serialized state applying the changes received with a {@link GameStateDelta GameStateDelta} to the
+     * previous state, which is not modified. The {@link SecretAttributes SecretAttributes} are the previous ones
+     *
+     * @param previous the previous state received by the player
+     * @param delta    the changes to apply
+     */
+    public GameSerialized(GameSerialized previous, GameStateDelta delta) {
+        currentState = delta.getCurrentState();
+
+        players = new ArrayList<>(previous.players);
+        for (Map.Entry<Integer, UserPlayer> player : delta.getPlayers().entrySet()) {
+            players.set(player.getKey(), player.getValue());
+        }
+
+        botPresent = previous.botPresent;
+        bot = delta.isBotChanged() ? delta.getBot() : previous.bot;
+        botActionDone = previous.botActionDone;
+
+        killShotNum = delta.getKillShotNum();
+        if (delta.isKillShotsChanged()) {
+            killShotsTrack = delta.getKillShotsTrack();
+            finalFrenzyKillShots = new ArrayList<>(delta.getFinalFrenzyKillShots());
+        } else {
+            killShotsTrack = previous.killShotsTrack;
+            finalFrenzyKillShots = previous.finalFrenzyKillShots;
+        }
+
+        if (delta.getSquares().isEmpty()) {
+            gameMap = previous.gameMap;
+        } else {
+            gameMap = new GameMap(previous.gameMap);
+            for (Map.Entry<Integer, Square> square : delta.getSquares().entrySet()) {
+                gameMap.setSquare(square.getKey() / GameMap.MAX_COLUMNS, square.getKey() % GameMap.MAX_COLUMNS, square.getValue());
+            }
+        }
+
+        points = previous.points;
+        powerupCards = previous.powerupCards;
+        spawningPowerup = previous.spawningPowerup;
+    }
 
-        this.points = userPlayer.getPoints();
-        this.powerupCards = userPlayer.getPowerups();
-        this.spawningPowerup = userPlayer.getSpawningCard();
+    private void setSecretAttributes(SecretAttributes secrets) {
+        this.points = secrets.getPoints();
+        this.powerupCards = secrets.getPowerupCards();
+        this.spawningPowerup = secrets.getSpawningPowerup();
+        this.botActionDone = secrets.isBotActionDone();
     }
 
     public List<UserPlayer> getPlayers() {
@@ -0,0 +1,149 @@
+package model;
+
+import enumerations.GameState;
+import model.map.GameMap;
+import model.map.Square;
+import model.player.Bot;
+import model.player.KillShot;
+import model.player.UserPlayer;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * This class contains the changes of the part of a {@link GameSerialized GameSerialized} shared by every player with
+ * respect to the previous one received. The small attributes are always present, while players, bot, squares and kill
+ * shots are present only if they changed
+ */
+public class GameStateDelta implements Serializable {
+    private static final long serialVersionUID = -3528741019365573011L;
+
+    private GameState currentState;
+    private int killShotNum;
+
+    private boolean killShotsChanged;
+    private KillShot[] killShotsTrack;
+    private ArrayList<KillShot> finalFrenzyKillShots;
+
+    private boolean botChanged;
+    private Bot bot;
+
+    private HashMap<Integer, UserPlayer> players;
+    private HashMap<Integer, Square> squares;
+
+    /**
+     * Creates an empty delta, whose fields are set by the binary codec of the network messages
+     */
+    private GameStateDelta() {
+        // the fields are set by the codec
+    }
+
+    /**
+     * Builds a delta containing only the attributes of the {@link GameSerialized GameSerialized} that are always sent
+     *
+     * @param state the current state of the game
+     */
+    public GameStateDelta(GameSerialized state) {
+        currentState = state.getCurrentState();
+        killShotNum = state.getKillShotNum();
+
+        players = new HashMap<>();
+        squares = new HashMap<>();
+    }
+
+    /**
+     * Adds the kill shots to the delta
+     *
+     * @param state the current state of the game
+     */
+    public void addKillShots(GameSerialized state) {
+        killShotsChanged = true;
+        killShotsTrack = state.getKillShotsTrack();
+        finalFrenzyKillShots = new ArrayList<>(state.getFinalFrenzyKillShots());
+    }
+
+    /**
+     * Adds the bot to the delta
+     *
+     * @param bot the current bot
+     */
+    public void addBot(Bot bot) {
+        botChanged = true;
+        this.bot = bot;
+    }
+
+    /**
+     * Adds a player to the delta
+     *
+     * @param index  index of the player in the players list
+     * @param player the current player
+     */
+    public void addPlayer(int index, UserPlayer player) {
+        players.put(index, player);
+    }
+
+    /**
+     * Adds a square to the delta
+     *
+     * @param x      the X of the square
+     * @param y      the Y of the square
+     * @param square the current square
+     */
+    public void addSquare(int x, int y, Square square) {
+        squares.put(x * GameMap.MAX_COLUMNS + y, square);
+    }
+
+    /**
+     * @return {@code true} if no player, square, bot or kill shot changed, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return !killShotsChanged && !botChanged && players.isEmpty() && squares.isEmpty();
+    }
+
+    GameState getCurrentState() {
+        return currentState;
+    }
+
+    int getKillShotNum() {
+        return killShotNum;
+    }
+
+    boolean isKillShotsChanged() {
+        return killShotsChanged;
+    }
+
+    KillShot[] getKillShotsTrack() {
+        return killShotsTrack;
+    }
+
+    List<KillShot> getFinalFrenzyKillShots() {
+        return finalFrenzyKillShots;
+    }
+
+    boolean isBotChanged() {
+        return botChanged;
+    }
+
+    Bot getBot() {
+        return bot;
+    }
+
+    Map<Integer, UserPlayer> getPlayers() {
+        return players;
+    }
+
+    Map<Integer, Square> getSquares() {
+        return squares;
+    }
+
+    @Override
+    public String toString() {
+        return "GameStateDelta{" +
+                "currentState=" + currentState +
+                ", killShotsChanged=" + killShotsChanged +
+                ", botChanged=" + botChanged +
+                ", players=" + players.keySet() +
+                ", squares=" + squares.keySet() +
+                '}';
+    }
+}
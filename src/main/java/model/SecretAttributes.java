@@ -0,0 +1,77 @@
+package model;
+
+import enumerations.PossibleAction;
+import model.cards.PowerupCard;
+import model.player.UserPlayer;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class contains the attributes of the {@link GameSerialized GameSerialized} known only by the player receiving
+ * it, while the rest of the state is the same for every player
+ */
+public class SecretAttributes implements Serializable {
+    private static final long serialVersionUID = 4302258157396178062L;
+
+    private final int points;
+    private final PowerupCard[] powerupCards;
+    private final PowerupCard spawningPowerup;
+    private final boolean botActionDone;
+
+    /**
+     * Creates empty secret attributes, whose fields are set by the binary codec of the network messages
+     */
+    private SecretAttributes() {
+        this.points = 0;
+        this.powerupCards = null;
+        this.spawningPowerup = null;
+        this.botActionDone = false;
+    }
+
+    /**
+     * Builds the secret attributes of a player
+     *
+     * @param instance the {@link Game Game} of the player
+     * @param userName the username of the player
+     */
+    public SecretAttributes(Game instance, String userName) {
+        UserPlayer userPlayer = (UserPlayer) instance.getUserPlayerByUsername(userName);
+
+        this.points = userPlayer.getPoints();
+        this.powerupCards = userPlayer.getPowerups();
+        this.spawningPowerup = userPlayer.getSpawningCard();
+
+        if (instance.isBotPresent()) {
+            this.botActionDone = !userPlayer.getPossibleActions().contains(PossibleAction.BOT_ACTION);
+        } else {
+            this.botActionDone = true;
+        }
+    }
+
+    int getPoints() {
+        return points;
+    }
+
+    PowerupCard[] getPowerupCards() {
+        return powerupCards;
+    }
+
+    PowerupCard getSpawningPowerup() {
+        return spawningPowerup;
+    }
+
+    boolean isBotActionDone() {
+        return botActionDone;
+    }
+
+    @Override
+    public String toString() {
+        return "SecretAttributes{" +
+                "points=" + points +
+                ", powerupCards=" + Arrays.toString(powerupCards) +
+                ", spawningPowerup=" + spawningPowerup +
+                ", botActionDone=" + botActionDone +
+                '}';
+    }
+}
@@ -0,0 +1,599 @@
+package model.actions;
+
+import enumerations.PossibleAction;
+import enumerations.Properties;
+import enumerations.RoomColor;
+import enumerations.SquareType;
+import enumerations.TargetType;
+import model.Game;
+import model.cards.PowerupCard;
+import model.cards.WeaponCard;
+import model.cards.effects.Effect;
+import model.map.CardSquare;
+import model.map.GameMap;
+import model.map.SpawnSquare;
+import model.map.Square;
+import model.player.AmmoQuantity;
+import model.player.Player;
+import model.player.PlayerPosition;
+import model.player.UserPlayer;
+import network.message.MovePickRequest;
+import network.message.MoveRequest;
+import network.message.ShootRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the legal actions of a {@link UserPlayer UserPlayer} in its turn, so that clients and bots can choose
+ * one of them instead of building requests the server would reject.
+ * <p>
+ * Moves and picks are enumerated from the distances of the map with the limits of the {@link MoveAction MoveAction}
+ * and the {@link PickAction PickAction}. Shoots are enumerated for each charged weapon and each effect the player can
+ * afford, building the requests the same way the views do and keeping the ones the effect validates. Targets that
+ * can never satisfy the distance and visibility of an effect are pruned before the requests are built, and the
+ * number of validations is bounded by a budget after which the shoots are {@link LegalActions#isTruncated()
+ * truncated}. The frenzy shoots are enumerated without recharging weapons
+ */
+public class ActionGenerator {
+    /**
+     * Default number of effect validations after which the generation of the shoots stops
+     */
+    public static final int DEFAULT_BUDGET = 4096;
+
+    private final Game game;
+    private final GameMap map;
+    private final UserPlayer player;
+    private final String token;
+    private final List<Player> opponents;
+
+    private int budget;
+    private boolean truncated;
+
+    private final List<MoveRequest> moves = new ArrayList<>();
+    private final List<MovePickRequest> picks = new ArrayList<>();
+    private final List<ShootRequest> shoots = new ArrayList<>();
+
+    private ActionGenerator(UserPlayer player, String token, int budget) {
+        this.game = Game.getInstance();
+        this.map = game.getGameMap();
+        this.player = player;
+        this.token = token;
+        this.budget = budget;
+        this.opponents = new ArrayList<>();
+
+        for (Player other : game.getPlayers()) {
+            if (other != player && other.getPosition() != null) {
+                opponents.add(other);
+            }
+        }
+
+        Player bot = game.getBot();
+        if (bot != null && bot.getPosition() != null) {
+            opponents.add(bot);
+        }
+    }
+
+    /**
+     * Generates the legal actions of a player with the {@link #DEFAULT_BUDGET default budget}
+     *
+     * @param player the turn owner
+     * @param token  the token of the player, set in the generated requests
+     * @return the legal actions of the player
+     */
+    public static LegalActions generate(UserPlayer player, String token) {
+        return generate(player, token, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Generates the legal actions of a player between the {@link PossibleAction PossibleActions} it has
+     *
+     * @param player the turn owner
+     * @param token  the token of the player, set in the generated requests
+     * @param budget the number of effect validations after which the generation of the shoots stops
+     * @return the legal actions of the player
+     */
+    public static LegalActions generate(UserPlayer player, String token, int budget) {
+        ActionGenerator generator = new ActionGenerator(player, token, budget);
+
+        if (player.getPosition() != null) {
+            for (PossibleAction action : player.getPossibleActions()) {
+                generator.addActions(action);
+            }
+        }
+
+        return new LegalActions(generator.moves, generator.picks, generator.shoots, generator.truncated);
+    }
+
+    private void addActions(PossibleAction action) {
+        switch (action) {
+            case MOVE:
+            case FRENZY_MOVE:
+                addMoves(MoveAction.maxMove(action));
+                break;
+            case MOVE_AND_PICK:
+            case ADRENALINE_PICK:
+            case FRENZY_PICK:
+            case LIGHT_FRENZY_PICK:
+                addPicks(PickAction.maxMove(action));
+                break;
+            case SHOOT:
+            case ADRENALINE_SHOOT:
+            case FRENZY_SHOOT:
+            case LIGHT_FRENZY_SHOOT:
+                addShoots(ShootAction.maxMove(action));
+                break;
+            default:
+                // spawns, reloads and the actions of the bot are not generated
+        }
+    }
+
+    private void addMoves(int maxMove) {
+        for (PlayerPosition position : squaresWithin(player.getPosition(), MoveAction.MIN_MOVE, maxMove)) {
+            moves.add(new MoveRequest(player.getUsername(), token, position));
+        }
+    }
+
+    private void addPicks(int maxMove) {
+        WeaponCard[] hand = player.getWeapons();
+
+        for (PlayerPosition position : squaresWithin(player.getPosition(), 0, maxMove)) {
+            Square square = map.getSquare(position);
+
+            if (square.getSquareType() == SquareType.TILE) {
+                if (((CardSquare) square).isAmmoTilePresent()) {
+                    picks.add(new MovePickRequest(player.getUsername(), token, position, null, null, null));
+                }
+            } else {
+                for (WeaponCard weapon : ((SpawnSquare) square).getWeapons()) {
+                    List<Integer> payment = weapon != null ? payment(weapon.getRechargeCost()) : null;
+
+                    if (payment == null) {
+                        continue;
+                    }
+
+                    if (hand.length < 3) {
+                        picks.add(new MovePickRequest(player.getUsername(), token, position, payment, weapon, null));
+                    } else {
+                        for (WeaponCard discarding : hand) {
+                            picks.add(new MovePickRequest(player.getUsername(), token, position, payment, weapon, discarding));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void addShoots(int maxMove) {
+        List<Shoot> usable = new ArrayList<>();
+        WeaponCard[] hand = player.getWeapons();
+
+        for (int weaponID = 0; weaponID < hand.length; ++weaponID) {
+            if (hand[weaponID].status() != WeaponCard.CHARGED) {
+                continue;
+            }
+
+            List<Effect> effects = new ArrayList<>();
+            effects.add(hand[weaponID].getBaseEffect());
+            effects.addAll(hand[weaponID].getSecondaryEffects());
+
+            for (int effectID = 0; effectID < effects.size(); ++effectID) {
+                List<Integer> payment = payment(effects.get(effectID).getCost());
+
+                if (payment != null) {
+                    usable.add(new Shoot(weaponID, effectID, effects.get(effectID), payment));
+                }
+            }
+        }
+
+        if (usable.isEmpty()) {
+            return;
+        }
+
+        // effects are validated with the shooter in its moving position, as done by the ShootAction
+        PlayerPosition start = new PlayerPosition(player.getPosition());
+
+        try {
+            for (PlayerPosition position : squaresWithin(start, 0, maxMove)) {
+                player.changePosition(position.getRow(), position.getColumn());
+
+                for (Shoot shoot : usable) {
+                    shoot.moveBeforeShootPosition = position.equals(start) ? null : position;
+
+                    if (!addTargets(shoot, position)) {
+                        truncated = true;
+                        return;
+                    }
+                }
+            }
+        } finally {
+            player.changePosition(start.getRow(), start.getColumn());
+        }
+    }
+
+    /**
+     * Enumerates the targets of an effect, as done by the views: players first, then squares and rooms
+     *
+     * @return false if the budget ran out, otherwise true
+     */
+    private boolean addTargets(Shoot shoot, PlayerPosition shooterPosition) {
+        Map<String, String> properties = shoot.effect.getProperties();
+        Set<TargetType> targets = EnumSet.noneOf(TargetType.class);
+        Collections.addAll(targets, shoot.effect.getTargets());
+
+        // with a single target and nobody moving before the shoot the positions checked by the effect are known
+        boolean prune = targets.size() == 1 && !properties.containsKey(Properties.MOVE.getJKey()) &&
+                (!isTargetMoving(properties) || "false".equals(properties.get(Properties.MOVE_TARGET_BEFORE.getJKey())));
+
+        List<List<String>> playerOptions = Collections.singletonList(Collections.emptyList());
+        if (targets.contains(TargetType.PLAYER)) {
+            playerOptions = selections(prunedPlayers(properties, shooterPosition, prune), properties);
+        }
+
+        for (List<String> usernames : playerOptions) {
+            List<List<PlayerPosition>> squareOptions = Collections.singletonList(Collections.emptyList());
+            if (targets.contains(TargetType.SQUARE)) {
+                squareOptions = squareOptions(properties, shooterPosition, prune, usernames);
+            }
+
+            List<RoomColor> roomOptions = Collections.singletonList(null);
+            if (targets.contains(TargetType.ROOM)) {
+                roomOptions = rooms();
+            }
+
+            for (List<PlayerPosition> squares : squareOptions) {
+                for (RoomColor room : roomOptions) {
+                    shoot.targetPlayersUsernames = usernames;
+                    shoot.targetPositions = squares;
+                    shoot.targetRoomColor = room;
+
+                    if (!addMoves(shoot, shooterPosition)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Enumerates the movements of the shooter and of the targets an effect allows
+     *
+     * @return false if the budget ran out, otherwise true
+     */
+    private boolean addMoves(Shoot shoot, PlayerPosition shooterPosition) {
+        Map<String, String> properties = shoot.effect.getProperties();
+
+        shoot.senderMovePosition = null;
+        shoot.moveSenderFirst = false;
+        shoot.moveInMiddle = false;
+        shoot.moveToLastTarget = false;
+
+        if (properties.containsKey(Properties.MOVE.getJKey())) {
+            int move = Integer.parseInt(properties.get(Properties.MOVE.getJKey()));
+            boolean inMiddle = properties.containsKey(Properties.MOVE_IN_MIDDLE.getJKey()) && shoot.targetPlayersUsernames.size() > 1;
+
+            for (PlayerPosition position : squaresWithin(shooterPosition, 1, move)) {
+                shoot.senderMovePosition = position;
+
+                for (int order = inMiddle ? 0 : 1; order < 3; ++order) {
+                    shoot.moveInMiddle = order == 0;
+                    shoot.moveSenderFirst = order == 1;
+
+                    if (!addTargetMoves(shoot, properties)) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        } else if (properties.containsKey(Properties.MOVE_TO_LAST_TARGET.getJKey())) {
+            List<String> usernames = shoot.targetPlayersUsernames;
+
+            shoot.senderMovePosition = new PlayerPosition(game.getPlayerByName(usernames.get(usernames.size() - 1)).getPosition());
+            shoot.moveToLastTarget = true;
+        }
+
+        return addTargetMoves(shoot, properties);
+    }
+
+    private boolean addTargetMoves(Shoot shoot, Map<String, String> properties) {
+        if (!isTargetMoving(properties)) {
+            shoot.targetPlayersMovePositions = Collections.emptyList();
+            shoot.moveTargetsFirst = false;
+            return validate(shoot);
+        }
+
+        boolean exact = properties.containsKey(Properties.MOVE_TARGET.getJKey());
+        int move = Integer.parseInt(properties.get((exact ? Properties.MOVE_TARGET : Properties.MAX_MOVE_TARGET).getJKey()));
+        String before = properties.get(Properties.MOVE_TARGET_BEFORE.getJKey());
+
+        List<List<PlayerPosition>> reachable = new ArrayList<>();
+        for (String username : shoot.targetPlayersUsernames) {
+            reachable.add(squaresWithin(game.getPlayerByName(username).getPosition(), exact ? move : 0, move));
+        }
+
+        for (int order = 0; order < 2; ++order) {
+            shoot.moveTargetsFirst = order == 0;
+
+            if ((before == null || Boolean.parseBoolean(before) == shoot.moveTargetsFirst) &&
+                    !addTargetMoves(shoot, reachable, new ArrayList<>())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean addTargetMoves(Shoot shoot, List<List<PlayerPosition>> reachable, List<PlayerPosition> chosen) {
+        if (chosen.size() == reachable.size()) {
+            shoot.targetPlayersMovePositions = chosen;
+            return validate(shoot);
+        }
+
+        for (PlayerPosition position : reachable.get(chosen.size())) {
+            chosen.add(position);
+
+            if (!addTargetMoves(shoot, reachable, chosen)) {
+                return false;
+            }
+
+            chosen.remove(chosen.size() - 1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates a candidate shoot, keeping it if valid
+     *
+     * @return false if the budget ran out, otherwise true
+     */
+    private boolean validate(Shoot shoot) {
+        if (budget <= 0) {
+            return false;
+        }
+
+        budget--;
+        ShootRequest request = shoot.build(player.getUsername(), token);
+
+        try {
+            if (shoot.effect.validate(request)) {
+                shoots.add(request);
+            }
+        } catch (RuntimeException e) {
+            // requests missing what the effect needs are invalid
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the opponents that can be targets of the effect, the ones out of its distance or visibility are
+     * removed if {@code prune} is true
+     */
+    private List<String> prunedPlayers(Map<String, String> properties, PlayerPosition shooterPosition, boolean prune) {
+        List<String> usernames = new ArrayList<>();
+
+        for (Player opponent : opponents) {
+            if (!prune || isReachable(properties, shooterPosition, opponent.getPosition())) {
+                usernames.add(opponent.getUsername());
+            }
+        }
+
+        return usernames;
+    }
+
+    private List<List<PlayerPosition>> squareOptions(Map<String, String> properties, PlayerPosition shooterPosition, boolean prune, List<String> usernames) {
+        if (properties.containsKey(Properties.SAME_POSITION.getJKey()) && !usernames.isEmpty()) {
+            PlayerPosition position = new PlayerPosition(game.getPlayerByName(usernames.get(0)).getPosition());
+            return Collections.singletonList(Collections.singletonList(position));
+        }
+
+        List<PlayerPosition> squares = new ArrayList<>();
+
+        for (PlayerPosition position : squaresWithin(shooterPosition, 0, GameMap.UNREACHABLE - 1)) {
+            if (!prune || isReachable(properties, shooterPosition, position)) {
+                squares.add(position);
+            }
+        }
+
+        return selections(squares, properties);
+    }
+
+    private List<RoomColor> rooms() {
+        Set<RoomColor> rooms = EnumSet.noneOf(RoomColor.class);
+
+        for (int i = 0; i < GameMap.MAX_ROWS; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS; ++j) {
+                Square square = map.getSquare(i, j);
+
+                if (square != null) {
+                    rooms.add(square.getRoomColor());
+                }
+            }
+        }
+
+        return new ArrayList<>(rooms);
+    }
+
+    /**
+     * @return true if the position satisfies the distance and the visibility of the effect, otherwise false
+     */
+    private boolean isReachable(Map<String, String> properties, PlayerPosition shooterPosition, PlayerPosition position) {
+        int distance = map.distance(shooterPosition, position);
+        String exactDistance = properties.get(Properties.DISTANCE.getJKey());
+        String minDistance = properties.get(Properties.MIN_DISTANCE.getJKey());
+        String visible = properties.get(Properties.VISIBLE.getJKey());
+
+        if (exactDistance != null && distance != Integer.parseInt(exactDistance)) {
+            return false;
+        }
+
+        if (minDistance != null && distance < Integer.parseInt(minDistance)) {
+            return false;
+        }
+
+        return visible == null || Boolean.parseBoolean(visible) == map.canSee(shooterPosition, position);
+    }
+
+    /**
+     * Returns the ordered selections of the candidates with the number of targets of the effect, the order matters
+     * as the damages and the chains of visibility follow the order of the targets
+     *
+     * @return the List of the selections
+     */
+    private static <T> List<List<T>> selections(List<T> candidates, Map<String, String> properties) {
+        List<List<T>> selections = new ArrayList<>();
+        String targetNum = properties.get(Properties.TARGET_NUM.getJKey());
+        String maxTargetNum = properties.get(Properties.MAX_TARGET_NUM.getJKey());
+
+        if (targetNum != null) {
+            int num = Integer.parseInt(targetNum);
+            select(candidates, num, num, new ArrayList<>(), new boolean[candidates.size()], selections);
+        } else if (maxTargetNum != null) {
+            select(candidates, 1, Integer.parseInt(maxTargetNum), new ArrayList<>(), new boolean[candidates.size()], selections);
+        }
+
+        return selections;
+    }
+
+    private static <T> void select(List<T> candidates, int min, int max, List<T> chosen, boolean[] used, List<List<T>> selections) {
+        if (chosen.size() >= min) {
+            selections.add(new ArrayList<>(chosen));
+        }
+
+        if (chosen.size() == max) {
+            return;
+        }
+
+        for (int i = 0; i < candidates.size(); ++i) {
+            if (!used[i]) {
+                used[i] = true;
+                chosen.add(candidates.get(i));
+
+                select(candidates, min, max, chosen, used, selections);
+
+                chosen.remove(chosen.size() - 1);
+                used[i] = false;
+            }
+        }
+    }
+
+    private static boolean isTargetMoving(Map<String, String> properties) {
+        return properties.containsKey(Properties.MOVE_TARGET.getJKey()) || properties.containsKey(Properties.MAX_MOVE_TARGET.getJKey());
+    }
+
+    /**
+     * @return the squares of the map whose distance from the position is between {@code min} and {@code max}
+     */
+    private List<PlayerPosition> squaresWithin(PlayerPosition from, int min, int max) {
+        List<PlayerPosition> squares = new ArrayList<>();
+
+        for (int i = 0; i < GameMap.MAX_ROWS; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS; ++j) {
+                PlayerPosition position = new PlayerPosition(i, j);
+
+                if (map.getSquare(position) != null) {
+                    int distance = map.distance(from, position);
+
+                    if (distance >= min && distance <= max) {
+                        squares.add(position);
+                    }
+                }
+            }
+        }
+
+        return squares;
+    }
+
+    /**
+     * Returns the powerups paying what the ammo of the player do not cover, the ammo are always used first
+     *
+     * @param cost the cost to pay
+     * @return the indexes of the paying powerups, null if the player can not pay the cost
+     */
+    private List<Integer> payment(AmmoQuantity cost) {
+        AmmoQuantity ammo = player.getPlayerBoard().getAmmo();
+        int red = cost.getRedAmmo() - ammo.getRedAmmo();
+        int blue = cost.getBlueAmmo() - ammo.getBlueAmmo();
+        int yellow = cost.getYellowAmmo() - ammo.getYellowAmmo();
+
+        List<Integer> powerups = new ArrayList<>();
+        PowerupCard[] hand = player.getPowerups();
+
+        for (int i = 0; i < hand.length; ++i) {
+            switch (hand[i].getValue()) {
+                case RED:
+                    if (red > 0) {
+                        red--;
+                        powerups.add(i);
+                    }
+                    break;
+                case BLUE:
+                    if (blue > 0) {
+                        blue--;
+                        powerups.add(i);
+                    }
+                    break;
+                default:
+                    if (yellow > 0) {
+                        yellow--;
+                        powerups.add(i);
+                    }
+            }
+        }
+
+        return red > 0 || blue > 0 || yellow > 0 ? null : powerups;
+    }
+
+    /**
+     * Shoot request being enumerated, its fields are the ones of the {@link ShootRequest.ShootRequestBuilder
+     * ShootRequestBuilder} that change between the candidates
+     */
+    private static class Shoot {
+        private final int weaponID;
+        private final int effectID;
+        private final Effect effect;
+        private final List<Integer> paymentPowerups;
+
+        private PlayerPosition moveBeforeShootPosition;
+        private List<String> targetPlayersUsernames;
+        private List<PlayerPosition> targetPositions;
+        private RoomColor targetRoomColor;
+        private PlayerPosition senderMovePosition;
+        private List<PlayerPosition> targetPlayersMovePositions;
+        private boolean moveSenderFirst;
+        private boolean moveInMiddle;
+        private boolean moveTargetsFirst;
+        private boolean moveToLastTarget;
+
+        private Shoot(int weaponID, int effectID, Effect effect, List<Integer> paymentPowerups) {
+            this.weaponID = weaponID;
+            this.effectID = effectID;
+            this.effect = effect;
+            this.paymentPowerups = paymentPowerups;
+        }
+
+        private ShootRequest build(String username, String token) {
+            return new ShootRequest.ShootRequestBuilder(username, token, weaponID, effectID)
+                    .moveBeforeShootPosition(moveBeforeShootPosition)
+                    .targetPlayersUsernames(targetPlayersUsernames)
+                    .targetPositions(targetPositions)
+                    .targetRoomColor(targetRoomColor)
+                    .senderMovePosition(senderMovePosition)
+                    .targetPlayersMovePositions(targetPlayersMovePositions)
+                    .moveSenderFirst(moveSenderFirst)
+                    .moveInMiddle(moveInMiddle)
+                    .moveTargetsFirst(moveTargetsFirst)
+                    .moveToLastTarget(moveToLastTarget)
+                    .paymentPowerups(paymentPowerups)
+                    .build();
+        }
+    }
+}
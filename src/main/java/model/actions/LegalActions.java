@@ -0,0 +1,62 @@
+package model.actions;
+
+import network.message.MovePickRequest;
+import network.message.MoveRequest;
+import network.message.ShootRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The legal {@link MoveAction MoveActions}, {@link PickAction PickActions} and {@link ShootAction ShootActions} of a
+ * player in its turn, as the requests its client can send, built by the {@link ActionGenerator ActionGenerator}
+ */
+public class LegalActions {
+    private final List<MoveRequest> moves;
+    private final List<MovePickRequest> picks;
+    private final List<ShootRequest> shoots;
+    private final boolean truncated;
+
+    LegalActions(List<MoveRequest> moves, List<MovePickRequest> picks, List<ShootRequest> shoots, boolean truncated) {
+        this.moves = Collections.unmodifiableList(moves);
+        this.picks = Collections.unmodifiableList(picks);
+        this.shoots = Collections.unmodifiableList(shoots);
+        this.truncated = truncated;
+    }
+
+    /**
+     * @return the requests of the legal move actions
+     */
+    public List<MoveRequest> getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return the requests of the legal pick actions
+     */
+    public List<MovePickRequest> getPicks() {
+        return picks;
+    }
+
+    /**
+     * @return the requests of the legal shoot actions
+     */
+    public List<ShootRequest> getShoots() {
+        return shoots;
+    }
+
+    /**
+     * @return true if the shoot actions are only a part of the legal ones because the generation ran out of its
+     * budget of validations, otherwise false
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return the number of legal actions
+     */
+    public int size() {
+        return moves.size() + picks.size() + shoots.size();
+    }
+}
@@ -12,7 +12,7 @@ import utility.InputValidator;
 public class MoveAction implements Action {
     private static final int MAX_NORMAL_MOVE = 3;
     private static final int MAX_FRENZY_MOVE = 4;
-    private static final int MIN_MOVE = 1;
+    static final int MIN_MOVE = 1;
 
     private UserPlayer actingPlayer;
     private PlayerPosition movingPos;
@@ -45,11 +45,20 @@ public class MoveAction implements Action {
         }
 
         int movingDistance = actingPlayer.getPosition().distanceOf(movingPos);
+        int maxMove = maxMove(actionChosen);
 
+        return (movingDistance >= MIN_MOVE && movingDistance <= maxMove);
+    }
+
+    /**
+     * @param actionChosen the kind of move
+     * @return the maximum distance a player can move with the move action
+     */
+    static int maxMove(PossibleAction actionChosen) {
         if (actionChosen == PossibleAction.MOVE) {
-            return (movingDistance >= MIN_MOVE && movingDistance <= MAX_NORMAL_MOVE);
+            return MAX_NORMAL_MOVE;
         } else if (actionChosen == PossibleAction.FRENZY_MOVE) {
-            return (movingDistance >= MIN_MOVE && movingDistance <= MAX_FRENZY_MOVE);
+            return MAX_FRENZY_MOVE;
         } else {
             throw new NullPointerException("To move a player must always have a moving action!");
         }
@@ -82,32 +82,33 @@ public class PickAction implements Action {
         }
 
         int movingDistance = actingPlayer.getPosition().distanceOf(movingPos);
-        int maxMove;
 
         // Moving validation
+        if (movingDistance > maxMove(actionChosen)) {
+            return false;
+        }
+
+        // pick validation
+        return pickValidation();
+    }
+
+    /**
+     * @param actionChosen the kind of pick action
+     * @return the maximum distance a player can move before picking with the pick action
+     */
+    static int maxMove(PossibleAction actionChosen) {
         switch (actionChosen) {
             case MOVE_AND_PICK:
-                maxMove = MAX_NORMAL_MOVE;
-                break;
+                return MAX_NORMAL_MOVE;
             case ADRENALINE_PICK:
-                maxMove = MAX_ADRENALINE_MOVE;
-                break;
+                return MAX_ADRENALINE_MOVE;
             case FRENZY_PICK:
-                maxMove = MAX_FRENZY_MOVE;
-                break;
+                return MAX_FRENZY_MOVE;
             case LIGHT_FRENZY_PICK:
-                maxMove = MAX_LIGHT_FRENZY_MOVE;
-                break;
+                return MAX_LIGHT_FRENZY_MOVE;
             default:
                 throw new IncompatibleActionException(actionChosen);
         }
-
-        if (movingDistance > maxMove) {
-            return false;
-        }
-
-        // pick validation
-        return pickValidation();
     }
 
     /**
@@ -80,32 +80,31 @@ public class ShootAction implements Action {
 
         // moving validation
         int movingDistance = actingPlayer.getPosition().distanceOf(movingPos);
+        if (movingDistance > maxMove(actionChosen)) {
+            return false;
+        }
+
+        // only the frenzy shoots can recharge weapons
+        return reloadAction == null || actionChosen == PossibleAction.FRENZY_SHOOT || actionChosen == PossibleAction.LIGHT_FRENZY_SHOOT;
+    }
+
+    /**
+     * @param actionChosen the kind of shoot action
+     * @return the maximum distance a player can move before shooting with the shoot action
+     */
+    static int maxMove(PossibleAction actionChosen) {
         switch (actionChosen) {
             case SHOOT:
-                if (movingDistance != MAX_NORMAL_MOVE || reloadAction != null) {
-                    return false;
-                }
-                break;
+                return MAX_NORMAL_MOVE;
             case ADRENALINE_SHOOT:
-                if (movingDistance > MAX_ADRENALINE_MOVE || reloadAction != null) {
-                    return false;
-                }
-                break;
+                return MAX_ADRENALINE_MOVE;
             case FRENZY_SHOOT:
-                if (movingDistance > MAX_FRENZY_MOVE) {
-                    return false;
-                }
-                break;
+                return MAX_FRENZY_MOVE;
             case LIGHT_FRENZY_SHOOT:
-                if (movingDistance > MAX_LIGHT_FRENZY_MOVE) {
-                    return false;
-                }
-                break;
+                return MAX_LIGHT_FRENZY_MOVE;
             default:
                 throw new IncompatibleActionException(actionChosen);
         }
-
-        return true;
     }
 
     /**
@@ -17,9 +17,17 @@ import java.util.Objects;
 public class AmmoTile extends Card {
     private static final long serialVersionUID = -1145130365479937145L;
 
+    private final int id;
     private final AmmoQuantity ammoOnTile;
     private final boolean pickPowerup;
 
+    /**
+     * Creates an empty tile, whose fields are set by the binary codec of the network messages
+     */
+    private AmmoTile() {
+        this(null, null, false, 0);
+    }
+
     /**
      * Creates an AmmoTile.
      * A boolean is used to know if if contains a powerup card
@@ -27,13 +35,22 @@ public class AmmoTile extends Card {
      * @param imagePath the image of the AmmoTile
      * @param ammoOnTile the quantity of ammo on the tile
      * @param pickPowerup {@code true} if the AmmoTile contains a Powerup, otherwise {@code false}
+     * @param id the id of the AmmoTile
      */
-    public AmmoTile(String imagePath, AmmoQuantity ammoOnTile, boolean pickPowerup) {
+    public AmmoTile(String imagePath, AmmoQuantity ammoOnTile, boolean pickPowerup, int id) {
         super(imagePath);
+        this.id = id;
         this.ammoOnTile = ammoOnTile;
         this.pickPowerup = pickPowerup;
     }
 
+    /**
+     * @return the id of the AmmoTile
+     */
+    public int getId() {
+        return this.id;
+    }
+
     /**
      * @return the {@link Ammo Ammo} on the tile
      */
@@ -63,9 +80,9 @@ public class AmmoTile extends Card {
         if (pickPowerup) {
             PowerupCard drawnPowerup = (PowerupCard) Game.getInstance().getPowerupCardsDeck().draw();
 
-            // if there are no more powerups I need to build a new deck with already used ones, flush it and then draw
+            // if there are no more powerups I need to build a new deck with already used ones, shuffle it and then draw
             if(drawnPowerup == null) {
-                Game.getInstance().getPowerupCardsDeck().flush();
+                Game.getInstance().getPowerupCardsDeck().shuffle(Game.getInstance().nextRandom());
                 drawnPowerup = (PowerupCard) Game.getInstance().getPowerupCardsDeck().draw();
             }
 
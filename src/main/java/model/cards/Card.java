@@ -17,4 +17,9 @@ public abstract class Card implements Serializable  {
     public String getImagePath() {
         return imagePath;
     }
+
+    /**
+     * @return the id of the card, unique among the cards of its kind, by which saves refer to it
+     */
+    public abstract int getId();
 }
@@ -1,20 +1,31 @@
 package model.cards;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
- * Class representing a deck of cards, decks contain all same kind of cards
+ * Class representing a deck of cards, decks contain all same kind of cards.
+ * <p>
+ * The cards are kept in a single array: the cards still to be drawn are in {@code [top, size)}, the first one being
+ * the top of the deck, while the discarded cards, if the deck has a discard pile, reuse the slots freed by the drawn
+ * ones in {@code [0, discards)}. Drawing and discarding never shift the other cards and a reshuffle moves the discarded
+ * cards back and shuffles them in place
  */
 public class Deck implements Serializable {
-    private static final long serialVersionUID = -3053418734560184556L;
+    private static final long serialVersionUID = 4206150374563049587L;
+    private static final int INITIAL_CAPACITY = 16;
 
-    private ArrayList<Card> cardsDeck;
-    private Boolean garbage;
-    private ArrayList<Card> discard;
+    private Card[] cards;
+    private int top;
+    private int size;
+    private int discards;
+    private final boolean garbage;
 
     /**
      * Create a new empty deck without discard
@@ -29,8 +40,7 @@ public class Deck implements Serializable {
      * @param garbage if true set the discarded card deck
      */
     public Deck(boolean garbage) {
-        cardsDeck = new ArrayList<>();
-        if (garbage) discard = new ArrayList<>();
+        cards = new Card[INITIAL_CAPACITY];
         this.garbage = garbage;
     }
 
@@ -39,8 +49,16 @@ public class Deck implements Serializable {
     }
 
     public Deck(Deck other, boolean garbage) {
-        cardsDeck = new ArrayList<>(other.cardsDeck);
-        if (garbage) discard = new ArrayList<>(other.discard);
+        int copiedDiscards = garbage ? other.numOfDiscards() : 0;
+        int copiedCards = other.numOfCards();
+
+        cards = new Card[Math.max(INITIAL_CAPACITY, copiedDiscards + copiedCards)];
+        System.arraycopy(other.cards, 0, cards, 0, copiedDiscards);
+        System.arraycopy(other.cards, other.top, cards, copiedDiscards, copiedCards);
+
+        discards = copiedDiscards;
+        top = copiedDiscards;
+        size = copiedDiscards + copiedCards;
         this.garbage = garbage;
     }
 
@@ -48,19 +66,36 @@ public class Deck implements Serializable {
      * Empty the decks
      */
     public void flush() {
-        cardsDeck.clear();
-        if (garbage) discard.clear();
+        Arrays.fill(cards, 0, size, null);
+        top = 0;
+        size = 0;
+        discards = 0;
     }
 
     /**
      * Move the discarded cards into the deck and shuffle it
+     *
+     * @param random the generator of the game the deck belongs to
      */
-    public void shuffle() {
-        if (garbage) {
-            cardsDeck.addAll(discard);
-            discard.clear();
+    public void shuffle(SplittableRandom random) {
+        if (garbage && top > discards) {
+            // the cards left join the discarded ones, the freed slots are cleared
+            System.arraycopy(cards, top, cards, discards, size - top);
+            Arrays.fill(cards, discards + size - top, size, null);
+            size = discards + size - top;
+            top = 0;
+        } else if (garbage) {
+            top = 0;
+        }
+
+        discards = 0;
+
+        for (int i = size - 1; i > top; --i) {
+            int j = top + random.nextInt(i - top + 1);
+            Card card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
         }
-        Collections.shuffle(cardsDeck);
     }
 
     /**
@@ -70,7 +105,7 @@ public class Deck implements Serializable {
      */
     public void addCard(Card card) {
         if (card == null) throw new NullPointerException("Card cannot be null");
-        cardsDeck.add(card);
+        append(card);
     }
 
     /**
@@ -79,11 +114,13 @@ public class Deck implements Serializable {
      * @return <code>null</code> if the deck is empty or if all the cards have been discarded, otherwise returns the top card
      */
     public Card draw() {
-        try {
-            return cardsDeck.remove(0);
-        } catch (IndexOutOfBoundsException e) {
+        if (top == size) {
             return null;
         }
+
+        Card card = cards[top];
+        cards[top++] = null;
+        return card;
     }
 
     /**
@@ -94,8 +131,20 @@ public class Deck implements Serializable {
     public void discardCard(Card card) {
         if (card == null) throw new NullPointerException("card cannot be null");
 
-        if (garbage) discard.add(0, card);
-        else cardsDeck.add(card);
+        if (!garbage) {
+            append(card);
+            return;
+        }
+
+        if (discards == top) {
+            // every slot freed by a draw is taken, the deck is moved down to make room
+            ensureCapacity(size + 1);
+            System.arraycopy(cards, top, cards, top + 1, size - top);
+            ++top;
+            ++size;
+        }
+
+        cards[discards++] = card;
     }
 
     /**
@@ -104,7 +153,7 @@ public class Deck implements Serializable {
      * @return number of cards in the deck
      */
     public int numOfCards() {
-        return cardsDeck.size();
+        return size - top;
     }
 
     /**
@@ -114,24 +163,111 @@ public class Deck implements Serializable {
      */
     public int numOfDiscards() {
         if (!garbage) throw new NullPointerException("deck of discarded cards is null");
-        return discard.size();
+        return discards;
+    }
+
+    /**
+     * Inserts the card at the bottom of the deck
+     */
+    private void append(Card card) {
+        if (size == cards.length && top > discards) {
+            // the slots freed by the drawn cards are reused before growing the array
+            System.arraycopy(cards, top, cards, discards, size - top);
+            Arrays.fill(cards, discards + size - top, size, null);
+            size = discards + size - top;
+            top = discards;
+        }
+
+        ensureCapacity(size + 1);
+        cards[size++] = card;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > cards.length) {
+            cards = Arrays.copyOf(cards, Math.max(capacity, cards.length * 2));
+        }
+    }
+
+    /**
+     * Writes the ids of the cards of the deck, from the top, and then of the discarded ones, from the first discarded
+     *
+     * @param out the destination of the state
+     * @throws IOException if the state can not be written
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeShort(numOfCards());
+        for (int i = top; i < size; ++i) {
+            out.writeShort(cards[i].getId());
+        }
+
+        out.writeShort(discards);
+        for (int i = 0; i < discards; ++i) {
+            out.writeShort(cards[i].getId());
+        }
+    }
+
+    /**
+     * Reads a deck written by {@link #writeState(DataOutput) writeState}, the cards are laid out as they were so that
+     * a reshuffle gives the same order
+     *
+     * @param in        the source of the state
+     * @param garbage   if true the deck has a discard pile
+     * @param cardsById the cards of the deck indexed by id
+     * @return the deck
+     * @throws IOException if the state can not be read
+     */
+    public static Deck readState(DataInput in, boolean garbage, Card[] cardsById) throws IOException {
+        Deck deck = new Deck(garbage);
+        Card[] left = new Card[in.readShort()];
+
+        for (int i = 0; i < left.length; ++i) {
+            left[i] = cardsById[in.readShort()];
+        }
+
+        deck.discards = in.readShort();
+        deck.ensureCapacity(deck.discards + left.length);
+
+        for (int i = 0; i < deck.discards; ++i) {
+            deck.cards[i] = cardsById[in.readShort()];
+        }
+
+        System.arraycopy(left, 0, deck.cards, deck.discards, left.length);
+        deck.top = deck.discards;
+        deck.size = deck.discards + left.length;
+
+        return deck;
     }
 
     @Override
     public String toString() {
         return "Deck{\n" +
-                "cardsDeck=" + Arrays.toString(cardsDeck.toArray()) +
+                "cardsDeck=" + Arrays.toString(Arrays.copyOfRange(cards, top, size)) +
                 ",\ngarbage=" + garbage +
-                ",\ndiscard=" + (discard != null ? Arrays.toString(discard.toArray()) : "null" ) +
+                ",\ndiscard=" + (garbage ? discardsToString() : "null") +
                 "\n}";
     }
 
+    private String discardsToString() {
+        List<Card> discarded = new ArrayList<>(discards);
+        addDiscards(discarded);
+        return Arrays.toString(discarded.toArray());
+    }
+
     public List<Card> toList() {
-        List<Card> list = new ArrayList<>();
+        List<Card> list = new ArrayList<>(numOfCards() + discards);
 
-        list.addAll(new ArrayList<>(cardsDeck));
-        if (garbage) list.addAll(new ArrayList<>(discard));
+        list.addAll(Arrays.asList(cards).subList(top, size));
+        addDiscards(list);
 
         return list;
     }
+
+    /**
+     * Adds the discarded cards to the list, starting from the top of the discard pile that is the last discarded card
+     */
+    private void addDiscards(List<Card> list) {
+        for (int i = discards - 1; i >= 0; --i) {
+            list.add(cards[i]);
+        }
+    }
 }
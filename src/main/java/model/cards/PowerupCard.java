@@ -23,6 +23,13 @@ public class PowerupCard extends UsableCard {
     private final int id;
     private final Ammo value;
 
+    /**
+     * Creates an empty card, whose fields are set by the binary codec of the network messages
+     */
+    private PowerupCard() {
+        this(null, null, null, null, 0);
+    }
+
     /**
      * Creates a new powerup with needed informations
      *
@@ -44,6 +51,13 @@ public class PowerupCard extends UsableCard {
         this.value = powerupCard.value;
     }
 
+    /**
+     * @return the id of the powerup
+     */
+    public int getId() {
+        return this.id;
+    }
+
     /**
      * @return the value of the {@link PowerupCard PowerupCard}
      */
@@ -36,6 +36,13 @@ public class WeaponCard extends UsableCard {
     public static final int UNCHARGED = 1;
     public static final int SEMI_CHARGED = 2;
 
+    /**
+     * Creates an empty card, whose fields are set by the binary codec of the network messages
+     */
+    private WeaponCard() {
+        this(null, null, null, 0, null, null, null);
+    }
+
     public WeaponCard(String name, String imagePath, Effect baseEffect, int id, Ammo[] cost,
                       List<Effect> secondaryEffects, WeaponState weaponState) {
         super(name, imagePath, baseEffect);
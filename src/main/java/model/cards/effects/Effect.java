@@ -20,6 +20,8 @@ public abstract class Effect implements Serializable {
     protected TargetType[] targets;
     protected String description;
 
+    private transient EffectRules[] rules;
+
     /**
      * @return the Properties of the effect
      */
@@ -48,6 +50,23 @@ public abstract class Effect implements Serializable {
         return cost;
     }
 
+    /**
+     * Returns the rules of the effect compiled from its properties, one for each of its targets. They are compiled
+     * when the base effect is built and again after the effect is deserialized
+     *
+     * @return the rules of the effect, in the order of the targets
+     */
+    EffectRules[] getRules() {
+        EffectRules[] compiled = rules;
+
+        if (compiled == null) {
+            compiled = EffectRules.compile(properties, targets);
+            rules = compiled;
+        }
+
+        return compiled;
+    }
+
     /**
      * Method that sets the properties to the decoratinf effect
      * @param properties
@@ -58,6 +77,8 @@ public abstract class Effect implements Serializable {
         } else {
             this.properties = new LinkedHashMap<>();
         }
+
+        rules = null;
     }
 
     /**
@@ -0,0 +1,109 @@
+package model.cards.effects;
+
+import enumerations.Properties;
+import enumerations.TargetType;
+
+import java.util.Map;
+
+/**
+ * Immutable rules of an {@link Effect Effect} (or of one of its sub effects) against one kind of target, compiled
+ * from its properties when the effect is built so that the validation of a request reads typed fields instead of
+ * looking up and parsing the strings of the properties
+ */
+final class EffectRules {
+    /**
+     * Value of the numeric rules the effect does not have
+     */
+    static final int ABSENT = -1;
+
+    final TargetType targetType;
+
+    final int targetNum;
+    final boolean exactTargetNum;
+
+    final int move;
+    final int moveTarget;
+    final int maxMoveTarget;
+    final boolean moveInLine;
+    final boolean checkMoveTargetBefore;
+    final boolean moveTargetBefore;
+    final boolean moveToLastTarget;
+
+    final int distance;
+    final boolean exactDistance;
+    final boolean inLine;
+
+    final boolean samePosition;
+    final boolean checkVisible;
+    final boolean visible;
+    final boolean concatenatedVisible;
+
+    final boolean teleport;
+
+    private EffectRules(Map<String, String> properties, TargetType targetType) {
+        this.targetType = targetType;
+
+        if (properties.containsKey(Properties.TARGET_NUM.getJKey())) {
+            targetNum = intOf(properties, Properties.TARGET_NUM);
+            exactTargetNum = true;
+        } else {
+            targetNum = intOf(properties, Properties.MAX_TARGET_NUM);
+            exactTargetNum = false;
+        }
+
+        move = intOf(properties, Properties.MOVE);
+        moveTarget = intOf(properties, Properties.MOVE_TARGET);
+        maxMoveTarget = intOf(properties, Properties.MAX_MOVE_TARGET);
+        moveInLine = properties.containsKey(Properties.MOVE_INLINE.getJKey());
+        checkMoveTargetBefore = properties.containsKey(Properties.MOVE_TARGET_BEFORE.getJKey());
+        moveTargetBefore = Boolean.parseBoolean(properties.get(Properties.MOVE_TARGET_BEFORE.getJKey()));
+        moveToLastTarget = properties.containsKey(Properties.MOVE_TO_LAST_TARGET.getJKey());
+
+        if (properties.containsKey(Properties.DISTANCE.getJKey())) {
+            distance = intOf(properties, Properties.DISTANCE);
+            exactDistance = true;
+        } else {
+            distance = intOf(properties, Properties.MIN_DISTANCE);
+            exactDistance = false;
+        }
+        inLine = properties.containsKey(Properties.INLINE.getJKey());
+
+        samePosition = properties.containsKey(Properties.SAME_POSITION.getJKey());
+        checkVisible = properties.containsKey(Properties.VISIBLE.getJKey());
+        visible = Boolean.parseBoolean(properties.get(Properties.VISIBLE.getJKey()));
+        concatenatedVisible = properties.containsKey(Properties.CONCATENATED_VISIBLE.getJKey());
+
+        teleport = properties.containsKey(Properties.TP.getJKey());
+    }
+
+    private static int intOf(Map<String, String> properties, Properties property) {
+        String value = properties.get(property.getJKey());
+        return value != null ? Integer.parseInt(value) : ABSENT;
+    }
+
+    /**
+     * Compiles the rules of an effect, one for each of its targets. An effect with more targets has a sub effect
+     * for each of them, whose properties are separated in {@code properties} by the name of the target
+     *
+     * @param properties the properties of the effect
+     * @param targets    the kinds of target of the effect
+     * @return the rules of the effect, in the order of the targets
+     */
+    static EffectRules[] compile(Map<String, String> properties, TargetType[] targets) {
+        if (targets == null || targets.length == 0) {
+            return new EffectRules[]{new EffectRules(properties, null)};
+        }
+
+        EffectRules[] rules = new EffectRules[targets.length];
+
+        if (targets.length > 1) {
+            for (int i = 0; i < targets.length; ++i) {
+                rules[i] = new EffectRules(EffectValidator.getSubMap(properties, targets[i]), targets[i]);
+            }
+        } else {
+            rules[0] = new EffectRules(properties, targets[0]);
+        }
+
+        return rules;
+    }
+}
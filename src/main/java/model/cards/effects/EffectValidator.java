@@ -2,13 +2,13 @@ package model.cards.effects;
 
 import enumerations.Direction;
 import enumerations.MessageContent;
-import enumerations.Properties;
 import enumerations.TargetType;
 import exceptions.command.InvalidCommandException;
 import exceptions.player.NoDirectionException;
 import exceptions.player.SamePositionException;
 import exceptions.utility.InvalidPropertiesException;
 import model.Game;
+import model.map.GameMap;
 import model.player.Player;
 import model.player.PlayerPosition;
 import model.player.UserPlayer;
@@ -36,13 +36,9 @@ class EffectValidator {
      * @return true if the positions are visible, otherwise false
      */
     private static boolean areAllVisible(PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
-        for (PlayerPosition position : targetPositions) {
-            if (!shooterPosition.canSee(position)) {
-                return false;
-            }
-        }
+        int targets = GameMap.squaresMask(targetPositions);
 
-        return true;
+        return (Game.getInstance().getGameMap().getVisibleSquares(shooterPosition) & targets) == targets;
     }
 
     /**
@@ -53,13 +49,7 @@ class EffectValidator {
      * @return true if the positions are invisible, otherwise false
      */
     private static boolean areAllInvisible(PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
-        for (PlayerPosition position : targetPositions) {
-            if (shooterPosition.canSee(position)) {
-                return false;
-            }
-        }
-
-        return true;
+        return (Game.getInstance().getGameMap().getVisibleSquares(shooterPosition) & GameMap.squaresMask(targetPositions)) == 0;
     }
 
     /**
@@ -72,15 +62,11 @@ class EffectValidator {
      * @return true if the positions are concatenatedVisible, otherwise false
      */
     private static boolean areConcatenatedVisible(PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
-        PlayerPosition tempVisiblePos;
+        GameMap map = Game.getInstance().getGameMap();
+        PlayerPosition tempVisiblePos = shooterPosition;
 
-        if (targetPositions.size() == 1) {
-            return shooterPosition.canSee(targetPositions.get(0));
-        }
-
-        tempVisiblePos = shooterPosition;
         for (PlayerPosition position : targetPositions) {
-            if (!tempVisiblePos.canSee(position)) {
+            if (!map.canSee(tempVisiblePos, position)) {
                 return false;
             }
             tempVisiblePos = position;
@@ -282,20 +268,18 @@ class EffectValidator {
     }
 
     /**
-     * Checks if target moves are valid based on effect properties
+     * Checks if target moves are valid based on effect rules
      *
-     * @param request    containing the effect request
-     * @param properties Map of effect properties
+     * @param request containing the effect request
+     * @param rules   the rules of the effect
      * @return {@code true} if target moves are valid {@code false} otherwise
      */
-    static boolean isMoveValid(EffectRequest request, Map<String, String> properties) {
+    static boolean isMoveValid(EffectRequest request, EffectRules rules) {
         // Player move validation
-        if (properties.containsKey(Properties.MOVE.getJKey())) {
+        if (rules.move != EffectRules.ABSENT) {
             PlayerPosition playerMovingPos = request.getSenderMovePosition();
-            String senderUsername = request.getSenderUsername();
-            int moveDistance = Integer.parseInt(properties.get(Properties.MOVE.getJKey()));
 
-            if (playerMovingPos == null || !EffectValidator.canMove(senderUsername, playerMovingPos, moveDistance)) {
+            if (playerMovingPos == null || !EffectValidator.canMove(request.getSenderUsername(), playerMovingPos, rules.move)) {
                 return false;
             }
         }
@@ -304,26 +288,18 @@ class EffectValidator {
         List<String> targetsUsername = request.getTargetPlayersUsername();
         List<PlayerPosition> movingPos = request.getTargetPlayersMovePositions();
 
-        int moveDistance;
-
-        if (properties.containsKey(Properties.MOVE_TARGET.getJKey())) {
-            moveDistance = Integer.parseInt(properties.get(Properties.MOVE_TARGET.getJKey()));
-
-            if (movingPos.isEmpty() || !EffectValidator.canMove(targetsUsername, movingPos, moveDistance, true)) {
-                return false;
-            }
+        if (rules.moveTarget != EffectRules.ABSENT &&
+                (movingPos.isEmpty() || !EffectValidator.canMove(targetsUsername, movingPos, rules.moveTarget, true))) {
+            return false;
         }
 
-        if (properties.containsKey(Properties.MAX_MOVE_TARGET.getJKey())) {
-            moveDistance = Integer.parseInt(properties.get(Properties.MAX_MOVE_TARGET.getJKey()));
-
-            if (movingPos.isEmpty() || !EffectValidator.canMove(targetsUsername, movingPos, moveDistance, false)) {
-                return false;
-            }
+        if (rules.maxMoveTarget != EffectRules.ABSENT &&
+                (movingPos.isEmpty() || !EffectValidator.canMove(targetsUsername, movingPos, rules.maxMoveTarget, false))) {
+            return false;
         }
 
         // Target MoveInLine validation
-        return !(properties.containsKey(Properties.MOVE_INLINE.getJKey()) && !EffectValidator.isMovingDirectionally(request));
+        return !(rules.moveInLine && !EffectValidator.isMovingDirectionally(request));
     }
 
     /**
@@ -343,42 +319,31 @@ class EffectValidator {
 
     /**
      * Method that verifies if the distance between the shooter and the target positions are valid due to
-     * the properties found in the Map properties and the TargetType of the targets
+     * the rules of the effect
      *
-     * @param properties      Map containing the properties of the effect
+     * @param rules           the rules of the effect
      * @param shooterPosition PlayerPosition of the shooter
      * @param targetPositions List of PlayerPosition of the targets
-     * @param targetType      TargetType of the targets
      * @return true if all the target positions are valid with the shooting one, otherwise false
      */
-    static boolean isDistanceValid(Map<String, String> properties, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions, TargetType targetType) {
-        // Distance validation
-        int distance;
-        boolean exactDistance;
-
-        if (properties.containsKey(Properties.DISTANCE.getJKey())) { // Exact target distance
-            distance = Integer.parseInt(properties.get(Properties.DISTANCE.getJKey()));
-            exactDistance = true;
-        } else if (properties.containsKey(Properties.MIN_DISTANCE.getJKey())) { // Minimum target distance
-            distance = Integer.parseInt(properties.get(Properties.MIN_DISTANCE.getJKey()));
-            exactDistance = false;
-        } else {
+    static boolean isDistanceValid(EffectRules rules, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
+        if (rules.distance == EffectRules.ABSENT) {
             return true;
         }
 
-        return isDistantEnough(shooterPosition, targetPositions, targetType, distance, exactDistance);
+        return isDistantEnough(shooterPosition, targetPositions, rules.targetType, rules.distance, rules.exactDistance);
     }
 
     /**
-     * Method that verifies the inLine property
+     * Method that verifies the inLine rule
      *
-     * @param properties      Map containing the properties of the effect
+     * @param rules           the rules of the effect
      * @param shooterPosition PlayerPosition of the shooter
      * @param targetPositions List of PlayerPosition of the targets
      * @return true if both or only one of the two properties are verified, otherwise false
      */
-    static boolean isPositioningValid(Map<String, String> properties, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
-        return !(properties.containsKey(Properties.INLINE.getJKey()) && !areInLine(shooterPosition, targetPositions)); // InLine targets validation
+    static boolean isPositioningValid(EffectRules rules, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
+        return !(rules.inLine && !areInLine(shooterPosition, targetPositions)); // InLine targets validation
     }
 
     /**
@@ -403,21 +368,19 @@ class EffectValidator {
     /**
      * Method that verifies the visibility from the shooter position to the targets' ones
      * Both visibilities are validated in this method taking care that an effect can never
-     * have them together in the same Map of properties
+     * have them together in its rules
      *
-     * @param properties      Map containing the properties of the effect
+     * @param rules           the rules of the effect
      * @param shooterPosition PlayerPosition of the shooter
      * @param targetPositions List of PlayerPosition of the targets
      * @return true if the visibility is verified for each target position, otherwise false
      */
-    static boolean isVisibilityValid(Map<String, String> properties, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
-        return !((properties.containsKey(Properties.SAME_POSITION.getJKey()) && !areInSamePosition(targetPositions)) || // Targets Same Position
-                (properties.containsKey(Properties.VISIBLE.getJKey()) &&
-                        (!Boolean.parseBoolean(properties.get(Properties.VISIBLE.getJKey())) &&
-                                !areAllInvisible(shooterPosition, targetPositions) || // Visible property == false and at least one target is visible
-                                        (Boolean.parseBoolean(properties.get(Properties.VISIBLE.getJKey())) &&
-                                                !areAllVisible(shooterPosition, targetPositions)))) || // Visible property == true and at least one target is invisible
-                (properties.containsKey(Properties.CONCATENATED_VISIBLE.getJKey()) && !areConcatenatedVisible(shooterPosition, targetPositions))); // Concatenated visibility
+    static boolean isVisibilityValid(EffectRules rules, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
+        return !((rules.samePosition && !areInSamePosition(targetPositions)) || // Targets Same Position
+                (rules.checkVisible &&
+                        (!rules.visible && !areAllInvisible(shooterPosition, targetPositions) || // Visible property == false and at least one target is visible
+                                (rules.visible && !areAllVisible(shooterPosition, targetPositions)))) || // Visible property == true and at least one target is invisible
+                (rules.concatenatedVisible && !areConcatenatedVisible(shooterPosition, targetPositions))); // Concatenated visibility
     }
 
     /**
@@ -557,46 +520,35 @@ class EffectValidator {
     }
 
     /**
-     * Checks if command targets are valid based on effect properties
+     * Checks if command targets are valid based on effect rules
      *
-     * @param request    containing the effect request
-     * @param properties Map of effect properties
-     * @param targetType TargetType of the effect target
+     * @param request containing the effect request
+     * @param rules   the rules of the effect
      * @return {@code true} if command targets are valid {@code false} otherwise
      */
-    static boolean isTargetValid(EffectRequest request, Map<String, String> properties, TargetType targetType) {
+    static boolean isTargetValid(EffectRequest request, EffectRules rules) {
         // TargetType validation
-        if (!isTargetTypeValid(request, targetType)) {
+        if (!isTargetTypeValid(request, rules.targetType)) {
             return false;
         }
 
         // Target number validation
-        int targetNumber;
-        boolean exactNumber;
-        if (properties.containsKey(Properties.TARGET_NUM.getJKey())) { // Exact target number
-            targetNumber = Integer.parseInt(properties.get(enumerations.Properties.TARGET_NUM.getJKey()));
-            exactNumber = true;
-        } else if (properties.containsKey(Properties.MAX_TARGET_NUM.getJKey())) { // Maximum target number
-            targetNumber = Integer.parseInt(properties.get(Properties.MAX_TARGET_NUM.getJKey()));
-            exactNumber = false;
-        } else {
+        if (rules.targetNum == EffectRules.ABSENT) {
             throw new InvalidPropertiesException();
         }
 
-        return isTargetNumValid(request, targetType, targetNumber, exactNumber);
+        return isTargetNumValid(request, rules.targetType, rules.targetNum, rules.exactTargetNum);
     }
 
     /**
      * Checks if target moves before is congruent with the command
      *
-     * @param request    containing the fire request
-     * @param properties Map of effect properties
+     * @param request containing the fire request
+     * @param rules   the rules of the effect
      * @return {@code true} if target move before is valid {@code false} otherwise
      */
-    public static boolean isMoveBeforeValid(ShootRequest request, Map<String, String> properties) {
-        return !(properties.containsKey(Properties.MOVE_TARGET_BEFORE.getJKey()) &&
-                (Boolean.parseBoolean(properties.get(Properties.MOVE_TARGET_BEFORE.getJKey()))
-                        != request.isMoveTargetsFirst()));
+    static boolean isMoveBeforeValid(ShootRequest request, EffectRules rules) {
+        return !(rules.checkMoveTargetBefore && rules.moveTargetBefore != request.isMoveTargetsFirst());
     }
 
     /**
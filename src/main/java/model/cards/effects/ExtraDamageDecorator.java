@@ -18,6 +18,14 @@ public class ExtraDamageDecorator extends ExtraEffectDecorator {
     private final int[] damageDistribution;
     private final TargetType targetType;
 
+    /**
+     * Creates an empty decoration, whose fields are set by the binary codec of the network messages
+     */
+    private ExtraDamageDecorator() {
+        this.damageDistribution = null;
+        this.targetType = null;
+    }
+
     /**
      * Builds the Damage Decoration
      *
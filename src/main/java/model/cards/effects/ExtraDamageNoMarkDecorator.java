@@ -15,6 +15,13 @@ public class ExtraDamageNoMarkDecorator extends ExtraEffectDecorator {
     private static final long serialVersionUID = -2582923298178193774L;
     private final int[] damageDistribution;
 
+    /**
+     * Creates an empty decoration, whose fields are set by the binary codec of the network messages
+     */
+    private ExtraDamageNoMarkDecorator() {
+        this.damageDistribution = null;
+    }
+
     /**
      * Builds the Damage with no marks decoration
      *
@@ -18,6 +18,14 @@ public class ExtraMarkDecorator extends ExtraEffectDecorator {
     private final int[] markDistribution;
     private final TargetType targetType;
 
+    /**
+     * Creates an empty decoration, whose fields are set by the binary codec of the network messages
+     */
+    private ExtraMarkDecorator() {
+        this.markDistribution = null;
+        this.targetType = null;
+    }
+
     /**
      * Builds the Mark Decoration
      *
@@ -16,6 +16,13 @@ public class ExtraMoveDecorator extends ExtraEffectDecorator {
     private static final long serialVersionUID = -1299754577436399885L;
     private final MoveTarget moveTarget;
 
+    /**
+     * Creates an empty decoration, whose fields are set by the binary codec of the network messages
+     */
+    private ExtraMoveDecorator() {
+        this.moveTarget = null;
+    }
+
     /**
      * Builds the Move Decoration
      *
@@ -1,6 +1,5 @@
 package model.cards.effects;
 
-import enumerations.Properties;
 import enumerations.TargetType;
 import exceptions.utility.InvalidPropertiesException;
 import model.Game;
@@ -21,11 +20,19 @@ public class PowerupBaseEffect extends Effect {
 
     private static final long serialVersionUID = -2807643151080169972L;
 
+    /**
+     * Creates an empty effect, whose fields are set by the binary codec of the network messages
+     */
+    private PowerupBaseEffect() {
+        // the fields are set by the codec
+    }
+
     public PowerupBaseEffect(Map<String, String> properties, TargetType[] targets, String description) {
         this.cost = new AmmoQuantity();
         this.targets = targets;
         setProperties(properties);
         this.description = description;
+        getRules();
     }
 
     public PowerupBaseEffect(AmmoQuantity cost, Map<String, String> properties, TargetType[] targets, String description) {
@@ -33,6 +40,7 @@ public class PowerupBaseEffect extends Effect {
         this.targets = targets;
         setProperties(properties);
         this.description = description;
+        getRules();
     }
 
     @Override
@@ -44,7 +52,9 @@ public class PowerupBaseEffect extends Effect {
     public boolean validate(EffectRequest request) {
         PowerupRequest powerupRequest = (PowerupRequest) request;
 
-        if(getProperties().containsKey(Properties.TP.getJKey())) {
+        EffectRules[] rules = getRules();
+
+        if (rules[0].teleport) {
             return teleporterValidator(powerupRequest);
         }
 
@@ -56,7 +66,7 @@ public class PowerupBaseEffect extends Effect {
         List<PlayerPosition> targetPos = EffectValidator.getTargetPositions(powerupRequest, getTargets()[0]);
 
         // command targets validation
-        if (!EffectValidator.isTargetValid(powerupRequest, getProperties(), getTargets()[0])) {
+        if (!EffectValidator.isTargetValid(powerupRequest, rules[0])) {
             return false;
         }
 
@@ -66,11 +76,11 @@ public class PowerupBaseEffect extends Effect {
         }
 
         // moves validation
-        if (!EffectValidator.isMoveValid(powerupRequest, getProperties())) {
+        if (!EffectValidator.isMoveValid(powerupRequest, rules[0])) {
             return false;
         }
 
         // visibility validation
-        return EffectValidator.isVisibilityValid(getProperties(), powerupUserPos, targetPos);
+        return EffectValidator.isVisibilityValid(rules[0], powerupUserPos, targetPos);
     }
 }
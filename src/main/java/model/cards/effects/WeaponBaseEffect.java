@@ -1,6 +1,5 @@
 package model.cards.effects;
 
-import enumerations.Properties;
 import enumerations.TargetType;
 import model.player.AmmoQuantity;
 import model.player.PlayerPosition;
@@ -17,11 +16,19 @@ public class WeaponBaseEffect extends Effect {
 
     private static final long serialVersionUID = 6933102168404912677L;
 
+    /**
+     * Creates an empty effect, whose fields are set by the binary codec of the network messages
+     */
+    private WeaponBaseEffect() {
+        // the fields are set by the codec
+    }
+
     public WeaponBaseEffect(AmmoQuantity cost, Map<String, String> properties, TargetType[] targets, String description) {
         this.cost = cost;
         this.targets = targets;
         setProperties(properties);
         this.description = description;
+        getRules();
     }
 
     @Override
@@ -33,16 +40,14 @@ public class WeaponBaseEffect extends Effect {
     public boolean validate(EffectRequest request) {
         ShootRequest shootRequest = (ShootRequest) request;
 
-        if (getTargets().length > 1) { // This effect has subEffects
-            for (TargetType targetType : getTargets()) { // Checks that every subEffect is valid
-                if (!subValidate(shootRequest, EffectValidator.getSubMap(getProperties(), targetType), targetType)) {
-                    return false;
-                }
+        // Checks that every subEffect is valid, an effect without subEffects has the only rules of its target
+        for (EffectRules rules : getRules()) {
+            if (!subValidate(shootRequest, rules)) {
+                return false;
             }
-            return true;
-        } else { // Checks the effect normally
-            return subValidate(shootRequest, getProperties(), getTargets()[0]);
         }
+
+        return true;
     }
 
     /**
@@ -50,20 +55,20 @@ public class WeaponBaseEffect extends Effect {
      * request received
      *
      * @param request the received request
-     * @param properties the checking properties
-     * @param targetType the kind of target on which the weapon is damaging
+     * @param rules   the checking rules, with the kind of target on which the weapon is damaging
      * @return true if all the properties are valid, otherwise false
      */
-    private boolean subValidate(ShootRequest request, Map<String, String> properties, TargetType targetType) {
+    private boolean subValidate(ShootRequest request, EffectRules rules) {
+        TargetType targetType = rules.targetType;
         PlayerPosition shooterPosition = EffectValidator.checkAdrenalineMove(request);
         List<PlayerPosition> targetPositions = EffectValidator.getTargetPositions(request, targetType);
 
         // Command targets validation
-        if (!EffectValidator.isTargetValid(request, properties, targetType))
+        if (!EffectValidator.isTargetValid(request, rules))
             return false;
 
         // Player moves validation
-        if (!EffectValidator.isMoveValid(request, properties))
+        if (!EffectValidator.isMoveValid(request, rules))
             return false;
 
         // Simulates player movement before or while shooting
@@ -75,7 +80,7 @@ public class WeaponBaseEffect extends Effect {
 
         // Move before validation
         if (targetType == TargetType.PLAYER) {
-            if (!EffectValidator.isMoveBeforeValid(request, properties)) {
+            if (!EffectValidator.isMoveBeforeValid(request, rules)) {
                 return false;
             } else if (request.isMoveTargetsFirst()) { // Simulates targets movements before shooting
                 targetPositions = request.getTargetPlayersMovePositions();
@@ -83,29 +88,30 @@ public class WeaponBaseEffect extends Effect {
         }
 
         // Target distance validation
-        if (!EffectValidator.isDistanceValid(properties, shooterPosition, targetPositions, targetType)) {
+        if (!EffectValidator.isDistanceValid(rules, shooterPosition, targetPositions)) {
             return false;
         }
 
         // Target visibility validation
-        if (!EffectValidator.isVisibilityValid(properties, shooterPosition, targetPositions)) {
+        if (!EffectValidator.isVisibilityValid(rules, shooterPosition, targetPositions)) {
             return false;
         }
 
-        return validateMovement(request, properties, targetType, shooterPosition, targetPositions);
+        return validateMovement(request, rules, shooterPosition, targetPositions);
     }
 
     /**
      * Other Utility method instead used only for the moving validation
      *
      * @param request the request received
-     * @param properties the properties to be validated
-     * @param targetType the kind of target to be shooted
+     * @param rules the rules to be validated, with the kind of target to be shooted
      * @param shooterPosition the {@link PlayerPosition PlayerPosition} of the target
      * @param targetPositions the targets moving positions
      * @return true if all the properties are valid, otherwise false
      */
-    private boolean validateMovement(ShootRequest request, Map<String, String> properties, TargetType targetType, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
+    private boolean validateMovement(ShootRequest request, EffectRules rules, PlayerPosition shooterPosition, List<PlayerPosition> targetPositions) {
+        TargetType targetType = rules.targetType;
+
         // Simulates player movement after shooting
         if (!request.isMoveSenderFirst() && request.getSenderMovePosition() != null) {
             shooterPosition = request.getSenderMovePosition();
@@ -117,11 +123,11 @@ public class WeaponBaseEffect extends Effect {
         }
 
         // validates the in line movement
-        if (targetType == TargetType.PLAYER && !EffectValidator.isPositioningValid(properties, shooterPosition, targetPositions)) {
+        if (targetType == TargetType.PLAYER && !EffectValidator.isPositioningValid(rules, shooterPosition, targetPositions)) {
             return false;
         }
 
         // After move positioning validation
-        return !(targetType == TargetType.PLAYER && properties.containsKey(Properties.MOVE_TO_LAST_TARGET.getJKey()) && !EffectValidator.isMovingToLastTarget(request, request.getSenderMovePosition(), targetPositions));
+        return !(targetType == TargetType.PLAYER && rules.moveToLastTarget && !EffectValidator.isMovingToLastTarget(request, request.getSenderMovePosition(), targetPositions));
     }
 }
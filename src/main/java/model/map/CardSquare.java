@@ -11,6 +11,13 @@ public class CardSquare extends Square {
     private AmmoTile ammoTile;
     private boolean hasAmmoTile;
 
+    /**
+     * Creates an empty square, whose fields are set by the binary codec of the network messages
+     */
+    private CardSquare() {
+        this(null, null, null, null, null);
+    }
+
     public CardSquare(RoomColor color, SquareAdjacency north, SquareAdjacency east, SquareAdjacency south, SquareAdjacency west) {
         super(color, north, east, south, west, SquareType.TILE);
         this.ammoTile = null;
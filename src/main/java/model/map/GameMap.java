@@ -19,8 +19,14 @@ import org.jetbrains.annotations.NotNull;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents the Map used to play the game. It is a 2 x 3 matrix containing a null cell in case the
@@ -63,13 +69,31 @@ public class GameMap implements Serializable {
      * W W W Y
      */
     public static final int MAP_4 = 4;
+    /**
+     * Distance between two squares not connected by any path
+     */
+    public static final int UNREACHABLE = 999;
 
     private static final long serialVersionUID = 1887000392810101907L;
 
+    private static final int SQUARES = MAX_ROWS * MAX_COLUMNS;
+    private static final Map<Integer, int[]> DISTANCE_TABLES = new ConcurrentHashMap<>();
+    private static final Map<Integer, int[]> VISIBILITY_TABLES = new ConcurrentHashMap<>();
+
     private int mapID;
     private Square[][] rooms;
     private String imagePath;
 
+    private transient int[] distances;
+    private transient int[] visibility;
+
+    /**
+     * Creates an empty map, whose fields are set by the binary codec of the network messages
+     */
+    private GameMap() {
+        // the fields are set by the codec
+    }
+
     /**
      * Builds the map with the chosen index that represents her
      *
@@ -132,12 +156,16 @@ public class GameMap implements Serializable {
     }
 
     /**
-     * Creates a copy of the map
+     * Creates a copy of the map, sharing the squares but not the matrix containing them
      *
      * @param gameMap the map to be copied
      */
     public GameMap(@NotNull GameMap gameMap) {
-        this.rooms = gameMap.rooms;
+        this.rooms = new Square[gameMap.rooms.length][];
+        for (int i = 0; i < rooms.length; ++i) {
+            this.rooms[i] = gameMap.rooms[i].clone();
+        }
+
         this.imagePath = gameMap.imagePath;
         this.mapID = gameMap.mapID;
     }
@@ -207,6 +235,17 @@ public class GameMap implements Serializable {
         return rooms[x][y];
     }
 
+    /**
+     * Replaces the square in the specified coordinates
+     *
+     * @param x      the X of the square
+     * @param y      the Y of the square
+     * @param square the new square
+     */
+    public void setSquare(int x, int y, Square square) {
+        rooms[x][y] = square;
+    }
+
     /**
      * Returns the square specifying a playerPosition
      *
@@ -218,55 +257,250 @@ public class GameMap implements Serializable {
     }
 
     /**
-     * Method to obtain all the players who are in the specified position
+     * Returns the minimum number of steps needed to go from a square to another, crossing only doors and squares of
+     * the same room. Distances are computed once per map layout and shared by every map with the same ID
      *
-     * @param pos the position in which there are the Players returned
-     * @return the players who are in the position pos
+     * @param from the starting square
+     * @param to   the destination square
+     * @return the distance between the squares, {@link #UNREACHABLE UNREACHABLE} if the destination can not be reached
      */
-    public List<Player> getPlayersInSquare(PlayerPosition pos) {
-        Game game = Game.getInstance();
-        List<Player> players = new ArrayList<>();
+    public int distance(PlayerPosition from, PlayerPosition to) {
+        if (from.getRow() == to.getRow() && from.getColumn() == to.getColumn()) {
+            return 0;
+        }
 
-        for (Player p : game.getPlayers()) {
-            if (p.getPosition() != null && p.getPosition().equals(pos)) {
-                players.add(p);
-            }
+        if (getSquare(from) == null) {
+            throw new NullPointerException("No square in " + from);
+        }
+
+        if (to.getRow() < 0 || to.getRow() >= MAX_ROWS || to.getColumn() < 0 || to.getColumn() >= MAX_COLUMNS) {
+            return UNREACHABLE;
         }
 
-        if (game.isBotPresent()) {
-            Player term = game.getBot();
-            if (term.getPosition().equals(pos)) {
-                players.add(term);
+        int[] table = distances;
+        if (table == null) {
+            table = DISTANCE_TABLES.computeIfAbsent(mapID, id -> buildDistances());
+            distances = table;
+        }
+
+        return table[(from.getRow() * MAX_COLUMNS + from.getColumn()) * SQUARES + to.getRow() * MAX_COLUMNS + to.getColumn()];
+    }
+
+    /**
+     * Computes the distances between every pair of squares with a breadth first visit from each of them
+     *
+     * @return the matrix of the distances, the one from square {@code i} to square {@code j} is in
+     * {@code i * SQUARES + j}, squares are numbered row by row
+     */
+    private int[] buildDistances() {
+        int[] table = new int[SQUARES * SQUARES];
+        Arrays.fill(table, UNREACHABLE);
+
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int source = 0; source < SQUARES; ++source) {
+            int offset = source * SQUARES;
+            table[offset + source] = 0;
+
+            if (rooms[source / MAX_COLUMNS][source % MAX_COLUMNS] == null) {
+                continue;
+            }
+
+            queue.add(source);
+
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+                int row = current / MAX_COLUMNS;
+                int column = current % MAX_COLUMNS;
+                Square square = rooms[row][column];
+
+                visit(table, queue, offset, current, square.getNorth(), row - 1, column);
+                visit(table, queue, offset, current, square.getEast(), row, column + 1);
+                visit(table, queue, offset, current, square.getSouth(), row + 1, column);
+                visit(table, queue, offset, current, square.getWest(), row, column - 1);
             }
         }
 
-        return players;
+        return table;
+    }
+
+    private void visit(int[] table, Queue<Integer> queue, int offset, int current, SquareAdjacency adjacency, int row, int column) {
+        if ((adjacency != SquareAdjacency.DOOR && adjacency != SquareAdjacency.SQUARE) ||
+                row < 0 || row >= MAX_ROWS || column < 0 || column >= MAX_COLUMNS || rooms[row][column] == null) {
+            return;
+        }
+
+        int next = row * MAX_COLUMNS + column;
+
+        if (table[offset + next] == UNREACHABLE) {
+            table[offset + next] = table[offset + current] + 1;
+            queue.add(next);
+        }
     }
 
     /**
-     * Method to obtain all the players who are in the specified room
+     * Returns the bit that represents a square in the masks of squares, squares are numbered row by row
      *
-     * @param roomColor the Color of the room in which there are the players returned
-     * @return the ArrayList of players who are in the room of color roomColor
+     * @param position the position of the square
+     * @return the mask with only the bit of the square set
      */
-    public List<Player> getPlayersInRoom(RoomColor roomColor) {
-        Game game = Game.getInstance();
-        List<Player> players = new ArrayList<>();
+    public static int squareBit(PlayerPosition position) {
+        return 1 << (position.getRow() * MAX_COLUMNS + position.getColumn());
+    }
+
+    /**
+     * Returns the mask of the squares in a list of positions
+     *
+     * @param positions the positions of the squares
+     * @return the mask with the bits of the squares set, see {@link #squareBit(PlayerPosition) squareBit}
+     */
+    public static int squaresMask(List<PlayerPosition> positions) {
+        int mask = 0;
+
+        for (PlayerPosition position : positions) {
+            mask |= squareBit(position);
+        }
+
+        return mask;
+    }
+
+    /**
+     * Returns the squares visible from a square: the ones of its room and of the rooms its doors lead to. Visibility
+     * is computed once per map layout and shared by every map with the same ID
+     *
+     * @param from the position looking
+     * @return the mask of the visible squares, see {@link #squareBit(PlayerPosition) squareBit}
+     */
+    public int getVisibleSquares(PlayerPosition from) {
+        if (getSquare(from) == null) {
+            throw new NullPointerException("No square in " + from);
+        }
+
+        int[] table = visibility;
+        if (table == null) {
+            table = VISIBILITY_TABLES.computeIfAbsent(mapID, id -> buildVisibility());
+            visibility = table;
+        }
+
+        return table[from.getRow() * MAX_COLUMNS + from.getColumn()];
+    }
+
+    /**
+     * Checks if a square can be seen from another one
+     *
+     * @param from the position looking
+     * @param to   the position looked at
+     * @return {@code true} if {@code to} is visible from {@code from}, otherwise {@code false}
+     */
+    public boolean canSee(PlayerPosition from, PlayerPosition to) {
+        return (getVisibleSquares(from) & squareBit(to)) != 0;
+    }
 
-        for (Player p : game.getPlayers()) {
-            if (p.getPosition() != null && getSquare(p.getPosition().getRow(), p.getPosition().getColumn()).getRoomColor().equals(roomColor)) {
-                players.add(p);
+    /**
+     * Returns the players visible from a square. Bit {@code i} of the result is set if the {@code i}-th player of
+     * the list has a position visible from {@code from}
+     *
+     * @param from    the position looking
+     * @param players the players looked at, at most 32
+     * @return the mask of the visible players
+     */
+    public int getVisiblePlayers(PlayerPosition from, List<? extends Player> players) {
+        int visible = getVisibleSquares(from);
+        int mask = 0;
+
+        for (int i = 0; i < players.size(); ++i) {
+            PlayerPosition position = players.get(i).getPosition();
+
+            if (position != null && (visible & squareBit(position)) != 0) {
+                mask |= 1 << i;
             }
         }
 
-        if (game.isBotPresent()) {
-            Player term = game.getBot();
-            if (getSquare(term.getPosition().getRow(), term.getPosition().getColumn()).getRoomColor().equals(roomColor)) {
-                players.add(term);
+        return mask;
+    }
+
+    /**
+     * Computes for each square the mask of the squares visible from it
+     *
+     * @return the masks, squares are numbered row by row
+     */
+    private int[] buildVisibility() {
+        int[] table = new int[SQUARES];
+
+        for (int source = 0; source < SQUARES; ++source) {
+            int row = source / MAX_COLUMNS;
+            int column = source % MAX_COLUMNS;
+            Square square = rooms[row][column];
+
+            if (square == null) {
+                continue;
+            }
+
+            EnumSet<RoomColor> colors = EnumSet.of(square.getRoomColor());
+            addDoorRoom(colors, square.getNorth(), row - 1, column);
+            addDoorRoom(colors, square.getEast(), row, column + 1);
+            addDoorRoom(colors, square.getSouth(), row + 1, column);
+            addDoorRoom(colors, square.getWest(), row, column - 1);
+
+            for (int target = 0; target < SQUARES; ++target) {
+                Square other = rooms[target / MAX_COLUMNS][target % MAX_COLUMNS];
+
+                if (other != null && colors.contains(other.getRoomColor())) {
+                    table[source] |= 1 << target;
+                }
             }
         }
 
-        return players;
+        return table;
+    }
+
+    private void addDoorRoom(EnumSet<RoomColor> colors, SquareAdjacency adjacency, int row, int column) {
+        if (adjacency == SquareAdjacency.DOOR && row >= 0 && row < MAX_ROWS && column >= 0 && column < MAX_COLUMNS &&
+                rooms[row][column] != null) {
+            colors.add(rooms[row][column].getRoomColor());
+        }
+    }
+
+    /**
+     * Method to obtain all the players who are in the specified position
+     *
+     * @param pos the position in which there are the Players returned
+     * @return the players who are in the position pos
+     */
+    public List<Player> getPlayersInSquare(PlayerPosition pos) {
+        return getPlayersInSquare(pos, Game.getInstance());
+    }
+
+    /**
+     * Method to obtain all the players of a specific {@link Game Game} who are in the specified position
+     *
+     * @param pos  the position in which there are the Players returned
+     * @param game the game the players belong to
+     * @return the unmodifiable list of the players who are in the position pos
+     */
+    public List<Player> getPlayersInSquare(PlayerPosition pos, Game game) {
+        return game.getOccupancy(this).getPlayersInSquare(pos);
+    }
+
+    /**
+     * Method to obtain all the players who are in the specified room
+     *
+     * @param roomColor the Color of the room in which there are the players returned
+     * @return the ArrayList of players who are in the room of color roomColor
+     */
+    public List<Player> getPlayersInRoom(RoomColor roomColor) {
+        return getPlayersInRoom(roomColor, Game.getInstance());
+    }
+
+    /**
+     * Method to obtain all the players of a specific {@link Game Game} who are in the specified room
+     *
+     * @param roomColor the Color of the room in which there are the players returned
+     * @param game      the game the players belong to
+     * @return the unmodifiable list of the players who are in the room of color roomColor
+     */
+    public List<Player> getPlayersInRoom(RoomColor roomColor, Game game) {
+        return game.getOccupancy(this).getPlayersInRoom(roomColor);
     }
 
     /**
@@ -317,6 +551,16 @@ public class GameMap implements Serializable {
      * Method used at the end of the turn of each player to set the missing cards back on the map
      */
     public void addMissingCards() {
+        addMissingCards(Game.getInstance());
+    }
+
+    /**
+     * Method used at the end of the turn of each player to set the missing cards back on the map, drawing them from
+     * the decks of the specified {@link Game Game}
+     *
+     * @param game the game whose decks are used to refill the map
+     */
+    public void addMissingCards(Game game) {
         for (int i = 0; i < MAX_ROWS; ++i) {
             for (int j = 0; j < MAX_COLUMNS; ++j) {
                 Square tempSquare = getSquare(i, j);
@@ -327,12 +571,12 @@ public class GameMap implements Serializable {
 
                 switch (tempSquare.getSquareType()) {
                     case TILE:
-                        fillWithAmmoTile(tempSquare);
+                        fillWithAmmoTile(game, tempSquare);
                         break;
                     case SPAWN:
-                        int missingWeapons = getMissingCards((SpawnSquare) tempSquare);
+                        int missingWeapons = Math.min(getMissingCards((SpawnSquare) tempSquare), game.getWeaponsCardsDeck().numOfCards());
                         for (int k = 0; k < missingWeapons; ++k) {
-                            ((SpawnSquare) tempSquare).addWeapon((WeaponCard) Game.getInstance().getWeaponsCardsDeck().draw());
+                            ((SpawnSquare) tempSquare).addWeapon((WeaponCard) game.getWeaponsCardsDeck().draw());
                         }
                         break;
                     default:
@@ -345,14 +589,15 @@ public class GameMap implements Serializable {
     /**
      * Fills a TILE square with a tile
      *
+     * @param game       the game whose ammo tile deck is used
      * @param tempSquare the TILE square to be filled
      */
-    private void fillWithAmmoTile(Square tempSquare) {
+    private void fillWithAmmoTile(Game game, Square tempSquare) {
         if (!((CardSquare) tempSquare).isAmmoTilePresent()) {
-            AmmoTile drawnTile = (AmmoTile) Game.getInstance().getAmmoTileDeck().draw();
+            AmmoTile drawnTile = (AmmoTile) game.getAmmoTileDeck().draw();
             if(drawnTile == null) {
-                Game.getInstance().getAmmoTileDeck().flush();
-                ((CardSquare) tempSquare).setAmmoTile((AmmoTile) Game.getInstance().getAmmoTileDeck().draw());
+                game.getAmmoTileDeck().shuffle(game.nextRandom());
+                ((CardSquare) tempSquare).setAmmoTile((AmmoTile) game.getAmmoTileDeck().draw());
             } else {
                 ((CardSquare) tempSquare).setAmmoTile(drawnTile);
             }
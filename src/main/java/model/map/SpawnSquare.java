@@ -11,6 +11,13 @@ public class SpawnSquare extends Square {
     private static final long serialVersionUID = -6938415064965184143L;
     private WeaponCard[] weapons;
 
+    /**
+     * Creates an empty square, whose fields are set by the binary codec of the network messages
+     */
+    private SpawnSquare() {
+        this(null, null, null, null, null);
+    }
+
     /**
      * Create an instance of a piece of <code>SpawnSquare</code> map, allocate an array of <code>
      * MAX_WEAPONS</code> items that will contain the 3 weapons card
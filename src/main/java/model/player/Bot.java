@@ -8,6 +8,13 @@ import java.util.Objects;
 public class Bot extends Player {
     private static final long serialVersionUID = 7578529420778904200L;
     private boolean spawnTurn;
+    /**
+     * Creates an empty bot, whose fields are set by the binary codec of the network messages
+     */
+    private Bot() {
+        this(null, null);
+    }
+
     public Bot(PlayerColor color, PlayerBoard playerBoard) {
         super(GameConstants.BOT_NAME, color, playerBoard);
     }
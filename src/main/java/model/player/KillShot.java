@@ -9,6 +9,13 @@ public class KillShot implements Serializable {
     private final String killer;
     private final int points;
 
+    /**
+     * Creates an empty kill shot, whose fields are set by the binary codec of the network messages
+     */
+    private KillShot() {
+        this(null, 0);
+    }
+
     public KillShot(String killer, int points) {
         this.killer = killer;
         this.points = points;
@@ -0,0 +1,226 @@
+package model.player;
+
+import enumerations.RoomColor;
+import model.map.GameMap;
+import model.map.Square;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class indexes the players of a game by the square and the room they are in. Each indexed player has a slot,
+ * in the order they are given to the constructor, and the occupants of a square or a room are kept as a mask of
+ * slots updated by {@link Player Player} every time the position of one of its players changes through
+ * {@link Player#setPosition(PlayerPosition) setPosition} or {@link Player#changePosition(int, int) changePosition}.
+ * <p>
+ * The lists of occupants are built once per change of the occupants and shared by the queries until the next one
+ */
+public class OccupancyIndex {
+    private static final int SQUARES = GameMap.MAX_ROWS * GameMap.MAX_COLUMNS;
+    private static final int NOWHERE = -1;
+
+    private final int mapID;
+    private final RoomColor[] squareRooms = new RoomColor[SQUARES];
+
+    private final Player[] slots;
+    private final int[] slotSquares;
+
+    private final int[] squareMasks = new int[SQUARES];
+    private final int[] roomMasks = new int[RoomColor.values().length];
+
+    private final List<List<Player>> squareLists = new ArrayList<>(Collections.nCopies(SQUARES, null));
+    private final List<List<Player>> roomLists = new ArrayList<>(Collections.nCopies(RoomColor.values().length, null));
+
+    /**
+     * Builds the index of the players from their current positions
+     *
+     * @param map     the map the players are on
+     * @param players the players to index
+     * @param bot     the bot to index after the players, {@code null} if the game has no bot
+     */
+    public OccupancyIndex(GameMap map, List<UserPlayer> players, Player bot) {
+        mapID = map.getMapID();
+
+        for (int i = 0; i < SQUARES; ++i) {
+            Square square = map.getSquare(i / GameMap.MAX_COLUMNS, i % GameMap.MAX_COLUMNS);
+            squareRooms[i] = square != null ? square.getRoomColor() : null;
+        }
+
+        slots = new Player[players.size() + (bot != null ? 1 : 0)];
+        slotSquares = new int[slots.length];
+        Arrays.fill(slotSquares, NOWHERE);
+
+        for (int i = 0; i < players.size(); ++i) {
+            slots[i] = players.get(i);
+        }
+
+        if (bot != null) {
+            slots[slots.length - 1] = bot;
+        }
+
+        for (Player player : slots) {
+            player.occupancy = this;
+            update(player);
+        }
+    }
+
+    /**
+     * @param map a map
+     * @return {@code true} if the index can answer the queries on the map, otherwise {@code false}
+     */
+    public boolean isOf(GameMap map) {
+        return map.getMapID() == mapID;
+    }
+
+    /**
+     * Stops the indexed players from updating this index
+     */
+    public void detach() {
+        for (Player player : slots) {
+            if (player.occupancy == this) {
+                player.occupancy = null;
+            }
+        }
+    }
+
+    /**
+     * Moves a player to the square of its current position
+     *
+     * @param player the player whose position changed
+     */
+    void update(Player player) {
+        int slot = slotOf(player);
+        if (slot == NOWHERE) {
+            return;
+        }
+
+        PlayerPosition position = player.getPosition();
+        int square = position != null ? squareOf(position) : NOWHERE;
+        int previous = slotSquares[slot];
+
+        if (square == previous) {
+            return;
+        }
+
+        int bit = 1 << slot;
+
+        if (previous != NOWHERE) {
+            squareMasks[previous] &= ~bit;
+            squareLists.set(previous, null);
+            removeFromRoom(squareRooms[previous], bit);
+        }
+
+        if (square != NOWHERE && squareRooms[square] != null) {
+            squareMasks[square] |= bit;
+            squareLists.set(square, null);
+            roomMasks[squareRooms[square].ordinal()] |= bit;
+            roomLists.set(squareRooms[square].ordinal(), null);
+        } else {
+            square = NOWHERE;
+        }
+
+        slotSquares[slot] = square;
+    }
+
+    private void removeFromRoom(RoomColor room, int bit) {
+        roomMasks[room.ordinal()] &= ~bit;
+        roomLists.set(room.ordinal(), null);
+    }
+
+    private int slotOf(Player player) {
+        for (int i = 0; i < slots.length; ++i) {
+            if (slots[i] == player) {
+                return i;
+            }
+        }
+
+        return NOWHERE;
+    }
+
+    private static int squareOf(PlayerPosition position) {
+        int row = position.getRow();
+        int column = position.getColumn();
+
+        if (row < 0 || row >= GameMap.MAX_ROWS || column < 0 || column >= GameMap.MAX_COLUMNS) {
+            return NOWHERE;
+        }
+
+        return row * GameMap.MAX_COLUMNS + column;
+    }
+
+    /**
+     * @param slot the slot of a player
+     * @return the player indexed in the slot
+     */
+    public Player getPlayer(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * @param position the position of a square
+     * @return the mask of the slots of the players in the square
+     */
+    public int getSquareMask(PlayerPosition position) {
+        int square = squareOf(position);
+        return square != NOWHERE ? squareMasks[square] : 0;
+    }
+
+    /**
+     * @param roomColor the color of a room
+     * @return the mask of the slots of the players in the room
+     */
+    public int getRoomMask(RoomColor roomColor) {
+        return roomMasks[roomColor.ordinal()];
+    }
+
+    /**
+     * @param position the position of a square
+     * @return the unmodifiable list of the players in the square, in the order of their slots
+     */
+    public List<Player> getPlayersInSquare(PlayerPosition position) {
+        int square = squareOf(position);
+        if (square == NOWHERE) {
+            return Collections.emptyList();
+        }
+
+        List<Player> occupants = squareLists.get(square);
+        if (occupants == null) {
+            occupants = toList(squareMasks[square]);
+            squareLists.set(square, occupants);
+        }
+
+        return occupants;
+    }
+
+    /**
+     * @param roomColor the color of a room
+     * @return the unmodifiable list of the players in the room, in the order of their slots
+     */
+    public List<Player> getPlayersInRoom(RoomColor roomColor) {
+        List<Player> occupants = roomLists.get(roomColor.ordinal());
+        if (occupants == null) {
+            occupants = toList(roomMasks[roomColor.ordinal()]);
+            roomLists.set(roomColor.ordinal(), occupants);
+        }
+
+        return occupants;
+    }
+
+    private List<Player> toList(int mask) {
+        if (mask == 0) {
+            return Collections.emptyList();
+        }
+
+        List<Player> players = new ArrayList<>(Integer.bitCount(mask));
+
+        for (int i = 0; i < slots.length; ++i) {
+            if ((mask & (1 << i)) != 0) {
+                players.add(slots[i]);
+            }
+        }
+
+        return Collections.unmodifiableList(players);
+    }
+}
@@ -14,6 +14,7 @@ public abstract class Player implements Serializable, Comparable<Player> {
     private final PlayerBoard playerBoard;
     private PlayerPosition position;
     private transient int points;
+    transient OccupancyIndex occupancy;
 
     public Player(String username) {
         this.username = username;
@@ -93,6 +94,10 @@ public abstract class Player implements Serializable, Comparable<Player> {
 
     public void setPosition(PlayerPosition position) {
         this.position = position;
+
+        if (occupancy != null) {
+            occupancy.update(this);
+        }
     }
 
     public int getPoints() {
@@ -129,6 +134,10 @@ public abstract class Player implements Serializable, Comparable<Player> {
         }
         this.position.setRow(newX);
         this.position.setColumn(newY);
+
+        if (occupancy != null) {
+            occupancy.update(this);
+        }
     }
 
     /**
@@ -150,10 +159,7 @@ public abstract class Player implements Serializable, Comparable<Player> {
     public boolean canSee(Player other) {
         if (this.samePosition(other)) return true;
 
-        PlayerPosition p1 = new PlayerPosition(this.position);
-        PlayerPosition p2 = new PlayerPosition(other.position);
-
-        return p1.canSee(p2);
+        return position.canSee(other.position);
     }
 
     @Override
@@ -2,22 +2,41 @@ package model.player;
 
 import enumerations.Ammo;
 import enumerations.PlayerBoardState;
+import enumerations.PlayerColor;
 import exceptions.playerboard.BoardAlreadyFlippedException;
 import exceptions.playerboard.BoardFlipDamagedException;
 import exceptions.playerboard.InvalidDamageException;
 import exceptions.playerboard.NotEnoughAmmoException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
+/**
+ * The board of a player. Damages and marks are not stored as the usernames of their dealers: every dealer that ever
+ * damaged or marked the board gets a byte id, its index in the table of the dealers of the board, and damages and
+ * marks are arrays of ids plus a counter for each dealer. Usernames and colors are only resolved when the board is
+ * read, as the table is serialized with the board
+ */
 public class PlayerBoard implements Serializable {
-    private static final long serialVersionUID = 696570674587022548L;
+    private static final long serialVersionUID = -1946375019483629517L;
+    private static final int MAX_DAMAGES = 12;
+    private static final int MAX_MARKS = 4;
+    private static final int INITIAL_DEALERS = 4;
 
-    private List<String> damages;
-    private List<String> marks;
+    private String[] dealerNames;
+    private PlayerColor[] dealerColors;
+    private int dealersCount;
+
+    private byte[] damages;
+    private int damageCount;
+    private byte[] damagesByDealer;
+    private byte[] marksByDealer;
+    private int markCount;
 
     private int skulls;
     private AmmoQuantity ammo;
@@ -34,8 +53,11 @@ public class PlayerBoard implements Serializable {
      * Initialize the PlayerBoard to a not flipped player board
      */
     public PlayerBoard() {
-        damages = new ArrayList<>();
-        marks = new ArrayList<>();
+        dealerNames = new String[INITIAL_DEALERS];
+        dealerColors = new PlayerColor[INITIAL_DEALERS];
+        damages = new byte[MAX_DAMAGES];
+        damagesByDealer = new byte[INITIAL_DEALERS];
+        marksByDealer = new byte[INITIAL_DEALERS];
 
         skulls = 0;
         ammo = new AmmoQuantity(1, 1, 1);
@@ -46,8 +68,14 @@ public class PlayerBoard implements Serializable {
     }
 
     public PlayerBoard(PlayerBoard other) {
-        this.damages = new ArrayList<>(other.damages);
-        this.marks = new ArrayList<>(other.marks);
+        this.dealerNames = other.dealerNames.clone();
+        this.dealerColors = other.dealerColors.clone();
+        this.dealersCount = other.dealersCount;
+        this.damages = other.damages.clone();
+        this.damageCount = other.damageCount;
+        this.damagesByDealer = other.damagesByDealer.clone();
+        this.marksByDealer = other.marksByDealer.clone();
+        this.markCount = other.markCount;
         this.skulls = other.skulls;
         this.ammo = new AmmoQuantity(other.ammo);
         this.boardState = other.boardState;
@@ -93,22 +121,64 @@ public class PlayerBoard implements Serializable {
 
     }
 
+    /**
+     * Method used to set the damages of a {@link PlayerBoard PlayerBoard}
+     *
+     * @param damages the dealers of the damages, in the order they were inflicted
+     */
+    public void setDamages(List<? extends Player> damages) {
+        if (damages.size() > MAX_DAMAGES) {
+            throw new InvalidDamageException();
+        }
+
+        damageCount = 0;
+        Arrays.fill(damagesByDealer, (byte) 0);
+
+        for (Player dealer : damages) {
+            damage(dealerId(dealer));
+        }
+
+        setBoardState();
+    }
+
+    /**
+     * Method used to set the marks of a {@link PlayerBoard PlayerBoard}
+     *
+     * @param marks the dealers of the marks
+     */
+    public void setMarks(List<? extends Player> marks) {
+        markCount = 0;
+        Arrays.fill(marksByDealer, (byte) 0);
+
+        for (Player dealer : marks) {
+            marksByDealer[dealerId(dealer)]++;
+            markCount++;
+        }
+    }
+
     /**
      * Method used to set back the damages of a {@link PlayerBoard PlayerBoard} in case an Action did not work
      *
-     * @param damages the Damages to set back
+     * @param saved a copy of this board made before the Action, its damages are set back
      */
-    public void setDamages(List<String> damages) {
-        this.damages = damages;
+    public void setDamages(PlayerBoard saved) {
+        // the table of the dealers only grows, so the ids of the copy are still valid
+        System.arraycopy(saved.damages, 0, damages, 0, MAX_DAMAGES);
+        damageCount = saved.damageCount;
+        Arrays.fill(damagesByDealer, (byte) 0);
+        System.arraycopy(saved.damagesByDealer, 0, damagesByDealer, 0, saved.damagesByDealer.length);
+        setBoardState();
     }
 
     /**
-     * Method used to set back the marks of a {@link PlayerBoard PlayerBoard} in case an Action did not worl
+     * Method used to set back the marks of a {@link PlayerBoard PlayerBoard} in case an Action did not work
      *
-     * @param marks the Marks to set back
+     * @param saved a copy of this board made before the Action, its marks are set back
      */
-    public void setMarks(List<String> marks) {
-        this.marks = marks;
+    public void setMarks(PlayerBoard saved) {
+        Arrays.fill(marksByDealer, (byte) 0);
+        System.arraycopy(saved.marksByDealer, 0, marksByDealer, 0, saved.marksByDealer.length);
+        markCount = saved.markCount;
     }
 
     /**
@@ -126,14 +196,14 @@ public class PlayerBoard implements Serializable {
      * @return the count of damage suffered
      */
     public int getDamageCount() {
-        return damages.size();
+        return damageCount;
     }
 
     /**
      * @return the count of mark suffered
      */
     public int getMarkCount() {
-        return marks.size();
+        return markCount;
     }
 
     /**
@@ -147,7 +217,7 @@ public class PlayerBoard implements Serializable {
             throw new BoardAlreadyFlippedException();
         }
 
-        if (!damages.isEmpty()) {
+        if (damageCount > 0) {
             throw new BoardFlipDamagedException();
         }
 
@@ -196,12 +266,109 @@ public class PlayerBoard implements Serializable {
         return ammo;
     }
 
+    /**
+     * @return the usernames of the dealers of the damages, in the order they were inflicted
+     */
     public List<String> getDamages() {
-        return damages;
+        List<String> usernames = new ArrayList<>(damageCount);
+
+        for (int i = 0; i < damageCount; ++i) {
+            usernames.add(dealerNames[damages[i]]);
+        }
+
+        return usernames;
+    }
+
+    /**
+     * @return the colors of the dealers of the damages, in the order they were inflicted
+     */
+    public List<PlayerColor> getDamageColors() {
+        List<PlayerColor> colors = new ArrayList<>(damageCount);
+
+        for (int i = 0; i < damageCount; ++i) {
+            colors.add(dealerColors[damages[i]]);
+        }
+
+        return colors;
     }
 
+    /**
+     * @return the usernames of the dealers of the marks, the marks of the same dealer are next to each other
+     */
     public List<String> getMarks() {
-        return marks;
+        List<String> usernames = new ArrayList<>(markCount);
+
+        for (int id = 0; id < dealersCount; ++id) {
+            for (int i = 0; i < marksByDealer[id]; ++i) {
+                usernames.add(dealerNames[id]);
+            }
+        }
+
+        return usernames;
+    }
+
+    /**
+     * @return the colors of the dealers of the marks, the marks of the same dealer are next to each other
+     */
+    public List<PlayerColor> getMarkColors() {
+        List<PlayerColor> colors = new ArrayList<>(markCount);
+
+        for (int id = 0; id < dealersCount; ++id) {
+            for (int i = 0; i < marksByDealer[id]; ++i) {
+                colors.add(dealerColors[id]);
+            }
+        }
+
+        return colors;
+    }
+
+    /**
+     * @param index the position of the damage, 0 being the first blood
+     * @return the username of the dealer of the damage
+     * @throws IndexOutOfBoundsException if the board has no damage in the position
+     */
+    public String getDamageDealer(int index) {
+        if (index < 0 || index >= damageCount) {
+            throw new IndexOutOfBoundsException("No damage in position " + index);
+        }
+
+        return dealerNames[damages[index]];
+    }
+
+    /**
+     * Ranks the dealers of the damages to distribute the points of the board: dealers with more damages come first
+     * and ties are broken by who damaged the board first
+     *
+     * @return the usernames of the dealers of the damages from the first to the last in the ranking
+     */
+    public List<String> getDamageRanking() {
+        byte[] ranking = new byte[dealersCount];
+        int ranked = 0;
+        boolean[] seen = new boolean[dealersCount];
+
+        // dealers in order of their first damage, then a stable insertion sort by number of damages
+        for (int i = 0; i < damageCount; ++i) {
+            byte id = damages[i];
+
+            if (!seen[id]) {
+                seen[id] = true;
+
+                int position = ranked++;
+                while (position > 0 && damagesByDealer[ranking[position - 1]] < damagesByDealer[id]) {
+                    ranking[position] = ranking[position - 1];
+                    --position;
+                }
+
+                ranking[position] = id;
+            }
+        }
+
+        List<String> usernames = new ArrayList<>(ranked);
+        for (int i = 0; i < ranked; ++i) {
+            usernames.add(dealerNames[ranking[i]]);
+        }
+
+        return usernames;
     }
 
     /**
@@ -215,10 +382,11 @@ public class PlayerBoard implements Serializable {
             throw new NullPointerException("Player cannot be null ");
         }
 
-        int marksNum = Collections.frequency(marks, markDealer.getUsername());
+        byte id = dealerId(markDealer);
 
-        for (int i = 0; i < marksCount && marksNum < 4; i++, marksNum++) {
-            marks.add(markDealer.getUsername());
+        for (int i = 0; i < marksCount && marksByDealer[id] < MAX_MARKS; i++) {
+            marksByDealer[id]++;
+            markCount++;
         }
     }
 
@@ -233,15 +401,15 @@ public class PlayerBoard implements Serializable {
             throw new NullPointerException("Player cannot be null");
         }
 
-        int marksNum = Collections.frequency(marks, damageDealer.getUsername());
-
         if (damageCount > 0) {
-            if (marksNum > 0) {
-                marks.removeIf(damageDealer.getUsername()::equals);
-            }
+            byte id = dealerId(damageDealer);
+            int marksNum = marksByDealer[id];
 
-            for (int i = 0; i < damageCount + marksNum && damages.size() < 12; ++i) {
-                damages.add(damageDealer.getUsername());
+            marksByDealer[id] = 0;
+            markCount -= marksNum;
+
+            for (int i = 0; i < damageCount + marksNum && this.damageCount < MAX_DAMAGES; ++i) {
+                damage(id);
             }
         }
 
@@ -260,8 +428,10 @@ public class PlayerBoard implements Serializable {
         }
 
         if(damageCount > 0) {
-            for (int i = 0; i < damageCount; ++i) {
-                damages.add(damageDealer.getUsername());
+            byte id = dealerId(damageDealer);
+
+            for (int i = 0; i < damageCount && this.damageCount < MAX_DAMAGES; ++i) {
+                damage(id);
             }
         }
 
@@ -273,16 +443,123 @@ public class PlayerBoard implements Serializable {
      * Keeps everything except the damages list and adds a skull on the player board
      */
     public void onDeath() {
-        damages.clear();
+        damageCount = 0;
+        Arrays.fill(damagesByDealer, (byte) 0);
         skulls++;
         setBoardState();
     }
 
+    /**
+     * Adds a damage of the dealer with the id
+     */
+    private void damage(byte id) {
+        damages[damageCount++] = id;
+        damagesByDealer[id]++;
+    }
+
+    /**
+     * Returns the id of the dealer, the dealer is added to the table of the board if it is the first time he damages
+     * or marks it
+     *
+     * @param dealer the player who damages or marks the board
+     * @return the id of the dealer
+     */
+    private byte dealerId(Player dealer) {
+        return dealerId(dealer.getUsername(), dealer.getColor());
+    }
+
+    /**
+     * @param username the username of the dealer
+     * @param color    the color of the dealer, used only if he is added to the table
+     * @return the id of the dealer
+     */
+    private byte dealerId(String username, PlayerColor color) {
+        for (int id = 0; id < dealersCount; ++id) {
+            if (dealerNames[id].equals(username)) {
+                return (byte) id;
+            }
+        }
+
+        if (dealersCount == dealerNames.length) {
+            int capacity = dealersCount * 2;
+            dealerNames = Arrays.copyOf(dealerNames, capacity);
+            dealerColors = Arrays.copyOf(dealerColors, capacity);
+            damagesByDealer = Arrays.copyOf(damagesByDealer, capacity);
+            marksByDealer = Arrays.copyOf(marksByDealer, capacity);
+        }
+
+        dealerNames[dealersCount] = username;
+        dealerColors[dealersCount] = color;
+        return (byte) dealersCount++;
+    }
+
+    /**
+     * Writes the state of the board in the save format, see {@link utility.persistency.SaveFormat SaveFormat}: the
+     * table of the dealers, the ids of the damages and the marks of each dealer
+     *
+     * @param out the destination of the state
+     * @throws IOException if the state can not be written
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeByte(dealersCount);
+        for (int id = 0; id < dealersCount; ++id) {
+            out.writeUTF(dealerNames[id]);
+            out.writeByte(dealerColors[id] == null ? -1 : dealerColors[id].ordinal());
+            out.writeByte(marksByDealer[id]);
+        }
+
+        out.writeByte(damageCount);
+        out.write(damages, 0, damageCount);
+
+        out.writeByte(skulls);
+        out.writeByte(ammo.getRedAmmo());
+        out.writeByte(ammo.getBlueAmmo());
+        out.writeByte(ammo.getYellowAmmo());
+        out.writeBoolean(boardFlipped);
+    }
+
+    /**
+     * Reads a board written by {@link #writeState(DataOutput) writeState}
+     *
+     * @param in the source of the state
+     * @return the board
+     * @throws IOException if the state can not be read
+     */
+    public static PlayerBoard readState(DataInput in) throws IOException {
+        PlayerBoard board = new PlayerBoard();
+        int dealers = in.readByte();
+
+        for (int id = 0; id < dealers; ++id) {
+            String username = in.readUTF();
+            int color = in.readByte();
+
+            board.dealerId(username, color < 0 ? null : PlayerColor.values()[color]);
+            board.marksByDealer[id] = in.readByte();
+            board.markCount += board.marksByDealer[id];
+        }
+
+        int damaged = in.readByte();
+        for (int i = 0; i < damaged; ++i) {
+            board.damage(in.readByte());
+        }
+
+        board.skulls = in.readByte();
+        board.ammo = new AmmoQuantity(in.readByte(), in.readByte(), in.readByte());
+
+        if (in.readBoolean()) {
+            board.boardFlipped = true;
+            board.boardPoints = new ArrayList<>(Arrays.asList(2, 1, 1, 1));
+        }
+
+        board.setBoardState();
+        return board;
+    }
+
     @Override
     public String toString() {
         return "PlayerBoard{" +
-                "damages=" + Arrays.toString(damages.toArray()) +
-                ", marks=" + Arrays.toString(marks.toArray()) +
+                "damages=" + Arrays.toString(getDamages().toArray()) +
+                ", marks=" + Arrays.toString(getMarks().toArray()) +
                 ", skulls=" + skulls +
                 ", ammo=" + ammo +
                 ", boardPoints=" + Arrays.toString(boardPoints.toArray()) +
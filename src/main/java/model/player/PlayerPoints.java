@@ -16,6 +16,13 @@ public class PlayerPoints implements Serializable {
 
     private boolean winner;
 
+    /**
+     * Creates an empty entry, whose fields are set by the binary codec of the network messages
+     */
+    private PlayerPoints() {
+        this(null, null, 0);
+    }
+
     /**
      * Builds an object containing the name of the player, his color and the points earned
      *
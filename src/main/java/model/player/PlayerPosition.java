@@ -1,15 +1,12 @@
 package model.player;
 
 import enumerations.Direction;
-import enumerations.SquareAdjacency;
 import exceptions.player.NoDirectionException;
 import exceptions.player.SamePositionException;
 import model.Game;
 import model.map.GameMap;
-import model.map.Square;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -19,6 +16,13 @@ public class PlayerPosition implements Serializable {
     private int row;
     private int column;
 
+    /**
+     * Creates an empty position, whose fields are set by the binary codec of the network messages
+     */
+    private PlayerPosition() {
+        this(0, 0);
+    }
+
     public PlayerPosition(int row, int column) {
         this.row = row;
         this.column = column;
@@ -94,42 +98,7 @@ public class PlayerPosition implements Serializable {
             throw new NullPointerException("Target can't be null");
         }
 
-        Square targetSquare = map.getSquare(pos.getRow(), pos.getColumn());
-        Square playerSquare = map.getSquare(getRow(), getColumn());
-
-        if (targetSquare.getRoomColor().equals(playerSquare.getRoomColor())) {
-            return true;
-        }
-
-        Square tempSquare;
-
-        if (playerSquare.getNorth() == SquareAdjacency.DOOR) {
-            tempSquare = map.getSquare(getRow() - 1, getColumn());
-            if (tempSquare.getRoomColor() == targetSquare.getRoomColor()) {
-                return true;
-            }
-        }
-
-        if (playerSquare.getEast() == SquareAdjacency.DOOR) {
-            tempSquare = map.getSquare(getRow(), getColumn() + 1);
-            if (tempSquare.getRoomColor() == targetSquare.getRoomColor()) {
-                return true;
-            }
-        }
-
-        if (playerSquare.getSouth() == SquareAdjacency.DOOR) {
-            tempSquare = map.getSquare(getRow() + 1, getColumn());
-            if (tempSquare.getRoomColor() == targetSquare.getRoomColor()) {
-                return true;
-            }
-        }
-
-        if (playerSquare.getWest() == SquareAdjacency.DOOR) {
-            tempSquare = map.getSquare(getRow(), getColumn() - 1);
-            return tempSquare.getRoomColor() == targetSquare.getRoomColor();
-        }
-
-        return false;
+        return map.canSee(this, pos);
     }
 
     public boolean canSee(PlayerPosition pos) {
@@ -145,10 +114,11 @@ public class PlayerPosition implements Serializable {
      * @return true if the position can see any other target, otherwise false
      */
     public boolean canSeeSomeone(Bot bot, Player actingPlayer) {
-        List<UserPlayer> players = new ArrayList<>(Game.getInstance().getPlayers());
+        List<UserPlayer> players = Game.getInstance().getPlayers();
+        int visible = Game.getInstance().getGameMap().getVisiblePlayers(bot.getPosition(), players);
 
-        for (UserPlayer target : players) {
-            if (target.getPosition() != null && !target.equals(actingPlayer) && bot.getPosition().canSee(target.getPosition())) {
+        for (int i = 0; i < players.size(); ++i) {
+            if ((visible & (1 << i)) != 0 && !players.get(i).equals(actingPlayer)) {
                 return true;
             }
         }
@@ -156,56 +126,15 @@ public class PlayerPosition implements Serializable {
     }
 
     /**
-     * This method calculates the minimum distance between {@code this} position and {@code other} position
+     * This method calculates the minimum distance between {@code this} position and {@code other} position, read from
+     * the distances precomputed by the map
      *
      * @param other the other PlayerPosition
      * @param map the map of the game where calculate the distance
      * @return the minimum distance between two players
      */
     public int distanceOf(PlayerPosition other, GameMap map) {
-        // list with possible paths, one for every path
-        List<Integer> cases = new ArrayList<>();
-        // list with the number of steps of a completed journey, the same for all paths
-        List<Integer> stepsList = new ArrayList<>();
-        // list with the squares already visited, so that you can't retrace your steps
-        List<PlayerPosition> alreadyVisited = new ArrayList<>();
-        // Create two new instances because I'm going to work on it
-        PlayerPosition p1 = new PlayerPosition(this);
-        PlayerPosition p2 = new PlayerPosition(other);
-
-        if (p1.samePosition(p2)) {     // same positions have distance 0
-            return 0;
-        }
-
-        int steps = 0; // number of steps for this path
-
-        do {
-            alreadyVisited.add(new PlayerPosition(p2));
-
-            selectCases(cases, alreadyVisited, p2, map); // need to minify the code complexity
-
-            // increment the counter of the steps performed
-            steps++;
-            // if not even a step has been taken it is because all the roads for that path have been tried with a negative outcome
-            if (cases.isEmpty()) {
-                steps = 1000;
-                break;
-            } else {
-                subProcessSwitches(alreadyVisited, stepsList, cases, p1, p2, steps, map);
-            }
-            cases.clear();
-        } while (!p1.equals(p2));
-
-        stepsList.add(steps);
-        int minSteps;
-
-        minSteps = 999;
-
-        for (Integer integer : stepsList) {
-            if (minSteps > integer) minSteps = integer;
-        }
-
-        return minSteps;
+        return map.distance(other, this);
     }
 
     /**
@@ -227,98 +156,4 @@ public class PlayerPosition implements Serializable {
     boolean samePosition(PlayerPosition other) {
         return other.row == this.row && other.column == this.column;
     }
-
-    /**
-     * This static method needs to the other paths that are not executed by the distanceOf
-     *
-     * @param alreadyVisited list of already visited squares
-     * @param stepsList      list with the number of steps of all paths
-     * @param p1             player 1 position
-     * @param p2             player 2 position
-     */
-    private static void subProcessDistanceOf(List<PlayerPosition> alreadyVisited, List<Integer> stepsList, PlayerPosition p1, PlayerPosition p2, int steps, GameMap map) {
-        List<Integer> cases = new ArrayList<>();
-
-        while (!p1.equals(p2)) {
-            alreadyVisited.add(new PlayerPosition(p2));
-            // increment the counter of the steps performed
-            selectCases(cases, alreadyVisited, p2, map);
-            steps++;
-
-            if (cases.isEmpty()) {
-                stepsList.add(1000);
-                return;
-            } else {
-                subProcessSwitches(alreadyVisited, stepsList, cases, p1, p2, steps, map);
-            }
-            cases.clear();
-        }
-        stepsList.add(steps);
-    }
-
-    /**
-     * Static method created to simplify distanceOf code
-     *
-     * @param alreadyVisited list of already visited squares
-     * @param stepsList      list with the number of steps of all paths
-     * @param cases          list containing the cases to be processed by the switch
-     * @param p1             player 1 position
-     * @param p2             player 2 position
-     * @param steps          number of steps already made
-     */
-    private static void subProcessSwitches(List<PlayerPosition> alreadyVisited, List<Integer> stepsList, List<Integer> cases, PlayerPosition p1, PlayerPosition p2, int steps, GameMap map) {
-        // other paths
-        for (int i = 1; i < cases.size(); i++) {
-            switch (cases.get(i)) {
-                case 1:
-                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow() + 1, p2.getColumn()), steps, map);
-                    break;
-                case 2:
-                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow(), p2.getColumn() + 1), steps, map);
-                    break;
-                case 3:
-                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow() - 1, p2.getColumn()), steps, map);
-                    break;
-                default:
-                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow(), p2.getColumn() - 1), steps, map);
-            }
-        }
-        // path that is examined by this process
-        switch (cases.get(0)) {
-            case 1:
-                p2.setRow(p2.getRow() + 1);
-                break;
-            case 2:
-                p2.setColumn(p2.getColumn() + 1);
-                break;
-            case 3:
-                p2.setRow(p2.getRow() - 1);
-                break;
-            default:
-                p2.setColumn(p2.getColumn() - 1);
-        }
-    }
-
-    /**
-     * Adds to the list {@code cases} the possible ways to go
-     *
-     * @param cases list with cases accepted
-     * @param pos   the position of player
-     */
-    private static void selectCases(List<Integer> cases, List<PlayerPosition> alreadyVisited, PlayerPosition pos, GameMap map) {
-        Square current = map.getSquare(pos.getRow(), pos.getColumn());
-
-        if ((current.getSouth() == SquareAdjacency.DOOR || current.getSouth() == SquareAdjacency.SQUARE) && !alreadyVisited.contains(new PlayerPosition(pos.getRow() + 1, pos.getColumn()))) {
-            cases.add(1);
-        }
-        if ((current.getEast() == SquareAdjacency.DOOR || current.getEast() == SquareAdjacency.SQUARE) && !alreadyVisited.contains(new PlayerPosition(pos.getRow(), pos.getColumn() + 1))) {
-            cases.add(2);
-        }
-        if ((current.getNorth() == SquareAdjacency.DOOR || current.getNorth() == SquareAdjacency.SQUARE) && !alreadyVisited.contains(new PlayerPosition(pos.getRow() - 1, pos.getColumn()))) {
-            cases.add(3);
-        }
-        if ((current.getWest() == SquareAdjacency.DOOR || current.getWest() == SquareAdjacency.SQUARE) && !alreadyVisited.contains(new PlayerPosition(pos.getRow(), pos.getColumn() - 1))) {
-            cases.add(4);
-        }
-    }
 }
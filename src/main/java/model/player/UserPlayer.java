@@ -20,6 +20,13 @@ public class UserPlayer extends Player {
     private transient PowerupCard spawningCard;
     private boolean firstPlayer;
 
+    /**
+     * Creates an empty player, whose fields are set by the binary codec of the network messages
+     */
+    private UserPlayer() {
+        this(null, null, null);
+    }
+
     public UserPlayer(String nickname) {
         super(nickname);
         this.playerState = PossiblePlayerState.FIRST_SPAWN;
@@ -1,6 +1,8 @@
 package network.client;
 
 import network.message.Message;
+import utility.TaskExecutor;
+import utility.TimerWheel;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
@@ -8,7 +10,6 @@ import java.rmi.server.UnicastRemoteObject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Timer;
 
 /**
  * This class represents a Client
@@ -19,7 +20,7 @@ public abstract class Client extends UnicastRemoteObject {
     static final int DISCONNECTION_TIME = 15000;
 
     transient DisconnectionListener disconnectionListener;
-    transient Timer pingTimer;
+    transient volatile TimerWheel.Timeout pingTimer;
 
     private final String username;
     private final String address;
@@ -43,8 +44,6 @@ public abstract class Client extends UnicastRemoteObject {
         this.disconnectionListener = disconnectionListener;
 
         this.messageQueue = new ArrayList<>();
-
-        this.pingTimer = new Timer();
     }
 
     /**
@@ -107,6 +106,25 @@ public abstract class Client extends UnicastRemoteObject {
         return copyList;
     }
 
+    /**
+     * Restarts the timer that disconnects the client if the server stops pinging it
+     */
+    void resetPingTimer() {
+        cancelPingTimer();
+        pingTimer = TaskExecutor.schedule(new PingTimerTask(disconnectionListener), DISCONNECTION_TIME);
+    }
+
+    /**
+     * Stops the timer that disconnects the client if the server stops pinging it
+     */
+    void cancelPingTimer() {
+        TimerWheel.Timeout timer = pingTimer;
+
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+
     /**
      * @return the username of the player
      */
@@ -11,6 +11,7 @@ import model.player.Player;
 import model.player.UserPlayer;
 import network.message.*;
 import utility.GameConstants;
+import utility.TaskExecutor;
 
 import java.io.IOException;
 import java.text.DateFormat;
@@ -48,6 +49,7 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
 
     private ClientRoundManager roundManager; // manage the rounds of this client
     private GameSerialized gameSerialized;
+    private int stateVersion;
     private ClientUpdater clientUpdater;
 
     private String firstPlayer;
@@ -86,7 +88,7 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
             LOGGER.severe(e.getMessage());
         }
 
-        new Thread(this).start();
+        TaskExecutor.execute(this);
     }
 
     @Override
@@ -132,6 +134,10 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
                 handleGameStateMessage((GameStateMessage) message);
                 break;
 
+            case GAME_DELTA:
+                handleGameDeltaMessage((GameDeltaMessage) message);
+                break;
+
             case READY:
                 handleGameStartMessage((GameStartMessage) message);
                 break;
@@ -391,7 +397,7 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
         if (connectionResponse.getStatus().equals(MessageStatus.OK)) {
             client.setToken(connectionResponse.getNewToken());
         } else {
-            client.pingTimer.cancel();
+            client.cancelPingTimer();
             closeConnection();
         }
 
@@ -459,6 +465,7 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
 
         synchronized (gameSerializedLock) {
             gameSerialized = gameStateMessage.getGameSerialized();
+            stateVersion = gameStateMessage.getStateVersion();
         }
 
         if (roundManager != null &&
@@ -473,6 +480,26 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
         checkTurnChange(gameStateMessage);
     }
 
+    /**
+     * Handles an update of the game state containing only the changes to the previous one
+     *
+     * @param gameDeltaMessage game state changes received
+     */
+    private void handleGameDeltaMessage(GameDeltaMessage gameDeltaMessage) {
+        GameStateMessage gameStateMessage;
+
+        synchronized (gameSerializedLock) {
+            if (gameSerialized == null || gameDeltaMessage.getBaseVersion() != stateVersion) {
+                LOGGER.log(Level.WARNING, "Game update {0} ignored, waiting for the next full state", gameDeltaMessage.getStateVersion());
+                return;
+            }
+
+            gameStateMessage = gameDeltaMessage.applyTo(gameSerialized);
+        }
+
+        handleGameStateMessage(gameStateMessage);
+    }
+
     /**
      * Handles the game start message
      *
@@ -496,7 +523,7 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
      */
     private void handleWinner(WinnersResponse winnerResponse) {
         gameEnded = true;
-        client.pingTimer.cancel();
+        client.cancelPingTimer();
 
         synchronized (gameSerializedLock) {
             queue.add(() -> notifyGameEnd(winnerResponse.getWinners()));
@@ -518,6 +545,7 @@ public abstract class ClientGameManager implements ClientGameManagerListener, Cl
 
         synchronized (gameSerializedLock) {
             gameSerialized = reconnectionMessage.getGameStateMessage().getGameSerialized();
+            stateVersion = reconnectionMessage.getGameStateMessage().getStateVersion();
             isBotPresent = gameSerialized.isBotPresent();
         }
         roundManager = new ClientRoundManager(isBotPresent);
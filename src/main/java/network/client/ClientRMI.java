@@ -9,7 +9,6 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.util.Objects;
-import java.util.Timer;
 
 /**
  * This class represents a RMI Client
@@ -87,9 +86,7 @@ public class ClientRMI extends Client implements RMIClientConnection {
      */
     @Override
     public void ping() {
-        super.pingTimer.cancel();
-        super.pingTimer = new Timer();
-        super.pingTimer.schedule(new PingTimerTask(super.disconnectionListener), Client.DISCONNECTION_TIME);
+        resetPingTimer();
     }
 
     @Override
@@ -3,13 +3,15 @@ package network.client;
 import enumerations.MessageContent;
 import network.message.ConnectionRequest;
 import network.message.Message;
+import network.message.MessageCodec;
+import network.message.MessageFrame;
+import utility.TaskExecutor;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.Objects;
-import java.util.Timer;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 /**
@@ -19,10 +21,11 @@ public class ClientSocket extends Client implements Runnable {
     private static final long serialVersionUID = -7286675375073912395L;
     private transient Socket socket;
 
-    private transient ObjectInputStream in;
-    private transient ObjectOutputStream out;
+    private transient DataInputStream in;
+    private transient OutputStream out;
 
-    private transient Thread messageReceiver;
+    private transient Future<?> messageReceiver;
+    private transient volatile MessageCodec codec;
 
     /**
      * Constructs a RMI client
@@ -44,13 +47,14 @@ public class ClientSocket extends Client implements Runnable {
     @Override
     public void startConnection() throws IOException {
         socket = new Socket(getAddress(), getPort());
-        out = new ObjectOutputStream(socket.getOutputStream());
-        in = new ObjectInputStream(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream());
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        codec = MessageCodec.SERIALIZATION;
 
-        sendMessage(new ConnectionRequest(getUsername()));
+        // the server answers with the Java serialization until it reads the request
+        sendMessage(new ConnectionRequest(getUsername(), MessageCodec.BINARY.getVersion()));
 
-        messageReceiver = new Thread(this);
-        messageReceiver.start();
+        messageReceiver = TaskExecutor.execute(this);
     }
 
     /**
@@ -62,8 +66,7 @@ public class ClientSocket extends Client implements Runnable {
     @Override
     public void sendMessage(Message message) throws IOException {
         if (out != null) {
-            out.writeObject(message);
-            out.reset();
+            MessageFrame.write(out, message, codec);
         }
     }
 
@@ -75,21 +78,25 @@ public class ClientSocket extends Client implements Runnable {
     public void run() {
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                Message message = (Message) in.readObject();
+                ByteBuffer body = MessageFrame.readBody(in);
+
+                if (MessageCodec.BINARY.accepts(body)) { // the server answers with the binary codec, it understands it
+                    codec = MessageCodec.BINARY;
+                }
+
+                Message message = MessageFrame.decode(body);
 
                 if (message != null && message.getContent() != MessageContent.PING) {
                     synchronized (messageQueue) {
                         messageQueue.add(message);
                     }
                 } else if (message != null && message.getContent() == MessageContent.PING) {
-                    super.pingTimer.cancel();
-                    super.pingTimer = new Timer();
-                    super.pingTimer.schedule(new PingTimerTask(super.disconnectionListener), Client.DISCONNECTION_TIME);
+                    resetPingTimer();
                 }
+            } catch (InvalidObjectException e) {
+                // Discard Message
             } catch (IOException e) {
                 disconnect();
-            } catch (ClassNotFoundException e) {
-                // Discard Message
             }
         }
     }
@@ -116,7 +123,7 @@ public class ClientSocket extends Client implements Runnable {
             socket.close();
         }
 
-        messageReceiver.interrupt();
+        messageReceiver.cancel(true);
 
         in = null;
         out = null;
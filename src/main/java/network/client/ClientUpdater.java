@@ -1,8 +1,10 @@
 package network.client;
 
 import network.message.Message;
+import utility.TaskExecutor;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * This class run a process that wait messages from the server
@@ -11,33 +13,30 @@ import java.util.List;
 public class ClientUpdater implements Runnable {
     private final Client client;
     private ClientUpdateListener updateListener;
-    private Thread thread;
+    private Future<?> updater;
 
     ClientUpdater(Client client, ClientUpdateListener updateListener) {
         this.client = client;
         this.updateListener = updateListener;
-        this.thread = new Thread(this);
-        this.thread.start();
+        this.updater = TaskExecutor.execute(this);
     }
 
     @Override
     public void run() {
         while (!Thread.currentThread().isInterrupted()) {
-            synchronized (client) {
-                List<Message> messages;
+            List<Message> messages;
 
-                do {
-                    messages = client.receiveMessages();
-                    try {
-                        client.wait(100);
-                    } catch (InterruptedException e) {
-                        ClientGameManager.LOGGER.severe(e.getMessage());
-                        Thread.currentThread().interrupt();
-                    }
-                } while (messages.isEmpty());
+            do {
+                messages = client.receiveMessages();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    ClientGameManager.LOGGER.severe(e.getMessage());
+                    Thread.currentThread().interrupt();
+                }
+            } while (messages.isEmpty() && !Thread.currentThread().isInterrupted());
 
-                messages.forEach(updateListener::onUpdate);
-            }
+            messages.forEach(updateListener::onUpdate);
 
             try {
                 Thread.sleep(1000);
@@ -51,15 +50,15 @@ public class ClientUpdater implements Runnable {
      * stop the running process
      */
     public void stop() {
-        this.thread.interrupt();
+        this.updater.cancel(true);
     }
 
     /**
      * start the process
      */
     public void start() {
-        if (this.thread.isInterrupted()) {
-            this.thread.start();
+        if (this.updater.isDone()) {
+            this.updater = TaskExecutor.execute(this);
         }
     }
 }
@@ -1,17 +1,14 @@
 package network.client;
 
-import java.util.TimerTask;
-
 /**
- * This class is a superclass of {@link TimerTask} is executed after {@link Client#DISCONNECTION_TIME} milliseconds which is scheduled by a Timer,
- * once called notifies the client via a call to {@link DisconnectionListener#onDisconnection}
+ * This class is a task executed after {@link Client#DISCONNECTION_TIME} milliseconds without pings, scheduled by the
+ * {@link utility.TaskExecutor TaskExecutor}, once called notifies the client via a call to {@link DisconnectionListener#onDisconnection}
  */
-public class PingTimerTask extends TimerTask {
+public class PingTimerTask implements Runnable {
 
     private DisconnectionListener disconnectionListener;
 
     PingTimerTask(DisconnectionListener disconnectionListener) {
-        super();
         this.disconnectionListener = disconnectionListener;
     }
 
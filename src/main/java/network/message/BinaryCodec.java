@@ -0,0 +1,568 @@
+package network.message;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact codec for the messages and the model objects they carry. Every value starts with a one byte tag telling
+ * its kind. Types are written as the numeric ids of their {@link BinarySchema schema}
+ * and objects as the list of their fields, each one preceded by its numeric tag and the list ended by tag 0.
+ * Integers are varints and every string (usernames, card names, enumeration constants) is written once per frame,
+ * the following occurrences only refer to it. Objects referenced more than once in a frame are written once too,
+ * while byte arrays, like the already encoded parts of a message, are copied as they are.
+ * <p>
+ * The version written after the magic changes only when the encoding itself changes, and frames of any other version
+ * are refused. Fields added to a class keep the version: a decoder skips the field tags it does not know, while a
+ * type id it does not know makes the whole message unreadable
+ */
+class BinaryCodec implements MessageCodec {
+    static final byte MAGIC = (byte) 0xB1;
+    static final int VERSION = 3;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte STRING = 10;
+    private static final byte STRING_REF = 11;
+    private static final byte ENUM = 12;
+    private static final byte ARRAY = 13;
+    private static final byte COLLECTION = 14;
+    private static final byte MAP = 15;
+    private static final byte ENUM_SET = 16;
+    private static final byte OBJECT = 17;
+    private static final byte OBJECT_REF = 18;
+    private static final byte BYTES = 20;
+
+    private static final int END = 0;
+
+    private static final Set<Class<?>> COLLECTIONS = Set.of(ArrayList.class, LinkedList.class, ArrayDeque.class,
+            HashSet.class, LinkedHashSet.class, HashMap.class, LinkedHashMap.class);
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public boolean accepts(ByteBuffer body) {
+        return body.remaining() >= 2 && body.get(body.position()) == MAGIC;
+    }
+
+    @Override
+    public void encode(Message message, MessageFrame.Builder frame) throws IOException {
+        frame.write(MAGIC);
+        frame.write(VERSION);
+
+        new Writer(frame).writeValue(message);
+    }
+
+    @Override
+    public Message decode(ByteBuffer body) throws IOException {
+        if (!accepts(body) || body.get(body.position() + 1) != VERSION) {
+            throw new StreamCorruptedException("Unsupported binary frame");
+        }
+
+        try {
+            Object message = new Reader(body.array(), body.arrayOffset() + body.position() + 2, body.arrayOffset() + body.limit()).readValue();
+
+            if (!(message instanceof Message)) {
+                throw new InvalidObjectException("Frame does not contain a message");
+            }
+
+            return (Message) message;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | ClassCastException e) {
+            throw new StreamCorruptedException(e.toString());
+        }
+    }
+
+    /**
+     * Encodes a single value, outside of any frame. Equal encodings mean equal values, so this is used to find which
+     * parts of the game state changed between two updates and to encode once what many players receive
+     *
+     * @param value the value to encode
+     * @return the encoded value
+     * @throws IOException if the value can not be encoded
+     */
+    static byte[] encodeValue(Object value) throws IOException {
+        MessageFrame.Builder out = new MessageFrame.Builder();
+        new Writer(out).writeValue(value);
+
+        return out.toBody();
+    }
+
+    /**
+     * Decodes a value encoded with {@link #encodeValue(Object)}
+     *
+     * @param encoded the encoded value
+     * @return the decoded value
+     * @throws IOException if the bytes are not a valid value
+     */
+    static Object decodeValue(byte[] encoded) throws IOException {
+        try {
+            return new Reader(encoded, 0, encoded.length).readValue();
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | ClassCastException e) {
+            throw new StreamCorruptedException(e.toString());
+        }
+    }
+
+    /**
+     * Writes the values of a single frame
+     */
+    private static class Writer {
+        private final MessageFrame.Builder out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Object, Integer> objects = new IdentityHashMap<>();
+
+        Writer(MessageFrame.Builder out) {
+            this.out = out;
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof String) {
+                writeString((String) value);
+            } else if (value instanceof Integer) {
+                out.write(INT);
+                writeSigned((Integer) value);
+            } else if (value instanceof Boolean) {
+                out.write((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Enum) {
+                out.write(ENUM);
+                writeType(((Enum<?>) value).getDeclaringClass());
+                writeString(((Enum<?>) value).name());
+            } else if (value instanceof Long) {
+                out.write(LONG);
+                writeSigned((Long) value);
+            } else if (value instanceof Short) {
+                out.write(SHORT);
+                writeSigned((Short) value);
+            } else if (value instanceof Byte) {
+                out.write(BYTE);
+                out.write((Byte) value);
+            } else if (value instanceof Character) {
+                out.write(CHAR);
+                out.writeVarLong((Character) value);
+            } else if (value instanceof Float) {
+                out.write(FLOAT);
+                writeFixed(Float.floatToIntBits((Float) value), Integer.BYTES);
+            } else if (value instanceof Double) {
+                out.write(DOUBLE);
+                writeFixed(Double.doubleToLongBits((Double) value), Long.BYTES);
+            } else if (value instanceof byte[]) {
+                byte[] bytes = (byte[]) value;
+                out.write(BYTES);
+                out.writeVarLong(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            } else if (value.getClass().isArray()) {
+                writeArray(value);
+            } else if (value instanceof EnumSet) {
+                writeEnumSet((EnumSet<?>) value);
+            } else if (value instanceof Collection) {
+                writeCollection((Collection<?>) value);
+            } else if (value instanceof Map) {
+                writeMap((Map<?, ?>) value);
+            } else {
+                writeObject(value);
+            }
+        }
+
+        private void writeString(String value) {
+            Integer id = strings.get(value);
+
+            if (id != null) {
+                out.write(STRING_REF);
+                out.writeVarLong(id);
+            } else {
+                strings.put(value, strings.size());
+
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.write(STRING);
+                out.writeVarLong(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+
+        private void writeSigned(long value) {
+            out.writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeFixed(long bits, int bytes) {
+            for (int i = bytes - 1; i >= 0; --i) {
+                out.write((int) (bits >>> (i * 8)));
+            }
+        }
+
+        private void writeType(Class<?> type) throws NotSerializableException {
+            if (type.isArray()) {
+                out.writeVarLong(BinarySchema.ARRAY_TYPE);
+                writeType(type.getComponentType());
+            } else {
+                out.writeVarLong(BinarySchema.of(type).getId());
+            }
+        }
+
+        private void writeArray(Object array) throws IOException {
+            int length = Array.getLength(array);
+
+            out.write(ARRAY);
+            writeType(array.getClass().getComponentType());
+            out.writeVarLong(length);
+
+            for (int i = 0; i < length; ++i) {
+                writeValue(Array.get(array, i));
+            }
+        }
+
+        private void writeEnumSet(EnumSet<?> set) throws NotSerializableException {
+            // the complement of an empty set tells its element type
+            Enum<?> sample = set.isEmpty() ? EnumSet.complementOf(set).iterator().next() : set.iterator().next();
+
+            out.write(ENUM_SET);
+            writeType(sample.getDeclaringClass());
+            out.writeVarLong(set.size());
+
+            for (Enum<?> element : set) {
+                writeString(element.name());
+            }
+        }
+
+        private void writeCollection(Collection<?> collection) throws IOException {
+            Class<?> type = collection.getClass();
+            if (!COLLECTIONS.contains(type)) {
+                type = collection instanceof Set ? LinkedHashSet.class : ArrayList.class;
+            }
+
+            out.write(COLLECTION);
+            writeType(type);
+            out.writeVarLong(collection.size());
+
+            for (Object element : collection) {
+                writeValue(element);
+            }
+        }
+
+        private void writeMap(Map<?, ?> map) throws IOException {
+            Class<?> type = COLLECTIONS.contains(map.getClass()) ? map.getClass() : LinkedHashMap.class;
+
+            out.write(MAP);
+            writeType(type);
+            out.writeVarLong(map.size());
+
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeObject(Object value) throws IOException {
+            Integer id = objects.get(value);
+
+            if (id != null) {
+                out.write(OBJECT_REF);
+                out.writeVarLong(id);
+                return;
+            }
+
+            BinarySchema schema = BinarySchema.of(value.getClass());
+            if (schema.isBuiltin()) {
+                throw new NotSerializableException(value.getClass().getName());
+            }
+
+            objects.put(value, objects.size());
+
+            out.write(OBJECT);
+            out.writeVarLong(schema.getId());
+
+            Field[] fields = schema.getFields();
+            int[] tags = schema.getTags();
+
+            try {
+                for (int i = 0; i < fields.length; ++i) {
+                    out.writeVarLong(tags[i]);
+                    writeValue(fields[i].get(value));
+                }
+            } catch (IllegalAccessException e) {
+                throw new NotSerializableException(e.getMessage());
+            }
+
+            out.writeVarLong(END);
+        }
+    }
+
+    /**
+     * Reads the values of a single frame
+     */
+    private static class Reader {
+        private final byte[] in;
+        private final int limit;
+        private int position;
+
+        private final List<String> strings = new ArrayList<>();
+        private final List<Object> objects = new ArrayList<>();
+
+        Reader(byte[] in, int position, int limit) {
+            this.in = in;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        Object readValue() throws IOException {
+            return readValue(readTag());
+        }
+
+        private byte readTag() throws IOException {
+            if (position >= limit) {
+                throw new EOFException("Truncated binary frame");
+            }
+
+            return in[position++];
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readValue(byte tag) throws IOException {
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case BYTE:
+                    return readTag();
+                case SHORT:
+                    return (short) readSigned();
+                case CHAR:
+                    return (char) readVarLong();
+                case INT:
+                    return (int) readSigned();
+                case LONG:
+                    return readSigned();
+                case FLOAT:
+                    return Float.intBitsToFloat((int) readFixed(Integer.BYTES));
+                case DOUBLE:
+                    return Double.longBitsToDouble(readFixed(Long.BYTES));
+                case STRING:
+                case STRING_REF:
+                    return readString(tag);
+                case ENUM:
+                    return Enum.valueOf((Class) readEnumType(), readString());
+                case ARRAY:
+                    return readArray();
+                case BYTES:
+                    return readBytes();
+                case COLLECTION:
+                    return readCollection();
+                case MAP:
+                    return readMap();
+                case ENUM_SET:
+                    return readEnumSet();
+                case OBJECT:
+                    return readObject();
+                case OBJECT_REF:
+                    return objects.get(readLength());
+                default:
+                    throw new StreamCorruptedException("Unknown tag " + tag);
+            }
+        }
+
+        private String readString() throws IOException {
+            return readString(readTag());
+        }
+
+        private String readString(byte tag) throws IOException {
+            if (tag == STRING_REF) {
+                return strings.get(readLength());
+            } else if (tag != STRING) {
+                throw new StreamCorruptedException("String expected");
+            }
+
+            int length = readLength();
+            if (position + length > limit) {
+                throw new EOFException("Truncated binary frame");
+            }
+
+            String value = new String(in, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(value);
+
+            return value;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readTag();
+                value |= (long) (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new StreamCorruptedException("Malformed varint");
+        }
+
+        private int readLength() throws IOException {
+            long length = readVarLong();
+
+            if (length < 0 || length > MessageFrame.MAX_FRAME_LENGTH) {
+                throw new StreamCorruptedException("Invalid length " + length);
+            }
+
+            return (int) length;
+        }
+
+        private long readSigned() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readFixed(int bytes) throws IOException {
+            long bits = 0;
+
+            for (int i = 0; i < bytes; ++i) {
+                bits = (bits << 8) | (readTag() & 0xFF);
+            }
+
+            return bits;
+        }
+
+        private byte[] readBytes() throws IOException {
+            int length = readLength();
+            if (position + length > limit) {
+                throw new EOFException("Truncated binary frame");
+            }
+
+            position += length;
+            return Arrays.copyOfRange(in, position - length, position);
+        }
+
+        private Class<?> readType() throws IOException {
+            int id = readLength();
+
+            if (id == BinarySchema.ARRAY_TYPE) {
+                return Array.newInstance(readType(), 0).getClass();
+            }
+
+            return BinarySchema.forId(id).getType();
+        }
+
+        private Class<?> readEnumType() throws IOException {
+            Class<?> type = readType();
+
+            if (!type.isEnum()) {
+                throw new InvalidClassException(type.getName(), "not an enum");
+            }
+
+            return type;
+        }
+
+        private Object readArray() throws IOException {
+            Class<?> componentType = readType();
+            int length = readLength();
+            Object array = Array.newInstance(componentType, length);
+
+            for (int i = 0; i < length; ++i) {
+                Array.set(array, i, readValue());
+            }
+
+            return array;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readCollection() throws IOException {
+            Class<?> type = readType();
+            int size = readLength();
+
+            if (!COLLECTIONS.contains(type) || !Collection.class.isAssignableFrom(type)) {
+                throw new InvalidClassException(type.getName(), "not a collection");
+            }
+
+            Collection<Object> collection = (Collection<Object>) newCollection(type);
+            for (int i = 0; i < size; ++i) {
+                collection.add(readValue());
+            }
+
+            return collection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readMap() throws IOException {
+            Class<?> type = readType();
+            int size = readLength();
+
+            if (!COLLECTIONS.contains(type) || !Map.class.isAssignableFrom(type)) {
+                throw new InvalidClassException(type.getName(), "not a map");
+            }
+
+            Map<Object, Object> map = (Map<Object, Object>) newCollection(type);
+            for (int i = 0; i < size; ++i) {
+                map.put(readValue(), readValue());
+            }
+
+            return map;
+        }
+
+        private Object newCollection(Class<?> type) throws IOException {
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new InvalidClassException(type.getName(), e.toString());
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnumSet() throws IOException {
+            Class type = readEnumType();
+            int size = readLength();
+
+            EnumSet set = EnumSet.noneOf(type);
+            for (int i = 0; i < size; ++i) {
+                set.add(Enum.valueOf(type, readString()));
+            }
+
+            return set;
+        }
+
+        private Object readObject() throws IOException {
+            BinarySchema schema = BinarySchema.forId(readLength());
+
+            if (schema.isBuiltin()) {
+                throw new InvalidClassException(schema.getType().getName(), "not an object of the game");
+            }
+
+            Object value = schema.newInstance();
+            objects.add(value);
+
+            int tag;
+            while ((tag = readLength()) != END) {
+                Field field = schema.getField(tag);
+                Object fieldValue = readValue();
+
+                // fields unknown to this version are skipped
+                if (field != null) {
+                    try {
+                        field.set(value, fieldValue);
+                    } catch (IllegalAccessException e) {
+                        throw new InvalidObjectException(e.getMessage());
+                    }
+                }
+            }
+
+            return value;
+        }
+    }
+}
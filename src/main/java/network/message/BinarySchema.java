@@ -0,0 +1,382 @@
+package network.message;
+
+import enumerations.*;
+import model.GameSerialized;
+import model.GameStateDelta;
+import model.SecretAttributes;
+import model.cards.*;
+import model.cards.effects.*;
+import model.cards.weaponstates.ChargedWeapon;
+import model.cards.weaponstates.SemiChargedWeapon;
+import model.cards.weaponstates.UnchargedWeapon;
+import model.map.CardSquare;
+import model.map.GameMap;
+import model.map.SpawnSquare;
+import model.map.Square;
+import model.player.*;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * This class represents the schema of a type written by the {@link BinaryCodec BinaryCodec}. Every type has a
+ * numeric id, written in place of its name, and every field of a class a numeric tag, unique along the hierarchy of
+ * the class. Ids and tags are never reused: a new field takes a new tag, so that an older decoder skips it, and a
+ * removed field leaves its tag unused. A new type is not understood by an older decoder, so it must never be sent to
+ * it.
+ * <p>
+ * Only the types declared here can be written or read. A class declares all its serializable fields, which is checked
+ * when the schemas are loaded, and has a no-arg constructor used to create it before its fields are read
+ */
+final class BinarySchema {
+    /**
+     * The id of an array type, followed by the type of its elements
+     */
+    static final int ARRAY_TYPE = 19;
+
+    private static final int MAX_ID = 128;
+
+    private static final BinarySchema[] byId = new BinarySchema[MAX_ID];
+    private static final Map<Class<?>, BinarySchema> byClass = new HashMap<>();
+
+    private final int id;
+    private final Class<?> type;
+    private final boolean builtin;
+    private final List<Field> declaredFields = new ArrayList<>();
+    private final List<Integer> declaredTags = new ArrayList<>();
+
+    private Constructor<?> constructor;
+    private Field[] fields;
+    private int[] tags;
+    private Map<Integer, Field> fieldsByTag;
+
+    static {
+        builtin(1, boolean.class);
+        builtin(2, byte.class);
+        builtin(3, short.class);
+        builtin(4, char.class);
+        builtin(5, int.class);
+        builtin(6, long.class);
+        builtin(7, float.class);
+        builtin(8, double.class);
+        builtin(9, String.class);
+        builtin(10, Integer.class);
+        builtin(11, Object.class);
+        builtin(12, ArrayList.class);
+        builtin(13, LinkedList.class);
+        builtin(14, ArrayDeque.class);
+        builtin(15, HashSet.class);
+        builtin(16, LinkedHashSet.class);
+        builtin(17, HashMap.class);
+        builtin(18, LinkedHashMap.class);
+
+        builtin(20, Ammo.class);
+        builtin(21, Direction.class);
+        builtin(22, GameClientState.class);
+        builtin(23, GameState.class);
+        builtin(24, MessageContent.class);
+        builtin(25, MessageStatus.class);
+        builtin(26, MoveTarget.class);
+        builtin(27, PlayerBoardState.class);
+        builtin(28, PlayerColor.class);
+        builtin(29, PossibleAction.class);
+        builtin(30, PossibleGameState.class);
+        builtin(31, PossiblePlayerState.class);
+        builtin(32, enumerations.Properties.class);
+        builtin(33, RoomColor.class);
+        builtin(34, SquareAdjacency.class);
+        builtin(35, SquareType.class);
+        builtin(36, TargetType.class);
+        builtin(37, UserPlayerState.class);
+
+        define(40, Message.class).field(1, "senderUsername").field(2, "token").field(3, "content");
+        define(41, ActionRequest.class).field(4, "senderMovePosition").field(5, "paymentPowerups");
+        define(42, EffectRequest.class).field(6, "targetPlayersUsername").field(7, "targetPositions")
+                .field(8, "targetRoomColor").field(9, "targetPlayersMovePositions");
+        define(43, BotSpawnRequest.class).field(4, "spawnColor");
+        define(44, BotUseRequest.class).field(4, "movingPosition").field(5, "targetPlayer");
+        define(45, ColorRequest.class);
+        define(46, ColorResponse.class).field(4, "colorList");
+        define(47, ConnectionRequest.class).field(4, "codecVersion");
+        define(48, ConnectionResponse.class).field(4, "newToken").field(5, "message").field(6, "status");
+        define(49, DiscardPowerupRequest.class).field(4, "powerup");
+        define(50, DisconnectionMessage.class).field(4, "username");
+        define(51, GameDeltaMessage.class).field(4, "sharedDelta").field(5, "secrets").field(6, "turnOwner")
+                .field(7, "grenadeUsage").field(8, "baseVersion").field(9, "stateVersion");
+        define(52, GameLoadResponse.class).field(4, "newToken").field(5, "message").field(6, "userPlayerState")
+                .field(7, "botPresent");
+        define(53, GameStartMessage.class).field(4, "firstPlayer");
+        define(54, GameStateMessage.class).field(4, "sharedState").field(5, "secrets").field(6, "turnOwner")
+                .field(7, "grenadeUsage").field(8, "stateVersion");
+        define(55, GameVoteMessage.class).field(4, "mapVote");
+        define(56, GameVoteResponse.class).field(4, "message").field(5, "status");
+        define(57, LobbyMessage.class).field(4, "chosenColor").field(5, "disconnection");
+        define(58, LobbyPlayersResponse.class).field(4, "users");
+        define(59, MovePickRequest.class).field(6, "addingWeapon").field(7, "discardingWeapon");
+        define(60, MoveRequest.class);
+        define(61, PassTurnRequest.class);
+        define(62, PingMessage.class);
+        define(63, PowerupRequest.class).field(10, "powerup").field(11, "ammoColor");
+        define(64, ReconnectionMessage.class).field(4, "newToken").field(5, "gameStateMessage");
+        define(65, ReloadRequest.class).field(6, "weapons");
+        define(66, Response.class).field(4, "message").field(5, "status");
+        define(67, ShootRequest.class).field(10, "weaponID").field(11, "effect").field(12, "moveBeforeShootPosition")
+                .field(13, "moveSenderFirst").field(14, "moveInMiddle").field(15, "moveTargetsFirst")
+                .field(16, "moveToLastTarget").field(17, "rechargingWeapons");
+        define(68, WinnersResponse.class).field(4, "winners");
+
+        define(80, GameSerialized.class).field(1, "currentState").field(2, "gameMap").field(3, "players")
+                .field(4, "bot").field(5, "botPresent").field(6, "botActionDone").field(7, "killShotNum")
+                .field(8, "killShotsTrack").field(9, "finalFrenzyKillShots").field(10, "points")
+                .field(11, "powerupCards").field(12, "spawningPowerup");
+        define(81, GameStateDelta.class).field(1, "currentState").field(2, "killShotNum").field(3, "killShotsChanged")
+                .field(4, "killShotsTrack").field(5, "finalFrenzyKillShots").field(6, "botChanged").field(7, "bot")
+                .field(8, "players").field(9, "squares");
+        define(82, SecretAttributes.class).field(1, "points").field(2, "powerupCards").field(3, "spawningPowerup")
+                .field(4, "botActionDone");
+
+        define(83, Card.class).field(1, "imagePath");
+        define(84, UsableCard.class).field(2, "name").field(3, "baseEffect");
+        define(85, AmmoTile.class).field(2, "id").field(3, "ammoOnTile").field(4, "pickPowerup");
+        define(86, PowerupCard.class).field(4, "id").field(5, "value");
+        define(87, WeaponCard.class).field(4, "id").field(5, "cost").field(6, "secondaryEffects").field(7, "weaponState");
+        define(88, ChargedWeapon.class);
+        define(89, SemiChargedWeapon.class);
+        define(90, UnchargedWeapon.class);
+
+        define(91, Effect.class).field(1, "cost").field(2, "properties").field(3, "targets").field(4, "description");
+        define(92, PowerupBaseEffect.class);
+        define(93, WeaponBaseEffect.class);
+        define(94, ExtraEffectDecorator.class).field(5, "effect");
+        define(95, ExtraDamageDecorator.class).field(6, "damageDistribution").field(7, "targetType");
+        define(96, ExtraDamageNoMarkDecorator.class).field(6, "damageDistribution");
+        define(97, ExtraMarkDecorator.class).field(6, "markDistribution").field(7, "targetType");
+        define(98, ExtraMoveDecorator.class).field(6, "moveTarget");
+
+        define(99, GameMap.class).field(1, "mapID").field(2, "rooms").field(3, "imagePath");
+        define(100, Square.class).field(1, "color").field(2, "squareType").field(3, "north").field(4, "east")
+                .field(5, "south").field(6, "west");
+        define(101, CardSquare.class).field(7, "ammoTile").field(8, "hasAmmoTile");
+        define(102, SpawnSquare.class).field(7, "weapons");
+
+        define(103, AmmoQuantity.class).field(1, "redAmmo").field(2, "blueAmmo").field(3, "yellowAmmo");
+        define(104, Player.class).field(1, "username").field(2, "color").field(3, "playerBoard").field(4, "position");
+        define(105, UserPlayer.class).field(5, "weapons").field(6, "firstPlayer");
+        define(106, Bot.class).field(5, "spawnTurn");
+        define(107, PlayerBoard.class).field(1, "dealerNames").field(2, "dealerColors").field(3, "dealersCount")
+                .field(4, "damages").field(5, "damageCount").field(6, "damagesByDealer").field(7, "marksByDealer")
+                .field(8, "markCount").field(9, "skulls").field(10, "ammo").field(11, "boardState")
+                .field(12, "boardPoints").field(13, "boardFlipped");
+        define(108, PlayerPosition.class).field(1, "row").field(2, "column");
+        define(109, KillShot.class).field(1, "killer").field(2, "points");
+        define(110, PlayerPoints.class).field(1, "userName").field(2, "playerColor").field(3, "points").field(4, "winner");
+
+        for (BinarySchema schema : byClass.values()) {
+            schema.complete();
+        }
+    }
+
+    private BinarySchema(int id, Class<?> type, boolean builtin) {
+        this.id = id;
+        this.type = type;
+        this.builtin = builtin;
+    }
+
+    /**
+     * Declares a type written without fields: a primitive, a string, a collection or an enumeration
+     */
+    private static void builtin(int id, Class<?> type) {
+        register(new BinarySchema(id, type, true));
+    }
+
+    /**
+     * Declares a class of the game, whose fields are then declared with {@link #field(int, String)}
+     */
+    private static BinarySchema define(int id, Class<?> type) {
+        if (!Serializable.class.isAssignableFrom(type)) {
+            throw new IllegalStateException(type.getName() + " is not serializable");
+        }
+
+        return register(new BinarySchema(id, type, false));
+    }
+
+    private static BinarySchema register(BinarySchema schema) {
+        if (schema.id <= 0 || schema.id >= MAX_ID || schema.id == ARRAY_TYPE || byId[schema.id] != null) {
+            throw new IllegalStateException("Invalid id " + schema.id + " for " + schema.type.getName());
+        }
+
+        byId[schema.id] = schema;
+        byClass.put(schema.type, schema);
+        return schema;
+    }
+
+    /**
+     * Declares a field of the class
+     *
+     * @param tag  the tag of the field, unique along the hierarchy of the class
+     * @param name the name of the field, declared by this class
+     * @return this schema
+     */
+    private BinarySchema field(int tag, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+
+            declaredFields.add(field);
+            declaredTags.add(tag);
+            return this;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(type.getName() + " has no field " + name, e);
+        }
+    }
+
+    /**
+     * Adds the fields of the superclasses and checks that every serializable field is declared, then finds the
+     * no-arg constructor of a concrete class
+     */
+    private void complete() {
+        if (builtin) {
+            return;
+        }
+
+        List<Field> fieldList = new ArrayList<>();
+        List<Integer> tagList = new ArrayList<>();
+
+        Deque<BinarySchema> hierarchy = new ArrayDeque<>();
+        for (Class<?> c = type; c != null && Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+            BinarySchema schema = byClass.get(c);
+
+            if (schema == null) {
+                throw new IllegalStateException("No schema for " + c.getName() + ", superclass of " + type.getName());
+            }
+
+            hierarchy.push(schema);
+        }
+
+        for (BinarySchema schema : hierarchy) {
+            schema.checkDeclaredFields();
+            fieldList.addAll(schema.declaredFields);
+            tagList.addAll(schema.declaredTags);
+        }
+
+        fields = fieldList.toArray(new Field[0]);
+        tags = tagList.stream().mapToInt(Integer::intValue).toArray();
+        fieldsByTag = new HashMap<>();
+
+        for (int i = 0; i < fields.length; ++i) {
+            if (tags[i] <= 0 || fieldsByTag.put(tags[i], fields[i]) != null) {
+                throw new IllegalStateException("Invalid tag " + tags[i] + " in " + type.getName());
+            }
+        }
+
+        if (!Modifier.isAbstract(type.getModifiers())) {
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(type.getName() + " has no no-arg constructor", e);
+            }
+        }
+    }
+
+    private void checkDeclaredFields() {
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !declaredFields.contains(field)) {
+                throw new IllegalStateException("Field " + field.getName() + " of " + type.getName() + " has no tag");
+            }
+        }
+    }
+
+    /**
+     * Returns the schema of a type
+     *
+     * @param type the type of the value to write
+     * @return the schema of the type
+     * @throws NotSerializableException if the type has no schema
+     */
+    static BinarySchema of(Class<?> type) throws NotSerializableException {
+        BinarySchema schema = byClass.get(type);
+
+        if (schema == null) {
+            throw new NotSerializableException(type.getName());
+        }
+
+        return schema;
+    }
+
+    /**
+     * Returns the schema of a type read from a frame
+     *
+     * @param id the id of the type
+     * @return the schema of the type
+     * @throws InvalidClassException if no type has that id
+     */
+    static BinarySchema forId(int id) throws InvalidClassException {
+        BinarySchema schema = id > 0 && id < MAX_ID ? byId[id] : null;
+
+        if (schema == null) {
+            throw new InvalidClassException("Unknown type id " + id);
+        }
+
+        return schema;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return {@code true} if the type is written without fields, {@code false} if it is a class of the game
+     */
+    boolean isBuiltin() {
+        return builtin;
+    }
+
+    Field[] getFields() {
+        return fields;
+    }
+
+    int[] getTags() {
+        return tags;
+    }
+
+    /**
+     * @param tag the tag of a field
+     * @return the field with the tag, {@code null} if the field is unknown to this version
+     */
+    Field getField(int tag) {
+        return fieldsByTag.get(tag);
+    }
+
+    /**
+     * Creates an object of the class, whose fields are then read
+     *
+     * @return the new object
+     * @throws IOException if the class is abstract or its constructor fails
+     */
+    Object newInstance() throws IOException {
+        if (constructor == null) {
+            throw new InvalidClassException(type.getName(), "can not be instantiated");
+        }
+
+        try {
+            return constructor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new InvalidObjectException(e.toString());
+        }
+    }
+}
@@ -11,6 +11,13 @@ public class BotSpawnRequest extends Message {
 
     private final RoomColor spawnColor;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private BotSpawnRequest() {
+        this(null, null, null);
+    }
+
     public BotSpawnRequest(String username, String token, RoomColor spawnColor) {
         super(username, token, MessageContent.BOT_SPAWN);
 
@@ -12,6 +12,13 @@ public class BotUseRequest extends Message {
     private final PlayerPosition movingPosition;
     private final String targetPlayer;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private BotUseRequest() {
+        this(null, null, null, null);
+    }
+
     public BotUseRequest(String username, String token, PlayerPosition movingPosition, String targetPlayer) {
         super(username, token, MessageContent.BOT_ACTION);
         this.movingPosition = movingPosition;
@@ -8,6 +8,13 @@ import enumerations.MessageContent;
 public class ColorRequest extends Message {
     private static final long serialVersionUID = 8937363835835301847L;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private ColorRequest() {
+        this(null, null);
+    }
+
     public ColorRequest(String username, String token) {
         super(username, token, MessageContent.COLOR);
     }
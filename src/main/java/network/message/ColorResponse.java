@@ -17,6 +17,13 @@ public class ColorResponse extends Message {
 
     private final ArrayList<PlayerColor> colorList;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private ColorResponse() {
+        this(null);
+    }
+
     public ColorResponse(List<PlayerColor> colorList) {
         super(GameConstants.GOD_NAME, null, MessageContent.COLOR_RESPONSE);
         this.colorList = NullObjectHelper.getNotNullArrayList(colorList);
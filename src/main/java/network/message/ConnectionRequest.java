@@ -8,8 +8,34 @@ import enumerations.MessageContent;
 public class ConnectionRequest extends Message {
     private static final long serialVersionUID = 5444683484323330868L;
 
+    private final int codecVersion;
+
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private ConnectionRequest() {
+        this(null);
+    }
+
     public ConnectionRequest(String username) {
+        this(username, MessageCodec.SERIALIZATION.getVersion());
+    }
+
+    /**
+     * Creates a connection request asking the server to answer with the given codec, {@code 0} asks for the Java
+     * serialization
+     *
+     * @param username     username of the player
+     * @param codecVersion version of the {@link MessageCodec MessageCodec} supported by the client
+     */
+    public ConnectionRequest(String username, int codecVersion) {
         super(username, null, MessageContent.CONNECTION);
+
+        this.codecVersion = codecVersion;
+    }
+
+    public int getCodecVersion() {
+        return codecVersion;
     }
 
     @Override
@@ -17,6 +43,7 @@ public class ConnectionRequest extends Message {
         return "ConnectionRequest{" +
                 "senderUsername=" + getSenderUsername() +
                 ", content=" + getContent() +
+                ", codecVersion=" + codecVersion +
                 "}";
     }
 }
@@ -14,6 +14,13 @@ public class ConnectionResponse extends Message {
     private final String message;
     private final MessageStatus status;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private ConnectionResponse() {
+        this(null, null, null);
+    }
+
     public ConnectionResponse(String message, String newToken, MessageStatus status) {
         super(GameConstants.GOD_NAME, null, MessageContent.CONNECTION_RESPONSE);
         this.message = message;
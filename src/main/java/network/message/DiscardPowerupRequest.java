@@ -10,6 +10,13 @@ public class DiscardPowerupRequest extends Message {
 
     private final int powerup;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private DiscardPowerupRequest() {
+        this(null, null, 0);
+    }
+
     public DiscardPowerupRequest(String username, String token, int powerup) {
         super(username, token, MessageContent.DISCARD_POWERUP);
 
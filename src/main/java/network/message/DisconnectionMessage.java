@@ -11,6 +11,13 @@ public class DisconnectionMessage extends Message {
 
     private final String username;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private DisconnectionMessage() {
+        this(null);
+    }
+
     public DisconnectionMessage(String username) {
         super(GameConstants.GOD_NAME, null, MessageContent.DISCONNECTION);
         this.username = username;
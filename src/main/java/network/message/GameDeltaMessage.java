@@ -0,0 +1,112 @@
+package network.message;
+
+import enumerations.MessageContent;
+import model.GameSerialized;
+import model.GameStateDelta;
+import model.SecretAttributes;
+import utility.GameConstants;
+
+import java.io.IOException;
+
+/**
+ * Message class to inform a client about a game state update sending only what changed since the previous update,
+ * identified by its version. Like in the {@link GameStateMessage GameStateMessage} the changes are already encoded,
+ * with the codec negotiated by the client, since they are the same for every player, and are followed by the
+ * {@link SecretAttributes SecretAttributes}
+ */
+public class GameDeltaMessage extends Message {
+    private static final long serialVersionUID = -6148804375221437306L;
+
+    private final byte[] sharedDelta;
+    private final SecretAttributes secrets;
+    private final String turnOwner;
+    private final boolean grenadeUsage;
+    private final int baseVersion;
+    private final int stateVersion;
+
+    private transient GameStateDelta delta;
+
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private GameDeltaMessage() {
+        this(null, null, null, false, 0, 0);
+    }
+
+    /**
+     * Creates the message
+     *
+     * @param sharedDelta  the changes of the state, encoded with {@link GameStateMessage#encodeShared(Object)}
+     * @param secrets      the secret attributes of the receiving player
+     * @param turnOwner    the username of the turn owner
+     * @param grenadeUsage {@code true} if the turn is assigned to use a TAGBACK GRENADE
+     * @param baseVersion  the version of the state to which the changes apply
+     * @param stateVersion the version of the state obtained applying the changes
+     */
+    public GameDeltaMessage(byte[] sharedDelta, SecretAttributes secrets, String turnOwner, boolean grenadeUsage, int baseVersion, int stateVersion) {
+        super(GameConstants.GOD_NAME, null, MessageContent.GAME_DELTA);
+        this.sharedDelta = sharedDelta;
+        this.secrets = secrets;
+        this.turnOwner = turnOwner;
+        this.grenadeUsage = grenadeUsage;
+        this.baseVersion = baseVersion;
+        this.stateVersion = stateVersion;
+    }
+
+    byte[] getSharedDelta() {
+        return sharedDelta;
+    }
+
+    @Override
+    Message encodedFor(MessageCodec codec) throws IOException {
+        byte[] encoded = GameStateMessage.encodeSharedFor(sharedDelta, codec);
+
+        return encoded == sharedDelta ? this : new GameDeltaMessage(encoded, secrets, turnOwner, grenadeUsage, baseVersion, stateVersion);
+    }
+
+    public GameStateDelta getDelta() {
+        if (delta == null) {
+            delta = (GameStateDelta) GameStateMessage.decodeShared(sharedDelta);
+        }
+
+        return delta;
+    }
+
+    public String getTurnOwner() {
+        return turnOwner;
+    }
+
+    public boolean isGrenadeUsage() {
+        return grenadeUsage;
+    }
+
+    public int getBaseVersion() {
+        return baseVersion;
+    }
+
+    public int getStateVersion() {
+        return stateVersion;
+    }
+
+    /**
+     * Applies the changes to the state previously received
+     *
+     * @param previous the state with version {@link #getBaseVersion() baseVersion}
+     * @return the updated state, as it had been sent by a {@link GameStateMessage GameStateMessage}
+     */
+    public GameStateMessage applyTo(GameSerialized previous) {
+        GameSerialized updated = new GameSerialized(new GameSerialized(previous, getDelta()), secrets);
+
+        return new GameStateMessage(updated, turnOwner, grenadeUsage, stateVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "GameDeltaMessage{" +
+                "baseVersion=" + baseVersion +
+                ", stateVersion=" + stateVersion +
+                ", turnOwner=" + turnOwner +
+                ", sharedDelta=" + sharedDelta.length + " bytes" +
+                '}';
+    }
+}
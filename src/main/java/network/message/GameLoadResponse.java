@@ -15,6 +15,13 @@ public class GameLoadResponse extends Message {
     private final UserPlayerState userPlayerState;
     private final Boolean botPresent;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private GameLoadResponse() {
+        this(null, null, null, null);
+    }
+
     public GameLoadResponse(String message, String newToken, UserPlayerState userPlayerState, Boolean botPresent) {
         super(GameConstants.GOD_NAME, null, MessageContent.GAME_LOAD);
         this.message = message;
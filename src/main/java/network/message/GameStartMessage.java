@@ -11,6 +11,13 @@ public class GameStartMessage extends Message {
 
     private final String firstPlayer;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private GameStartMessage() {
+        this(null);
+    }
+
     public GameStartMessage(String firstPlayer) {
         super(GameConstants.GOD_NAME, null, MessageContent.READY);
         this.firstPlayer = firstPlayer;
@@ -1,27 +1,141 @@
 package network.message;
 
 import enumerations.MessageContent;
+import model.Game;
 import model.GameSerialized;
+import model.SecretAttributes;
 import utility.GameConstants;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
 /**
- * Message class to inform the clients about a game state update
+ * Message class to inform the clients about a game state update. The state shared by every player is already encoded,
+ * so that the same bytes can be sent to all of them, and is followed by the {@link SecretAttributes SecretAttributes}
+ * of the receiving player. The shared state is encoded with the {@link BinaryCodec BinaryCodec} and encoded again with
+ * the Java serialization for the clients that negotiated it, which therefore do not need the binary codec
  */
 public class GameStateMessage extends Message {
-    private static final long serialVersionUID = 2725986184174583892L;
+    private static final long serialVersionUID = -4406718536580322416L;
 
-    private final GameSerialized gameSerialized;
+    private final byte[] sharedState;
+    private final SecretAttributes secrets;
     private final String turnOwner;
     private boolean grenadeUsage;
+    private final int stateVersion;
+
+    private transient GameSerialized gameSerialized;
+
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private GameStateMessage() {
+        this(null, null, null, false, 0);
+    }
 
     public GameStateMessage(String username, String turnOwner, boolean grenadeUsage) {
+        this(Game.getInstance(), username, turnOwner, grenadeUsage);
+    }
+
+    public GameStateMessage(Game game, String username, String turnOwner, boolean grenadeUsage) {
+        this(encodeShared(new GameSerialized(game)), new SecretAttributes(game, username), turnOwner, grenadeUsage, 0);
+    }
+
+    /**
+     * Creates the message from the already encoded shared state
+     *
+     * @param sharedState  the state shared by every player, encoded with {@link #encodeShared(Object)}
+     * @param secrets      the secret attributes of the receiving player
+     * @param turnOwner    the username of the turn owner
+     * @param grenadeUsage {@code true} if the turn is assigned to use a TAGBACK GRENADE
+     * @param stateVersion the version of the state, on which the next {@link GameDeltaMessage GameDeltaMessage} is based
+     */
+    public GameStateMessage(byte[] sharedState, SecretAttributes secrets, String turnOwner, boolean grenadeUsage, int stateVersion) {
         super (GameConstants.GOD_NAME, null, MessageContent.GAME_STATE);
-        this.gameSerialized = new GameSerialized(username);
+        this.sharedState = sharedState;
+        this.secrets = secrets;
         this.turnOwner = turnOwner;
         this.grenadeUsage = grenadeUsage;
+        this.stateVersion = stateVersion;
+    }
+
+    /**
+     * Creates the message from a state built by the client, which is never sent
+     */
+    GameStateMessage(GameSerialized gameSerialized, String turnOwner, boolean grenadeUsage, int stateVersion) {
+        this(null, null, turnOwner, grenadeUsage, stateVersion);
+        this.gameSerialized = gameSerialized;
+    }
+
+    /**
+     * Encodes a part of the state that is the same for every player
+     *
+     * @param shared the shared part of the state
+     * @return the encoded state
+     */
+    static byte[] encodeShared(Object shared) {
+        try {
+            return BinaryCodec.encodeValue(shared);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes a part of the state that is the same for every player, whatever codec has been used to encode it
+     *
+     * @param encoded the encoded state
+     * @return the shared part of the state
+     */
+    static Object decodeShared(byte[] encoded) {
+        try {
+            if (isSerialized(encoded)) {
+                return SerializationCodec.decodeValue(encoded);
+            }
+
+            return BinaryCodec.decodeValue(encoded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes again a part of the state for a codec
+     *
+     * @param encoded the part encoded with {@link #encodeShared(Object)}
+     * @param codec   the codec encoding the message carrying the part
+     * @return the part encoded as the codec does
+     * @throws IOException if the part can not be encoded again
+     */
+    static byte[] encodeSharedFor(byte[] encoded, MessageCodec codec) throws IOException {
+        if (codec != MessageCodec.SERIALIZATION || encoded == null || isSerialized(encoded)) {
+            return encoded;
+        }
+
+        return SerializationCodec.encodeValue(decodeShared(encoded));
+    }
+
+    private static boolean isSerialized(byte[] encoded) {
+        return MessageCodec.SERIALIZATION.accepts(ByteBuffer.wrap(encoded));
+    }
+
+    byte[] getSharedState() {
+        return sharedState;
+    }
+
+    @Override
+    Message encodedFor(MessageCodec codec) throws IOException {
+        byte[] encoded = encodeSharedFor(sharedState, codec);
+
+        return encoded == sharedState ? this : new GameStateMessage(encoded, secrets, turnOwner, grenadeUsage, stateVersion);
     }
 
     public GameSerialized getGameSerialized() {
+        if (gameSerialized == null) {
+            gameSerialized = new GameSerialized((GameSerialized) decodeShared(sharedState), secrets);
+        }
+
         return gameSerialized;
     }
 
@@ -32,4 +146,8 @@ public class GameStateMessage extends Message {
     public boolean isGrenadeUsage() {
         return grenadeUsage;
     }
+
+    public int getStateVersion() {
+        return stateVersion;
+    }
 }
@@ -0,0 +1,225 @@
+package network.message;
+
+import model.Game;
+import model.GameSerialized;
+import model.GameStateDelta;
+import model.SecretAttributes;
+import model.map.GameMap;
+import model.player.UserPlayer;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * This class keeps track of the game state sent to every player of a match, so that each update only carries what
+ * changed since the previous one. The state is split in parts: kill shots, bot, every player and every square. Each
+ * part is encoded once per update and its revision grows when the encoding changes; a player receives the parts whose
+ * revision is newer than the one he already has. A full {@link GameStateMessage GameStateMessage} is sent to a player
+ * the first time, after a reconnection and every {@link #SNAPSHOT_INTERVAL} updates, to resynchronize him.
+ * Only the {@link SecretAttributes SecretAttributes} are built for each player: the shared state or changes are encoded
+ * once per update, so encoding an update does not get more expensive with the number of players receiving it. Only the
+ * clients that negotiated the Java serialization get the shared part encoded again, when their message is written
+ */
+public class GameStateTracker {
+    public static final int SNAPSHOT_INTERVAL = 20;
+
+    private static final int KILL_SHOTS = 0;
+    private static final int BOT = 1;
+    private static final int FIRST_PLAYER = 2;
+
+    private final int snapshotInterval;
+    private final Map<String, ClientState> clients;
+
+    private byte[][] parts;
+    private int[] revisions;
+    private int playersCount = -1;
+
+    /**
+     * Creates a tracker sending a full state every {@link #SNAPSHOT_INTERVAL} updates
+     */
+    public GameStateTracker() {
+        this(SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Creates a tracker
+     *
+     * @param snapshotInterval number of updates after which a full state is sent again, {@code 1} to always send it
+     */
+    public GameStateTracker(int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+        this.clients = new HashMap<>();
+        this.parts = new byte[0][];
+        this.revisions = new int[0];
+    }
+
+    /**
+     * Builds the update of the game for every player, to be sent after an action. The shared part of the updates is
+     * encoded once and the same bytes are sent to every player who needs them
+     *
+     * @param game         the game whose state is sent
+     * @param turnOwner    the username of the turn owner
+     * @param grenadeUsage {@code true} if the turn is assigned to use a TAGBACK GRENADE
+     * @return the message to send to each player, in the order of the players
+     */
+    public synchronized Map<String, Message> updates(Game game, String turnOwner, boolean grenadeUsage) {
+        GameSerialized shared = new GameSerialized(game);
+        refresh(shared);
+
+        Map<String, Message> updates = new LinkedHashMap<>();
+        byte[] sharedState = null;
+        Map<List<Integer>, byte[]> sharedDeltas = new HashMap<>();
+
+        for (UserPlayer player : game.getPlayers()) {
+            String username = player.getUsername();
+            SecretAttributes secrets = new SecretAttributes(game, username);
+            ClientState client = clients.get(username);
+
+            if (client == null || ++client.sinceSnapshot >= snapshotInterval) {
+                if (sharedState == null) {
+                    sharedState = GameStateMessage.encodeShared(shared);
+                }
+
+                updates.put(username, snapshot(sharedState, secrets, username, turnOwner, grenadeUsage));
+            } else {
+                // players who received the same updates get the same changes
+                byte[] sharedDelta = sharedDeltas.computeIfAbsent(revisionsOf(client),
+                        key -> GameStateMessage.encodeShared(delta(shared, client)));
+
+                int baseVersion = client.version++;
+                client.revisions = revisions.clone();
+
+                updates.put(username, new GameDeltaMessage(sharedDelta, secrets, turnOwner, grenadeUsage, baseVersion, client.version));
+            }
+        }
+
+        return updates;
+    }
+
+    /**
+     * Builds the full state of the game for a player, for example after his reconnection
+     *
+     * @param game         the game whose state is sent
+     * @param username     the username of the receiving player
+     * @param turnOwner    the username of the turn owner
+     * @param grenadeUsage {@code true} if the turn is assigned to use a TAGBACK GRENADE
+     * @return the full state, on which the next updates of the player are based
+     */
+    public synchronized GameStateMessage snapshot(Game game, String username, String turnOwner, boolean grenadeUsage) {
+        GameSerialized shared = new GameSerialized(game);
+        refresh(shared);
+
+        return snapshot(GameStateMessage.encodeShared(shared), new SecretAttributes(game, username), username, turnOwner, grenadeUsage);
+    }
+
+    /**
+     * Makes the next update of a player a full state, when the updates previously sent to him have been dropped
+     *
+     * @param username the username of the player
+     */
+    public synchronized void resync(String username) {
+        ClientState client = clients.get(username);
+
+        if (client != null) {
+            client.sinceSnapshot = snapshotInterval;
+        }
+    }
+
+    private GameStateMessage snapshot(byte[] sharedState, SecretAttributes secrets, String username, String turnOwner, boolean grenadeUsage) {
+        ClientState client = clients.computeIfAbsent(username, key -> new ClientState());
+
+        client.version++;
+        client.revisions = revisions.clone();
+        client.sinceSnapshot = 0;
+
+        return new GameStateMessage(sharedState, secrets, turnOwner, grenadeUsage, client.version);
+    }
+
+    private static List<Integer> revisionsOf(ClientState client) {
+        List<Integer> list = new ArrayList<>(client.revisions.length);
+        for (int revision : client.revisions) {
+            list.add(revision);
+        }
+
+        return list;
+    }
+
+    private GameStateDelta delta(GameSerialized shared, ClientState client) {
+        GameStateDelta delta = new GameStateDelta(shared);
+
+        for (int i = 0; i < revisions.length; ++i) {
+            if (client.revisions[i] != revisions[i]) {
+                addPart(delta, shared, i);
+            }
+        }
+
+        return delta;
+    }
+
+    private void addPart(GameStateDelta delta, GameSerialized state, int part) {
+        if (part == KILL_SHOTS) {
+            delta.addKillShots(state);
+        } else if (part == BOT) {
+            delta.addBot(state.getBot());
+        } else if (part < FIRST_PLAYER + playersCount) {
+            delta.addPlayer(part - FIRST_PLAYER, state.getPlayers().get(part - FIRST_PLAYER));
+        } else {
+            int square = part - FIRST_PLAYER - playersCount;
+            int x = square / GameMap.MAX_COLUMNS;
+            int y = square % GameMap.MAX_COLUMNS;
+
+            delta.addSquare(x, y, state.getGameMap().getSquare(x, y));
+        }
+    }
+
+    /**
+     * Encodes every part of the state, increasing the revision of the changed ones. If the number of players changes
+     * every player will receive a full state
+     */
+    private void refresh(GameSerialized state) {
+        List<Object> values = new ArrayList<>();
+
+        values.add(new Object[]{state.getKillShotsTrack(), state.getFinalFrenzyKillShots()});
+        values.add(state.getBot());
+        values.addAll(state.getPlayers());
+
+        GameMap map = state.getGameMap();
+        for (int i = 0; i < GameMap.MAX_ROWS; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS; ++j) {
+                values.add(map != null ? map.getSquare(i, j) : null);
+            }
+        }
+
+        if (state.getPlayers().size() != playersCount) {
+            playersCount = state.getPlayers().size();
+            parts = new byte[values.size()][];
+            revisions = new int[values.size()];
+            clients.clear();
+        }
+
+        for (int i = 0; i < parts.length; ++i) {
+            byte[] encoded;
+
+            try {
+                encoded = BinaryCodec.encodeValue(values.get(i));
+            } catch (IOException e) {
+                encoded = null;
+            }
+
+            // a part that can not be encoded is always considered changed
+            if (encoded == null || !Arrays.equals(encoded, parts[i])) {
+                parts[i] = encoded;
+                revisions[i]++;
+            }
+        }
+    }
+
+    /**
+     * State of the updates sent to a player
+     */
+    private static class ClientState {
+        private int version;
+        private int[] revisions;
+        private int sinceSnapshot;
+    }
+}
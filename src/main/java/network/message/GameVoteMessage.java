@@ -12,6 +12,13 @@ public class GameVoteMessage extends Message {
 
     private final int mapVote;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private GameVoteMessage() {
+        this(null, null, 0);
+    }
+
     public GameVoteMessage(String username, String token, int mapVote) {
         super(username, token, MessageContent.LOBBY_VOTE);
 
@@ -13,6 +13,13 @@ public class GameVoteResponse extends Message {
     private final String message;
     private final MessageStatus status;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private GameVoteResponse() {
+        this(null, null);
+    }
+
     public GameVoteResponse(String message, MessageStatus status) {
         super(GameConstants.GOD_NAME, null, MessageContent.VOTE_RESPONSE);
         this.message = message;
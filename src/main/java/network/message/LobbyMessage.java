@@ -14,6 +14,13 @@ public class LobbyMessage extends Message {
     private final PlayerColor chosenColor;
     private final boolean disconnection;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private LobbyMessage() {
+        this(null, null, null, false);
+    }
+
     public LobbyMessage(String username, String token, PlayerColor chosenColor, boolean disconnection) {
         super(username, token, MessageContent.GET_IN_LOBBY);
 
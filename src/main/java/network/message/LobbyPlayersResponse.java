@@ -15,6 +15,13 @@ public class LobbyPlayersResponse extends Message {
     private static final long serialVersionUID = 6870316479006394730L;
     private ArrayList<String> users;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private LobbyPlayersResponse() {
+        this(null);
+    }
+
     public LobbyPlayersResponse(List<String> users) {
         super(GameConstants.GOD_NAME, null, MessageContent.PLAYERS_IN_LOBBY);
         this.users = NullObjectHelper.getNotNullArrayList(users);
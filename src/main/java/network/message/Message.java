@@ -2,6 +2,7 @@ package network.message;
 
 import enumerations.MessageContent;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -32,6 +33,18 @@ public abstract class Message implements Serializable {
         return token;
     }
 
+    /**
+     * Returns the message to encode with a codec. Messages carrying parts already encoded by the server return a copy
+     * whose parts are encoded as the codec does, so that a client never needs a codec other than the negotiated one
+     *
+     * @param codec the codec encoding the message
+     * @return the message to encode
+     * @throws IOException if the parts can not be encoded again
+     */
+    Message encodedFor(MessageCodec codec) throws IOException {
+        return this;
+    }
+
     @Override
     public String toString() {
         return "Message{" +
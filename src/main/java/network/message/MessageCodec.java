@@ -0,0 +1,62 @@
+package network.message;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This interface represents a way of encoding the body of a {@link MessageFrame frame}. The codec used by a client is
+ * negotiated with the {@link ConnectionRequest ConnectionRequest}, while decoding recognizes the codec from the first
+ * bytes of the body
+ */
+public interface MessageCodec {
+    /**
+     * Codec based on the standard Java serialization, used by the clients not asking for another codec
+     */
+    MessageCodec SERIALIZATION = new SerializationCodec();
+
+    /**
+     * Compact binary codec, used by the clients asking for it
+     */
+    MessageCodec BINARY = new BinaryCodec();
+
+    /**
+     * @return the version advertised in the {@link ConnectionRequest ConnectionRequest} to ask for this codec
+     */
+    int getVersion();
+
+    /**
+     * Checks if a frame body has been written with this codec
+     *
+     * @param body buffer containing the body of the frame
+     * @return {@code true} if the body can be decoded by this codec, {@code false} otherwise
+     */
+    boolean accepts(ByteBuffer body);
+
+    /**
+     * Encodes a message appending it to the frame being built
+     *
+     * @param message the message to encode
+     * @param frame   the frame being built
+     * @throws IOException if the message can not be encoded
+     */
+    void encode(Message message, MessageFrame.Builder frame) throws IOException;
+
+    /**
+     * Decodes the body of a frame
+     *
+     * @param body buffer containing exactly the body of the frame
+     * @return the decoded message
+     * @throws IOException if the body is not a valid message
+     */
+    Message decode(ByteBuffer body) throws IOException;
+
+    /**
+     * Returns the codec to use with a client
+     *
+     * @param version the codec version advertised by the client
+     * @return the binary codec if the client uses the same version of it, the Java serialization otherwise
+     */
+    static MessageCodec forVersion(int version) {
+        return version == BINARY.getVersion() ? BINARY : SERIALIZATION;
+    }
+}
@@ -0,0 +1,241 @@
+package network.message;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class defines how the {@link Message Messages} travel over a socket: every message is a frame made by a
+ * four bytes big-endian length followed by the message encoded with a {@link MessageCodec MessageCodec}. The clients
+ * of the original protocol write instead a single stream of serialized messages, which starts with the magic of the
+ * Java serialization while a frame starts with a zero byte, so the blocking transport can recognize them from the
+ * first byte and keep answering them on their stream
+ */
+public class MessageFrame {
+    public static final int HEADER_LENGTH = Integer.BYTES;
+    public static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    private static final MessageCodec[] CODECS = {MessageCodec.BINARY, MessageCodec.SERIALIZATION};
+    private static final int OBJECT_STREAM_FIRST_BYTE = (ObjectStreamConstants.STREAM_MAGIC >> Byte.SIZE) & 0xFF;
+
+    private MessageFrame() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Encodes a message into a frame with the Java serialization, length header included
+     *
+     * @param message the message to encode
+     * @return the buffer containing the whole frame, ready to be written
+     * @throws IOException if the message can not be serialized
+     */
+    public static ByteBuffer encode(Message message) throws IOException {
+        return encode(message, MessageCodec.SERIALIZATION);
+    }
+
+    /**
+     * Encodes a message into a frame, length header included
+     *
+     * @param message the message to encode
+     * @param codec   the codec used to encode the body
+     * @return the buffer containing the whole frame, ready to be written
+     * @throws IOException if the message can not be encoded
+     */
+    public static ByteBuffer encode(Message message, MessageCodec codec) throws IOException {
+        Builder frame = new Builder();
+        codec.encode(message, frame);
+
+        return frame.toFrame();
+    }
+
+    /**
+     * Decodes the body of a frame, whatever codec has been used to write it
+     *
+     * @param body buffer containing exactly the body of the frame
+     * @return the decoded message
+     * @throws IOException if the body is not a valid message
+     */
+    public static Message decode(ByteBuffer body) throws IOException {
+        for (MessageCodec codec : CODECS) {
+            if (codec.accepts(body)) {
+                return codec.decode(body);
+            }
+        }
+
+        throw new StreamCorruptedException("Unknown frame codec");
+    }
+
+    /**
+     * Checks the length read from the header of a frame
+     *
+     * @param length the length of the body
+     * @throws IOException if the length is not acceptable
+     */
+    public static void checkLength(int length) throws IOException {
+        if (length <= 0 || length > MAX_FRAME_LENGTH) {
+            throw new StreamCorruptedException("Invalid frame length: " + length);
+        }
+    }
+
+    /**
+     * Writes a message on a blocking stream with the Java serialization
+     *
+     * @param out     the stream where the frame is written
+     * @param message the message to write
+     * @throws IOException in case of problems with the stream
+     */
+    public static void write(OutputStream out, Message message) throws IOException {
+        write(out, message, MessageCodec.SERIALIZATION);
+    }
+
+    /**
+     * Writes a message on a blocking stream
+     *
+     * @param out     the stream where the frame is written
+     * @param message the message to write
+     * @param codec   the codec used to encode the body
+     * @throws IOException in case of problems with the stream
+     */
+    public static void write(OutputStream out, Message message, MessageCodec codec) throws IOException {
+        ByteBuffer frame = encode(message, codec);
+
+        out.write(frame.array(), frame.arrayOffset(), frame.remaining());
+        out.flush();
+    }
+
+    /**
+     * Reads the body of a frame from a blocking stream
+     *
+     * @param in the stream from which the frame is read
+     * @return the body of the frame
+     * @throws IOException in case of problems with the stream or if the frame is invalid
+     */
+    public static ByteBuffer readBody(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        checkLength(length);
+
+        byte[] body = new byte[length];
+        in.readFully(body);
+
+        return ByteBuffer.wrap(body);
+    }
+
+    /**
+     * Reads a message from a blocking stream
+     *
+     * @param in the stream from which the frame is read
+     * @return the read message
+     * @throws IOException in case of problems with the stream or if the frame is invalid
+     */
+    public static Message read(DataInputStream in) throws IOException {
+        return decode(readBody(in));
+    }
+
+    /**
+     * Checks if a client writes the stream of serialized messages of the original protocol instead of frames
+     *
+     * @param firstByte the first byte written by the client
+     * @return {@code true} if the client writes a stream of serialized messages, {@code false} if it writes frames
+     */
+    public static boolean isObjectStream(int firstByte) {
+        return firstByte == OBJECT_STREAM_FIRST_BYTE;
+    }
+
+    /**
+     * Writes a message on the stream of serialized messages of the original protocol
+     *
+     * @param out     the stream of the client
+     * @param message the message to write
+     * @throws IOException in case of problems with the stream
+     */
+    public static void writeObject(ObjectOutputStream out, Message message) throws IOException {
+        out.writeObject(message.encodedFor(MessageCodec.SERIALIZATION));
+        out.reset();
+        out.flush();
+    }
+
+    /**
+     * Reads a message from the stream of serialized messages of the original protocol
+     *
+     * @param in the stream of the client
+     * @return the read message
+     * @throws InvalidObjectException if the stream does not contain a known message
+     * @throws IOException            in case of problems with the stream
+     */
+    public static Message readObject(ObjectInputStream in) throws IOException {
+        try {
+            return (Message) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
+
+    /**
+     * Unsynchronized byte stream where a frame is built. It reserves room for the header and gives back its buffer
+     * without copying it
+     */
+    public static class Builder extends OutputStream {
+        private byte[] buf;
+        private int count;
+
+        Builder() {
+            buf = new byte[512];
+            count = HEADER_LENGTH;
+        }
+
+        void ensureCapacity(int additional) {
+            if (count + additional > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + additional));
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        /**
+         * Writes an unsigned variable length integer, seven bits per byte
+         *
+         * @param value the value to write
+         */
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+
+            while ((value & ~0x7FL) != 0) {
+                buf[count++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            buf[count++] = (byte) value;
+        }
+
+        /**
+         * @return the number of bytes of the body written so far
+         */
+        int size() {
+            return count - HEADER_LENGTH;
+        }
+
+        /**
+         * @return a copy of the body written so far
+         */
+        byte[] toBody() {
+            return Arrays.copyOfRange(buf, HEADER_LENGTH, count);
+        }
+
+        ByteBuffer toFrame() {
+            ByteBuffer frame = ByteBuffer.wrap(buf, 0, count);
+            frame.putInt(0, count - HEADER_LENGTH);
+            return frame;
+        }
+    }
+}
@@ -16,6 +16,13 @@ public class MovePickRequest extends ActionRequest {
     private final WeaponCard addingWeapon;
     private final WeaponCard discardingWeapon;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private MovePickRequest() {
+        this(null, null, null, null, null, null);
+    }
+
     public MovePickRequest(String username, String token, PlayerPosition senderMovePosition, List<Integer> paymentPowerups, WeaponCard addingWeapon, WeaponCard discardingWeapon) {
         super(username, token, MessageContent.MOVE_PICK, senderMovePosition, paymentPowerups);
 
@@ -11,6 +11,13 @@ import java.util.Arrays;
 public class MoveRequest extends ActionRequest {
     private static final long serialVersionUID = 7410856239418653990L;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private MoveRequest() {
+        this(null, null, null);
+    }
+
     public MoveRequest(String username, String token, PlayerPosition senderMovePosition) {
         super(username, token, MessageContent.MOVE, senderMovePosition, null);
     }
@@ -8,6 +8,13 @@ import enumerations.MessageContent;
 public class PassTurnRequest extends Message {
     private static final long serialVersionUID = 838173783902712501L;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private PassTurnRequest() {
+        this(null, null);
+    }
+
     public PassTurnRequest(String username, String token) {
         super(username, token, MessageContent.PASS_TURN);
     }
@@ -19,6 +19,13 @@ public class PowerupRequest extends EffectRequest {
     private final ArrayList<Integer> powerup;
     private final ArrayList<Ammo> ammoColor;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private PowerupRequest() {
+        this(new PowerupRequestBuilder(null, null, null));
+    }
+
     public PowerupRequest(PowerupRequestBuilder builder) {
         super(
                 new EffectRequestBuilder(builder.username, builder.token, MessageContent.POWERUP_USAGE)
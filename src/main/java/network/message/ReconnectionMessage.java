@@ -12,6 +12,13 @@ public class ReconnectionMessage extends Message {
     private final String newToken;
     private final GameStateMessage gameStateMessage;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private ReconnectionMessage() {
+        this(null, null);
+    }
+
     public ReconnectionMessage(String newToken, GameStateMessage gameStateMessage) {
         super(GameConstants.GOD_NAME, null, MessageContent.RECONNECTION);
         this.newToken = newToken;
@@ -15,6 +15,13 @@ public class ReloadRequest extends ActionRequest {
 
     private final ArrayList<Integer> weapons;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private ReloadRequest() {
+        this(null, null, null, null);
+    }
+
     public ReloadRequest(String username, String token, List<Integer> weapons, List<Integer> paymentPowerups) {
         super(username, token, MessageContent.RELOAD, null, paymentPowerups);
 
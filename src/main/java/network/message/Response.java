@@ -13,6 +13,13 @@ public class Response extends Message {
     private final String message;
     private final MessageStatus status;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private Response() {
+        this(null, null);
+    }
+
     public Response(String message, MessageStatus status) {
         super(GameConstants.GOD_NAME, null, MessageContent.RESPONSE);
 
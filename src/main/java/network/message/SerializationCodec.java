@@ -0,0 +1,69 @@
+package network.message;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Codec writing every message with the standard Java serialization
+ */
+class SerializationCodec implements MessageCodec {
+    private static final short STREAM_MAGIC = ObjectStreamConstants.STREAM_MAGIC;
+
+    @Override
+    public int getVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean accepts(ByteBuffer body) {
+        return body.remaining() >= Short.BYTES && body.getShort(body.position()) == STREAM_MAGIC;
+    }
+
+    @Override
+    public void encode(Message message, MessageFrame.Builder frame) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(frame)) {
+            out.writeObject(message.encodedFor(this));
+        }
+    }
+
+    @Override
+    public Message decode(ByteBuffer body) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(body.array(), body.arrayOffset() + body.position(), body.remaining()))) {
+            return (Message) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes a single value, outside of any frame, like the {@link BinaryCodec BinaryCodec} does for its clients
+     *
+     * @param value the value to encode
+     * @return the encoded value
+     * @throws IOException if the value can not be encoded
+     */
+    static byte[] encodeValue(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a value encoded with {@link #encodeValue(Object)}
+     *
+     * @param encoded the encoded value
+     * @return the decoded value
+     * @throws IOException if the bytes are not a valid value
+     */
+    static Object decodeValue(byte[] encoded) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(encoded))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
+}
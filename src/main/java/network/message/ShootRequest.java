@@ -27,6 +27,13 @@ public class ShootRequest extends EffectRequest {
 
     private ArrayList<Integer> rechargingWeapons;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private ShootRequest() {
+        this(new ShootRequestBuilder(null, null, 0, 0));
+    }
+
     public ShootRequest(ShootRequestBuilder builder) {
         super(
                 new EffectRequestBuilder(builder.username, builder.token, MessageContent.SHOOT)
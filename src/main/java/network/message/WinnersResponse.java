@@ -19,6 +19,13 @@ public class WinnersResponse extends Message {
 
     private final ArrayList<PlayerPoints> winners;
 
+    /**
+     * Creates an empty message, whose fields are then read by the {@link BinaryCodec BinaryCodec}
+     */
+    private WinnersResponse() {
+        this(null);
+    }
+
     /**
      * Builds the response containing all the information needed by the view to show the winners and
      * the loosers of the game
@@ -5,11 +5,14 @@ import network.message.Message;
 import java.io.IOException;
 
 /**
- * This interface that represents a connection with a client
+ * This interface that represents a connection with a client. Messages sent to the client wait in an
+ * {@link OutboundQueue OutboundQueue} until the connection writes them
  */
 public abstract class Connection {
+    protected final OutboundQueue outbound = new OutboundQueue(this);
+
     private boolean connected = true;
-    private String token;
+    private volatile String token;
 
     /**
      * @return the connection status
@@ -26,6 +29,18 @@ public abstract class Connection {
      */
     public abstract void sendMessage(Message message) throws IOException;
 
+    /**
+     * Sends a last message to the client and disconnects from him once it has been written, together with the
+     * messages queued before it
+     *
+     * @param message last message to send to the client
+     * @throws IOException in case of problems with communication with client
+     */
+    public void sendAndClose(Message message) throws IOException {
+        sendMessage(message);
+        disconnect();
+    }
+
     /**
      * Disconnects from the client
      */
@@ -36,6 +51,15 @@ public abstract class Connection {
      */
     public abstract void ping();
 
+    /**
+     * Sets the task to run when the game state updates waiting for this client are dropped because he is too slow
+     *
+     * @param listener the task to run, that should send him a full game state
+     */
+    public void setResyncListener(Runnable listener) {
+        outbound.setResyncListener(listener);
+    }
+
     public String getToken() {
         return token;
     }
@@ -0,0 +1,391 @@
+package network.server;
+
+import controller.GameManager;
+import enumerations.MessageStatus;
+import enumerations.PossibleGameState;
+import model.Game;
+import model.player.UserPlayer;
+import network.message.*;
+import utility.LogCategory;
+import utility.MoveTimer;
+import utility.TaskExecutor;
+import utility.TimerWheel;
+import utility.persistency.SaveStore;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class represents a match hosted by the {@link Server Server}. Each room owns its {@link GameManager GameManager},
+ * with its own {@link Game Game}, and the connections of the players of the match
+ */
+class GameRoom implements MessageSender {
+    private static final Logger LOGGER = LogCategory.NETWORK.getLogger();
+    private static final int MAX_PLAYERS = 5;
+
+    private final Lock clientsLock = new ReentrantLock();
+    private final int id;
+    private final int moveTime;
+    private final boolean terminator;
+
+    private final SessionRegistry sessions;
+
+    private final GameManager gameManager;
+    private boolean waitForLoad;
+
+    private TimerWheel.Timeout moveTimer;
+
+    /**
+     * Creates a room with a new match
+     *
+     * @param id        identifier of the room
+     * @param bot       {@code true} if the bot is present, {@code false} otherwise
+     * @param skullNum  number of skull
+     * @param startTime the lobby timeout time in seconds
+     * @param moveTime  the move timeout time in milliseconds
+     * @param store     the store where the match is saved and, if enabled, recorded
+     */
+    GameRoom(int id, boolean bot, int skullNum, int startTime, int moveTime, SaveStore store) {
+        this.id = id;
+        this.moveTime = moveTime;
+        this.terminator = bot;
+        this.sessions = new SessionRegistry();
+        this.waitForLoad = false;
+
+        Game game = new Game();
+        this.gameManager = new GameManager(this, game, bot, skullNum, startTime);
+        this.gameManager.setJournal(store.newJournal(game.getSeed()));
+
+        if (store.isRecordingMatches()) {
+            this.gameManager.setRecorder(store.newRecorder(game.getSeed()));
+        }
+    }
+
+    /**
+     * Creates a room resuming a match of the store, from its last snapshot and its journal
+     *
+     * @param id        identifier of the room
+     * @param startTime the lobby timeout time in seconds
+     * @param moveTime  the move timeout time in milliseconds
+     * @param store     the store where the match is saved and, if enabled, recorded
+     * @param gameId    the id of the match in the store
+     */
+    GameRoom(int id, int startTime, int moveTime, SaveStore store, long gameId) {
+        this.id = id;
+        this.moveTime = moveTime;
+        this.sessions = new SessionRegistry();
+        this.waitForLoad = true;
+
+        this.gameManager = store.newJournal(gameId).recover(this, startTime);
+        this.terminator = gameManager.getGameInstance().isBotPresent();
+
+        if (store.isRecordingMatches()) {
+            // the recording of a resumed match starts from where it has been resumed
+            gameManager.setRecorder(store.newRecorder(gameId));
+        }
+
+        reserveSlots(gameManager.getGameInstance().getPlayers());
+    }
+
+    /**
+     * @return the identifier of the room
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * @return the {@link GameManager GameManager} of the match hosted by this room
+     */
+    GameManager getGameManager() {
+        return gameManager;
+    }
+
+    /**
+     * Reserves room slots for player loaded from the game save
+     *
+     * @param loadedPlayers from the game save
+     */
+    private void reserveSlots(List<UserPlayer> loadedPlayers) {
+        for (UserPlayer player : loadedPlayers) {
+            sessions.reserve(player.getUsername());
+        }
+    }
+
+    /**
+     * @return the usernames of the players of this room
+     */
+    Set<String> getUsernames() {
+        return sessions.getUsernames();
+    }
+
+    /**
+     * @return {@code true} if a new player can join this room, {@code false} otherwise
+     */
+    boolean isOpen() {
+        clientsLock.lock();
+        try {
+            return !waitForLoad && gameManager.getGameState() == PossibleGameState.GAME_ROOM &&
+                    !gameManager.isLobbyFull() && sessions.size() < (terminator ? MAX_PLAYERS - 1 : MAX_PLAYERS);
+        } finally {
+            clientsLock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the match is ended and no player is still connected, {@code false} otherwise
+     */
+    boolean isDisposable() {
+        clientsLock.lock();
+        try {
+            return gameManager.getGameState() == PossibleGameState.GAME_ENDED &&
+                    sessions.noneConnected();
+        } finally {
+            clientsLock.unlock();
+        }
+    }
+
+    /**
+     * Handles a known player login
+     *
+     * @param username   username of the player who is trying to login
+     * @param connection connection of the client
+     * @return {@code true} if the connection replaced the previous one of the player, {@code false} otherwise
+     * @throws IOException when send message fails
+     */
+    boolean knownPlayerLogin(String username, Connection connection) throws IOException {
+        String token = UUID.randomUUID().toString();
+        connection.setToken(token);
+        connection.setResyncListener(() -> gameManager.resync(username));
+
+        clientsLock.lock();
+        try {
+            if (sessions.reconnect(username, connection)) { // Player Reconnection
+                if (waitForLoad) {// Game in lobby state for load a game
+                    connection.sendMessage(
+                            new GameLoadResponse("Successfully reconnected", token,
+                                    gameManager.getUserPlayerState(username), gameManager.getGameInstance().isBotPresent())
+                    );
+                    checkLoadReady();
+                } else {
+                    if (gameManager.getGameState() == PossibleGameState.GAME_ROOM) { // Game in lobby state
+                        connection.sendMessage(
+                                new ConnectionResponse("Successfully reconnected", token, MessageStatus.OK)
+                        );
+                    } else { // Game started
+                        connection.sendMessage(
+                                gameManager.onConnectionMessage(new LobbyMessage(username, token, null, false))
+                        );
+                    }
+                }
+
+                LOGGER.log(Level.INFO, "{0} reconnected to room {1}!", new Object[]{username, id});
+                return true;
+            } else { // Player already connected
+                connection.sendAndClose(
+                        new ConnectionResponse("Player already connected", null, MessageStatus.ERROR)
+                );
+
+                LOGGER.log(Level.INFO, "{0} already connected to server!", username);
+                return false;
+            }
+        } finally {
+            clientsLock.unlock();
+        }
+    }
+
+    /**
+     * Handles a new player login
+     *
+     * @param username   username of the player who is trying to login
+     * @param connection connection of the client
+     * @return {@code true} if the player joined this room, {@code false} otherwise
+     * @throws IOException when send message fails
+     */
+    boolean newPlayerLogin(String username, Connection connection) throws IOException {
+        clientsLock.lock();
+        try {
+            if (gameManager.getGameInstance().isGameStarted()) { // Game Started
+                connection.sendAndClose(
+                        new ConnectionResponse("Game is already started!", null, MessageStatus.ERROR)
+                );
+
+                LOGGER.log(Level.INFO, "{0} attempted to connect!", username);
+                return false;
+            } else if (gameManager.isLobbyFull()) { // Lobby Full
+                connection.sendAndClose(
+                        new ConnectionResponse("Max number of player reached", null, MessageStatus.ERROR)
+                );
+
+                LOGGER.log(Level.INFO, "{0} tried to connect but game is full!", username);
+                return false;
+            } else { // New player
+                String token = UUID.randomUUID().toString();
+                connection.setToken(token);
+                connection.setResyncListener(() -> gameManager.resync(username));
+
+                sessions.connect(username, connection);
+
+                connection.sendMessage(
+                        new ConnectionResponse("Successfully connected", token, MessageStatus.OK)
+                );
+
+                LOGGER.log(Level.INFO, "{0} connected to room {1}!", new Object[]{username, id});
+                return true;
+            }
+        } finally {
+            clientsLock.unlock();
+        }
+    }
+
+    /**
+     * Checks if all player of the loaded game have joined the game
+     */
+    private void checkLoadReady() {
+        clientsLock.lock();
+        try {
+            if (sessions.allConnected()) {
+                waitForLoad = false;
+                gameManager.sendPrivateUpdates();
+            }
+        } finally {
+            clientsLock.unlock();
+        }
+    }
+
+    /**
+     * Process a message sent to this room, the sender is checked without locking the room
+     *
+     * @param message message sent to server
+     */
+    void onMessage(Message message) {
+        String username = message.getSenderUsername();
+
+        if (!sessions.contains(username)) {
+            LOGGER.log(Level.INFO, "Message Request {0} - Unknown username {1}", new Object[]{message.getContent().name(), username});
+        } else if (sessions.isValid(username, message.getToken())) { // Checks that sender is the real player
+            Message response = gameManager.onMessage(message);
+
+            updateTimer();
+
+            // send message to client
+            sendMessage(message.getSenderUsername(), response);
+        }
+    }
+
+    /**
+     * Updates the timer state
+     */
+    private void updateTimer() {
+        if (gameManager.getGameInstance().isGameStarted()) {
+            Connection conn = sessions.getConnection(gameManager.getTurnOwnerUsername());
+
+            if (moveTimer != null) {
+                moveTimer.cancel();
+            }
+
+            moveTimer = TaskExecutor.schedule(Game.bound(gameManager.getGameInstance(),
+                    new MoveTimer(conn, gameManager.getTurnOwnerUsername())), moveTime);
+
+            LOGGER.log(Level.INFO, "Move timer reset for user {0}, {1} seconds left", new Object[]{gameManager.getTurnOwnerUsername(), moveTime / 1000});
+        }
+    }
+
+    /**
+     * Called when a player of this room disconnects
+     *
+     * @param username username of the player that just disconnected
+     * @return {@code true} if the player has been removed from the room, {@code false} if his slot is kept
+     */
+    boolean onDisconnect(String username) {
+        LOGGER.log(Level.INFO, "{0} disconnected from room {1}!", new Object[]{username, id});
+
+        if (gameManager.getGameState() == PossibleGameState.GAME_ROOM) {
+            clientsLock.lock();
+            try {
+                sessions.remove(username);
+            } finally {
+                clientsLock.unlock();
+            }
+            gameManager.onMessage(new LobbyMessage(username, null, null, true));
+            LOGGER.log(Level.INFO, "{0} removed from client list!", username);
+            return true;
+        } else {
+            gameManager.onConnectionMessage(new LobbyMessage(username, null, null, true));
+            sendMessageToAll(new DisconnectionMessage(username));
+            return false;
+        }
+    }
+
+    /**
+     * Sends a message to all clients of this room. The message is only queued by each connection, so a slow client
+     * does not delay the others
+     *
+     * @param message message to send
+     */
+    @Override
+    public void sendMessageToAll(Message message) {
+        for (Connection connection : sessions.getConnections()) {
+            send(connection, message);
+        }
+
+        LOGGER.log(Level.INFO, "Send to all: {0}", message);
+    }
+
+    /**
+     * Sends a message to a client of this room
+     *
+     * @param username username of the client who will receive the message
+     * @param message  message to send
+     */
+    @Override
+    public void sendMessage(String username, Message message) {
+        send(sessions.getConnection(username), message);
+
+        LOGGER.log(Level.INFO, "Send: {0}, {1}", new Object[]{message.getSenderUsername(), message});
+    }
+
+    private void send(Connection connection, Message message) {
+        if (connection != null && connection.isConnected()) {
+            try {
+                connection.sendMessage(message);
+            } catch (IOException e) {
+                LOGGER.severe(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the username of the connection owner
+     *
+     * @param connection connection to check
+     * @return the username, {@code null} if the connection does not belong to this room
+     */
+    String getUsernameByConnection(Connection connection) {
+        return sessions.getUsername(connection);
+    }
+
+    /**
+     * Pings all the clients of this room to check if they are still connected
+     */
+    void pingClients() {
+        for (Connection connection : sessions.getConnections()) {
+            if (connection.isConnected()) {
+                connection.ping();
+            }
+        }
+    }
+
+    /**
+     * Stops the timers of this room
+     */
+    void close() {
+        if (moveTimer != null) {
+            moveTimer.cancel();
+        }
+    }
+}
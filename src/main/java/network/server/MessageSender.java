@@ -0,0 +1,24 @@
+package network.server;
+
+import network.message.Message;
+
+/**
+ * This interface represents the destination of the messages produced by a {@link controller.GameManager GameManager}.
+ * It is implemented by the {@link GameRoom GameRoom} hosting the match, so that each match only reaches its own clients
+ */
+public interface MessageSender {
+    /**
+     * Sends a message to a client
+     *
+     * @param username username of the client who will receive the message
+     * @param message  message to send
+     */
+    void sendMessage(String username, Message message);
+
+    /**
+     * Sends a message to all the clients
+     *
+     * @param message message to send
+     */
+    void sendMessageToAll(Message message);
+}
@@ -0,0 +1,227 @@
+package network.server;
+
+import enumerations.MessageContent;
+import network.message.ConnectionRequest;
+import network.message.Message;
+import network.message.MessageCodec;
+import network.message.MessageFrame;
+import network.message.PingMessage;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents a non-blocking Socket connection with a client. Reads and writes are performed by the
+ * {@link NioReactor NioReactor} the connection is registered to, messages sent from other threads wait in the
+ * {@link OutboundQueue OutboundQueue} until the channel is writable
+ */
+class NioConnection extends Connection {
+    private final NioSocketServer socketServer;
+    private final NioReactor reactor;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+
+    private final ByteBuffer header;
+    private ByteBuffer body;
+
+    private ByteBuffer current;
+
+    private final AtomicBoolean connected;
+    private volatile MessageCodec codec;
+
+    /**
+     * Constructs a connection over a registered channel
+     *
+     * @param socketServer socket server
+     * @param reactor      reactor serving the channel
+     * @param channel      non-blocking channel of the client
+     * @param key          selection key of the channel
+     */
+    NioConnection(NioSocketServer socketServer, NioReactor reactor, SocketChannel channel, SelectionKey key) {
+        this.socketServer = socketServer;
+        this.reactor = reactor;
+        this.channel = channel;
+        this.key = key;
+
+        this.header = ByteBuffer.allocate(MessageFrame.HEADER_LENGTH);
+
+        this.connected = new AtomicBoolean(true);
+        this.codec = MessageCodec.SERIALIZATION;
+    }
+
+    /**
+     * Reads what is available on the channel and dispatches every completed message to the server
+     */
+    void onReadable() {
+        try {
+            while (connected.get()) {
+                if (body == null) {
+                    if (channel.read(header) < 0) {
+                        disconnect();
+                        return;
+                    }
+
+                    if (header.hasRemaining()) {
+                        return;
+                    }
+
+                    header.flip();
+                    int length = header.getInt();
+                    header.clear();
+
+                    MessageFrame.checkLength(length);
+                    body = ByteBuffer.allocate(length);
+                }
+
+                if (channel.read(body) < 0) {
+                    disconnect();
+                    return;
+                }
+
+                if (body.hasRemaining()) {
+                    return;
+                }
+
+                body.flip();
+                ByteBuffer frame = body;
+                body = null;
+
+                dispatch(frame);
+            }
+        } catch (IOException e) {
+            disconnect();
+        }
+    }
+
+    private void dispatch(ByteBuffer frame) {
+        try {
+            Message message = MessageFrame.decode(frame);
+
+            if (message.getContent() == MessageContent.CONNECTION) {
+                codec = MessageCodec.forVersion(((ConnectionRequest) message).getCodecVersion());
+                socketServer.login(message.getSenderUsername(), this);
+            } else {
+                socketServer.onMessage(message);
+            }
+        } catch (InvalidObjectException e) {
+            Server.LOGGER.severe(e.getMessage());
+        } catch (IOException e) {
+            disconnect();
+        }
+    }
+
+    /**
+     * Writes the queued messages until the queue is empty or the socket buffer is full
+     */
+    void onWritable() {
+        try {
+            while (true) {
+                if (current == null) {
+                    Message message = outbound.poll();
+
+                    if (message == null) {
+                        if (outbound.isClosing()) {
+                            disconnect();
+                            return;
+                        }
+
+                        break;
+                    }
+
+                    current = MessageFrame.encode(message, codec);
+                }
+
+                channel.write(current);
+
+                if (current.hasRemaining()) {
+                    return;
+                }
+
+                current = null;
+            }
+
+            key.interestOpsAnd(~SelectionKey.OP_WRITE);
+
+            // a message queued after the check above must not wait for the next read
+            if (!outbound.isEmpty()) {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+            }
+        } catch (IOException | CancelledKeyException e) {
+            disconnect();
+        }
+    }
+
+    /**
+     * @return the connection status
+     */
+    @Override
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    /**
+     * Queues a message for the client, it is written as soon as the channel is writable
+     *
+     * @param message to send to the client
+     */
+    @Override
+    public void sendMessage(Message message) {
+        if (connected.get() && outbound.offer(message)) {
+            try {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+                reactor.wakeup();
+            } catch (CancelledKeyException e) {
+                // disconnected meanwhile, the message is dropped
+            }
+        }
+    }
+
+    /**
+     * Queues the last message for the client, the connection is closed once it has been written
+     *
+     * @param message last message to send to the client
+     */
+    @Override
+    public void sendAndClose(Message message) {
+        if (connected.get() && outbound.offerLast(message)) {
+            try {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+                reactor.wakeup();
+            } catch (CancelledKeyException e) {
+                // disconnected meanwhile, the message is dropped
+            }
+        }
+    }
+
+    /**
+     * Disconnects from the client
+     */
+    @Override
+    public void disconnect() {
+        if (connected.compareAndSet(true, false)) {
+            key.cancel();
+
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Server.LOGGER.severe(e.getMessage());
+            }
+
+            outbound.clear();
+            socketServer.onDisconnect(this);
+        }
+    }
+
+    /**
+     * Sends a ping message to client
+     */
+    @Override
+    public void ping() {
+        sendMessage(new PingMessage());
+    }
+}
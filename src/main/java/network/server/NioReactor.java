@@ -0,0 +1,124 @@
+package network.server;
+
+import java.io.IOException;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * I/O thread of the {@link NioSocketServer NioSocketServer}. It owns a {@link Selector Selector} and serves
+ * the reads and the writes of all the {@link NioConnection NioConnections} registered to it.
+ * Complete messages are dispatched to the server directly from this thread
+ */
+class NioReactor extends Thread {
+    private final NioSocketServer socketServer;
+    private final Selector selector;
+    private final Queue<SocketChannel> pendingChannels;
+
+    /**
+     * Creates the reactor
+     *
+     * @param socketServer server owning the reactor
+     * @param index        index of the reactor, used to name its thread
+     * @throws IOException if the selector can not be opened
+     */
+    NioReactor(NioSocketServer socketServer, int index) throws IOException {
+        super("nio-reactor-" + index);
+        this.socketServer = socketServer;
+        this.selector = Selector.open();
+        this.pendingChannels = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Hands an accepted channel to this reactor
+     *
+     * @param channel the non-blocking channel of the client
+     */
+    void register(SocketChannel channel) {
+        pendingChannels.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Wakes up the selector if the caller is not the reactor thread, so that a changed interest set is seen
+     */
+    void wakeup() {
+        if (Thread.currentThread() != this) {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!isInterrupted()) {
+            try {
+                selector.select();
+                registerPending();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    handle(key);
+                }
+            } catch (IOException e) {
+                Server.LOGGER.severe(e.getMessage());
+            }
+        }
+
+        closeConnections();
+    }
+
+    private void registerPending() {
+        SocketChannel channel;
+
+        while ((channel = pendingChannels.poll()) != null) {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new NioConnection(socketServer, this, channel, key));
+            } catch (ClosedChannelException e) {
+                Server.LOGGER.warning(e.getMessage());
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        NioConnection connection = (NioConnection) key.attachment();
+
+        if (connection == null || !key.isValid()) {
+            return;
+        }
+
+        if (key.isReadable()) {
+            connection.onReadable();
+        }
+
+        if (key.isValid() && key.isWritable()) {
+            connection.onWritable();
+        }
+    }
+
+    /**
+     * Stops the reactor, its connections are closed by the reactor thread before it ends
+     */
+    void close() {
+        interrupt();
+        selector.wakeup();
+    }
+
+    private void closeConnections() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() != null) {
+                ((NioConnection) key.attachment()).disconnect();
+            }
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            Server.LOGGER.warning(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package network.server;
+
+import network.message.Message;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Socket server based on non-blocking channels: the accepted clients are spread over a fixed number of
+ * {@link NioReactor NioReactors}, so the number of threads does not grow with the number of players.
+ * It only serves clients writing {@link network.message.MessageFrame frames}: the clients of the original stream of
+ * serialized messages need the blocking transport
+ */
+public class NioSocketServer extends Thread {
+    private final Server server;
+    private final int port;
+    private final NioReactor[] reactors;
+
+    private ServerSocketChannel serverChannel;
+    private int nextReactor;
+
+    /**
+     * Creates the server
+     *
+     * @param server    server receiving the messages
+     * @param port      port where the server listens
+     * @param ioThreads number of threads serving the connections
+     */
+    public NioSocketServer(Server server, int port, int ioThreads) {
+        super("nio-acceptor");
+        this.server = server;
+        this.port = port;
+        this.reactors = new NioReactor[Math.max(1, ioThreads)];
+    }
+
+    void startServer() {
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+
+            for (int i = 0; i < reactors.length; ++i) {
+                reactors[i] = new NioReactor(this, i);
+                reactors[i].start();
+            }
+
+            start();
+        } catch (IOException e) {
+            Server.LOGGER.severe(e.getMessage());
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                SocketChannel client = serverChannel.accept();
+                client.configureBlocking(false);
+                client.socket().setTcpNoDelay(true);
+
+                reactors[nextReactor].register(client);
+                nextReactor = (nextReactor + 1) % reactors.length;
+            } catch (IOException e) {
+                Server.LOGGER.warning(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting clients and closes all the connections
+     */
+    void close() {
+        interrupt();
+
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            Server.LOGGER.warning(e.getMessage());
+        }
+
+        for (NioReactor reactor : reactors) {
+            reactor.close();
+        }
+    }
+
+    void login(String username, Connection connection) {
+        server.login(username, connection);
+    }
+
+    void onMessage(Message message) {
+        server.onMessage(message);
+    }
+
+    void onDisconnect(Connection playerConnection) {
+        server.onDisconnect(playerConnection);
+    }
+}
@@ -0,0 +1,326 @@
+package network.server;
+
+import network.message.GameDeltaMessage;
+import network.message.GameStateMessage;
+import network.message.Message;
+import utility.LogCategory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * This class represents the bounded queue of the messages waiting to be written to a client, so that who sends a
+ * message never waits for a slow client. A single writer drains the queue: {@link #offer(Message)} tells when the
+ * writer has to be started and {@link #poll()} tells when it can stop.
+ * <p>
+ * A new full game state supersedes the queued game state updates, which are removed. When the queue is full the
+ * {@link OverflowPolicy OverflowPolicy} decides what happens. After {@link #offerLast(Message)} the queue accepts no
+ * more messages and the writer closes the connection once it has written them all
+ */
+class OutboundQueue {
+    private static final Logger LOGGER = LogCategory.NETWORK.getLogger();
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static volatile int capacity = DEFAULT_CAPACITY;
+    private static volatile OverflowPolicy policy = OverflowPolicy.RESYNC;
+
+    private static final LongAdder depth = new LongAdder();
+    private static final AtomicLong maxDepth = new AtomicLong();
+    private static final LongAdder drained = new LongAdder();
+    private static final LongAdder drainNanos = new LongAdder();
+    private static final AtomicLong maxDrainNanos = new AtomicLong();
+    private static final LongAdder coalesced = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+    private static final LongAdder overflows = new LongAdder();
+
+    private final Lock lock = new ReentrantLock();
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final Connection connection;
+
+    private boolean writing;
+    private boolean waitingResync;
+    private volatile boolean closing;
+    private volatile Runnable resyncListener;
+
+    /**
+     * This enumeration represents what to do when a message is sent to a client whose queue is full
+     */
+    enum OverflowPolicy {
+        /**
+         * The queued game state updates are dropped, the client ignores the following ones until he receives a full
+         * game state. The client is disconnected if dropping the updates does not free the queue
+         */
+        RESYNC,
+        /**
+         * The client is disconnected
+         */
+        DISCONNECT;
+
+        /**
+         * Utility method used to return the OverflowPolicy corresponding to the String passed
+         *
+         * @param policy the String containing the policy, case insensitive
+         * @return the OverflowPolicy asked, {@link #RESYNC RESYNC} if the String has no match
+         */
+        static OverflowPolicy getPolicy(String policy) {
+            for (OverflowPolicy overflowPolicy : values()) {
+                if (overflowPolicy.name().equalsIgnoreCase(policy)) {
+                    return overflowPolicy;
+                }
+            }
+
+            return RESYNC;
+        }
+    }
+
+    /**
+     * Creates the queue of a connection
+     *
+     * @param connection the connection writing the messages, disconnected if the queue overflows
+     */
+    OutboundQueue(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Sets the size and the overflow policy of the queues created from now on
+     *
+     * @param queueCapacity  the maximum number of messages waiting to be written to a client
+     * @param overflowPolicy what to do when the queue is full
+     */
+    static void configure(int queueCapacity, OverflowPolicy overflowPolicy) {
+        capacity = Math.max(1, queueCapacity);
+        policy = overflowPolicy;
+    }
+
+    static int getCapacity() {
+        return capacity;
+    }
+
+    static OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets the task to run when the game state updates of this queue are dropped, so that a full game state can be
+     * sent to the client
+     *
+     * @param listener the task to run
+     */
+    void setResyncListener(Runnable listener) {
+        this.resyncListener = listener;
+    }
+
+    /**
+     * Queues a message
+     *
+     * @param message the message to queue
+     * @return {@code true} if the writer is not running and has to be started by the caller, {@code false} otherwise
+     */
+    boolean offer(Message message) {
+        boolean resync = false;
+        boolean disconnect = false;
+        boolean startWriter = false;
+
+        lock.lock();
+        try {
+            if (closing) {
+                return false;
+            }
+
+            if (message instanceof GameStateMessage) {
+                coalesced.add(removeStateUpdates());
+                waitingResync = false;
+            } else if (message instanceof GameDeltaMessage && waitingResync) {
+                // the client can not apply it without the dropped updates
+                dropped.increment();
+                return false;
+            }
+
+            if (entries.size() >= capacity) {
+                overflows.increment();
+
+                if (policy == OverflowPolicy.RESYNC) {
+                    int removed = removeStateUpdates();
+                    dropped.add(removed);
+                    resync = waitingResync = removed > 0 && !(message instanceof GameStateMessage);
+                }
+
+                disconnect = entries.size() >= capacity;
+            }
+
+            if (waitingResync && message instanceof GameDeltaMessage) {
+                dropped.increment();
+            } else if (!disconnect) {
+                entries.add(new Entry(message));
+                updateDepth(1);
+
+                startWriter = !writing;
+                writing = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (disconnect) {
+            LOGGER.warning("Outbound queue full, client disconnected");
+            connection.disconnect();
+        } else if (resync && resyncListener != null) {
+            resyncListener.run();
+        }
+
+        return startWriter;
+    }
+
+    /**
+     * Queues the last message of the connection: the following messages are discarded and the writer has to close
+     * the connection once the queue is drained. The message is queued even if the queue is full
+     *
+     * @param message the last message to write
+     * @return {@code true} if the writer is not running and has to be started by the caller, {@code false} otherwise
+     */
+    boolean offerLast(Message message) {
+        lock.lock();
+        try {
+            if (closing) {
+                return false;
+            }
+
+            closing = true;
+
+            entries.add(new Entry(message));
+            updateDepth(1);
+
+            boolean startWriter = !writing;
+            writing = true;
+            return startWriter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the connection has to be closed once the queue is drained, {@code false} otherwise
+     */
+    boolean isClosing() {
+        return closing;
+    }
+
+    /**
+     * Takes the next message to write
+     *
+     * @return the next message, {@code null} if the queue is empty and the writer has to stop
+     */
+    Message poll() {
+        Entry entry;
+
+        lock.lock();
+        try {
+            entry = entries.poll();
+
+            if (entry == null) {
+                writing = false;
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        updateDepth(-1);
+
+        long latency = System.nanoTime() - entry.queuedAt;
+        drained.increment();
+        drainNanos.add(latency);
+        maxDrainNanos.accumulateAndGet(latency, Math::max);
+
+        return entry.message;
+    }
+
+    /**
+     * @return {@code true} if no message is waiting, {@code false} otherwise
+     */
+    boolean isEmpty() {
+        lock.lock();
+        try {
+            return entries.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every waiting message, when the connection is closed
+     */
+    void clear() {
+        int removed;
+
+        lock.lock();
+        try {
+            removed = entries.size();
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        updateDepth(-removed);
+    }
+
+    private int removeStateUpdates() {
+        int removed = 0;
+
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            Message queued = iterator.next().message;
+
+            if (queued instanceof GameStateMessage || queued instanceof GameDeltaMessage) {
+                iterator.remove();
+                ++removed;
+            }
+        }
+
+        updateDepth(-removed);
+        return removed;
+    }
+
+    private static void updateDepth(long change) {
+        depth.add(change);
+
+        if (change > 0) {
+            maxDepth.accumulateAndGet(depth.sum(), Math::max);
+        }
+    }
+
+    /**
+     * @return a summary of the state of all the queues: messages waiting, the maximum reached, drain latency and the
+     * messages removed
+     */
+    static String metrics() {
+        long count = drained.sum();
+        long average = count == 0 ? 0 : drainNanos.sum() / count;
+
+        return String.format("depth %d (max %d), drained %d, drain latency avg %.2f ms (max %.2f ms), coalesced %d, dropped %d, overflows %d",
+                depth.sum(), maxDepth.get(), count, average / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                maxDrainNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1), coalesced.sum(), dropped.sum(), overflows.sum());
+    }
+
+    /**
+     * A queued message with the time it has been queued
+     */
+    private static class Entry {
+        private final Message message;
+        private final long queuedAt;
+
+        private Entry(Message message) {
+            this.message = message;
+            this.queuedAt = System.nanoTime();
+        }
+    }
+}
@@ -2,17 +2,19 @@ package network.server;
 
 import network.client.RMIClientConnection;
 import network.message.Message;
+import utility.TaskExecutor;
 
 import java.rmi.RemoteException;
 
 /**
- * This class represents a RMI Connection with a client
+ * This class represents a RMI Connection with a client. Queued messages are delivered by a writer task run by the
+ * {@link TaskExecutor TaskExecutor}, so that a slow client does not block who sends them
  */
 public class RMIConnection extends Connection {
     private final Server server;
     private final RMIClientConnection clientSession;
 
-    private boolean connected = true;
+    private volatile boolean connected = true;
 
     /**
      * Construct a connection between the server and a RMI client
@@ -34,14 +36,50 @@ public class RMIConnection extends Connection {
     }
 
     /**
-     * Send a message to the client
+     * Queues a message for the client
      *
      * @param message message to send to the client
-     * @throws RemoteException in case of problems with communication with client
      */
     @Override
-    public void sendMessage(Message message) throws RemoteException {
-        clientSession.onMessage(message);
+    public void sendMessage(Message message) {
+        if (connected && outbound.offer(message)) {
+            TaskExecutor.execute(this::writeQueued);
+        }
+    }
+
+    /**
+     * Queues the last message for the client, the connection is closed by the writer task once it has been written
+     *
+     * @param message last message to send to the client
+     */
+    @Override
+    public void sendAndClose(Message message) {
+        if (connected && outbound.offerLast(message)) {
+            TaskExecutor.execute(this::writeQueued);
+        }
+    }
+
+    /**
+     * Delivers the queued messages until the queue is empty, then closes the connection if asked
+     */
+    private void writeQueued() {
+        Message message;
+
+        while ((message = outbound.poll()) != null) {
+            if (!connected) {
+                continue;
+            }
+
+            try {
+                clientSession.onMessage(message);
+            } catch (RemoteException e) {
+                disconnect();
+            }
+        }
+
+        if (outbound.isClosing()) {
+            disconnect();
+        }
     }
 
     /**
@@ -51,6 +89,7 @@ public class RMIConnection extends Connection {
     public void disconnect() {
         if (connected) {
             connected = false;
+            outbound.clear();
 
             try {
                 clientSession.disconnectMe();
@@ -1,116 +1,132 @@
 package network.server;
 
 import com.google.gson.JsonObject;
-import controller.GameManager;
-import enumerations.MessageContent;
 import enumerations.MessageStatus;
-import enumerations.PossibleGameState;
-import model.Game;
-import model.player.UserPlayer;
+import exceptions.game.ReloadException;
 import network.message.*;
+import utility.AsyncLogHandler;
 import utility.ConfigurationParser;
 import utility.GameConstants;
-import utility.MoveTimer;
-import utility.persistency.SaveGame;
+import utility.LogCategory;
+import utility.TaskExecutor;
+import utility.persistency.GameJournal;
+import utility.persistency.SaveStore;
+import utility.persistency.SaveWriter;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.logging.FileHandler;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-import java.util.logging.SimpleFormatter;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.*;
 
 /**
  * This class is the main server class which starts a Socket and a RMI server.
- * It handles all the client regardless of whether they are Sockets or RMI
+ * It handles all the client regardless of whether they are Sockets or RMI, dispatching them to the
+ * {@link GameRoom GameRooms} hosting the matches
  */
-public class Server implements Runnable {
-    private final Object clientsLock = new Object();
+public class Server implements Runnable, MessageSender {
+    private final Lock roomsLock = new ReentrantLock();
     private int socketPort;
     private int rmiPort;
+    private boolean nioSocket;
+    private int ioThreads;
 
     private static final String DEFAULT_CONF_FILE_PATH = "conf.json";
+    private static final String DEFAULT_SAVE_DIRECTORY = "saves";
+    private static final int PING_PERIOD = 1000;
+    private static final int METRICS_PINGS = 60;
 
-    private Map<String, Connection> clients;
+    private final Map<Integer, GameRoom> rooms;
+    private final Map<String, GameRoom> playerRooms;
+    private final Map<Connection, GameRoom> connectionRooms;
+    private final Map<Long, CompletableFuture<GameRoom>> resumedRooms;
+    private int nextRoomId;
+    private int pings;
 
-    private GameManager gameManager;
-    private boolean waitForLoad;
+    private SaveStore saveStore;
+    private final boolean resumeGames;
 
-    public static final Logger LOGGER = Logger.getLogger("Server");
+    private boolean terminator;
+    private int skullNum;
+
+    public static final Logger LOGGER = Logger.getLogger(LogCategory.SERVER_LOGGER);
+    private static final Logger NETWORK_LOGGER = LogCategory.NETWORK.getLogger();
 
     private int startTime;
     private int moveTime;
 
-    private Timer moveTimer;
-
     /**
-     * Starts the server loading a game
+     * Starts the server with a new game
      *
+     * @param bot          {@code true} if the bot is present, {@code false} otherwise
+     * @param skullNum     number of skull
      * @param confFilePath path of the config file
      */
-    private Server(String confFilePath) {
-        initLogger();
-        synchronized (clientsLock) {
-            this.clients = new HashMap<>();
-        }
-        this.waitForLoad = true;
-
-        loadConfigFile(confFilePath);
-
-        startServers();
-
-        this.gameManager = SaveGame.loadGame(this, startTime);
-        reserveSlots(gameManager.getGameInstance().getPlayers());
-
-        LOGGER.log(Level.INFO, "Game loaded successfully.");
-
-        Thread pingThread = new Thread(this);
-        pingThread.start();
-
-        moveTimer = new Timer();
+    public Server(boolean bot, int skullNum, String confFilePath) {
+        this(bot, skullNum, confFilePath, false);
     }
 
     /**
-     * Starts the server with a new game
+     * Starts the server, if requested the saved games are resumed, each one when the first of its players logs in
      *
-     * @param bot          {@code true} if the bot is present, {@code false} otherwise
-     * @param skullNum     number of skull
+     * @param bot          {@code true} if the bot is present in the new rooms, {@code false} otherwise
+     * @param skullNum     number of skull of the new rooms
      * @param confFilePath path of the config file
+     * @param reloadGame   {@code true} if the saved games have to be resumed, {@code false} otherwise
      */
-    public Server(boolean bot, int skullNum, String confFilePath) {
+    private Server(boolean bot, int skullNum, String confFilePath, boolean reloadGame) {
         initLogger();
-        synchronized (clientsLock) {
-            clients = new HashMap<>();
-        }
-        waitForLoad = false;
+        this.rooms = new ConcurrentHashMap<>();
+        this.playerRooms = new ConcurrentHashMap<>();
+        this.connectionRooms = new ConcurrentHashMap<>();
+        this.resumedRooms = new HashMap<>();
+        this.terminator = bot;
+        this.skullNum = skullNum;
+        this.resumeGames = reloadGame;
 
         loadConfigFile(confFilePath);
 
         startServers();
 
-        gameManager = new GameManager(this, bot, skullNum, startTime);
-
-        Thread pingThread = new Thread(this);
-        pingThread.start();
+        if (reloadGame) {
+            LOGGER.log(Level.INFO, "Resumable games : {0}", saveStore.getResumableGames().size());
+        }
 
-        moveTimer = new Timer();
+        TaskExecutor.schedule(this, PING_PERIOD);
     }
 
+    /**
+     * Sends the server log to the console and to a new log file through an {@link AsyncLogHandler AsyncLogHandler},
+     * so that formatting and writing do not happen on the threads serving the clients
+     */
     private void initLogger() {
         Date date = GregorianCalendar.getInstance().getTime();
         DateFormat dateFormat = new SimpleDateFormat("dd-MM_HH.mm.ss");
 
-        try {
-            FileHandler fh = new FileHandler("log/server-" + dateFormat.format(date) + ".log");
-            fh.setFormatter(new SimpleFormatter());
+        List<Handler> targets = new ArrayList<>();
+        targets.add(new StreamHandler(System.err, new SimpleFormatter()) {
+            @Override
+            public synchronized void close() {
+                // the console stays open
+                flush();
+            }
+        });
 
-            LOGGER.addHandler(fh);
+        try {
+            targets.add(new StreamHandler(new FileOutputStream("log/server-" + dateFormat.format(date) + ".log"), new SimpleFormatter()));
         } catch (IOException e) {
             LOGGER.severe(e.getMessage());
         }
+
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(new AsyncLogHandler(AsyncLogHandler.DEFAULT_CAPACITY, targets.toArray(new Handler[0])));
     }
 
     private void loadConfigFile(String confFilePath) {
@@ -118,9 +134,9 @@ public class Server implements Runnable {
 
         if (jo == null) {
             this.socketPort = 0;
-            this.gameManager = null;
             this.rmiPort = 0;
             LOGGER.log(Level.SEVERE, "Configuration file not found: {0}", confFilePath);
+            openSaveStore(DEFAULT_SAVE_DIRECTORY);
             return;
         }
 
@@ -128,16 +144,73 @@ public class Server implements Runnable {
         this.moveTime = jo.get("move_time").getAsInt() * 1000;
         this.socketPort = jo.get("socket_port").getAsInt();
         this.rmiPort = jo.get("rmi_port").getAsInt();
+        this.nioSocket = jo.has("socket_transport") && jo.get("socket_transport").getAsString().equals("nio");
+        TaskExecutor.configure(ConfigurationParser.parseExecutionMode(jo));
+        ConfigurationParser.parseLogLevels(jo).forEach(LogCategory::setLevel);
+        this.ioThreads = jo.has("io_threads") ? jo.get("io_threads").getAsInt() : Runtime.getRuntime().availableProcessors();
+        OutboundQueue.configure(
+                jo.has("outbound_queue_size") ? jo.get("outbound_queue_size").getAsInt() : OutboundQueue.DEFAULT_CAPACITY,
+                OutboundQueue.OverflowPolicy.getPolicy(jo.has("outbound_overflow") ? jo.get("outbound_overflow").getAsString() : null)
+        );
+
+        SaveWriter.configure(jo.has("save_sync") && jo.get("save_sync").getAsBoolean());
+        openSaveStore(jo.has("save_directory") ? jo.get("save_directory").getAsString() : DEFAULT_SAVE_DIRECTORY);
+        recordMatches(jo.has("record_matches") && jo.get("record_matches").getAsBoolean());
 
         LOGGER.log(Level.INFO, "Start time : {0}", startTime);
         LOGGER.log(Level.INFO, "Move time : {0}", moveTime / 1000);
         LOGGER.log(Level.INFO, "Socket port : {0}", socketPort);
         LOGGER.log(Level.INFO, "Rmi port : {0}", rmiPort);
+        LOGGER.log(Level.INFO, "Execution mode : {0}", TaskExecutor.getMode());
+        LOGGER.log(Level.INFO, "Socket transport : {0}", nioSocket ? "nio (" + ioThreads + " io threads)" : "blocking");
+        LOGGER.log(Level.INFO, "Outbound queue : {0} messages, {1} on overflow",
+                new Object[]{OutboundQueue.getCapacity(), OutboundQueue.getPolicy().name().toLowerCase()});
+        LOGGER.log(Level.INFO, "Save sync : {0}", SaveWriter.isSync());
+        LOGGER.log(Level.INFO, "Save directory : {0}", jo.has("save_directory") ? jo.get("save_directory").getAsString() : DEFAULT_SAVE_DIRECTORY);
+        LOGGER.log(Level.INFO, "Record matches : {0}", saveStore.isRecordingMatches());
+
+        for (LogCategory category : LogCategory.values()) {
+            Level level = category.getLogger().getLevel();
+            LOGGER.log(Level.INFO, "Log level of {0} : {1}", new Object[]{category.getKey(), level != null ? level.getName() : "inherited"});
+        }
+    }
+
+    /**
+     * Opens the store of the saves of the matches, the server can not host a match without it
+     *
+     * @param directory the directory of the store
+     */
+    private void openSaveStore(String directory) {
+        try {
+            saveStore = new SaveStore(Paths.get(directory), GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Save directory not available: {0}", directory);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Enables the recording of the matches in the store of the saves, they are not recorded if the recordings
+     * directory can not be created
+     *
+     * @param recordMatches {@code true} to record the matches, {@code false} otherwise
+     */
+    private void recordMatches(boolean recordMatches) {
+        try {
+            saveStore.setRecordMatches(recordMatches);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Recordings directory not available: {0}", e.getMessage());
+        }
     }
 
     private void startServers() {
-        SocketServer serverSocket = new SocketServer(this, socketPort);
-        serverSocket.startServer();
+        if (nioSocket) {
+            NioSocketServer serverSocket = new NioSocketServer(this, socketPort, ioThreads);
+            serverSocket.startServer();
+        } else {
+            SocketServer serverSocket = new SocketServer(this, socketPort);
+            serverSocket.startServer();
+        }
 
         LOGGER.info("Socket Server Started");
 
@@ -147,19 +220,6 @@ public class Server implements Runnable {
         LOGGER.info("RMI Server Started");
     }
 
-    /**
-     * Reserves server slots for player loaded from the game save
-     *
-     * @param loadedPlayers from the game save
-     */
-    private void reserveSlots(List<UserPlayer> loadedPlayers) {
-        synchronized (clientsLock) {
-            for (UserPlayer player : loadedPlayers) {
-                clients.put(player.getUsername(), null);
-            }
-        }
-    }
-
     public static void main(String[] args) {
         String confFilePath = DEFAULT_CONF_FILE_PATH;
         boolean terminator = false;
@@ -198,34 +258,52 @@ public class Server implements Runnable {
             }
         }
 
-        // if the starting command contains -r it means that a game is going to be reloaded
-        if (reloadGame) {
-            new Server(confFilePath);
-            return;
-        }
-
         // if the passed value is correct it is used for the game, if not DEFAULT value is set back to 5
         if (skullNum < 5 || skullNum > 8) {
             skullNum = 5;
         }
 
-        new Server(terminator, skullNum, confFilePath);
+        // if the starting command contains -r it means that a game is going to be reloaded
+        new Server(terminator, skullNum, confFilePath, reloadGame);
     }
 
     /**
-     * Adds or reconnects a player to the server
+     * Adds or reconnects a player to the server. Known players go back to their room, new players join the first
+     * room whose lobby is still open, or a new room if there is none
      *
      * @param username   username of the player
      * @param connection connection of the client
      */
     void login(String username, Connection connection) {
         try {
-            synchronized (clientsLock) {
-                if (clients.containsKey(username)) {
-                    knownPlayerLogin(username, connection);
-                } else {
-                    newPlayerLogin(username, connection);
+            if (resumeGames) {
+                resumeRoom(username);
+            }
+
+            roomsLock.lock();
+            try {
+                GameRoom room = playerRooms.get(username);
+
+                if (room != null) {
+                    if (room.knownPlayerLogin(username, connection)) {
+                        bindConnection(connection, room);
+                    }
+                } else if (isUsernameLegit(username)) {
+                    room = getOpenRoom();
+
+                    if (room.newPlayerLogin(username, connection)) {
+                        playerRooms.put(username, room);
+                        bindConnection(connection, room);
+                    }
+                } else { // Username not legit
+                    connection.sendAndClose(
+                            new ConnectionResponse("Invalid Username", null, MessageStatus.ERROR)
+                    );
+
+                    LOGGER.log(Level.INFO, "{0} tried to connect with invalid name!", username);
                 }
+            } finally {
+                roomsLock.unlock();
             }
         } catch (IOException e) {
             connection.disconnect();
@@ -233,102 +311,121 @@ public class Server implements Runnable {
     }
 
     /**
-     * Handles a known player login
+     * Resumes the stored match of a player in a new room, together with the other players of the match that are not
+     * playing another one. The match is read from the store without holding the lock of the rooms, while the players
+     * of the match logging in meanwhile wait for it, and the players logging in after it has been resumed join its
+     * room. A match that can not be resumed is discarded from the store
      *
-     * @param username   username of the player who is trying to login
-     * @param connection connection of the client
-     * @throws IOException when send message fails
+     * @param username username of the player
      */
-    private void knownPlayerLogin(String username, Connection connection) throws IOException {
-        if (clients.get(username) == null || !clients.get(username).isConnected()) { // Player Reconnection
-            clients.replace(username, connection);
-
-            String token = UUID.randomUUID().toString();
-            connection.setToken(token);
-
-            if (waitForLoad) {// Game in lobby state for load a game
-                connection.sendMessage(
-                        new GameLoadResponse("Successfully reconnected", token,
-                                gameManager.getUserPlayerState(username), gameManager.getGameInstance().isBotPresent())
-                );
-                checkLoadReady();
-            } else {
-                if (gameManager.getGameState() == PossibleGameState.GAME_ROOM) { // Game in lobby state
-                    connection.sendMessage(
-                            new ConnectionResponse("Successfully reconnected", token, MessageStatus.OK)
-                    );
-                } else { // Game started
-                    connection.sendMessage(
-                            gameManager.onConnectionMessage(new LobbyMessage(username, token, null, false))
-                    );
-                }
+    private void resumeRoom(String username) {
+        CompletableFuture<GameRoom> resumed;
+        long gameId;
+        int roomId = -1;
+
+        roomsLock.lock();
+        try {
+            Long storedId = playerRooms.containsKey(username) ? null : saveStore.findGame(username);
+
+            if (storedId == null) {
+                return;
             }
 
-            LOGGER.log(Level.INFO, "{0} reconnected to server!", username);
-        } else { // Player already connected
-            connection.sendMessage(
-                    new ConnectionResponse("Player already connected", null, MessageStatus.ERROR)
-            );
+            gameId = storedId;
+            resumed = resumedRooms.get(gameId);
+
+            if (resumed == null) {
+                resumed = new CompletableFuture<>();
+                resumedRooms.put(gameId, resumed);
+                roomId = nextRoomId++;
+            } else if (resumed.isDone()) {
+                // the player was playing another match when this one was resumed
+                playerRooms.putIfAbsent(username, resumed.join());
+                return;
+            }
+        } finally {
+            roomsLock.unlock();
+        }
 
-            connection.disconnect();
-            LOGGER.log(Level.INFO, "{0} already connected to server!", username);
+        if (roomId < 0) {
+            // another player of the match is resuming it
+            resumed.join();
+            return;
+        }
+
+        GameRoom resumedRoom = null;
+        try {
+            resumedRoom = new GameRoom(roomId, startTime, moveTime, saveStore, gameId);
+        } catch (ReloadException e) {
+            LOGGER.log(Level.SEVERE, "Game {0} can not be resumed", Long.toHexString(gameId));
+            saveStore.discard(gameId);
+        } finally {
+            publishRoom(gameId, resumedRoom);
+            resumed.complete(resumedRoom);
         }
     }
 
     /**
-     * Handles a new player login
+     * Adds a resumed room to the server. The players of the match playing in another room stay there, and join the
+     * resumed room when they log in again
      *
-     * @param username   username of the player who is trying to login
-     * @param connection connection of the client
-     * @throws IOException when send message fails
+     * @param gameId      the id of the resumed match
+     * @param resumedRoom the room of the match, {@code null} if it could not be resumed
      */
-    private void newPlayerLogin(String username, Connection connection) throws IOException {
-        if (gameManager.getGameInstance().isGameStarted()) { // Game Started
-            connection.sendMessage(
-                    new ConnectionResponse("Game is already started!", null, MessageStatus.ERROR)
-            );
-
-            connection.disconnect();
-            LOGGER.log(Level.INFO, "{0} attempted to connect!", username);
-        } else if (gameManager.isLobbyFull()) { // Lobby Full
-            connection.sendMessage(
-                    new ConnectionResponse("Max number of player reached", null, MessageStatus.ERROR)
-            );
+    private void publishRoom(long gameId, GameRoom resumedRoom) {
+        roomsLock.lock();
+        try {
+            if (resumedRoom == null) {
+                resumedRooms.remove(gameId);
+            } else {
+                rooms.put(resumedRoom.getId(), resumedRoom);
+                for (String player : resumedRoom.getUsernames()) {
+                    playerRooms.putIfAbsent(player, resumedRoom);
+                }
 
-            connection.disconnect();
-            LOGGER.log(Level.INFO, "{0} tried to connect but game is full!", username);
-        } else { // New player
-            if (isUsernameLegit(username)) { // Username legit
-                clients.put(username, connection);
-
-                String token = UUID.randomUUID().toString();
-                connection.setToken(token);
-
-                connection.sendMessage(
-                        new ConnectionResponse("Successfully connected", token, MessageStatus.OK)
-                );
-
-                LOGGER.log(Level.INFO, "{0} connected to server!", username);
-            } else { // Username not legit
-                connection.sendMessage(
-                        new ConnectionResponse("Invalid Username", null, MessageStatus.ERROR)
-                );
-
-                connection.disconnect();
-                LOGGER.log(Level.INFO, "{0} tried to connect with invalid name!", username);
+                LOGGER.log(Level.INFO, "Game {0} resumed in room {1}", new Object[]{Long.toHexString(gameId), resumedRoom.getId()});
             }
+        } finally {
+            roomsLock.unlock();
+        }
+    }
+
+    /**
+     * Remembers the room of a connection, so that its disconnection is handled without searching every room
+     *
+     * @param connection connection of the player
+     * @param room       room of the player
+     */
+    private void bindConnection(Connection connection, GameRoom room) {
+        connectionRooms.put(connection, room);
+
+        // the connection could have been closed before being bound
+        if (!connection.isConnected()) {
+            onDisconnect(connection);
         }
     }
 
     /**
-     * Checks if all player of the loaded game have joined the game
+     * Returns the first room whose lobby can still accept a player, creating a new one if every room is busy
+     *
+     * @return a room accepting new players
      */
-    private void checkLoadReady() {
-        synchronized (clientsLock) {
-            if (clients.entrySet().stream().noneMatch(entry -> entry.getValue() == null || !entry.getValue().isConnected())) {
-                waitForLoad = false;
-                gameManager.sendPrivateUpdates();
+    private GameRoom getOpenRoom() {
+        roomsLock.lock();
+        try {
+            for (GameRoom room : rooms.values()) {
+                if (room.isOpen()) {
+                    return room;
+                }
             }
+
+            GameRoom newRoom = new GameRoom(nextRoomId++, terminator, skullNum, startTime, moveTime, saveStore);
+            rooms.put(newRoom.getId(), newRoom);
+
+            LOGGER.log(Level.INFO, "Room {0} created, {1} rooms hosted", new Object[]{newRoom.getId(), rooms.size()});
+            return newRoom;
+        } finally {
+            roomsLock.unlock();
         }
     }
 
@@ -355,49 +452,16 @@ public class Server implements Runnable {
      */
     void onMessage(Message message) {
         if (message != null && message.getSenderUsername() != null && (message.getToken() != null || message.getSenderUsername().equals("god"))) {
-            if (message.getContent().equals(MessageContent.SHOOT)) {
-                String messageString = message.toString();
-                LOGGER.log(Level.INFO, messageString);
-            } else {
-                LOGGER.log(Level.INFO, "Received: {0}", message);
-            }
-
-            String msgToken = message.getToken();
-            Connection conn;
-
-            synchronized (clientsLock) {
-                conn = clients.get(message.getSenderUsername());
-            }
-
-            if (conn == null) {
-                LOGGER.log(Level.INFO, "Message Request {0} - Unknown username {1}", new Object[]{message.getContent().name(), message.getSenderUsername()});
-            } else if (msgToken.equals(conn.getToken())) { // Checks that sender is the real player
-                Message response = gameManager.onMessage(message);
-
-                updateTimer();
-
-                // send message to client
-                sendMessage(message.getSenderUsername(), response);
-            }
-        }
-    }
+            // the message is formatted by the log writer, only if the level is enabled
+            NETWORK_LOGGER.log(Level.INFO, "Received: {0}", message);
 
-    /**
-     * Updates the timer state
-     */
-    private void updateTimer() {
-        if (Game.getInstance().isGameStarted()) {
-            Connection conn;
+            GameRoom room = playerRooms.get(message.getSenderUsername());
 
-            synchronized (clientsLock) {
-                conn = clients.get(gameManager.getTurnOwnerUsername());
+            if (room == null) {
+                NETWORK_LOGGER.log(Level.INFO, "Message Request {0} - Unknown username {1}", new Object[]{message.getContent(), message.getSenderUsername()});
+            } else {
+                room.onMessage(message);
             }
-
-            moveTimer.cancel();
-            moveTimer = new Timer();
-            moveTimer.schedule(new MoveTimer(conn, gameManager.getTurnOwnerUsername()), moveTime);
-
-            LOGGER.log(Level.INFO, "Move timer reset for user {0}, {1} seconds left", new Object[]{gameManager.getTurnOwnerUsername(), moveTime / 1000});
         }
     }
 
@@ -407,107 +471,95 @@ public class Server implements Runnable {
      * @param playerConnection connection of the player that just disconnected
      */
     void onDisconnect(Connection playerConnection) {
-        String username = getUsernameByConnection(playerConnection);
+        GameRoom room = connectionRooms.remove(playerConnection);
 
-        if (username != null) {
-            LOGGER.log(Level.INFO, "{0} disconnected from server!", username);
+        if (room != null) {
+            String username = room.getUsernameByConnection(playerConnection);
 
-            if (gameManager.getGameState() == PossibleGameState.GAME_ROOM) {
-                synchronized (clientsLock) {
-                    clients.remove(username);
+            if (username != null) {
+                if (room.onDisconnect(username)) {
+                    playerRooms.remove(username, room);
                 }
-                gameManager.onMessage(new LobbyMessage(username, null, null, true));
-                LOGGER.log(Level.INFO, "{0} removed from client list!", username);
-            } else {
-                gameManager.onConnectionMessage(new LobbyMessage(username, null, null, true));
-                sendMessageToAll(new DisconnectionMessage(username));
+
+                disposeRoom(room);
             }
         }
     }
 
     /**
-     * Sends a message to all clients
+     * Removes a room from the server once its match is ended and all its players left
      *
-     * @param message message to send
+     * @param room the room to check
      */
-    public void sendMessageToAll(Message message) {
-        for (Map.Entry<String, Connection> client : clients.entrySet()) {
-            if (client.getValue() != null && client.getValue().isConnected()) {
-                try {
-                    client.getValue().sendMessage(message);
-                } catch (IOException e) {
-                    LOGGER.severe(e.getMessage());
-                }
+    private void disposeRoom(GameRoom room) {
+        if (room.isDisposable()) {
+            room.close();
+            rooms.remove(room.getId());
+
+            roomsLock.lock();
+            try {
+                resumedRooms.values().removeIf(resumed -> resumed.getNow(null) == room);
+            } finally {
+                roomsLock.unlock();
+            }
+
+            for (String username : room.getUsernames()) {
+                playerRooms.remove(username, room);
             }
+
+            LOGGER.log(Level.INFO, "Room {0} disposed, {1} rooms hosted", new Object[]{room.getId(), rooms.size()});
         }
-        LOGGER.log(Level.INFO, "Send to all: {0}", message);
     }
 
     /**
-     * Sends a message to a client
+     * Sends a message to a client, regardless of the room he is playing in
      *
      * @param username username of the client who will receive the message
      * @param message  message to send
      */
+    @Override
     public void sendMessage(String username, Message message) {
-        synchronized (clientsLock) {
-            for (Map.Entry<String, Connection> client : clients.entrySet()) {
-                if (client.getKey().equals(username) && client.getValue() != null && client.getValue().isConnected()) {
-                    try {
-                        client.getValue().sendMessage(message);
-                    } catch (IOException e) {
-                        LOGGER.severe(e.getMessage());
-                    }
-                    break;
-                }
-            }
-        }
+        GameRoom room = playerRooms.get(username);
 
-        LOGGER.log(Level.INFO, "Send: {0}, {1}", new Object[]{message.getSenderUsername(), message});
+        if (room != null) {
+            room.sendMessage(username, message);
+        }
     }
 
     /**
-     * Returns the username of the connection owner
+     * Sends a message to all the clients of every room
      *
-     * @param connection connection to check
-     * @return the username
+     * @param message message to send
      */
-    private String getUsernameByConnection(Connection connection) {
-        Set<String> usernameList;
-        synchronized (clientsLock) {
-            usernameList = clients.entrySet()
-                    .stream()
-                    .filter(entry -> connection.equals(entry.getValue()))
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toSet());
-        }
-        if (usernameList.isEmpty()) {
-            return null;
-        } else {
-            return usernameList.iterator().next();
+    @Override
+    public void sendMessageToAll(Message message) {
+        for (GameRoom room : rooms.values()) {
+            room.sendMessageToAll(message);
         }
     }
 
     /**
-     * Process that pings all the clients to check if they are still connected
+     * @return the number of rooms currently hosted by the server
+     */
+    int getRoomsNumber() {
+        return rooms.size();
+    }
+
+    /**
+     * Pings all the clients to check if they are still connected, then schedules the next ping after
+     * {@link #PING_PERIOD PING_PERIOD} milliseconds. Every {@link #METRICS_PINGS METRICS_PINGS} pings the state of the outbound queues and of the save writer is logged
      */
     @Override
     public void run() {
-        while (!Thread.currentThread().isInterrupted()) {
-            synchronized (clientsLock) {
-                for (Map.Entry<String, Connection> client : clients.entrySet()) {
-                    if (client.getValue() != null && client.getValue().isConnected()) {
-                        client.getValue().ping();
-                    }
-                }
-            }
+        for (GameRoom room : rooms.values()) {
+            room.pingClients();
+        }
 
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                LOGGER.severe(e.getMessage());
-                Thread.currentThread().interrupt();
-            }
+        if (++pings % METRICS_PINGS == 0) {
+            LOGGER.log(Level.INFO, "Outbound queues : {0}", OutboundQueue.metrics());
+            LOGGER.log(Level.INFO, "Save writer : {0}", SaveWriter.metrics());
         }
+
+        TaskExecutor.schedule(this, PING_PERIOD);
     }
 }
@@ -0,0 +1,203 @@
+package network.server;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class keeps the sessions of the players of a {@link GameRoom GameRoom}: a session binds a username to the
+ * connection currently used by the player, if any. Lookups by username and by connection are O(1) and never lock,
+ * so that messages, pings and disconnections of different players do not contend. Connections are compared by
+ * identity, as {@link Connection Connection} does not redefine equality
+ */
+class SessionRegistry {
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Connection, Session> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Reserves the session of a player who is expected to connect, like the players of a loaded game
+     *
+     * @param username username of the player
+     */
+    void reserve(String username) {
+        sessions.putIfAbsent(username, new Session(username, null));
+    }
+
+    /**
+     * Adds the session of a new player
+     *
+     * @param username   username of the player
+     * @param connection connection of the player
+     * @return {@code true} if the session has been added, {@code false} if the username already has a session
+     */
+    boolean connect(String username, Connection connection) {
+        Session session = new Session(username, connection);
+
+        synchronized (session) {
+            if (sessions.putIfAbsent(username, session) != null) {
+                return false;
+            }
+
+            connections.put(connection, session);
+        }
+
+        return true;
+    }
+
+    /**
+     * Binds a new connection to the session of a known player, if he is not connected anymore. When more connections
+     * of the same player race, only one of them succeeds
+     *
+     * @param username   username of the player
+     * @param connection the new connection of the player
+     * @return {@code true} if the connection has been bound, {@code false} if the player is unknown or still connected
+     */
+    boolean reconnect(String username, Connection connection) {
+        Session session = sessions.get(username);
+
+        if (session == null) {
+            return false;
+        }
+
+        synchronized (session) {
+            Connection previous = session.connection;
+
+            if (session.removed || (previous != null && previous.isConnected())) {
+                return false;
+            }
+
+            session.connection = connection;
+            connections.put(connection, session);
+
+            if (previous != null) {
+                connections.remove(previous, session);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the session of a player
+     *
+     * @param username username of the player
+     */
+    void remove(String username) {
+        Session session = sessions.remove(username);
+
+        if (session != null) {
+            synchronized (session) {
+                session.removed = true;
+
+                if (session.connection != null) {
+                    connections.remove(session.connection, session);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param username username of the player
+     * @return the connection currently bound to the player, {@code null} if none
+     */
+    Connection getConnection(String username) {
+        Session session = sessions.get(username);
+        return session != null ? session.connection : null;
+    }
+
+    /**
+     * @param connection the connection to check
+     * @return the username of the player owning the connection, {@code null} if the connection is unknown
+     */
+    String getUsername(Connection connection) {
+        Session session = connections.get(connection);
+        return session != null ? session.username : null;
+    }
+
+    /**
+     * Checks that a message comes from the real player, comparing the token of his current connection
+     *
+     * @param username username of the player
+     * @param token    the token sent with the message
+     * @return {@code true} if the token is the one of the player, {@code false} otherwise
+     */
+    boolean isValid(String username, String token) {
+        Connection connection = getConnection(username);
+        return connection != null && token != null && token.equals(connection.getToken());
+    }
+
+    /**
+     * @param username username of the player
+     * @return {@code true} if the player has a session, {@code false} otherwise
+     */
+    boolean contains(String username) {
+        return sessions.containsKey(username);
+    }
+
+    /**
+     * @return the usernames of the players with a session
+     */
+    Set<String> getUsernames() {
+        return new HashSet<>(sessions.keySet());
+    }
+
+    /**
+     * @return the connections currently bound to the players
+     */
+    List<Connection> getConnections() {
+        List<Connection> bound = new ArrayList<>(sessions.size());
+
+        for (Session session : sessions.values()) {
+            Connection connection = session.connection;
+
+            if (connection != null) {
+                bound.add(connection);
+            }
+        }
+
+        return bound;
+    }
+
+    /**
+     * @return the number of sessions
+     */
+    int size() {
+        return sessions.size();
+    }
+
+    /**
+     * @return {@code true} if every player has a connected connection, {@code false} otherwise
+     */
+    boolean allConnected() {
+        return sessions.values().stream().allMatch(Session::isConnected);
+    }
+
+    /**
+     * @return {@code true} if no player has a connected connection, {@code false} otherwise
+     */
+    boolean noneConnected() {
+        return sessions.values().stream().noneMatch(Session::isConnected);
+    }
+
+    /**
+     * The session of a player
+     */
+    private static class Session {
+        private final String username;
+        private volatile Connection connection;
+        private boolean removed;
+
+        private Session(String username, Connection connection) {
+            this.username = username;
+            this.connection = connection;
+        }
+
+        private boolean isConnected() {
+            Connection current = connection;
+            return current != null && current.isConnected();
+        }
+    }
+}
@@ -1,30 +1,44 @@
 package network.server;
 
 import enumerations.MessageContent;
+import network.message.ConnectionRequest;
 import network.message.Message;
+import network.message.MessageCodec;
+import network.message.MessageFrame;
 import network.message.PingMessage;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import utility.TaskExecutor;
+
+import java.io.*;
 import java.net.Socket;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * This class represents a Socket connection with a client
+ * This class represents a Socket connection with a client, served by its own listener task run by the
+ * {@link TaskExecutor TaskExecutor}. Queued messages are written by a writer task, started when needed.
+ * The first byte of the client tells its protocol: clients writing a stream of serialized messages are answered on
+ * a stream of serialized messages, the others with {@link MessageFrame frames}
  */
 class SocketConnection extends Connection implements Runnable {
     private final SocketServer socketServer;
     private final Socket socket;
 
-    private final Object outLock = new Object();
-    private final Object inLock = new Object();
+    private final Lock outLock = new ReentrantLock();
+    private final Lock inLock = new ReentrantLock();
+
+    private volatile boolean connected;
+    private volatile MessageCodec codec;
 
-    private boolean connected;
+    private DataInputStream in;
+    private OutputStream out;
 
-    private ObjectInputStream in;
-    private ObjectOutputStream out;
+    private volatile boolean framed;
+    private ObjectInputStream objectIn;
+    private volatile ObjectOutputStream objectOut;
 
-    private Thread listener;
+    private Future<?> listener;
 
     /**
      * Constructs a connection over the socket with the socket server
@@ -37,21 +51,16 @@ class SocketConnection extends Connection implements Runnable {
         this.socket = socket;
 
         this.connected = true;
+        this.codec = MessageCodec.SERIALIZATION;
 
         try {
-            synchronized (inLock) {
-                this.in = new ObjectInputStream(socket.getInputStream());
-            }
-
-            synchronized (outLock) {
-                this.out = new ObjectOutputStream(socket.getOutputStream());
-            }
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new BufferedOutputStream(socket.getOutputStream());
         } catch (IOException e) {
             Server.LOGGER.severe(e.toString());
         }
 
-        listener = new Thread(this);
-        listener.start();
+        listener = TaskExecutor.execute(this);
     }
 
     /**
@@ -60,27 +69,71 @@ class SocketConnection extends Connection implements Runnable {
      */
     @Override
     public void run() {
+        try {
+            openStreams();
+        } catch (IOException e) {
+            disconnect();
+            return;
+        }
+
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                synchronized (inLock) {
-                    Message message = (Message) in.readObject();
-
-                    if (message != null) {
-                        if (message.getContent() == MessageContent.CONNECTION) {
-                            socketServer.login(message.getSenderUsername(), this);
-                        } else {
-                            socketServer.onMessage(message);
-                        }
+                Message message;
+
+                inLock.lock();
+                try {
+                    message = framed ? MessageFrame.read(in) : MessageFrame.readObject(objectIn);
+                } finally {
+                    inLock.unlock();
+                }
+
+                if (message != null) {
+                    if (message.getContent() == MessageContent.CONNECTION) {
+                        codec = MessageCodec.forVersion(((ConnectionRequest) message).getCodecVersion());
+                        socketServer.login(message.getSenderUsername(), this);
+                    } else {
+                        socketServer.onMessage(message);
                     }
                 }
+            } catch (InvalidObjectException e) {
+                Server.LOGGER.severe(e.getMessage());
             } catch (IOException e) {
                 disconnect();
-            } catch (ClassNotFoundException e) {
-                Server.LOGGER.severe(e.getMessage());
             }
         }
     }
 
+    /**
+     * Recognizes the protocol of the client from its first byte, then opens the object streams if the client writes
+     * a stream of serialized messages
+     *
+     * @throws IOException in case of problems with the socket
+     */
+    private void openStreams() throws IOException {
+        in.mark(1);
+        int first = in.read();
+        in.reset();
+
+        if (first < 0) {
+            throw new EOFException();
+        }
+
+        if (MessageFrame.isObjectStream(first)) {
+            objectIn = new ObjectInputStream(in);
+
+            outLock.lock();
+            try {
+                ObjectOutputStream stream = new ObjectOutputStream(out);
+                stream.flush();
+                objectOut = stream;
+            } finally {
+                outLock.unlock();
+            }
+        } else {
+            framed = true;
+        }
+    }
+
     /**
      * @return the connection status
      */
@@ -90,23 +143,61 @@ class SocketConnection extends Connection implements Runnable {
     }
 
     /**
-     * Sends a message to the client
+     * Queues a message for the client, it is written by a writer task so that the caller never waits for the client
      *
      * @param message to send to the client
      */
     @Override
     public void sendMessage(Message message) {
-        if (connected) {
+        if (connected && outbound.offer(message)) {
+            TaskExecutor.execute(this::writeQueued);
+        }
+    }
+
+    /**
+     * Queues the last message for the client, the connection is closed by the writer task once it has been written
+     *
+     * @param message last message to send to the client
+     */
+    @Override
+    public void sendAndClose(Message message) {
+        if (connected && outbound.offerLast(message)) {
+            TaskExecutor.execute(this::writeQueued);
+        }
+    }
+
+    /**
+     * Writes the queued messages until the queue is empty, then closes the connection if asked
+     */
+    private void writeQueued() {
+        Message message;
+
+        while ((message = outbound.poll()) != null) {
+            if (!connected || (!framed && objectOut == null)) { // the protocol of the client is not known yet
+                continue;
+            }
+
             try {
-                synchronized (outLock) {
-                    out.writeObject(message);
-                    out.reset();
+                outLock.lock();
+
+                try {
+                    if (framed) {
+                        MessageFrame.write(out, message, codec);
+                    } else {
+                        MessageFrame.writeObject(objectOut, message);
+                    }
+                } finally {
+                    outLock.unlock();
                 }
             } catch (IOException e) {
                 Server.LOGGER.severe(e.getMessage());
                 disconnect();
             }
         }
+
+        if (outbound.isClosing()) {
+            disconnect();
+        }
     }
 
     /**
@@ -123,8 +214,11 @@ class SocketConnection extends Connection implements Runnable {
                 Server.LOGGER.severe(e.getMessage());
             }
 
-            listener.interrupt(); // Interrupts the thread
+            if (listener != null) {
+                listener.cancel(true); // Interrupts the listener
+            }
             connected = false;
+            outbound.clear();
 
             socketServer.onDisconnect(this);
         }
@@ -0,0 +1,24 @@
+package simulation;
+
+import controller.GameManager;
+import enumerations.UserPlayerState;
+import model.player.UserPlayer;
+import network.message.Message;
+
+/**
+ * This interface represents a player of a simulated match: it chooses the messages its client would send when the
+ * turn is its own. It is always called with the {@link model.Game Game} of the match bound to the current thread
+ */
+public interface Agent {
+    /**
+     * Chooses the next message of the player
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     * @param player      the {@link UserPlayer UserPlayer} owning the turn
+     * @param state       the {@link UserPlayerState UserPlayerState} of the player
+     * @param rejected    the number of messages of the player the {@link GameManager GameManager} has rejected in a
+     *                    row, so that the agent can fall back to safer choices
+     * @return the message to send, {@code null} if the player has no message to send
+     */
+    Message nextMessage(GameManager gameManager, UserPlayer player, UserPlayerState state, int rejected);
+}
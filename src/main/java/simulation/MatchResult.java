@@ -0,0 +1,128 @@
+package simulation;
+
+import enumerations.PlayerColor;
+import model.player.PlayerPoints;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a match played by the {@link SimulationEngine SimulationEngine}
+ */
+public class MatchResult {
+    /**
+     * The ways a simulated match can end
+     */
+    public enum Outcome {
+        /**
+         * The match reached its end and the winners have been declared
+         */
+        ENDED,
+        /**
+         * The turn owner had no valid message to send
+         */
+        STALLED,
+        /**
+         * The match was stopped after the maximum number of messages
+         */
+        TRUNCATED,
+        /**
+         * The controller threw an exception while handling a message
+         */
+        CRASHED
+    }
+
+    private final Outcome outcome;
+    private final int turns;
+    private final int messages;
+    private final int rejected;
+    private final List<PlayerPoints> points;
+    private final Map<PlayerColor, Integer> killShots;
+    private final RuntimeException failure;
+
+    MatchResult(Outcome outcome, int turns, int messages, int rejected, List<PlayerPoints> points,
+                Map<PlayerColor, Integer> killShots, RuntimeException failure) {
+        this.outcome = outcome;
+        this.turns = turns;
+        this.messages = messages;
+        this.rejected = rejected;
+        this.points = Collections.unmodifiableList(points);
+        this.killShots = Collections.unmodifiableMap(killShots);
+        this.failure = failure;
+    }
+
+    /**
+     * Builds the result of a match that did not end
+     */
+    static MatchResult unfinished(Outcome outcome, int turns, int messages, int rejected, RuntimeException failure) {
+        return new MatchResult(outcome, turns, messages, rejected, List.of(), new EnumMap<>(PlayerColor.class), failure);
+    }
+
+    /**
+     * @return the way the match ended
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return the number of turns passed in the match
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * @return the number of messages accepted by the controller
+     */
+    public int getMessages() {
+        return messages;
+    }
+
+    /**
+     * @return the number of messages rejected by the controller
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return the usernames of the winners, empty if the match did not end
+     */
+    public List<String> getWinners() {
+        List<String> winners = new ArrayList<>();
+
+        for (PlayerPoints playerPoints : points) {
+            if (playerPoints.isWinner()) {
+                winners.add(playerPoints.getUserName());
+            }
+        }
+
+        return winners;
+    }
+
+    /**
+     * @return the final points of every player, the Terminator included, empty if the match did not end
+     */
+    public List<PlayerPoints> getPoints() {
+        return points;
+    }
+
+    /**
+     * @return the number of kill shots done by the player of each color, on the kill shot track and in the final
+     * frenzy, empty if the match did not end
+     */
+    public Map<PlayerColor, Integer> getKillShots() {
+        return killShots;
+    }
+
+    /**
+     * @return the exception thrown by the controller if the match {@link Outcome#CRASHED crashed}, otherwise null
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+}
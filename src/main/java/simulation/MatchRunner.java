@@ -0,0 +1,131 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class plays many independent matches between {@link RandomAgent RandomAgents} in parallel, spreading them on a
+ * {@link ForkJoinPool ForkJoinPool} whose threads steal the matches left by the slower ones. Every match has its own
+ * seed, derived from the seed of the tournament and the index of the match, from which the seeds of its
+ * {@link model.Game Game} and of its agents are derived, so that any match can be played again identically alone with
+ * {@link #replay(long, int) replay}
+ */
+public class MatchRunner {
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final SimulationEngine engine;
+    private final int mapNumber;
+    private final boolean bot;
+    private final int skulls;
+    private final int players;
+
+    /**
+     * Creates a runner of matches with the same settings
+     *
+     * @param engine    the engine playing the matches
+     * @param mapNumber the number of the map
+     * @param bot       {@code true} if the bot is present, {@code false} otherwise
+     * @param skulls    the number of skulls
+     * @param players   the number of players
+     */
+    public MatchRunner(SimulationEngine engine, int mapNumber, boolean bot, int skulls, int players) {
+        this.engine = engine;
+        this.mapNumber = mapNumber;
+        this.bot = bot;
+        this.skulls = skulls;
+        this.players = players;
+    }
+
+    /**
+     * Plays the matches of a tournament on a new pool of threads
+     *
+     * @param matches     the number of matches
+     * @param seed        the seed of the tournament
+     * @param parallelism the number of threads playing the matches
+     * @return the aggregated results of the matches
+     */
+    public TournamentResult run(int matches, long seed, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            return run(matches, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays the matches of a tournament on the given pool
+     *
+     * @param matches the number of matches
+     * @param seed    the seed of the tournament
+     * @param pool    the pool of threads playing the matches
+     * @return the aggregated results of the matches
+     */
+    public TournamentResult run(int matches, long seed, ForkJoinPool pool) {
+        TournamentResult result = new TournamentResult();
+        pool.invoke(new Matches(seed, 0, matches, result));
+        return result;
+    }
+
+    /**
+     * Plays again a single match of a tournament
+     *
+     * @param seed  the seed of the tournament
+     * @param index the index of the match in the tournament
+     * @return the result of the match
+     */
+    public MatchResult replay(long seed, int index) {
+        // the seeds of the game and of the agents are mixed from the one of the match, so that they never overlap with
+        // the ones of the other matches
+        SplittableRandom seeds = new SplittableRandom(matchSeed(seed, index));
+        List<Agent> agents = new ArrayList<>(players);
+
+        for (int i = 0; i < players; ++i) {
+            agents.add(new RandomAgent(seeds.nextLong()));
+        }
+
+        return engine.play(mapNumber, bot, skulls, agents, seeds.nextLong());
+    }
+
+    /**
+     * @param seed  the seed of the tournament
+     * @param index the index of the match in the tournament
+     * @return the seed of the match
+     */
+    static long matchSeed(long seed, int index) {
+        return seed + (index + 1) * SEED_GAMMA;
+    }
+
+    /**
+     * Task playing a range of matches of a tournament, it is split in halves until a single match is left
+     */
+    private class Matches extends RecursiveAction {
+        private static final long serialVersionUID = -3405285432387452208L;
+
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final transient TournamentResult result;
+
+        Matches(long seed, int from, int to, TournamentResult result) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                result.add(from, replay(seed, from));
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Matches(seed, from, middle, result), new Matches(seed, middle, to, result));
+            }
+        }
+    }
+}
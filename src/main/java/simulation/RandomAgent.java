@@ -0,0 +1,177 @@
+package simulation;
+
+import controller.GameManager;
+import enumerations.PossibleAction;
+import enumerations.PossibleGameState;
+import enumerations.RoomColor;
+import enumerations.UserPlayerState;
+import exceptions.actions.InvalidActionException;
+import model.Game;
+import model.actions.ActionGenerator;
+import model.actions.BotAction;
+import model.actions.LegalActions;
+import model.cards.WeaponCard;
+import model.map.GameMap;
+import model.player.AmmoQuantity;
+import model.player.Player;
+import model.player.PlayerPosition;
+import model.player.UserPlayer;
+import network.message.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@link Agent Agent} that plays uniformly at random between the legal actions of its player, built by the
+ * {@link ActionGenerator ActionGenerator}. It never uses powerups: it spawns with a random one, it does not use the
+ * TARGETING SCOPE after a shoot and it does not use the TAGBACK GRENADE when damaged
+ */
+public class RandomAgent implements Agent {
+    private static final RoomColor[] SPAWN_COLORS = {RoomColor.RED, RoomColor.BLUE, RoomColor.YELLOW};
+    private static final int RESPAWN_WITH_DRAWN = 3;
+    private static final int MAX_BOT_MOVE = 1;
+
+    private final Random random;
+
+    /**
+     * Creates an agent drawing its choices from its own generator
+     *
+     * @param seed the seed of the generator
+     */
+    public RandomAgent(long seed) {
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public Message nextMessage(GameManager gameManager, UserPlayer player, UserPlayerState state, int rejected) {
+        String username = player.getUsername();
+
+        // a player killed by the shoot that damaged him is also asked for the TAGBACK GRENADE before respawning
+        if (gameManager.getGameState() == PossibleGameState.GRANADE_USAGE) {
+            return new PassTurnRequest(username, null);
+        }
+
+        switch (state) {
+            case BOT_SPAWN:
+            case BOT_RESPAWN:
+                return new BotSpawnRequest(username, null, SPAWN_COLORS[random.nextInt(SPAWN_COLORS.length)]);
+            case SPAWN:
+                return new DiscardPowerupRequest(username, null, random.nextInt(player.getPowerups().length));
+            case DEAD:
+                return respawn(player);
+            case FIRST_ACTION:
+            case SECOND_ACTION:
+            case FIRST_FRENZY_ACTION:
+            case SECOND_FRENZY_ACTION:
+                return action(player);
+            case BOT_ACTION:
+                return choose(botActions(player));
+            case ENDING_PHASE:
+                return rejected == 0 ? reloadOrPass(player) : new PassTurnRequest(username, null);
+            case FIRST_SCOPE_USAGE:
+            case SECOND_SCOPE_USAGE:
+                return new PowerupRequest.PowerupRequestBuilder(username, null, new ArrayList<>()).build();
+            default:
+                return null;
+        }
+    }
+
+    private Message respawn(UserPlayer player) {
+        int index = random.nextInt(player.getPowerups().length + 1);
+        return new DiscardPowerupRequest(player.getUsername(), null, index == player.getPowerups().length ? RESPAWN_WITH_DRAWN : index);
+    }
+
+    private Message action(UserPlayer player) {
+        LegalActions legalActions = ActionGenerator.generate(player, null);
+
+        List<Message> actions = new ArrayList<>(legalActions.size());
+        actions.addAll(legalActions.getMoves());
+        actions.addAll(legalActions.getPicks());
+        actions.addAll(legalActions.getShoots());
+
+        if (player.getPossibleActions().contains(PossibleAction.BOT_ACTION)) {
+            actions.addAll(botActions(player));
+        }
+
+        return choose(actions);
+    }
+
+    /**
+     * @return the valid requests of the {@link BotAction BotAction} of the player
+     */
+    private List<Message> botActions(UserPlayer player) {
+        Game game = Game.getInstance();
+        GameMap map = game.getGameMap();
+        PlayerPosition botPosition = game.getBot().getPosition();
+        List<Message> actions = new ArrayList<>();
+
+        if (botPosition == null) {
+            return actions;
+        }
+
+        List<Player> targets = new ArrayList<>();
+        for (UserPlayer other : game.getPlayers()) {
+            if (other != player && other.getPosition() != null) {
+                targets.add(other);
+            }
+        }
+        targets.add(null);
+
+        for (int row = 0; row < GameMap.MAX_ROWS; ++row) {
+            for (int column = 0; column < GameMap.MAX_COLUMNS; ++column) {
+                PlayerPosition position = new PlayerPosition(row, column);
+
+                if (map.getSquare(position) != null && map.distance(botPosition, position) <= MAX_BOT_MOVE) {
+                    for (Player target : targets) {
+                        if (isValid(new BotAction(player, target, position))) {
+                            actions.add(new BotUseRequest(player.getUsername(), null, position, target == null ? null : target.getUsername()));
+                        }
+                    }
+                }
+            }
+        }
+
+        return actions;
+    }
+
+    private static boolean isValid(BotAction botAction) {
+        try {
+            return botAction.validate();
+        } catch (InvalidActionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return a request reloading a random weapon the player can pay, a pass one if there is none
+     */
+    private Message reloadOrPass(UserPlayer player) {
+        AmmoQuantity ammo = player.getPlayerBoard().getAmmo();
+        List<Integer> reloadable = new ArrayList<>();
+
+        if (player.getPossibleActions().contains(PossibleAction.RELOAD)) {
+            WeaponCard[] weapons = player.getWeapons();
+
+            for (int i = 0; i < weapons.length; ++i) {
+                AmmoQuantity cost = weapons[i].getRechargeCost();
+
+                if (weapons[i].isRechargeable() && cost.getRedAmmo() <= ammo.getRedAmmo()
+                        && cost.getBlueAmmo() <= ammo.getBlueAmmo() && cost.getYellowAmmo() <= ammo.getYellowAmmo()) {
+                    reloadable.add(i);
+                }
+            }
+        }
+
+        if (reloadable.isEmpty()) {
+            return new PassTurnRequest(player.getUsername(), null);
+        }
+
+        int weapon = reloadable.get(random.nextInt(reloadable.size()));
+        return new ReloadRequest(player.getUsername(), null, new ArrayList<>(List.of(weapon)), new ArrayList<>());
+    }
+
+    private Message choose(List<Message> messages) {
+        return messages.isEmpty() ? null : messages.get(random.nextInt(messages.size()));
+    }
+}
@@ -0,0 +1,217 @@
+package simulation;
+
+import controller.GameManager;
+import enumerations.MessageStatus;
+import enumerations.PlayerColor;
+import enumerations.PossibleGameState;
+import enumerations.UserPlayerState;
+import model.Game;
+import model.map.GameMap;
+import model.player.KillShot;
+import model.player.PlayerPoints;
+import model.player.UserPlayer;
+import network.message.*;
+import network.server.MessageSender;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * This class plays whole matches in process, without the {@link network.server.Server Server}, its connections and
+ * its timers. Every match has its own {@link Game Game} and {@link GameManager GameManager}: the messages chosen by
+ * the {@link Agent Agents} go through the same validation and state machine of the matches hosted by the server,
+ * while the updates of the clients are not built and the status of the match is not saved, unless the setup of the
+ * engine does it
+ */
+public class SimulationEngine {
+    /**
+     * Default number of messages after which a match is {@link MatchResult.Outcome#TRUNCATED truncated}
+     */
+    public static final int DEFAULT_MAX_MESSAGES = 20000;
+
+    private static final int MIN_PLAYERS = 3;
+    private static final int MAX_PLAYERS = 5;
+    private static final int MIN_SKULLS = 5;
+    private static final int MAX_SKULLS = 8;
+    private static final int MAX_REJECTED = 8;
+
+    private final int maxMessages;
+    private final Consumer<GameManager> setup;
+
+    /**
+     * Creates an engine truncating the matches after {@link #DEFAULT_MAX_MESSAGES} messages
+     */
+    public SimulationEngine() {
+        this(DEFAULT_MAX_MESSAGES);
+    }
+
+    /**
+     * Creates an engine
+     *
+     * @param maxMessages number of messages after which a match is truncated
+     */
+    public SimulationEngine(int maxMessages) {
+        this(maxMessages, gameManager -> {
+        });
+    }
+
+    /**
+     * Creates an engine that prepares the manager of every match before playing it, for instance to save its status
+     * that is otherwise never saved
+     *
+     * @param maxMessages number of messages after which a match is truncated
+     * @param setup       called with the manager of every match before the players join it
+     */
+    public SimulationEngine(int maxMessages, Consumer<GameManager> setup) {
+        this.maxMessages = maxMessages;
+        this.setup = setup;
+    }
+
+    /**
+     * Plays a match with a random seed between the agents, the player of the i-th agent is named {@code player<i>}
+     *
+     * @param mapNumber the number of the map, between {@link GameMap#MAP_1} and {@link GameMap#MAP_4}
+     * @param bot       {@code true} if the bot is present, {@code false} otherwise
+     * @param skulls    the number of skulls, between 5 and 8
+     * @param agents    the agents of the players, 3 to 5 without the bot and 3 to 4 with it
+     * @return the result of the match
+     */
+    public MatchResult play(int mapNumber, boolean bot, int skulls, List<Agent> agents) {
+        return play(mapNumber, bot, skulls, agents, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Plays a match between the agents, the player of the i-th agent is named {@code player<i>}. Deterministic agents
+     * playing again with the same seed play the same match
+     *
+     * @param mapNumber the number of the map, between {@link GameMap#MAP_1} and {@link GameMap#MAP_4}
+     * @param bot       {@code true} if the bot is present, {@code false} otherwise
+     * @param skulls    the number of skulls, between 5 and 8
+     * @param agents    the agents of the players, 3 to 5 without the bot and 3 to 4 with it
+     * @param seed      the seed of the {@link Game Game}
+     * @return the result of the match
+     */
+    public MatchResult play(int mapNumber, boolean bot, int skulls, List<Agent> agents, long seed) {
+        if (mapNumber < GameMap.MAP_1 || mapNumber > GameMap.MAP_4) {
+            throw new IllegalArgumentException("Invalid map number: " + mapNumber);
+        }
+
+        if (skulls < MIN_SKULLS || skulls > MAX_SKULLS) {
+            throw new IllegalArgumentException("Invalid number of skulls: " + skulls);
+        }
+
+        if (agents.size() < MIN_PLAYERS || agents.size() > (bot ? MAX_PLAYERS - 1 : MAX_PLAYERS)) {
+            throw new IllegalArgumentException("Invalid number of players: " + agents.size());
+        }
+
+        Game game = new Game(seed);
+        DiscardingSender sender = new DiscardingSender();
+        GameManager gameManager = new GameManager(sender, game, bot, skulls, 0);
+        gameManager.setLobbyTimerEnabled(false);
+        gameManager.setUpdatesEnabled(false);
+        setup.accept(gameManager);
+
+        Game previousGame = Game.bind(game);
+
+        try {
+            return run(gameManager, game, sender, mapNumber, agents);
+        } finally {
+            Game.bind(previousGame);
+        }
+    }
+
+    private MatchResult run(GameManager gameManager, Game game, DiscardingSender sender, int mapNumber, List<Agent> agents) {
+        Map<String, Agent> players = new HashMap<>();
+        int turns = 0;
+        int messages = 0;
+        int rejected = 0;
+        int rejectedInRow = 0;
+
+        try {
+            for (int i = 0; i < agents.size(); ++i) {
+                String username = "player" + i;
+                players.put(username, agents.get(i));
+
+                gameManager.onMessage(new LobbyMessage(username, null, PlayerColor.values()[i], false));
+                gameManager.onMessage(new GameVoteMessage(username, null, mapNumber));
+            }
+
+            // a lobby that is not full waits for its timer, simulated matches start right away
+            if (gameManager.getGameState() == PossibleGameState.GAME_ROOM) {
+                gameManager.onTimerRun();
+            }
+
+            while (gameManager.getGameState() != PossibleGameState.GAME_ENDED) {
+                if (messages + rejected >= maxMessages) {
+                    return MatchResult.unfinished(MatchResult.Outcome.TRUNCATED, turns, messages, rejected, null);
+                }
+
+                UserPlayer turnOwner = (UserPlayer) game.getPlayerByName(gameManager.getTurnOwnerUsername());
+                UserPlayerState state = gameManager.getUserPlayerState(turnOwner.getUsername());
+                Message message = rejectedInRow > MAX_REJECTED ? null :
+                        players.get(turnOwner.getUsername()).nextMessage(gameManager, turnOwner, state, rejectedInRow);
+
+                if (message == null) {
+                    return MatchResult.unfinished(MatchResult.Outcome.STALLED, turns, messages, rejected, null);
+                }
+
+                Response response = (Response) gameManager.onMessage(message);
+
+                if (response.getStatus() == MessageStatus.ERROR) {
+                    rejected++;
+                    rejectedInRow++;
+                } else {
+                    messages++;
+                    rejectedInRow = 0;
+
+                    if (state == UserPlayerState.ENDING_PHASE) {
+                        turns++;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            return MatchResult.unfinished(MatchResult.Outcome.CRASHED, turns, messages, rejected, e);
+        }
+
+        return new MatchResult(MatchResult.Outcome.ENDED, turns, messages, rejected, sender.points, killShots(game), null);
+    }
+
+    /**
+     * @return the number of kill shots done by the player of each color
+     */
+    private static Map<PlayerColor, Integer> killShots(Game game) {
+        Map<PlayerColor, Integer> killShots = new EnumMap<>(PlayerColor.class);
+        List<KillShot> allKillShots = new ArrayList<>(game.getKillShotTrack());
+        allKillShots.addAll(game.getFinalFrenzyKillShots());
+
+        for (KillShot killShot : allKillShots) {
+            killShots.merge(game.getPlayerByName(killShot.getKiller()).getColor(), 1, Integer::sum);
+        }
+
+        return killShots;
+    }
+
+    /**
+     * Destination of the messages of a simulated match: it only keeps the final points of the match
+     */
+    private static class DiscardingSender implements MessageSender {
+        private final List<PlayerPoints> points = new ArrayList<>();
+
+        @Override
+        public void sendMessage(String username, Message message) {
+            // the agents read the state of the match from its Game
+        }
+
+        @Override
+        public void sendMessageToAll(Message message) {
+            if (message instanceof WinnersResponse) {
+                points.addAll(((WinnersResponse) message).getWinners());
+            }
+        }
+    }
+}
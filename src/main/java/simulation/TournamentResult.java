@@ -0,0 +1,136 @@
+package simulation;
+
+import enumerations.PlayerColor;
+import model.player.PlayerPoints;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The aggregated results of the matches played by a {@link MatchRunner MatchRunner}. Results are added concurrently
+ * by the threads playing the matches without locking, every counter is a {@link LongAdder LongAdder}
+ */
+public class TournamentResult {
+    private final Map<MatchResult.Outcome, LongAdder> outcomes = new EnumMap<>(MatchResult.Outcome.class);
+    private final Map<PlayerColor, LongAdder> played = new EnumMap<>(PlayerColor.class);
+    private final Map<PlayerColor, LongAdder> wins = new EnumMap<>(PlayerColor.class);
+    private final Map<PlayerColor, LongAdder> points = new EnumMap<>(PlayerColor.class);
+    private final Map<PlayerColor, LongAdder> killShots = new EnumMap<>(PlayerColor.class);
+    private final LongAdder turns = new LongAdder();
+    private final ConcurrentLinkedQueue<Integer> anomalies = new ConcurrentLinkedQueue<>();
+
+    TournamentResult() {
+        // every key is added before the matches start, so that the maps are only read while they are played
+        for (MatchResult.Outcome outcome : MatchResult.Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+
+        for (PlayerColor color : PlayerColor.values()) {
+            played.put(color, new LongAdder());
+            wins.put(color, new LongAdder());
+            points.put(color, new LongAdder());
+            killShots.put(color, new LongAdder());
+        }
+    }
+
+    /**
+     * Adds the result of a match
+     *
+     * @param index  the index of the match in the tournament
+     * @param result the result of the match
+     */
+    void add(int index, MatchResult result) {
+        outcomes.get(result.getOutcome()).increment();
+
+        if (result.getOutcome() != MatchResult.Outcome.ENDED) {
+            anomalies.add(index);
+            return;
+        }
+
+        turns.add(result.getTurns());
+
+        for (PlayerPoints playerPoints : result.getPoints()) {
+            PlayerColor color = playerPoints.getPlayerColor();
+
+            played.get(color).increment();
+            points.get(color).add(playerPoints.getPoints());
+
+            if (playerPoints.isWinner()) {
+                wins.get(color).increment();
+            }
+        }
+
+        for (Map.Entry<PlayerColor, Integer> entry : result.getKillShots().entrySet()) {
+            killShots.get(entry.getKey()).add(entry.getValue());
+        }
+    }
+
+    /**
+     * @param outcome the outcome of the matches
+     * @return the number of matches that ended with the outcome
+     */
+    public long getMatches(MatchResult.Outcome outcome) {
+        return outcomes.get(outcome).sum();
+    }
+
+    /**
+     * @return the number of matches played
+     */
+    public long getMatches() {
+        long matches = 0;
+
+        for (LongAdder adder : outcomes.values()) {
+            matches += adder.sum();
+        }
+
+        return matches;
+    }
+
+    /**
+     * @param color the color of the players
+     * @return the number of ended matches won by the player of the color, ties count as a win for every winner
+     */
+    public long getWins(PlayerColor color) {
+        return wins.get(color).sum();
+    }
+
+    /**
+     * @param color the color of the players
+     * @return the average points of the player of the color in the ended matches he played, 0 if he played none
+     */
+    public double getAveragePoints(PlayerColor color) {
+        long matches = played.get(color).sum();
+        return matches == 0 ? 0 : (double) points.get(color).sum() / matches;
+    }
+
+    /**
+     * @param color the color of the players
+     * @return the number of kill shots done by the player of the color in the ended matches
+     */
+    public long getKillShots(PlayerColor color) {
+        return killShots.get(color).sum();
+    }
+
+    /**
+     * @return the average number of turns of the ended matches, 0 if no match ended
+     */
+    public double getAverageTurns() {
+        long matches = getMatches(MatchResult.Outcome.ENDED);
+        return matches == 0 ? 0 : (double) turns.sum() / matches;
+    }
+
+    /**
+     * @return the sorted indexes of the matches that did not end, they can be played again alone with
+     * {@link MatchRunner#replay(long, int) replay}
+     */
+    public List<Integer> getAnomalies() {
+        List<Integer> sorted = new ArrayList<>(anomalies);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
@@ -32,6 +32,7 @@ public class AmmoTileParser {
         JsonParser parser = new JsonParser();
         JsonObject json = parser.parse(new InputStreamReader(is)).getAsJsonObject();
         JsonArray ammoTiles = json.getAsJsonArray("ammoTiles");
+        int ids = 0;
 
         for (JsonElement ammoTileElem : ammoTiles) {
             JsonObject ammoTile = ammoTileElem.getAsJsonObject();
@@ -47,11 +48,10 @@ public class AmmoTileParser {
             Ammo[] ammo = list.toArray(new Ammo[0]);
 
             for (int i = 0; i < ammoTile.get("quantity").getAsInt(); ++i) {
-                deck.addCard(new AmmoTile(imagePath, new AmmoQuantity(ammo), powerUp));
+                deck.addCard(new AmmoTile(imagePath, new AmmoQuantity(ammo), powerUp, ids++));
             }
         }
 
-        deck.shuffle();
         return deck;
     }
 }
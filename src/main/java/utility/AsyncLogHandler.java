@@ -0,0 +1,209 @@
+package utility;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * This class is a log handler that moves formatting and I/O off the logging thread. Records are put in a bounded
+ * lock-free ring buffer and published to the target handlers by a single writer thread, which flushes them once per
+ * batch. The message parameters are formatted by the targets on the writer thread, so logging costs the caller only
+ * the creation of the record.
+ * <p>
+ * When the buffer is full the record is dropped instead of blocking the caller, the number of dropped records is
+ * reported by the next batch
+ */
+public class AsyncLogHandler extends Handler {
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Handler[] targets;
+    private final AtomicReferenceArray<LogRecord> slots;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    /**
+     * Creates the handler and starts its writer thread
+     *
+     * @param capacity number of records the buffer holds, rounded up to a power of two
+     * @param targets  the handlers the records are published to, they should not flush at every record
+     */
+    public AsyncLogHandler(int capacity, Handler... targets) {
+        int size = Integer.highestOneBit(Math.max(2, capacity));
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.targets = targets;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+
+        writer = new Thread(this::write, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a record, it never blocks
+     *
+     * @param logRecord the record to publish
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (closed || !isLoggable(logRecord)) {
+            return;
+        }
+
+        // the caller is not inferred from the writer thread, the logger name is printed instead
+        logRecord.setSourceClassName(null);
+
+        if (!offer(logRecord)) {
+            dropped.increment();
+            return;
+        }
+
+        if (waiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private boolean offer(LogRecord logRecord) {
+        long claimed;
+
+        do {
+            claimed = tail.get();
+
+            if (claimed - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+
+        slots.set((int) (claimed & mask), logRecord);
+        return true;
+    }
+
+    /**
+     * Publishes the queued records to the targets, at most a batch at a time
+     *
+     * @return the number of records published
+     */
+    private int drain() {
+        int published = 0;
+        long next = head;
+        LogRecord logRecord;
+
+        while (published < BATCH_SIZE && (logRecord = slots.get((int) (next & mask))) != null) {
+            slots.set((int) (next & mask), null);
+            head = ++next;
+
+            for (Handler target : targets) {
+                target.publish(logRecord);
+            }
+
+            published++;
+        }
+
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            LogRecord warning = new LogRecord(Level.WARNING, "{0} log records dropped, the log buffer was full");
+            warning.setParameters(new Object[]{lost});
+            warning.setLoggerName(LogCategory.SERVER_LOGGER);
+            warning.setSourceClassName(null);
+
+            for (Handler target : targets) {
+                target.publish(warning);
+            }
+        }
+
+        if (published > 0 || lost > 0) {
+            for (Handler target : targets) {
+                target.flush();
+            }
+        }
+
+        return published;
+    }
+
+    private void write() {
+        while (!closed) {
+            try {
+                if (drain() == 0) {
+                    waiting = true;
+
+                    // a record queued after the drain must not wait for the idle timeout
+                    if (slots.get((int) (head & mask)) == null) {
+                        LockSupport.parkNanos(this, IDLE_NANOS);
+                    }
+
+                    waiting = false;
+                }
+            } catch (RuntimeException e) {
+                reportError(e.getMessage(), e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Waits until the records queued so far are published
+     */
+    @Override
+    public void flush() {
+        long target = tail.get();
+
+        while (head < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Publishes the queued records and closes the targets
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // records published meanwhile by other threads
+        if (!writer.isAlive()) {
+            drain();
+        }
+
+        for (Handler target : targets) {
+            target.close();
+        }
+    }
+
+    /**
+     * @return the number of records dropped since the last batch
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -7,6 +7,9 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.logging.Level;
 
 public class ConfigurationParser {
 
@@ -26,4 +29,47 @@ public class ConfigurationParser {
 
         return jsonObject;
     }
+
+    /**
+     * Reads the execution mode of the background tasks from a parsed configuration
+     *
+     * @param configuration the parsed configuration
+     * @return the mode set in the {@code execution_mode} field, {@link ExecutionMode#PLATFORM PLATFORM} if missing
+     */
+    public static ExecutionMode parseExecutionMode(JsonObject configuration) {
+        if (configuration == null || !configuration.has("execution_mode")) {
+            return ExecutionMode.PLATFORM;
+        }
+
+        return ExecutionMode.getMode(configuration.get("execution_mode").getAsString());
+    }
+
+    /**
+     * Reads the levels of the log categories from a parsed configuration, for example
+     * {@code "log_levels": {"network": "warning"}}
+     *
+     * @param configuration the parsed configuration
+     * @return the level of every category set in the {@code log_levels} field, categories missing or with an
+     * invalid level are not present
+     */
+    public static Map<LogCategory, Level> parseLogLevels(JsonObject configuration) {
+        Map<LogCategory, Level> levels = new EnumMap<>(LogCategory.class);
+
+        if (configuration == null || !configuration.has("log_levels")) {
+            return levels;
+        }
+
+        JsonObject configured = configuration.getAsJsonObject("log_levels");
+        for (LogCategory category : LogCategory.values()) {
+            if (configured.has(category.getKey())) {
+                try {
+                    levels.put(category, Level.parse(configured.get(category.getKey()).getAsString().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    // invalid level, the category keeps the server level
+                }
+            }
+        }
+
+        return levels;
+    }
 }
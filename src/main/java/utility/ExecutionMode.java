@@ -0,0 +1,32 @@
+package utility;
+
+/**
+ * Enumeration of the ways the {@link TaskExecutor TaskExecutor} can run the long lived tasks like connection listeners,
+ * the pinger and the timers
+ */
+public enum ExecutionMode {
+    /**
+     * Every task runs on a platform thread, idle threads are reused
+     */
+    PLATFORM,
+    /**
+     * Every task runs on its own virtual thread, available only on runtimes supporting them
+     */
+    VIRTUAL;
+
+    /**
+     * Utility method used to return the ExecutionMode corresponding to the String passed
+     *
+     * @param mode the String containing the mode, case insensitive
+     * @return the ExecutionMode asked, {@link #PLATFORM PLATFORM} if the String has no match
+     */
+    public static ExecutionMode getMode(String mode) {
+        for (ExecutionMode executionMode : values()) {
+            if (executionMode.name().equalsIgnoreCase(mode)) {
+                return executionMode;
+            }
+        }
+
+        return PLATFORM;
+    }
+}
@@ -1,8 +1,6 @@
 package utility;
 
-import java.util.TimerTask;
-
-public class LobbyTimer extends TimerTask{
+public class LobbyTimer implements Runnable {
     private TimerRunListener timerRunListener;
 
     public LobbyTimer(TimerRunListener timerRunListener) {
@@ -0,0 +1,56 @@
+package utility;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Enumeration of the categories of the server log. Each category has its own logger, child of the server one, so that
+ * its records reach the server handlers while its level can be set independently
+ */
+public enum LogCategory {
+    /**
+     * Connections, rooms and messages exchanged with the clients
+     */
+    NETWORK("network"),
+    /**
+     * Lobby and game flow
+     */
+    CONTROLLER("controller"),
+    /**
+     * Saving and loading of the games
+     */
+    PERSISTENCE("persistence");
+
+    public static final String SERVER_LOGGER = "Server";
+
+    private final String key;
+    private final Logger logger;
+
+    LogCategory(String key) {
+        this.key = key;
+        this.logger = Logger.getLogger(SERVER_LOGGER + "." + key);
+    }
+
+    /**
+     * @return the name of the category in the configuration
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the logger of the category
+     */
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Sets the level of the category, records below it are discarded before being built
+     *
+     * @param level the level, {@code null} to use the one of the server logger
+     */
+    public void setLevel(Level level) {
+        logger.setLevel(level);
+    }
+}
@@ -3,10 +3,9 @@ package utility;
 import network.server.Connection;
 import network.server.Server;
 
-import java.util.TimerTask;
 import java.util.logging.Level;
 
-public class MoveTimer extends TimerTask {
+public class MoveTimer implements Runnable {
     private final Connection connection;
     private final String username;
 
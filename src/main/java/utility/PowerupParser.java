@@ -23,7 +23,6 @@ import static utility.WeaponParser.parseIntJsonArray;
 
 public class PowerupParser {
     private static final String TARGET = "target";
-    private static int ids = 0;
 
     private PowerupParser() {
         throw new IllegalStateException("Utility class");
@@ -49,17 +48,19 @@ public class PowerupParser {
         json = parser.parse(new InputStreamReader(is)).getAsJsonObject();
         JsonArray powerups = json.getAsJsonArray("powerups");
 
+        int ids = 0;
+
         for (JsonElement je : powerups) {
             JsonObject jo = je.getAsJsonObject();
 
-            List<PowerupCard> cards = parseColor(jo);
+            List<PowerupCard> cards = parseColor(jo, ids);
+            ids += cards.size();
 
             for (Card card : cards) {
                 deck.addCard(card);
             }
         }
 
-        deck.shuffle();
         return deck;
     }
 
@@ -67,9 +68,10 @@ public class PowerupParser {
      * Parses PowerupCard for each color
      *
      * @param jsonObject JsonObject of a powerup
+     * @param firstId    the id of the first card parsed
      * @return a list of PowerupCard
      */
-    private static List<PowerupCard> parseColor(JsonObject jsonObject) {
+    private static List<PowerupCard> parseColor(JsonObject jsonObject, int firstId) {
         String name = jsonObject.get("title").getAsString();
         String description = jsonObject.get("description").getAsString();
         JsonArray values = jsonObject.getAsJsonArray("values");
@@ -106,8 +108,7 @@ public class PowerupParser {
             Ammo ammo = Ammo.valueOf(jo.get("color").getAsString());
 
             for (int i = 0; i < quantity; ++i) {
-                cards.add(new PowerupCard(name, imagePath, ammo, effect, ids));
-                ++ids;
+                cards.add(new PowerupCard(name, imagePath, ammo, effect, firstId + cards.size()));
             }
         }
 
@@ -0,0 +1,119 @@
+package utility;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class runs every background task of the application: connection listeners, pinger and timers.
+ * Depending on the configured {@link ExecutionMode ExecutionMode} tasks run on platform or on virtual threads,
+ * otherwise any {@link ExecutorService ExecutorService} can be plugged in. Every timer is kept by a single
+ * {@link TimerWheel TimerWheel}, so that resetting the timer of a session costs no thread and no heap reordering
+ */
+public class TaskExecutor {
+    private static final Logger LOGGER = Logger.getLogger("TaskExecutor");
+
+    private static final long TICK_MILLIS = 20;
+    private static final int WHEEL_BUCKETS = 512;
+
+    private static volatile ExecutionMode mode = ExecutionMode.PLATFORM;
+    private static volatile ExecutorService executor = platformExecutor();
+
+    private static final TimerWheel timers = new TimerWheel(TICK_MILLIS, WHEEL_BUCKETS, () -> executor);
+
+    private TaskExecutor() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Sets the way tasks submitted from now on are run. If virtual threads are asked but not supported by the
+     * runtime platform threads are used
+     *
+     * @param executionMode the mode to use
+     */
+    public static synchronized void configure(ExecutionMode executionMode) {
+        if (executionMode == mode) {
+            return;
+        }
+
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            ExecutorService virtualExecutor = virtualExecutor();
+
+            if (virtualExecutor == null) {
+                LOGGER.warning("Virtual threads are not supported by this runtime, platform threads are used");
+                return;
+            }
+
+            replaceExecutor(virtualExecutor);
+        } else {
+            replaceExecutor(platformExecutor());
+        }
+
+        mode = executionMode;
+    }
+
+    /**
+     * Plugs a custom executor, tasks submitted from now on are run by it
+     *
+     * @param customExecutor the executor to use
+     */
+    public static synchronized void configure(ExecutorService customExecutor) {
+        replaceExecutor(customExecutor);
+    }
+
+    /**
+     * @return the current execution mode
+     */
+    public static ExecutionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Runs a task in background
+     *
+     * @param task the task to run
+     * @return the future of the task, cancelling it with interruption stops a task checking its interrupted state
+     */
+    public static Future<?> execute(Runnable task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Runs a task in background after the given delay
+     *
+     * @param task        the task to run
+     * @param delayMillis delay in milliseconds
+     * @return the handle of the timer, cancelling it before the delay ends prevents the task from running
+     */
+    public static TimerWheel.Timeout schedule(Runnable task, long delayMillis) {
+        return timers.schedule(task, delayMillis);
+    }
+
+    private static void replaceExecutor(ExecutorService newExecutor) {
+        ExecutorService oldExecutor = executor;
+        executor = newExecutor;
+
+        // running tasks are left to complete
+        oldExecutor.shutdown();
+    }
+
+    private static ExecutorService platformExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return Executors.newCachedThreadPool(task -> new Thread(task, "worker-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, {@code null} if the runtime does not support them
+     */
+    private static ExecutorService virtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            LOGGER.log(Level.FINE, "Virtual threads not available", e);
+            return null;
+        }
+    }
+}
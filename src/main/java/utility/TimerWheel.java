@@ -0,0 +1,272 @@
+package utility;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is a hashed timing wheel running the timers of every session from a single thread. The wheel is an array
+ * of buckets, each one holding the timers expiring in a tick: scheduling and cancelling a timer are O(1), while a
+ * timer farther than one revolution waits for the needed number of rounds in its bucket.
+ * <p>
+ * Timers are only added and cancelled by other threads, the buckets are modified by the wheel thread only. Expired
+ * tasks are not run by the wheel thread but handed to an {@link Executor Executor}
+ */
+public class TimerWheel {
+    private static final Logger LOGGER = Logger.getLogger("TimerWheel");
+
+    private final long tickNanos;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final Supplier<Executor> dispatcher;
+
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final long startTime;
+    private long tick;
+
+    /**
+     * Creates a wheel and starts its thread
+     *
+     * @param tickMillis   length of a tick in milliseconds, the precision of the timers
+     * @param bucketsCount number of buckets, rounded up to a power of two
+     * @param dispatcher   supplies the executor running the expired tasks
+     */
+    public TimerWheel(long tickMillis, int bucketsCount, Supplier<Executor> dispatcher) {
+        if (tickMillis <= 0 || bucketsCount <= 0) {
+            throw new IllegalArgumentException("Tick and buckets must be positive");
+        }
+
+        int size = Integer.highestOneBit(bucketsCount);
+        if (size < bucketsCount) {
+            size <<= 1;
+        }
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new Bucket[size];
+        this.mask = size - 1;
+        this.dispatcher = dispatcher;
+
+        for (int i = 0; i < size; ++i) {
+            buckets[i] = new Bucket();
+        }
+
+        this.startTime = System.nanoTime();
+
+        Thread worker = new Thread(this::work, "timer-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Runs a task after the given delay
+     *
+     * @param task        the task to run
+     * @param delayMillis delay in milliseconds
+     * @return the handle of the timer, cancelling it before the delay ends prevents the task from running
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+        add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return the number of timers scheduled and not yet expired or cancelled
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    private void add(Timeout timeout) {
+        pending.incrementAndGet();
+        added.add(timeout);
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long sleepNanos = deadline - System.nanoTime();
+
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            removeCancelled();
+            transferAdded();
+            buckets[(int) (tick & mask)].expire(deadline);
+
+            tick++;
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferAdded() {
+        Timeout timeout;
+
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state.get() == Timeout.CANCELLED) {
+                continue;
+            }
+
+            place(timeout);
+        }
+    }
+
+    /**
+     * Puts a timer in the bucket of its deadline, a timer already expired goes in the current bucket
+     */
+    private void place(Timeout timeout) {
+        long ticks = Math.max(tick, (timeout.deadline - startTime) / tickNanos);
+
+        timeout.rounds = (ticks - tick) / buckets.length;
+        buckets[(int) (ticks & mask)].add(timeout);
+    }
+
+    private void dispatch(Timeout timeout) {
+        try {
+            dispatcher.get().execute(timeout::run);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Timer task rejected", e);
+        }
+    }
+
+    /**
+     * The handle of a scheduled task
+     */
+    public final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private long rounds;
+
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timer
+         *
+         * @return {@code true} if the task will not run anymore, {@code false} if it already ran or was cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * @return {@code true} if the timer has been cancelled, {@code false} otherwise
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Timer task failed", e);
+            }
+        }
+    }
+
+    /**
+     * A bucket of the wheel, a doubly linked list of the timers it holds so that a timer is removed in O(1)
+     */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+
+            if (tail == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Runs the timers of this bucket expiring in the current round
+         *
+         * @param deadline the end of the current tick
+         */
+        private void expire(long deadline) {
+            Timeout timeout = head;
+
+            while (timeout != null) {
+                Timeout following = timeout.next;
+
+                if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                } else if (timeout.deadline <= deadline) {
+                    remove(timeout);
+
+                    if (timeout.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+                        pending.decrementAndGet();
+                        dispatch(timeout);
+                    }
+                }
+
+                timeout = following;
+            }
+        }
+    }
+}
@@ -73,7 +73,6 @@ public class WeaponParser {
             deck.addCard((new WeaponCard(name, imagePath, baseEffect, id, cost, secondaryEffects, new SemiChargedWeapon())));
         }
 
-        deck.shuffle();
         return deck;
     }
 
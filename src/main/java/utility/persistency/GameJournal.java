@@ -0,0 +1,365 @@
+package utility.persistency;
+
+import controller.GameManager;
+import enumerations.PossibleGameState;
+import exceptions.game.ReloadException;
+import network.message.Message;
+import network.server.MessageSender;
+import utility.LogCategory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class stores the status of a match as a snapshot plus an append-only journal of the inputs accepted by its
+ * {@link GameManager GameManager} since the snapshot. Every accepted input is appended to the journal as it is applied,
+ * while the whole match is serialized only at the first turn boundary after {@code snapshotInterval} inputs, instead
+ * of at every boundary. Every random choice of a match is derived from the seed of its {@link model.Game Game} and
+ * the number of choices already made, which is part of the snapshot, so replaying the inputs of the journal on the
+ * snapshot brings the match back to the state it had; the number of choices made after each input is journaled to
+ * check it.
+ * <p>
+ * Each entry of the journal is its length followed by the seed of the game, the sequence number of the input, the
+ * kind of the input, the number of random choices made and the serialized message. The files are shared by all the
+ * journals of a server, as the save is, and the entries of other games are skipped on recovery, unless the journal
+ * belongs to a {@link SaveStore SaveStore}, which gives every match its own files and is told when the match starts
+ * and ends. The inputs accepted before the first snapshot, that is before the match starts, are not journaled, as
+ * they are part of it. Entries and snapshots are written in background by the {@link SaveWriter SaveWriter}: if a
+ * snapshot can not be written a new one is taken at the next turn boundary
+ */
+public class GameJournal implements GameSaver {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
+
+    /**
+     * Default number of inputs after which a snapshot is written at the next turn boundary
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+
+    private static final int HEADER_BYTES = Long.BYTES + Long.BYTES + Byte.BYTES + Long.BYTES;
+
+    /**
+     * The inputs of a {@link GameManager GameManager} that are journaled
+     */
+    public enum Input {
+        /**
+         * A message received by {@link GameManager#onMessage(Message) onMessage}
+         */
+        MESSAGE,
+        /**
+         * A message received by {@link GameManager#onConnectionMessage(Message) onConnectionMessage}
+         */
+        CONNECTION,
+        /**
+         * The end of the lobby timer, {@link GameManager#onTimerRun() onTimerRun}
+         */
+        TIMER
+    }
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final int snapshotInterval;
+    private final SaveStore store;
+
+    private long sequence;
+    private boolean ended;
+    private boolean snapshotTaken;
+    private boolean snapshotFailed;
+    private int sinceSnapshot;
+    private boolean boundaryReached;
+
+    /**
+     * Creates a journal
+     *
+     * @param snapshotFile     the file of the snapshots
+     * @param journalFile      the file of the journal
+     * @param snapshotInterval number of inputs after which a snapshot is written at the next turn boundary
+     */
+    public GameJournal(Path snapshotFile, Path journalFile, int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Invalid snapshot interval: " + snapshotInterval);
+        }
+
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        this.snapshotInterval = snapshotInterval;
+        this.store = null;
+    }
+
+    /**
+     * Creates the journal of a match of a {@link SaveStore SaveStore}
+     *
+     * @param store            the store of the match
+     * @param gameId           the id of the match
+     * @param snapshotInterval number of inputs after which a snapshot is written at the next turn boundary
+     */
+    GameJournal(SaveStore store, long gameId, int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Invalid snapshot interval: " + snapshotInterval);
+        }
+
+        this.snapshotFile = store.snapshotFile(gameId);
+        this.journalFile = store.journalFile(gameId);
+        this.snapshotInterval = snapshotInterval;
+        this.store = store;
+    }
+
+    /**
+     * Called by the {@link GameManager GameManager} at every turn boundary, where it used to save the whole match: the
+     * snapshot is written after the input being applied is journaled, if enough inputs have been journaled
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     */
+    @Override
+    public synchronized void save(GameManager gameManager) {
+        boundaryReached = true;
+    }
+
+    /**
+     * Appends an input accepted by the {@link GameManager GameManager} to the journal, or writes a snapshot if the
+     * match just started or if a turn boundary has been reached after enough inputs. An input whose message could not
+     * be serialized can not be replayed, so a snapshot is written instead. The match of a {@link SaveStore SaveStore}
+     * is removed from it once it has ended
+     *
+     * @param gameManager the {@link GameManager GameManager} that applied the input
+     * @param input       the kind of the input
+     * @param message     the message of the input serialized before it was applied, empty for the
+     *                    {@link Input#TIMER timer}, null if it could not be serialized
+     */
+    public synchronized void record(GameManager gameManager, Input input, byte[] message) {
+        if (ended) {
+            return;
+        }
+
+        ++sequence;
+        ++sinceSnapshot;
+
+        boolean boundary = boundaryReached;
+        boundaryReached = false;
+
+        if (store != null && gameManager.getGameState() == PossibleGameState.GAME_ENDED) {
+            ended = true;
+            store.ended(gameManager.getGameInstance().getSeed());
+        } else if (message == null || (!snapshotTaken && gameManager.getGameState() != PossibleGameState.GAME_ROOM) ||
+                (boundary && (snapshotFailed || sinceSnapshot >= snapshotInterval))) {
+            snapshot(gameManager);
+        } else if (snapshotTaken) {
+            SaveWriter.append(journalFile, encode(gameManager.getGameInstance().getSeed(), sequence, input, message,
+                    gameManager.getGameInstance().getRandomCount()));
+        }
+    }
+
+    /**
+     * Serializes the message of an input, to be journaled once it has been applied
+     *
+     * @param message the message of the input
+     * @return the serialized message, null if it could not be serialized
+     */
+    public static byte[] serialize(Message message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        } catch (IOException e) {
+            LOGGER.severe(e.getMessage());
+            return null;
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a message serialized by {@link #serialize(Message) serialize}
+     *
+     * @param in the stream of the serialized message
+     * @return the message
+     * @throws IOException            if the message can not be read
+     * @throws ClassNotFoundException if the class of the message is unknown
+     */
+    static Message deserialize(InputStream in) throws IOException, ClassNotFoundException {
+        return (Message) new ObjectInputStream(in).readObject();
+    }
+
+    /**
+     * Queues the whole match to be written, the journal is then emptied as its inputs are all part of the snapshot
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     */
+    private void snapshot(GameManager gameManager) {
+        try {
+            if (store != null && !snapshotTaken) {
+                store.started(gameManager);
+            }
+
+            SaveWriter.snapshot(snapshotFile, journalFile, SaveFormat.encode(gameManager, sequence), this::snapshotFailed);
+
+            snapshotTaken = true;
+            snapshotFailed = false;
+            sinceSnapshot = 0;
+            LOGGER.log(Level.INFO, "Game State saved after {0} inputs", sequence);
+        } catch (IOException e) {
+            LOGGER.severe(e.getMessage());
+        }
+    }
+
+    /**
+     * Called by the {@link SaveWriter SaveWriter} when a snapshot could not be written, a new one is taken at the next
+     * turn boundary
+     */
+    private synchronized void snapshotFailed() {
+        snapshotFailed = true;
+    }
+
+    /**
+     * Reloads the match of the last snapshot into a new {@link GameManager GameManager} and replays the inputs
+     * journaled after it. The returned manager goes on journaling with this journal
+     *
+     * @param server    the destination of the messages of the reloaded match
+     * @param startTime the lobby timeout time in seconds
+     * @return the {@link GameManager GameManager} of the reloaded match
+     * @throws ReloadException if there is no snapshot or if the replayed match does not follow the journaled one
+     */
+    public synchronized GameManager recover(MessageSender server, int startTime) {
+        SaveWriter.flush();
+
+        SaveFormat.Snapshot snapshot = SaveGame.readSnapshot(snapshotFile, server, startTime);
+        GameManager gameManager = snapshot.getGameManager();
+        long seed = gameManager.getGameInstance().getSeed();
+        long applied = snapshot.getJournalSequence();
+        int replayed = 0;
+
+        // the inputs are already part of the saved match, they must not be saved again while replayed, and the
+        // players get the full state of the match when they reconnect
+        gameManager.setSaver(GameSaver.NONE);
+        gameManager.setUpdatesEnabled(false);
+
+        for (Entry entry : readEntries()) {
+            if (entry.gameSeed != seed || entry.sequence <= applied) {
+                continue;
+            }
+
+            if (entry.sequence != applied + 1) {
+                // the inputs after a missing one can not be applied
+                break;
+            }
+
+            replay(gameManager, entry.input, entry.message);
+
+            if (gameManager.getGameInstance().getRandomCount() != entry.randomCount) {
+                LOGGER.log(Level.SEVERE, "Replayed input {0} does not follow the journal", entry.sequence);
+                throw new ReloadException();
+            }
+
+            applied = entry.sequence;
+            ++replayed;
+        }
+
+        LOGGER.log(Level.INFO, "Game State reloaded, {0} inputs replayed", replayed);
+
+        gameManager.setUpdatesEnabled(true);
+        sequence = applied;
+        snapshotTaken = true;
+        sinceSnapshot = replayed;
+        boundaryReached = false;
+        gameManager.setJournal(this);
+
+        return gameManager;
+    }
+
+    /**
+     * Applies an input to a {@link GameManager GameManager} again
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     * @param input       the kind of the input
+     * @param message     the message of the input, ignored for the {@link Input#TIMER timer}
+     */
+    static void replay(GameManager gameManager, Input input, Message message) {
+        switch (input) {
+            case MESSAGE:
+                gameManager.onMessage(message);
+                break;
+            case CONNECTION:
+                gameManager.onConnectionMessage(message);
+                break;
+            default:
+                gameManager.onTimerRun();
+        }
+    }
+
+    private static byte[] encode(long gameSeed, long sequence, Input input, byte[] message, long randomCount) {
+        ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + HEADER_BYTES + message.length);
+
+        entry.putInt(HEADER_BYTES + message.length);
+        entry.putLong(gameSeed);
+        entry.putLong(sequence);
+        entry.put((byte) input.ordinal());
+        entry.putLong(randomCount);
+        entry.put(message);
+
+        return entry.array();
+    }
+
+    /**
+     * Reads the entries of the journal, an entry cut by a failure while it was written ends the journal
+     *
+     * @return the entries of the journal
+     */
+    private List<Entry> readEntries() {
+        List<Entry> entries = new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            while (true) {
+                byte[] entry = new byte[in.readInt()];
+                in.readFully(entry);
+                entries.add(decode(entry));
+            }
+        } catch (EOFException | NoSuchFileException e) {
+            // end of the journal
+        } catch (IOException | ClassNotFoundException e) {
+            LOGGER.severe(e.getMessage());
+        }
+
+        return entries;
+    }
+
+    private static Entry decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        long gameSeed = in.readLong();
+        long sequence = in.readLong();
+        Input input = Input.values()[in.readByte()];
+        long randomCount = in.readLong();
+        Message message = null;
+
+        if (bytes.length > HEADER_BYTES) {
+            message = deserialize(in);
+        }
+
+        return new Entry(gameSeed, sequence, input, message, randomCount);
+    }
+
+    /**
+     * An input read from the journal
+     */
+    private static class Entry {
+        private final long gameSeed;
+        private final long sequence;
+        private final Input input;
+        private final Message message;
+        private final long randomCount;
+
+        Entry(long gameSeed, long sequence, Input input, Message message, long randomCount) {
+            this.gameSeed = gameSeed;
+            this.sequence = sequence;
+            this.input = input;
+            this.message = message;
+            this.randomCount = randomCount;
+        }
+    }
+}
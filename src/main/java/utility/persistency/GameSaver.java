@@ -0,0 +1,25 @@
+package utility.persistency;
+
+import controller.GameManager;
+
+/**
+ * This interface represents the way a {@link GameManager GameManager} stores the status of its match after every
+ * valid action. Matches hosted by the server save it with their {@link GameJournal GameJournal}, while a manager
+ * built without a saver, like the simulated ones, does not store it
+ */
+@FunctionalInterface
+public interface GameSaver {
+    /**
+     * Saver that does not store the match, used by default
+     */
+    GameSaver NONE = gameManager -> {
+        // the match is not stored
+    };
+
+    /**
+     * Stores the status of a match
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     */
+    void save(GameManager gameManager);
+}
@@ -0,0 +1,171 @@
+package utility.persistency;
+
+import controller.GameManager;
+import enumerations.PossibleGameState;
+import model.Game;
+import model.player.UserPlayer;
+import utility.LogCategory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class records a match as a {@link MatchRecording MatchRecording}, so that it can be replayed by a
+ * {@link MatchReplay MatchReplay}. The recording starts with a keyframe of the match when the recorder is set on its
+ * {@link GameManager GameManager}, then every input accepted by the manager is recorded with its serialized message,
+ * as the {@link GameJournal GameJournal} does. A keyframe is taken at the first turn boundary after
+ * {@code keyframeInterval} inputs, so a replay never applies many more inputs than that to reach any point of the
+ * match. An input whose message could not be serialized can not be replayed, so a keyframe is taken right after it.
+ * <p>
+ * The recording is kept in memory while the match is played. A recorder with a file queues the recording to be
+ * written by the {@link SaveWriter SaveWriter} once the match has ended
+ */
+public class MatchRecorder {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
+
+    /**
+     * Default number of inputs after which a keyframe is taken at the next turn boundary
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+    private final int keyframeInterval;
+    private final boolean stateHashes;
+    private final Path file;
+
+    private final List<MatchRecording.Entry> entries = new ArrayList<>();
+    private final List<MatchRecording.Keyframe> keyframes = new ArrayList<>();
+
+    private GameManager gameManager;
+    private String turnOwner;
+    private int sinceKeyframe;
+    private boolean boundaryReached;
+    private boolean ended;
+
+    /**
+     * Creates a recorder that keeps the recording in memory
+     *
+     * @param keyframeInterval number of inputs after which a keyframe is taken at the next turn boundary
+     * @param stateHashes      {@code true} to record the hash of the state of the match after every input
+     */
+    public MatchRecorder(int keyframeInterval, boolean stateHashes) {
+        this(keyframeInterval, stateHashes, null);
+    }
+
+    /**
+     * Creates a recorder
+     *
+     * @param keyframeInterval number of inputs after which a keyframe is taken at the next turn boundary
+     * @param stateHashes      {@code true} to record the hash of the state of the match after every input
+     * @param file             the file the recording is written to when the match ends, null to only keep it in
+     *                         memory
+     */
+    public MatchRecorder(int keyframeInterval, boolean stateHashes, Path file) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Invalid keyframe interval: " + keyframeInterval);
+        }
+
+        this.keyframeInterval = keyframeInterval;
+        this.stateHashes = stateHashes;
+        this.file = file;
+    }
+
+    /**
+     * Starts the recording from the current state of a match, called by
+     * {@link GameManager#setRecorder(MatchRecorder) setRecorder}
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     */
+    public synchronized void start(GameManager gameManager) {
+        if (this.gameManager != null) {
+            throw new IllegalStateException("The recorder is already recording a match");
+        }
+
+        this.gameManager = gameManager;
+        this.turnOwner = turnOwner(gameManager);
+        keyframe(gameManager);
+    }
+
+    /**
+     * Called by the {@link GameManager GameManager} at every turn boundary: a keyframe is taken after the input being
+     * applied is recorded, if enough inputs have been recorded
+     */
+    public synchronized void boundaryReached() {
+        boundaryReached = true;
+    }
+
+    /**
+     * Records an input accepted by the {@link GameManager GameManager}
+     *
+     * @param gameManager the {@link GameManager GameManager} that applied the input
+     * @param input       the kind of the input
+     * @param message     the message of the input serialized before it was applied, empty for the
+     *                    {@link GameJournal.Input#TIMER timer}, null if it could not be serialized
+     */
+    public synchronized void record(GameManager gameManager, GameJournal.Input input, byte[] message) {
+        if (ended) {
+            return;
+        }
+
+        String owner = turnOwner(gameManager);
+        boolean boundary = boundaryReached;
+        boundaryReached = false;
+
+        entries.add(new MatchRecording.Entry(input, message, gameManager.getGameInstance().getRandomCount(),
+                stateHashes ? MatchRecording.stateHash(gameManager) : 0, !Objects.equals(owner, turnOwner)));
+        turnOwner = owner;
+        ++sinceKeyframe;
+
+        if (message == null || (boundary && sinceKeyframe >= keyframeInterval)) {
+            keyframe(gameManager);
+        }
+
+        if (gameManager.getGameState() == PossibleGameState.GAME_ENDED) {
+            ended = true;
+
+            if (file != null) {
+                SaveWriter.snapshot(file, null, getRecording().encode());
+                LOGGER.log(Level.INFO, "Recording of {0} inputs queued", entries.size());
+            }
+        }
+    }
+
+    /**
+     * @return the match recorded so far
+     */
+    public synchronized MatchRecording getRecording() {
+        if (gameManager == null) {
+            throw new IllegalStateException("The recorder has not started");
+        }
+
+        Game game = gameManager.getGameInstance();
+        List<String> players = new ArrayList<>();
+
+        for (UserPlayer player : game.getPlayers()) {
+            players.add(player.getUsername());
+        }
+
+        return new MatchRecording(game.getSeed(), game.getGameMap() == null ? -1 : game.getGameMap().getMapID(),
+                players, stateHashes, new ArrayList<>(entries), new ArrayList<>(keyframes));
+    }
+
+    private void keyframe(GameManager gameManager) {
+        try {
+            keyframes.add(new MatchRecording.Keyframe(entries.size(), SaveFormat.encode(gameManager, entries.size())));
+            sinceKeyframe = 0;
+        } catch (IOException e) {
+            LOGGER.severe(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the username of the owner of the turn, null before the match starts
+     */
+    private static String turnOwner(GameManager gameManager) {
+        return gameManager.getGameState() == PossibleGameState.GAME_ROOM ? null : gameManager.getTurnOwnerUsername();
+    }
+}
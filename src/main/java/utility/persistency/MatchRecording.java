@@ -0,0 +1,368 @@
+package utility.persistency;
+
+import controller.GameManager;
+import exceptions.game.ReloadException;
+import utility.LogCategory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A match recorded by a {@link MatchRecorder MatchRecorder}: the seed of its {@link model.Game Game}, its map and its
+ * players, followed by every input accepted by its {@link GameManager GameManager} since the recording started, in
+ * order, and by keyframes, the saves of the match after some of the inputs. The first keyframe is the match when the
+ * recording started, so the inputs can be replayed on it by a {@link MatchReplay MatchReplay}, while the others let a
+ * replay start from the last keyframe before the input it is looking for. After each input the number of random
+ * choices made in the match and, optionally, a hash of its state are recorded, to verify a replay.
+ * <p>
+ * A recording is written as a header, made of a magic number and the version of the format, followed by the deflated
+ * recording, as the serialized messages of the inputs repeat the same classes over and over
+ */
+public class MatchRecording {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
+
+    /**
+     * The first bytes of every recording, "ADRP"
+     */
+    static final int MAGIC = 0x41445250;
+
+    /**
+     * The current version of the format
+     */
+    static final short VERSION = 1;
+
+    private final long seed;
+    private final int mapId;
+    private final List<String> players;
+    private final boolean stateHashes;
+    private final List<Entry> entries;
+    private final List<Keyframe> keyframes;
+    private final List<Integer> turnStarts;
+
+    MatchRecording(long seed, int mapId, List<String> players, boolean stateHashes, List<Entry> entries,
+                   List<Keyframe> keyframes) {
+        this.seed = seed;
+        this.mapId = mapId;
+        this.players = Collections.unmodifiableList(players);
+        this.stateHashes = stateHashes;
+        this.entries = Collections.unmodifiableList(entries);
+        this.keyframes = Collections.unmodifiableList(keyframes);
+        this.turnStarts = new ArrayList<>();
+
+        turnStarts.add(0);
+        for (int i = 0; i < entries.size(); ++i) {
+            if (entries.get(i).turnPassed) {
+                turnStarts.add(i + 1);
+            }
+        }
+    }
+
+    /**
+     * @return the seed of the {@link model.Game Game} of the match
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the id of the map of the match, -1 if the match had not started when it was recorded
+     */
+    public int getMapId() {
+        return mapId;
+    }
+
+    /**
+     * @return the usernames of the players of the match
+     */
+    public List<String> getPlayers() {
+        return players;
+    }
+
+    /**
+     * @return {@code true} if the hash of the state of the match has been recorded after every input
+     */
+    public boolean hasStateHashes() {
+        return stateHashes;
+    }
+
+    /**
+     * @return the number of recorded inputs
+     */
+    public int getInputs() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of recorded keyframes, the first one included
+     */
+    public int getKeyframes() {
+        return keyframes.size();
+    }
+
+    /**
+     * @return the number of times the turn passed to another player in the recorded inputs, the start of the match
+     * included
+     */
+    public int getTurns() {
+        return turnStarts.size() - 1;
+    }
+
+    /**
+     * @param turn a turn between 0, the match when the recording started, and {@link #getTurns() getTurns}
+     * @return the number of inputs applied when the turn started
+     */
+    public int getTurnStart(int turn) {
+        if (turn < 0 || turn >= turnStarts.size()) {
+            throw new IllegalArgumentException("Invalid turn: " + turn);
+        }
+
+        return turnStarts.get(turn);
+    }
+
+    /**
+     * @param index the index of an input
+     * @return the recorded input
+     */
+    Entry getEntry(int index) {
+        return entries.get(index);
+    }
+
+    /**
+     * @param index the index of a keyframe
+     * @return the keyframe
+     */
+    Keyframe getKeyframe(int index) {
+        return keyframes.get(index);
+    }
+
+    /**
+     * @param inputs a number of applied inputs
+     * @return the index of the last keyframe taken after at most that number of inputs
+     */
+    int keyframeBefore(int inputs) {
+        int low = 0;
+        int high = keyframes.size() - 1;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+
+            if (keyframes.get(middle).inputs <= inputs) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Writes the recording in the current version of the format
+     *
+     * @return the written recording
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+
+        try (DataOutputStream header = new DataOutputStream(bytes)) {
+            header.writeInt(MAGIC);
+            header.writeShort(VERSION);
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(header)));
+            out.writeLong(seed);
+            out.writeInt(mapId);
+            out.writeByte(players.size());
+
+            for (String player : players) {
+                out.writeUTF(player);
+            }
+
+            out.writeBoolean(stateHashes);
+            out.writeInt(entries.size());
+
+            for (Entry entry : entries) {
+                out.writeByte(entry.input.ordinal());
+                out.writeBoolean(entry.turnPassed);
+                out.writeLong(entry.randomCount);
+                out.writeInt(entry.stateHash);
+                writeBytes(out, entry.message);
+            }
+
+            out.writeInt(keyframes.size());
+
+            for (Keyframe keyframe : keyframes) {
+                out.writeInt(keyframe.inputs);
+                writeBytes(out, keyframe.save);
+            }
+
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a recording
+     *
+     * @param recording the written recording
+     * @return the read recording
+     * @throws IOException     if the recording can not be read
+     * @throws ReloadException if the bytes are not a recording or have been written by a newer version of the server
+     */
+    public static MatchRecording decode(byte[] recording) throws IOException {
+        DataInputStream header = new DataInputStream(new ByteArrayInputStream(recording));
+
+        if (recording.length < Integer.BYTES + Short.BYTES || header.readInt() != MAGIC) {
+            LOGGER.severe("The file is not a recording");
+            throw new ReloadException();
+        }
+
+        if (header.readShort() > VERSION) {
+            LOGGER.severe("The recording is newer than the supported version");
+            throw new ReloadException();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(header)))) {
+            long seed = in.readLong();
+            int mapId = in.readInt();
+            List<String> players = new ArrayList<>();
+
+            for (int i = in.readByte(); i > 0; --i) {
+                players.add(in.readUTF());
+            }
+
+            boolean stateHashes = in.readBoolean();
+            int entryCount = in.readInt();
+            List<Entry> entries = new ArrayList<>(entryCount);
+
+            for (int i = 0; i < entryCount; ++i) {
+                GameJournal.Input input = GameJournal.Input.values()[in.readByte()];
+                boolean turnPassed = in.readBoolean();
+                long randomCount = in.readLong();
+                int stateHash = in.readInt();
+
+                entries.add(new Entry(input, readBytes(in), randomCount, stateHash, turnPassed));
+            }
+
+            int keyframeCount = in.readInt();
+            List<Keyframe> keyframes = new ArrayList<>(keyframeCount);
+
+            for (int i = 0; i < keyframeCount; ++i) {
+                int inputs = in.readInt();
+                keyframes.add(new Keyframe(inputs, readBytes(in)));
+            }
+
+            if (keyframes.isEmpty() || keyframes.get(0).inputs != 0) {
+                LOGGER.severe("The recording has no initial keyframe");
+                throw new ReloadException();
+            }
+
+            return new MatchRecording(seed, mapId, players, stateHashes, entries, keyframes);
+        }
+    }
+
+    /**
+     * Reads a recording from a file
+     *
+     * @param file the file of the recording
+     * @return the read recording
+     * @throws IOException     if the file can not be read
+     * @throws ReloadException if the file is not a recording or has been written by a newer version of the server
+     */
+    public static MatchRecording read(Path file) throws IOException {
+        return decode(Files.readAllBytes(file));
+    }
+
+    /**
+     * Hashes the state of a match as it is written in a save, without building the save
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     * @return the hash of the state of the match
+     */
+    static int stateHash(GameManager gameManager) {
+        CRC32 crc = new CRC32();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(OutputStream.nullOutputStream(), crc)))) {
+            gameManager.writeState(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A null array is written as length -1
+     */
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        int length = in.readInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * An input accepted by the recorded match
+     */
+    static class Entry {
+        final GameJournal.Input input;
+        final byte[] message;
+        final long randomCount;
+        final int stateHash;
+        final boolean turnPassed;
+
+        /**
+         * @param input       the kind of the input
+         * @param message     the serialized message of the input, null if it could not be serialized
+         * @param randomCount the number of random choices made in the match after the input
+         * @param stateHash   the hash of the state of the match after the input, 0 if it is not recorded
+         * @param turnPassed  {@code true} if the turn passed to another player with the input
+         */
+        Entry(GameJournal.Input input, byte[] message, long randomCount, int stateHash, boolean turnPassed) {
+            this.input = input;
+            this.message = message;
+            this.randomCount = randomCount;
+            this.stateHash = stateHash;
+            this.turnPassed = turnPassed;
+        }
+    }
+
+    /**
+     * The save of the recorded match after a number of inputs
+     */
+    static class Keyframe {
+        final int inputs;
+        final byte[] save;
+
+        Keyframe(int inputs, byte[] save) {
+            this.inputs = inputs;
+            this.save = save;
+        }
+    }
+}
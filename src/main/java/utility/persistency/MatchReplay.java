@@ -0,0 +1,173 @@
+package utility.persistency;
+
+import controller.GameManager;
+import exceptions.game.ReloadException;
+import network.message.Message;
+import network.server.MessageSender;
+import utility.LogCategory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class replays a {@link MatchRecording MatchRecording} headlessly: the recorded inputs are applied again to the
+ * {@link GameManager GameManager} of the match, read from a keyframe, with the same validation and state machine of
+ * the matches hosted by the server, while no update is built and nothing is saved. Every random choice of a match is
+ * derived from the seed of its {@link model.Game Game} and the number of choices already made, so a replay follows
+ * the recorded match as long as the code handling the inputs behaves the same.
+ * <p>
+ * Seeking a point of the match starts from the last keyframe before it, so it replays at most the inputs between two
+ * keyframes. The whole recording can also be verified, replaying every input from the first keyframe and checking
+ * the recorded number of random choices, the recorded state hashes and the keyframes along the way
+ */
+public class MatchReplay {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
+
+    private static final MessageSender NO_CLIENTS = new MessageSender() {
+        @Override
+        public void sendMessage(String username, Message message) {
+            // a replayed match has no client
+        }
+
+        @Override
+        public void sendMessageToAll(Message message) {
+            // a replayed match has no client
+        }
+    };
+
+    private final MatchRecording recording;
+
+    /**
+     * Creates the replay of a recording
+     *
+     * @param recording the recording to replay
+     */
+    public MatchReplay(MatchRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Brings the match to its state after a number of inputs
+     *
+     * @param inputs the number of applied inputs, between 0 and {@link MatchRecording#getInputs() getInputs}
+     * @return a new {@link GameManager GameManager} of the match in that state
+     * @throws ReloadException if the replayed match does not follow the recorded one
+     */
+    public GameManager seek(int inputs) {
+        if (inputs < 0 || inputs > recording.getInputs()) {
+            throw new IllegalArgumentException("Invalid number of inputs: " + inputs);
+        }
+
+        MatchRecording.Keyframe keyframe = recording.getKeyframe(recording.keyframeBefore(inputs));
+        GameManager gameManager = restore(keyframe);
+
+        for (int i = keyframe.inputs; i < inputs; ++i) {
+            MatchRecording.Entry entry = recording.getEntry(i);
+
+            apply(gameManager, entry);
+
+            if (gameManager.getGameInstance().getRandomCount() != entry.randomCount) {
+                LOGGER.log(Level.SEVERE, "Replayed input {0} does not follow the recording", i);
+                throw new ReloadException();
+            }
+        }
+
+        return gameManager;
+    }
+
+    /**
+     * Brings the match to the start of a turn
+     *
+     * @param turn the turn, between 0 and {@link MatchRecording#getTurns() getTurns}
+     * @return a new {@link GameManager GameManager} of the match at the start of the turn
+     * @throws ReloadException if the replayed match does not follow the recorded one
+     */
+    public GameManager seekTurn(int turn) {
+        return seek(recording.getTurnStart(turn));
+    }
+
+    /**
+     * Replays the whole recording from its first keyframe, checking after every input the number of random choices
+     * made and, if recorded, the hash of the state of the match, and checking every keyframe met
+     *
+     * @return the index of the first input after which the replayed match differs from the recorded one, -1 if it
+     * never does
+     */
+    public int verify() {
+        GameManager gameManager = restore(recording.getKeyframe(0));
+        int nextKeyframe = 1;
+
+        for (int i = 0; i < recording.getInputs(); ++i) {
+            MatchRecording.Entry entry = recording.getEntry(i);
+
+            if (entry.message == null) {
+                // the input can not be replayed, the match goes on from the keyframe taken right after it
+                gameManager = restore(recording.getKeyframe(recording.keyframeBefore(i + 1)));
+            } else {
+                apply(gameManager, entry);
+            }
+
+            if (gameManager.getGameInstance().getRandomCount() != entry.randomCount ||
+                    (recording.hasStateHashes() && MatchRecording.stateHash(gameManager) != entry.stateHash)) {
+                LOGGER.log(Level.SEVERE, "Replayed input {0} does not follow the recording", i);
+                return i;
+            }
+
+            for (; nextKeyframe < recording.getKeyframes() && recording.getKeyframe(nextKeyframe).inputs == i + 1; ++nextKeyframe) {
+                if (!Arrays.equals(recording.getKeyframe(nextKeyframe).save, encode(gameManager, i + 1))) {
+                    LOGGER.log(Level.SEVERE, "Replayed input {0} does not match keyframe {1}", new Object[]{i, nextKeyframe});
+                    return i;
+                }
+            }
+        }
+
+        LOGGER.log(Level.INFO, "Recording verified, {0} inputs replayed", recording.getInputs());
+        return -1;
+    }
+
+    /**
+     * Reads the match of a keyframe into a new {@link GameManager GameManager} ready to be replayed
+     */
+    private static GameManager restore(MatchRecording.Keyframe keyframe) {
+        try {
+            GameManager gameManager = SaveFormat.decode(keyframe.save, NO_CLIENTS, 0).getGameManager();
+
+            gameManager.setSaver(GameSaver.NONE);
+            gameManager.setUpdatesEnabled(false);
+            gameManager.setLobbyTimerEnabled(false);
+            return gameManager;
+        } catch (IOException e) {
+            LOGGER.severe(e.getMessage());
+            throw new ReloadException();
+        }
+    }
+
+    private static void apply(GameManager gameManager, MatchRecording.Entry entry) {
+        if (entry.message == null) {
+            LOGGER.severe("The recorded input can not be replayed");
+            throw new ReloadException();
+        }
+
+        try {
+            Message message = entry.input == GameJournal.Input.TIMER ? null :
+                    GameJournal.deserialize(new ByteArrayInputStream(entry.message));
+
+            GameJournal.replay(gameManager, entry.input, message);
+        } catch (IOException | ClassNotFoundException e) {
+            LOGGER.severe(e.getMessage());
+            throw new ReloadException();
+        }
+    }
+
+    private static byte[] encode(GameManager gameManager, int inputs) {
+        try {
+            return SaveFormat.encode(gameManager, inputs);
+        } catch (IOException e) {
+            LOGGER.severe(e.getMessage());
+            throw new ReloadException();
+        }
+    }
+}
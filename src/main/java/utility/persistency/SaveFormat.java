@@ -0,0 +1,141 @@
+package utility.persistency;
+
+import controller.GameManager;
+import exceptions.game.ReloadException;
+import network.server.MessageSender;
+import utility.LogCategory;
+
+import java.io.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class defines the format of the save files. A save is a header, made of a magic number, the version of the
+ * format and the sequence number of the last input of the {@link GameJournal GameJournal} applied to the saved match,
+ * followed by the mutable state of the match as written by {@link GameManager#writeState(DataOutput) writeState}.
+ * Cards are written as their ids, as their definitions are parsed again from the json files when a save is read, and
+ * everything else is written field by field, so a save is a few hundred bytes and is read without reflection.
+ * <p>
+ * The version is increased every time the format changes, a save of an older version is migrated to the current
+ * one when it is read, while a save of a newer one is refused. The Java serialization of the match, written by the
+ * servers before this format, is refused too: the model classes it was written with have changed, so it can not be
+ * read back
+ */
+public class SaveFormat {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
+
+    /**
+     * The first bytes of every save, "ADRS"
+     */
+    static final int MAGIC = 0x41445253;
+
+    /**
+     * The current version of the format
+     */
+    static final short VERSION = 1;
+
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES;
+
+    private SaveFormat() {
+        throw new IllegalStateException("Utility Class");
+    }
+
+    /**
+     * Writes the state of a match in the current version of the format
+     *
+     * @param gameManager     the {@link GameManager GameManager} of the match
+     * @param journalSequence the sequence number of the last input of the {@link GameJournal GameJournal} applied to
+     *                        the match
+     * @return the save
+     * @throws IOException if the state can not be written
+     */
+    static byte[] encode(GameManager gameManager, long journalSequence) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(journalSequence);
+            gameManager.writeState(out);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a save of any version up to the current one into a new {@link GameManager GameManager}
+     *
+     * @param save      the save
+     * @param server    the destination of the messages of the read match
+     * @param startTime the lobby timeout time in seconds
+     * @return the read match
+     * @throws IOException     if the save can not be read
+     * @throws ReloadException if the save is not a save, has been written by a newer version of the server or is
+     *                         the Java serialization written by the servers before this format
+     */
+    static Snapshot decode(byte[] save, MessageSender server, int startTime) throws IOException {
+        if (isLegacy(save)) {
+            LOGGER.severe("The save has been written by a server older than the save format and can not be read");
+            throw new ReloadException();
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(save));
+
+        if (save.length < HEADER_BYTES || in.readInt() != MAGIC) {
+            LOGGER.severe("The file is not a save");
+            throw new ReloadException();
+        }
+
+        int version = in.readShort();
+        if (version > VERSION) {
+            LOGGER.log(Level.SEVERE, "The save has version {0}, newer than the supported {1}", new Object[]{version, VERSION});
+            throw new ReloadException();
+        }
+
+        long journalSequence = in.readLong();
+        return new Snapshot(GameManager.readState(in, server, startTime), journalSequence, version);
+    }
+
+    /**
+     * @return {@code true} if the save starts with the header of a Java serialization stream
+     */
+    private static boolean isLegacy(byte[] save) {
+        return save.length >= 2 && ((save[0] & 0xFF) << 8 | (save[1] & 0xFF)) == (ObjectStreamConstants.STREAM_MAGIC & 0xFFFF);
+    }
+
+    /**
+     * A match read from a save
+     */
+    static class Snapshot {
+        private final GameManager gameManager;
+        private final long journalSequence;
+        private final int version;
+
+        private Snapshot(GameManager gameManager, long journalSequence, int version) {
+            this.gameManager = gameManager;
+            this.journalSequence = journalSequence;
+            this.version = version;
+        }
+
+        /**
+         * @return the {@link GameManager GameManager} of the read match
+         */
+        GameManager getGameManager() {
+            return gameManager;
+        }
+
+        /**
+         * @return the sequence number of the last input of the {@link GameJournal GameJournal} applied to the match
+         */
+        long getJournalSequence() {
+            return journalSequence;
+        }
+
+        /**
+         * @return the version of the format the save was written in
+         */
+        int getVersion() {
+            return version;
+        }
+    }
+}
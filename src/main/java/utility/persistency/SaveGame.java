@@ -1,62 +1,41 @@
 package utility.persistency;
 
-import controller.GameManager;
 import exceptions.game.ReloadException;
-import network.server.Server;
+import network.server.MessageSender;
+import utility.LogCategory;
 
 import java.io.*;
-import java.util.logging.Level;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
 
 public class SaveGame {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
 
     private SaveGame() {
         throw new IllegalStateException("Utility Class");
     }
 
     /**
-     * Method used to store locally the status of the {@link model.Game Game} whenever used
+     * Reads the status of a match from a file into a new {@link controller.GameManager GameManager}
      *
-     * @param gameManager the only needed parameter used to save the status
+     * @param file      the file of the save
+     * @param server    the destination of the messages of the reloaded match
+     * @param startTime the lobby timeout time in seconds
+     * @return the reloaded match
+     * @throws ReloadException if the file does not exist or can not be read
      */
-    public static void saveGame(GameManager gameManager) {
-        PersistencyClass persistencyClass = new PersistencyClass(gameManager);
-
-        try (FileOutputStream gameSaved = new FileOutputStream(new File("gameSaved.adrenaline"))) {
-            ObjectOutputStream outGame = new ObjectOutputStream(gameSaved);
-
-            outGame.writeObject(persistencyClass);
-            Server.LOGGER.log(Level.INFO, "Game State saved after valid action");
-
-            outGame.close();
-        } catch (FileNotFoundException e) {
-            // never reached we create the file we need each time
-        } catch (IOException e) {
-            Server.LOGGER.severe(e.getMessage());
-        }
-    }
-
-    public static GameManager loadGame(Server server, int startTime) {
-            PersistencyClass persistencyClass;
-
-        try (FileInputStream gameSaved = new FileInputStream(new File("gameSaved.adrenaline"))) {
-            ObjectInputStream inGame = new ObjectInputStream(gameSaved);
-
-            // first I read the saved State of the Game
-            persistencyClass = (PersistencyClass) inGame.readObject();
-
-            // then I restart the beginning class of each Game
-            GameManager newGameManager = new GameManager(server, persistencyClass.getGameManager(), startTime);
-
-            // in the end I set back the state of the real Game
-            newGameManager.getGameInstance().loadGame(persistencyClass.getGameManager().getGameInstance(), persistencyClass.getPlayersCopy());
-
-            // in the end I also set back the TurnManager to the new GameManager
-            newGameManager.getRoundManager().initTurnManager(persistencyClass.getTurnManager());
-            return newGameManager;
-        } catch (FileNotFoundException e) {
-            Server.LOGGER.severe("There exist no file to be loaded!");
-        } catch (IOException | ClassNotFoundException e) {
-            Server.LOGGER.severe(e.getMessage());
+    static SaveFormat.Snapshot readSnapshot(Path file, MessageSender server, int startTime) {
+        try {
+            return SaveFormat.decode(Files.readAllBytes(file), server, startTime);
+        } catch (NoSuchFileException e) {
+            LOGGER.severe("There exist no file to be loaded!");
+        } catch (ReloadException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // a damaged save
+            LOGGER.severe(e.toString());
         }
 
         throw new ReloadException();
@@ -0,0 +1,331 @@
+package utility.persistency;
+
+import controller.GameManager;
+import model.player.UserPlayer;
+import utility.LogCategory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * This class stores the saves of all the matches hosted by a server, each one in its own directory named after the id
+ * of the match, the seed of its {@link model.Game Game}, holding the snapshot and the journal of its
+ * {@link GameJournal GameJournal}. The matches that can be resumed and the usernames of their players are listed by an
+ * index file, an append-only log with a record for every match started and one for every match ended, so a match is
+ * found by the username of a player without reading the saves, and only its own directory is read when it is resumed.
+ * <p>
+ * The index is read once when the store is opened and then kept in memory. When it holds more records of ended
+ * matches than of resumable ones it is compacted, rewriting only the resumable matches. The directory of a match is
+ * deleted when the match ends. Every write goes through the {@link SaveWriter SaveWriter}, so that neither the index
+ * nor the saves are written by who handles the messages of a match
+ */
+public class SaveStore {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
+
+    static final String INDEX_FILE = "index";
+    static final String SNAPSHOT_FILE = "snapshot.adrenaline";
+    static final String JOURNAL_FILE = "journal";
+    static final String RECORDINGS_DIRECTORY = "recordings";
+    static final String RECORDING_EXTENSION = ".replay";
+
+    private static final byte STARTED = 1;
+    private static final byte ENDED = 2;
+    private static final int MIN_COMPACTION_RECORDS = 64;
+
+    private final Path directory;
+    private final Path indexFile;
+    private final int snapshotInterval;
+
+    private final Map<Long, List<String>> games = new LinkedHashMap<>();
+    private final Map<String, Long> playerGames = new HashMap<>();
+    private int records;
+    private boolean recordMatches;
+
+    /**
+     * Opens the store in a directory, which is created if it does not exist, and reads its index. The directories of
+     * the matches that are not in the index, left by a failure while a match was ended, are deleted
+     *
+     * @param directory        the directory of the store
+     * @param snapshotInterval number of inputs after which the journals write a snapshot at the next turn boundary
+     * @throws IOException if the directory can not be created or the index can not be read
+     */
+    public SaveStore(Path directory, int snapshotInterval) throws IOException {
+        this.directory = directory;
+        this.indexFile = directory.resolve(INDEX_FILE);
+        this.snapshotInterval = snapshotInterval;
+
+        SaveWriter.flush();
+        Files.createDirectories(directory);
+        readIndex();
+        deleteUnknown();
+    }
+
+    /**
+     * Creates the journal of a new match, its directory is created when its first snapshot is written, once the match
+     * has started
+     *
+     * @param gameId the id of the match
+     * @return the journal of the match
+     */
+    public GameJournal newJournal(long gameId) {
+        return new GameJournal(this, gameId, snapshotInterval);
+    }
+
+    /**
+     * Enables or disables the recording of the matches, written in the recordings directory of the store when they
+     * end, see {@link MatchRecorder MatchRecorder}
+     *
+     * @param recordMatches {@code true} to record the matches, {@code false} otherwise
+     * @throws IOException if the recordings directory can not be created
+     */
+    public void setRecordMatches(boolean recordMatches) throws IOException {
+        if (recordMatches) {
+            Files.createDirectories(directory.resolve(RECORDINGS_DIRECTORY));
+        }
+
+        this.recordMatches = recordMatches;
+    }
+
+    /**
+     * @return {@code true} if the matches are recorded, {@code false} otherwise
+     */
+    public boolean isRecordingMatches() {
+        return recordMatches;
+    }
+
+    /**
+     * Creates the recorder of a match, that writes its recording in the recordings directory when the match ends
+     *
+     * @param gameId the id of the match
+     * @return the recorder of the match
+     */
+    public MatchRecorder newRecorder(long gameId) {
+        return new MatchRecorder(MatchRecorder.DEFAULT_KEYFRAME_INTERVAL, true,
+                directory.resolve(RECORDINGS_DIRECTORY).resolve(Long.toHexString(gameId) + RECORDING_EXTENSION));
+    }
+
+    /**
+     * @return the ids of the stored matches that can be resumed, with the usernames of their players
+     */
+    public synchronized Map<Long, List<String>> getResumableGames() {
+        return new LinkedHashMap<>(games);
+    }
+
+    /**
+     * Finds the match a player was playing, if it can be resumed
+     *
+     * @param username the username of the player
+     * @return the id of the last match started by the player that can be resumed, {@code null} if there is none
+     */
+    public synchronized Long findGame(String username) {
+        return playerGames.get(username);
+    }
+
+    /**
+     * @param gameId the id of a match
+     * @return the usernames of the players of the match, an empty list if it is not stored
+     */
+    public synchronized List<String> getUsernames(long gameId) {
+        return games.getOrDefault(gameId, List.of());
+    }
+
+    /**
+     * Adds a match that has just started to the index and creates its directory
+     *
+     * @param gameManager the {@link GameManager GameManager} of the match
+     */
+    synchronized void started(GameManager gameManager) {
+        long gameId = gameManager.getGameInstance().getSeed();
+        List<String> usernames = new ArrayList<>();
+
+        for (UserPlayer player : gameManager.getGameInstance().getPlayers()) {
+            usernames.add(player.getUsername());
+        }
+
+        try {
+            Files.createDirectories(gameDirectory(gameId));
+        } catch (IOException e) {
+            LOGGER.severe(e.getMessage());
+        }
+
+        add(gameId, usernames);
+        SaveWriter.append(indexFile, encode(STARTED, gameId, usernames));
+        ++records;
+    }
+
+    /**
+     * Removes a match that has ended from the index and deletes its directory
+     *
+     * @param gameId the id of the match
+     */
+    synchronized void ended(long gameId) {
+        if (remove(gameId)) {
+            SaveWriter.append(indexFile, encode(ENDED, gameId, List.of()));
+            SaveWriter.delete(gameDirectory(gameId));
+            ++records;
+
+            LOGGER.log(Level.INFO, "Game {0} ended, {1} games stored", new Object[]{Long.toHexString(gameId), games.size()});
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Removes from the index a match whose save can not be resumed, so that its players are not found in it again.
+     * Its directory is kept, for inspection, until the store is opened again
+     *
+     * @param gameId the id of the match
+     */
+    public synchronized void discard(long gameId) {
+        if (remove(gameId)) {
+            SaveWriter.append(indexFile, encode(ENDED, gameId, List.of()));
+            ++records;
+
+            LOGGER.log(Level.WARNING, "Game {0} can not be resumed and has been discarded", Long.toHexString(gameId));
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Rewrites the index with only the resumable matches, when most of its records are of ended matches. The index is
+     * replaced after the records queued before are appended to the old one
+     */
+    private void compactIfNeeded() {
+        if (records < MIN_COMPACTION_RECORDS || records <= 2 * games.size()) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        for (Map.Entry<Long, List<String>> game : games.entrySet()) {
+            bytes.writeBytes(encode(STARTED, game.getKey(), game.getValue()));
+        }
+
+        SaveWriter.snapshot(indexFile, null, bytes.toByteArray());
+        LOGGER.log(Level.INFO, "Save index compacted from {0} to {1} records", new Object[]{records, games.size()});
+        records = games.size();
+    }
+
+    /**
+     * @param gameId the id of a match
+     * @return the file of the snapshots of the match
+     */
+    Path snapshotFile(long gameId) {
+        return gameDirectory(gameId).resolve(SNAPSHOT_FILE);
+    }
+
+    /**
+     * @param gameId the id of a match
+     * @return the file of the journal of the match
+     */
+    Path journalFile(long gameId) {
+        return gameDirectory(gameId).resolve(JOURNAL_FILE);
+    }
+
+    private Path gameDirectory(long gameId) {
+        return directory.resolve(Long.toHexString(gameId));
+    }
+
+    private void add(long gameId, List<String> usernames) {
+        games.put(gameId, Collections.unmodifiableList(usernames));
+
+        for (String username : usernames) {
+            playerGames.put(username, gameId);
+        }
+    }
+
+    private boolean remove(long gameId) {
+        List<String> usernames = games.remove(gameId);
+
+        if (usernames == null) {
+            return false;
+        }
+
+        for (String username : usernames) {
+            if (playerGames.remove(username, gameId)) {
+                // the player goes back to the last other match he started, if any
+                games.forEach((otherId, others) -> {
+                    if (others.contains(username)) {
+                        playerGames.put(username, otherId);
+                    }
+                });
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Each record of the index is its kind, the id of the match and the usernames of its players
+     */
+    private static byte[] encode(byte kind, long gameId, List<String> usernames) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(kind);
+            out.writeLong(gameId);
+            out.writeByte(usernames.size());
+
+            for (String username : usernames) {
+                out.writeUTF(username);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the index, a record cut by a failure while it was written ends it
+     */
+    private void readIndex() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            while (true) {
+                byte kind = in.readByte();
+                long gameId = in.readLong();
+                List<String> usernames = new ArrayList<>();
+
+                for (int i = in.readByte(); i > 0; --i) {
+                    usernames.add(in.readUTF());
+                }
+
+                if (kind == STARTED) {
+                    add(gameId, usernames);
+                } else {
+                    remove(gameId);
+                }
+
+                ++records;
+            }
+        } catch (EOFException | NoSuchFileException e) {
+            // end of the index
+        }
+
+        LOGGER.log(Level.INFO, "Save index read, {0} games stored", games.size());
+    }
+
+    /**
+     * Deletes the directories of the matches that are not in the index
+     */
+    private void deleteUnknown() throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(Files::isDirectory)
+                    .filter(gameDirectory -> !isStored(gameDirectory.getFileName().toString()))
+                    .forEach(SaveWriter::delete);
+        }
+    }
+
+    private boolean isStored(String name) {
+        try {
+            return games.containsKey(Long.parseUnsignedLong(name, 16));
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package utility.persistency;
+
+import utility.LogCategory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class writes the saves of all the matches on a single background thread, so that a slow or stalled disk never
+ * blocks who handles the messages of a match. The status of a match is serialized by the caller, when it is saved,
+ * and the writer only gets the bytes.
+ * <p>
+ * A snapshot is written to a temporary file that then replaces the old one, so that a failure while saving never
+ * leaves a broken save, and it is forced to the disk before the replacement if {@link #configure(boolean) sync} is
+ * set. A snapshot queued while an older one of the same file is still waiting supersedes it, together with the
+ * journal entries queued before it, that it already contains: a burst of saves is written once. The superseded entries
+ * are kept by the snapshot and appended to the journal if it can not be written, so that no input is lost. The entries appended
+ * to a journal are written in the order they were queued, those waiting together in a single write. The directory of
+ * a match that is no longer needed is deleted after the writes queued before, the waiting ones of its files are dropped
+ */
+public class SaveWriter {
+    private static final Logger LOGGER = LogCategory.PERSISTENCE.getLogger();
+
+    private static volatile boolean sync;
+
+    private static final Lock lock = new ReentrantLock();
+    private static final Condition queued = lock.newCondition();
+    private static final Condition written = lock.newCondition();
+    private static final Deque<Task> tasks = new ArrayDeque<>();
+    private static boolean writing;
+    private static Thread writer;
+
+    private static final LongAdder snapshots = new LongAdder();
+    private static final LongAdder entries = new LongAdder();
+    private static final LongAdder coalesced = new LongAdder();
+    private static final LongAdder deletions = new LongAdder();
+    private static final LongAdder failures = new LongAdder();
+    private static final LongAdder lagNanos = new LongAdder();
+    private static final LongAdder writes = new LongAdder();
+    private static final AtomicLong maxLagNanos = new AtomicLong();
+
+    private SaveWriter() {
+        throw new IllegalStateException("Utility Class");
+    }
+
+    /**
+     * Sets whether the saves are forced to the disk before being considered written
+     *
+     * @param forceToDisk {@code true} to force every write to the disk, {@code false} to leave it to the system
+     */
+    public static void configure(boolean forceToDisk) {
+        sync = forceToDisk;
+    }
+
+    /**
+     * @return {@code true} if the saves are forced to the disk
+     */
+    public static boolean isSync() {
+        return sync;
+    }
+
+    /**
+     * Queues the status of a match to replace a save file, the journal entries queued before it for the journal of
+     * the match are dropped and the journal is emptied once the snapshot has been written
+     *
+     * @param file        the save file
+     * @param journalFile the journal of the match, null if it has none
+     * @param state       the serialized status of the match
+     */
+    static void snapshot(Path file, Path journalFile, byte[] state) {
+        snapshot(file, journalFile, state, null);
+    }
+
+    /**
+     * Queues the status of a match to replace a save file, the journal entries queued before it for the journal of
+     * the match are dropped and the journal is emptied once the snapshot has been written. If the snapshot can not
+     * be written the dropped entries are appended to the journal
+     *
+     * @param file        the save file
+     * @param journalFile the journal of the match, null if it has none
+     * @param state       the serialized status of the match
+     * @param onFailure   the task run by the writer if the snapshot can not be written, null if none
+     */
+    static void snapshot(Path file, Path journalFile, byte[] state, Runnable onFailure) {
+        Task task = new Task(Task.SNAPSHOT, file, journalFile, state);
+        task.onFailure = onFailure;
+
+        queue(task);
+    }
+
+    /**
+     * Queues an entry to be appended to a journal
+     *
+     * @param journalFile the journal
+     * @param entry       the entry
+     */
+    static void append(Path journalFile, byte[] entry) {
+        queue(new Task(Task.APPEND, null, journalFile, entry));
+    }
+
+    /**
+     * Queues the deletion of a directory and of the files in it, the writes of its files still waiting are dropped
+     *
+     * @param directory the directory
+     */
+    static void delete(Path directory) {
+        queue(new Task(Task.DELETE, directory, null, null));
+    }
+
+    private static void queue(Task task) {
+        lock.lock();
+
+        try {
+            if (task.kind == Task.SNAPSHOT) {
+                supersede(task);
+            } else if (task.kind == Task.DELETE) {
+                dropWrites(task.file);
+            }
+
+            tasks.add(task);
+
+            if (writer == null) {
+                writer = new Thread(SaveWriter::write, "save-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the queued writes already contained by a new snapshot: an older snapshot of the same file and the entries
+     * of its journal. The new snapshot keeps the removed entries, with those kept by the older snapshot, until it is
+     * written
+     */
+    private static void supersede(Task snapshot) {
+        Iterator<Task> iterator = tasks.iterator();
+
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+
+            if (task.kind == Task.SNAPSHOT && snapshot.file.equals(task.file)) {
+                iterator.remove();
+                coalesced.increment();
+
+                snapshot.superseded.addAll(task.superseded);
+            } else if (task.kind == Task.APPEND && snapshot.journalFile != null && snapshot.journalFile.equals(task.journalFile)) {
+                iterator.remove();
+                coalesced.increment();
+
+                snapshot.superseded.add(task);
+            }
+        }
+    }
+
+    /**
+     * Removes the queued writes of the files of a directory about to be deleted
+     */
+    private static void dropWrites(Path directory) {
+        Iterator<Task> iterator = tasks.iterator();
+
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            Path written = task.kind == Task.SNAPSHOT ? task.file : task.journalFile;
+
+            if (written != null && written.startsWith(directory)) {
+                iterator.remove();
+                coalesced.increment();
+            }
+        }
+    }
+
+    /**
+     * Waits until the writes queued so far are done, a match must not be read from its files before
+     */
+    public static void flush() {
+        lock.lock();
+
+        try {
+            while (!tasks.isEmpty() || writing) {
+                written.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void write() {
+        List<Task> batch = new ArrayList<>();
+
+        while (true) {
+            lock.lock();
+
+            try {
+                writing = false;
+                written.signalAll();
+
+                while (tasks.isEmpty()) {
+                    queued.awaitUninterruptibly();
+                }
+
+                batch.addAll(tasks);
+                tasks.clear();
+                writing = true;
+            } finally {
+                lock.unlock();
+            }
+
+            for (int i = 0; i < batch.size(); ) {
+                switch (batch.get(i).kind) {
+                    case Task.SNAPSHOT:
+                        i = writeSnapshot(batch, i);
+                        break;
+                    case Task.APPEND:
+                        i = appendEntries(batch, i);
+                        break;
+                    default:
+                        i = deleteDirectory(batch, i);
+                }
+            }
+
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes the snapshot at the given position of the batch, then empties its journal. If the snapshot can not be
+     * written the journal entries it superseded are appended to the journal instead
+     *
+     * @return the position of the next task
+     */
+    private static int writeSnapshot(List<Task> batch, int position) {
+        Task task = batch.get(position);
+
+        try {
+            writeFile(task.file, task.bytes);
+
+            if (task.journalFile != null) {
+                Files.write(task.journalFile, new byte[0], StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+
+            snapshots.increment();
+            written(task);
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+
+            if (!task.superseded.isEmpty()) {
+                appendEntries(task.superseded, 0);
+            }
+
+            if (task.onFailure != null) {
+                task.onFailure.run();
+            }
+        }
+
+        return position + 1;
+    }
+
+    /**
+     * Appends the entries of a journal starting from the given position of the batch in a single write
+     *
+     * @return the position of the next task
+     */
+    private static int appendEntries(List<Task> batch, int position) {
+        Path journalFile = batch.get(position).journalFile;
+        int end = position;
+
+        while (end < batch.size() && batch.get(end).kind == Task.APPEND && batch.get(end).journalFile.equals(journalFile)) {
+            ++end;
+        }
+
+        ByteBuffer[] buffers = new ByteBuffer[end - position];
+        for (int i = position; i < end; ++i) {
+            buffers[i - position] = ByteBuffer.wrap(batch.get(i).bytes);
+        }
+
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                channel.write(buffers);
+            }
+
+            if (sync) {
+                channel.force(false);
+            }
+
+            entries.add(buffers.length);
+            written(batch.get(end - 1));
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+        }
+
+        return end;
+    }
+
+    /**
+     * Deletes the directory at the given position of the batch with the files in it
+     *
+     * @return the position of the next task
+     */
+    private static int deleteDirectory(List<Task> batch, int position) {
+        Task task = batch.get(position);
+
+        try (Stream<Path> files = Files.walk(task.file)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+
+            deletions.increment();
+            written(task);
+        } catch (NoSuchFileException e) {
+            // nothing was ever written in the directory
+            written(task);
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+        }
+
+        return position + 1;
+    }
+
+    /**
+     * Writes a file through a temporary one that then replaces it
+     *
+     * @param file  the file to write
+     * @param bytes the content of the file
+     * @throws IOException if the file can not be written
+     */
+    static void writeFile(Path file, byte[] bytes) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            if (sync) {
+                channel.force(true);
+            }
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void written(Task task) {
+        long lag = System.nanoTime() - task.queuedAt;
+
+        lagNanos.add(lag);
+        writes.increment();
+        maxLagNanos.accumulateAndGet(lag, Math::max);
+    }
+
+    private static void failed(Exception e) {
+        failures.increment();
+        LOGGER.log(Level.SEVERE, "Save not written: {0}", e.getMessage());
+    }
+
+    /**
+     * @return the number of writes that failed
+     */
+    static long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the number of queued writes superseded by a newer snapshot
+     */
+    static long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of directories deleted
+     */
+    static long getDeletions() {
+        return deletions.sum();
+    }
+
+    /**
+     * @return a summary of the saves: writes waiting, snapshots and journal entries written, directories deleted, writes superseded and
+     * failed, and the lag between when a save is queued and when it is written
+     */
+    public static String metrics() {
+        long count = writes.sum();
+        long average = count == 0 ? 0 : lagNanos.sum() / count;
+
+        int pending;
+
+        lock.lock();
+        try {
+            pending = tasks.size();
+        } finally {
+            lock.unlock();
+        }
+
+        return String.format("pending %d, snapshots %d, entries %d, deletions %d, coalesced %d, failures %d, save lag avg %.2f ms (max %.2f ms)",
+                pending, snapshots.sum(), entries.sum(), deletions.sum(), coalesced.sum(), failures.sum(),
+                average / (double) TimeUnit.MILLISECONDS.toNanos(1), maxLagNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * A queued write: a snapshot of a file, an entry of a journal or the deletion of a directory, which is its file
+     */
+    private static class Task {
+        private static final int SNAPSHOT = 0;
+        private static final int APPEND = 1;
+        private static final int DELETE = 2;
+
+        private final int kind;
+        private final Path file;
+        private final Path journalFile;
+        private final byte[] bytes;
+        private final long queuedAt;
+
+        private final List<Task> superseded = new ArrayList<>();
+        private Runnable onFailure;
+
+        private Task(int kind, Path file, Path journalFile, byte[] bytes) {
+            this.kind = kind;
+            this.file = file;
+            this.journalFile = journalFile;
+            this.bytes = bytes;
+            this.queuedAt = System.nanoTime();
+        }
+    }
+}
@@ -67,15 +67,13 @@ class CliPrinter {
     }
 
     private static String getMarksString(Player player, GameSerialized gameSerialized) {
-        Map<String, PlayerColor> playerColorMap = getPlayerColorMap(gameSerialized);
-
         String playerBackgroundColor = getPlayerColorCode(player, gameSerialized, true);
-        List<String> markDealers = player.getPlayerBoard().getMarks();
+        List<PlayerColor> markDealers = player.getPlayerBoard().getMarkColors();
         StringBuilder marksStringBuilder = new StringBuilder();
         int count = 0;
 
-        for (String markDealer : markDealers) {
-            String color = AnsiCode.getTextColorCodeByName(playerColorMap.get(markDealer).name(), true);
+        for (PlayerColor markDealer : markDealers) {
+            String color = AnsiCode.getTextColorCodeByName(markDealer.name(), true);
             marksStringBuilder.append(" ").append(color).append("  ").append(playerBackgroundColor);
             ++count;
         }
@@ -88,15 +86,13 @@ class CliPrinter {
     }
 
     private static String getDamageString(Player player, GameSerialized gameSerialized) {
-        Map<String, PlayerColor> playerColorMap = getPlayerColorMap(gameSerialized);
-
         String playerBackgroundColor = getPlayerColorCode(player, gameSerialized, true);
-        List<String> damageDealers = player.getPlayerBoard().getDamages();
+        List<PlayerColor> damageDealers = player.getPlayerBoard().getDamageColors();
         StringBuilder damageStringBuilder = new StringBuilder();
         int count = 0;
 
-        for (String damageDealer : damageDealers) {
-            String color = AnsiCode.getTextColorCodeByName(playerColorMap.get(damageDealer).name(), true);
+        for (PlayerColor damageDealer : damageDealers) {
+            String color = AnsiCode.getTextColorCodeByName(damageDealer.name(), true);
             damageStringBuilder.append("│ ").append(color).append("  ").append(playerBackgroundColor).append(" │ ");
             ++count;
         }
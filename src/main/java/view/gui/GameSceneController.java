@@ -834,11 +834,10 @@ public class GameSceneController {
      * @param playerBoard player board who you want to displays damages drops
      */
     private void setDamages(PlayerBoard playerBoard) {
-        List<String> damages = playerBoard.getDamages();
+        List<PlayerColor> damages = playerBoard.getDamageColors();
 
         for (int i = 0; i < damages.size(); ++i) {
-            String username = damages.get(i);
-            PlayerColor damageDealerColor = guiManager.getPlayerByName(username).getColor();
+            PlayerColor damageDealerColor = damages.get(i);
 
             ImageView drop = new ImageView(getDropPath(damageDealerColor));
             AnchorPane.setLeftAnchor(drop, MapInsetsHelper.damageInsets.getLeft() + i * MapInsetsHelper.DAMAGE_HORIZONTAL_OFFSET);
@@ -854,11 +853,10 @@ public class GameSceneController {
      * @param playerBoard player board who you want to displays marks drops
      */
     private void setMarks(PlayerBoard playerBoard) {
-        List<String> marks = playerBoard.getMarks();
+        List<PlayerColor> marks = playerBoard.getMarkColors();
 
         for (int i = 0; i < marks.size(); ++i) {
-            String username = marks.get(i);
-            PlayerColor markDealerColor = guiManager.getPlayerByName(username).getColor();
+            PlayerColor markDealerColor = marks.get(i);
 
             ImageView drop = new ImageView(getDropPath(markDealerColor));
             AnchorPane.setLeftAnchor(drop, MapInsetsHelper.marksInsets.getLeft() + i * MapInsetsHelper.MARKS_HORIZONTAL_OFFSET);
@@ -6,6 +6,7 @@ import model.player.Player;
 import model.player.PlayerPosition;
 import network.message.*;
 import network.server.Server;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -23,10 +24,16 @@ class GameManagerTest {
     void before() {
         server = mock(Server.class);
 
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
         game.init();
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void constructor() {
         gameManager = new GameManager(server, true, 8, 100);
@@ -10,6 +10,7 @@ import model.map.GameMap;
 import model.player.Bot;
 import model.player.PlayerBoard;
 import model.player.UserPlayer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import utility.PowerupParser;
@@ -28,7 +29,13 @@ class GameSerializedTest {
 
     @BeforeEach
     void before() {
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
+    }
+
+    @AfterEach
+    void after() {
+        Game.bind(null);
     }
 
     @Test
@@ -0,0 +1,163 @@
+package model.actions;
+
+import enumerations.Ammo;
+import enumerations.PlayerColor;
+import enumerations.PossibleAction;
+import exceptions.game.InvalidMapNumberException;
+import model.Game;
+import model.cards.Card;
+import model.cards.PowerupCard;
+import model.cards.WeaponCard;
+import model.cards.weaponstates.ChargedWeapon;
+import model.map.GameMap;
+import model.player.Player;
+import model.player.PlayerBoard;
+import model.player.PlayerPosition;
+import model.player.UserPlayer;
+import utility.PowerupParser;
+import utility.WeaponParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Benchmark measuring the generation of the legal actions of the turn owner in dense mid game states: every player
+ * is on the map, the turn owner has three charged weapons, two powerups and full ammo and the spawn and ammo squares
+ * are filled. States are drawn with a fixed seed, with five players and with four players and the Terminator, for
+ * each set of actions a player can have.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> model.actions.ActionGeneratorBenchmark [states]}
+ */
+public class ActionGeneratorBenchmark {
+    private static final long SEED = 27;
+
+    private static final String[] ACTION_SETS = {"normal", "adrenaline", "frenzy", "light frenzy"};
+
+    public static void main(String[] args) throws InvalidMapNumberException {
+        int states = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        System.out.printf("%-12s %-14s %10s %10s %10s %10s %12s%n",
+                "players", "actions", "moves", "picks", "shoots", "truncated", "us/generate");
+
+        for (boolean bot : new boolean[]{false, true}) {
+            for (int set = 0; set < ACTION_SETS.length; ++set) {
+                run(bot, set, states / 10, new long[4]);
+
+                long[] totals = new long[4];
+                long elapsed = run(bot, set, states, totals);
+
+                System.out.printf("%-12s %-14s %10.1f %10.1f %10.1f %10d %12.1f%n",
+                        bot ? "4 + bot" : "5", ACTION_SETS[set], (double) totals[0] / states, (double) totals[1] / states,
+                        (double) totals[2] / states, totals[3], (double) elapsed / states / 1000);
+            }
+        }
+    }
+
+    /**
+     * @return the elapsed time in nanoseconds
+     */
+    private static long run(boolean bot, int set, int states, long[] totals) throws InvalidMapNumberException {
+        Random random = new Random(SEED);
+        long elapsed = 0;
+
+        for (int i = 0; i < states; ++i) {
+            UserPlayer owner = buildState(random, bot);
+            owner.setPossibleActions(actions(set));
+
+            long start = System.nanoTime();
+            LegalActions actions = ActionGenerator.generate(owner, null);
+            elapsed += System.nanoTime() - start;
+
+            totals[0] += actions.getMoves().size();
+            totals[1] += actions.getPicks().size();
+            totals[2] += actions.getShoots().size();
+            totals[3] += actions.isTruncated() ? 1 : 0;
+        }
+
+        return elapsed;
+    }
+
+    private static Set<PossibleAction> actions(int set) {
+        switch (set) {
+            case 0:
+                return EnumSet.of(PossibleAction.MOVE, PossibleAction.MOVE_AND_PICK, PossibleAction.SHOOT);
+            case 1:
+                return EnumSet.of(PossibleAction.MOVE, PossibleAction.ADRENALINE_PICK, PossibleAction.ADRENALINE_SHOOT);
+            case 2:
+                return EnumSet.of(PossibleAction.FRENZY_MOVE, PossibleAction.FRENZY_PICK, PossibleAction.FRENZY_SHOOT);
+            default:
+                return EnumSet.of(PossibleAction.LIGHT_FRENZY_PICK, PossibleAction.LIGHT_FRENZY_SHOOT);
+        }
+    }
+
+    /**
+     * Builds a new state on a new game bound to the thread
+     *
+     * @return the turn owner
+     */
+    private static UserPlayer buildState(Random random, boolean bot) throws InvalidMapNumberException {
+        Game game = new Game();
+        Game.bind(game);
+        game.init();
+        game.initializeDecks();
+        game.setGameMap(GameMap.MAP_1 + random.nextInt(GameMap.MAP_4));
+
+        int users = bot ? 4 : 5;
+        for (int i = 0; i < users; ++i) {
+            game.addPlayer(new UserPlayer("player" + i, PlayerColor.values()[i], new PlayerBoard()));
+        }
+
+        if (bot) {
+            game.setBot(true);
+            game.buildTerminator();
+        }
+
+        GameMap map = game.getGameMap();
+        map.addMissingCards(game);
+
+        List<PlayerPosition> squares = new ArrayList<>();
+        for (int row = 0; row < GameMap.MAX_ROWS; ++row) {
+            for (int column = 0; column < GameMap.MAX_COLUMNS; ++column) {
+                if (map.getSquare(row, column) != null) {
+                    squares.add(new PlayerPosition(row, column));
+                }
+            }
+        }
+
+        List<Player> figures = new ArrayList<>(game.getPlayers());
+        if (bot) {
+            figures.add(game.getBot());
+        }
+
+        for (Player figure : figures) {
+            figure.setPosition(new PlayerPosition(squares.get(random.nextInt(squares.size()))));
+        }
+
+        UserPlayer owner = game.getPlayers().get(0);
+
+        List<Card> weapons = WeaponParser.parseCards().toList();
+        Collections.shuffle(weapons, random);
+        List<WeaponCard> hand = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            WeaponCard weapon = (WeaponCard) weapons.get(i);
+            weapon.setStatus(new ChargedWeapon());
+            hand.add(weapon);
+        }
+        owner.setWeapons(hand);
+
+        List<Card> powerups = PowerupParser.parseCards().toList();
+        Collections.shuffle(powerups, random);
+        owner.setPowerups(List.of((PowerupCard) powerups.get(0), (PowerupCard) powerups.get(1)));
+
+        for (Ammo ammo : Ammo.values()) {
+            owner.getPlayerBoard().addAmmo(ammo);
+            owner.getPlayerBoard().addAmmo(ammo);
+        }
+
+        return owner;
+    }
+}
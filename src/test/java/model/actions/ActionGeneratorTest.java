@@ -0,0 +1,180 @@
+package model.actions;
+
+import enumerations.PlayerColor;
+import enumerations.PossibleAction;
+import enumerations.SquareType;
+import exceptions.actions.InvalidActionException;
+import exceptions.game.InvalidMapNumberException;
+import model.Game;
+import model.cards.Card;
+import model.cards.WeaponCard;
+import model.cards.weaponstates.ChargedWeapon;
+import model.map.CardSquare;
+import model.map.GameMap;
+import model.player.AmmoQuantity;
+import model.player.Player;
+import model.player.PlayerBoard;
+import model.player.PlayerPosition;
+import model.player.UserPlayer;
+import network.message.MovePickRequest;
+import network.message.MoveRequest;
+import network.message.ShootRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.WeaponParser;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionGeneratorTest {
+    Game game;
+    GameMap map;
+    UserPlayer p1;
+    UserPlayer p2;
+    UserPlayer p3;
+    Player bot;
+
+    @BeforeEach
+    void before() throws InvalidMapNumberException {
+        game = new Game();
+        Game.bind(game);
+        game.init();
+        game.initializeDecks();
+
+        p1 = new UserPlayer("1", PlayerColor.GREEN, new PlayerBoard());
+        p2 = new UserPlayer("2", PlayerColor.YELLOW, new PlayerBoard());
+        p3 = new UserPlayer("3", PlayerColor.GREY, new PlayerBoard());
+
+        game.addPlayer(p1);
+        game.addPlayer(p2);
+        game.addPlayer(p3);
+        game.setGameMap(GameMap.MAP_3);
+        game.setBot(true);
+        game.buildTerminator();
+        map = game.getGameMap();
+        bot = game.getBot();
+
+        p1.setPosition(new PlayerPosition(1, 1));
+        p2.setPosition(new PlayerPosition(0, 1));
+        p3.setPosition(new PlayerPosition(2, 3));
+        bot.setPosition(new PlayerPosition(1, 2));
+    }
+
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
+    @Test
+    void movesFollowMoveAction() throws InvalidActionException {
+        p1.setPossibleActions(EnumSet.of(PossibleAction.MOVE));
+        LegalActions actions = ActionGenerator.generate(p1, null);
+
+        assertTrue(actions.getPicks().isEmpty());
+        assertTrue(actions.getShoots().isEmpty());
+
+        int valid = 0;
+        for (int i = 0; i < GameMap.MAX_ROWS; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS; ++j) {
+                if (map.getSquare(i, j) != null && new MoveAction(p1, new PlayerPosition(i, j), PossibleAction.MOVE).validate()) {
+                    valid++;
+                }
+            }
+        }
+
+        assertEquals(valid, actions.getMoves().size());
+        for (MoveRequest move : actions.getMoves()) {
+            assertTrue(new MoveAction(p1, move.getSenderMovePosition(), PossibleAction.MOVE).validate());
+        }
+    }
+
+    @Test
+    void picksDoNotPay() throws InvalidActionException {
+        map.addMissingCards(game);
+        p1.setPossibleActions(EnumSet.of(PossibleAction.MOVE_AND_PICK));
+        AmmoQuantity ammo = new AmmoQuantity(p1.getPlayerBoard().getAmmo());
+
+        LegalActions actions = ActionGenerator.generate(p1, null);
+
+        assertFalse(actions.getPicks().isEmpty());
+        assertEquals(ammo, p1.getPlayerBoard().getAmmo());
+
+        for (MovePickRequest pick : actions.getPicks()) {
+            PlayerPosition position = pick.getSenderMovePosition();
+            assertTrue(p1.getPosition().distanceOf(position) <= 1);
+
+            if (map.getSquare(position).getSquareType() == SquareType.TILE) {
+                assertTrue(((CardSquare) map.getSquare(position)).isAmmoTilePresent());
+                assertTrue(new PickAction(p1, PossibleAction.MOVE_AND_PICK, pick).validate());
+            } else {
+                assertNotNull(pick.getAddingWeapon());
+            }
+        }
+    }
+
+    @Test
+    void shootsAreValid() throws InvalidActionException {
+        p1.setWeapons(chargedWeapons("Lock Rifle", "Railgun", "Sledgehammer"));
+        p1.setPossibleActions(EnumSet.of(PossibleAction.ADRENALINE_SHOOT));
+
+        LegalActions actions = ActionGenerator.generate(p1, null);
+
+        assertFalse(actions.isTruncated());
+        assertFalse(actions.getShoots().isEmpty());
+        assertEquals(new PlayerPosition(1, 1), p1.getPosition());
+
+        Set<String> lockRifleTargets = new HashSet<>();
+        for (ShootRequest shoot : actions.getShoots()) {
+            assertTrue(new ShootAction(p1, PossibleAction.ADRENALINE_SHOOT, shoot).validate());
+
+            if (shoot.getWeaponID() == 0 && shoot.getEffect() == 0 && shoot.getMoveBeforeShootPosition() == null) {
+                lockRifleTargets.add(shoot.getTargetPlayersUsername().get(0));
+            }
+        }
+
+        // the base effect of the lock rifle hits one target the shooter can see
+        Set<String> visible = new HashSet<>();
+        for (Player other : List.of(p2, p3, bot)) {
+            if (p1.canSee(other)) {
+                visible.add(other.getUsername());
+            }
+        }
+
+        assertEquals(visible, lockRifleTargets);
+    }
+
+    @Test
+    void budgetTruncatesShoots() {
+        p1.setWeapons(chargedWeapons("Lock Rifle", "Railgun", "Sledgehammer"));
+        p1.setPossibleActions(EnumSet.of(PossibleAction.SHOOT));
+
+        LegalActions actions = ActionGenerator.generate(p1, null, 1);
+
+        assertTrue(actions.isTruncated());
+        assertTrue(actions.getShoots().size() <= 1);
+        assertEquals(new PlayerPosition(1, 1), p1.getPosition());
+    }
+
+    private List<WeaponCard> chargedWeapons(String... names) {
+        List<WeaponCard> chosen = new ArrayList<>();
+
+        for (String name : names) {
+            for (Card card : WeaponParser.parseCards().toList()) {
+                WeaponCard weapon = (WeaponCard) card;
+
+                if (weapon.getName().equals(name)) {
+                    weapon.setStatus(new ChargedWeapon());
+                    chosen.add(weapon);
+                }
+            }
+        }
+
+        return chosen;
+    }
+}
@@ -9,10 +9,11 @@ import model.player.Bot;
 import model.player.PlayerBoard;
 import model.player.PlayerPosition;
 import model.player.UserPlayer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.List;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,7 +27,8 @@ class BotActionTest {
 
     @BeforeEach
     void before() throws InvalidMapNumberException {
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
         game.init();
         game.initializeDecks();
 
@@ -40,6 +42,11 @@ class BotActionTest {
         game.setGameMap(GameMap.MAP_3);
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void botAction() throws InvalidActionException {
         game.setBot(true);
@@ -89,7 +96,7 @@ class BotActionTest {
         action.execute();
         assertEquals(1, p2.getPlayerBoard().getDamageCount());
 
-        bot.getPlayerBoard().setDamages(List.of("", "", "", "", "", ""));
+        bot.getPlayerBoard().setDamages(Collections.nCopies(6, p1));
         action = new BotAction(p1, p2, new PlayerPosition(0,1));
         action.execute();
         assertEquals(2, p2.getPlayerBoard().getDamageCount());
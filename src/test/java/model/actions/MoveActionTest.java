@@ -7,14 +7,21 @@ import model.Game;
 import model.player.PlayerBoard;
 import model.player.PlayerPosition;
 import model.player.UserPlayer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class MoveActionTest {
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void moveAction() throws Exception {
         UserPlayer moving = new UserPlayer("1", PlayerColor.GREEN, new PlayerBoard());
+        Game.bind(new Game());
         Game.getInstance().setGameMap(3);
         moving.setPosition(new PlayerPosition(0,0));
 
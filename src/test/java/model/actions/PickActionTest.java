@@ -14,6 +14,7 @@ import model.player.PlayerBoard;
 import model.player.PlayerPosition;
 import model.player.UserPlayer;
 import network.message.MovePickRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import utility.WeaponParser;
@@ -32,7 +33,8 @@ class PickActionTest {
 
     @BeforeEach
     void before() throws InvalidMapNumberException {
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
         game.init();
         game.initializeDecks();
 
@@ -48,6 +50,11 @@ class PickActionTest {
         game.setGameMap(GameMap.MAP_3);
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
 
     @Test
     void pickAction() throws InvalidActionException {
@@ -5,6 +5,7 @@ import model.Game;
 import model.player.AmmoQuantity;
 import model.player.PlayerBoard;
 import model.player.UserPlayer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -45,14 +46,20 @@ public class AmmoTileTest {
         boardB = new PlayerBoard();
         playerTestA = new UserPlayer("playerTestA", PlayerColor.YELLOW, boardA);
         playerTestB = new UserPlayer("playerTestB", PlayerColor.GREEN, boardB);
-        onlyAmmoTile = new AmmoTile(null, defaultAllDifferent, false);
-        onlyAmmoTile2 = new AmmoTile(null, defaultAllDifferent, false);
-        ammoPowerupTile = new AmmoTile(null, redBlueAndPowerup, true);
+        onlyAmmoTile = new AmmoTile(null, defaultAllDifferent, false, 0);
+        onlyAmmoTile2 = new AmmoTile(null, defaultAllDifferent, false, 1);
+        ammoPowerupTile = new AmmoTile(null, redBlueAndPowerup, true, 2);
 
+        Game.bind(new Game());
         Game.getInstance().init();
         Game.getInstance().initializeDecks();
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void defaultMethods() {
         assertFalse(onlyAmmoTile.isPickPowerup());
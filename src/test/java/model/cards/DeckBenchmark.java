@@ -0,0 +1,105 @@
+package model.cards;
+
+import simulation.Agent;
+import simulation.MatchResult;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+import utility.AmmoTileParser;
+import utility.PowerupParser;
+import utility.WeaponParser;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark measuring the {@link Deck Deck}. The first part cycles the three decks of {@code weapons.json},
+ * {@code powerups.json} and {@code ammotiles.json} as a match does: every card is drawn and discarded, then the
+ * discarded cards are shuffled back into the deck. The second part plays whole simulated matches and reports the
+ * bytes allocated per match, decks included.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> model.cards.DeckBenchmark [cycles] [matches]}
+ */
+public class DeckBenchmark {
+    private static final long SEED = 27;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int cycles = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int matches = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        Deck[] decks = {WeaponParser.parseCards(), PowerupParser.parseCards(), AmmoTileParser.parseCards()};
+        String[] names = {"weapons", "powerups", "ammo tiles"};
+
+        // warm up
+        for (Deck deck : decks) {
+            cycle(deck, random, cycles / 10);
+        }
+
+        System.out.printf("%-12s %8s %12s %14s%n", "deck", "cards", "ns/cycle", "bytes/cycle");
+
+        for (int i = 0; i < decks.length; ++i) {
+            long allocated = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            cycle(decks[i], random, cycles);
+            long elapsed = System.nanoTime() - start;
+            allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+
+            System.out.printf("%-12s %8d %12.1f %14.1f%n",
+                    names[i], decks[i].numOfCards(), (double) elapsed / cycles, (double) allocated / cycles);
+        }
+
+        SimulationEngine engine = new SimulationEngine();
+        play(engine, matches / 4);
+
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int turns = play(engine, matches);
+        long elapsed = System.nanoTime() - start;
+        allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+
+        System.out.printf("%nmatches: %d, turns/match: %.1f, matches/s: %.1f, KB/match: %d%n",
+                matches, (double) turns / matches, matches / (elapsed / 1e9), allocated / matches / 1024);
+    }
+
+    /**
+     * Draws and discards every card of the deck, then shuffles the discarded ones back into it
+     */
+    private static void cycle(Deck deck, SplittableRandom random, int cycles) {
+        for (int i = 0; i < cycles; ++i) {
+            Card card;
+            int drawn = 0;
+            int size = deck.numOfCards();
+
+            while (drawn < size && (card = deck.draw()) != null) {
+                deck.discardCard(card);
+                ++drawn;
+            }
+
+            deck.shuffle(random);
+        }
+    }
+
+    /**
+     * @return the number of turns of the matches
+     */
+    private static int play(SimulationEngine engine, int matches) {
+        int turns = 0;
+
+        for (int i = 0; i < matches; ++i) {
+            List<Agent> agents = new ArrayList<>();
+            for (int j = 0; j < 5; ++j) {
+                agents.add(new RandomAgent(SEED + i * 8L + j));
+            }
+
+            MatchResult result = engine.play(1 + i % 4, false, 8, agents, SEED + i);
+            turns += result.getTurns();
+        }
+
+        return turns;
+    }
+}
@@ -6,6 +6,8 @@ import utility.AmmoTileParser;
 import utility.PowerupParser;
 import utility.WeaponParser;
 
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
@@ -50,7 +52,7 @@ class DeckTest {
         assertThrows(NullPointerException.class, () -> garbage.discardCard(null));
         assertEquals(4, garbage.numOfDiscards());
 
-        garbage.shuffle();
+        garbage.shuffle(new SplittableRandom(0));
         garbage.flush();
         garbage.toString();
     }
@@ -62,7 +64,7 @@ class DeckTest {
         noGarbage.addCard(mock(UsableCard.class));
         noGarbage.addCard(mock(UsableCard.class));
 
-        noGarbage.shuffle();
+        noGarbage.shuffle(new SplittableRandom(0));
         noGarbage.discardCard(noGarbage.draw());
 
         assertThrows(NullPointerException.class, () -> noGarbage.numOfDiscards());
@@ -70,6 +72,59 @@ class DeckTest {
         noGarbage.flush();
     }
 
+    @Test
+    void cardsKeepTheirOrder() {
+        Card[] cards = new Card[40];
+        for (int i = 0; i < cards.length; ++i) {
+            cards[i] = mock(UsableCard.class);
+            garbage.addCard(cards[i]);
+        }
+
+        for (int i = 0; i < 10; ++i) {
+            assertSame(cards[i], garbage.draw());
+        }
+
+        for (int i = 0; i < 15; ++i) {
+            garbage.discardCard(cards[i % 10]);
+        }
+
+        assertEquals(30, garbage.numOfCards());
+        assertEquals(15, garbage.numOfDiscards());
+        assertSame(cards[10], garbage.draw());
+
+        garbage.addCard(cards[0]);
+        assertEquals(30, garbage.numOfCards());
+        assertSame(cards[0], garbage.toList().get(29));
+        assertSame(cards[4], garbage.toList().get(30));
+
+        garbage.shuffle(new SplittableRandom(0));
+        assertEquals(45, garbage.numOfCards());
+        assertEquals(0, garbage.numOfDiscards());
+
+        Deck copy = new Deck(garbage, true);
+        for (int i = 0; i < 45; ++i) {
+            assertSame(garbage.draw(), copy.draw());
+        }
+
+        assertNull(garbage.draw());
+        assertNull(copy.draw());
+    }
+
+    @Test
+    void shuffleDependsOnTheGenerator() {
+        for (int i = 0; i < 20; ++i) {
+            noGarbage.addCard(mock(UsableCard.class));
+        }
+
+        Deck first = new Deck(noGarbage);
+        Deck second = new Deck(noGarbage);
+        first.shuffle(new SplittableRandom(27));
+        second.shuffle(new SplittableRandom(27));
+
+        assertEquals(first.toList(), second.toList());
+        assertTrue(first.toList().containsAll(noGarbage.toList()));
+    }
+
     @Test
     void weaponDeck() {
         Deck deck = WeaponParser.parseCards();
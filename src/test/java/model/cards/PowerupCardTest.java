@@ -13,6 +13,7 @@ import model.player.PlayerBoard;
 import model.player.PlayerPosition;
 import model.player.UserPlayer;
 import network.message.PowerupRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -35,7 +36,8 @@ class PowerupCardTest {
 
     @BeforeEach
     void before() throws InvalidMapNumberException {
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
         pl1 = new UserPlayer("1", PlayerColor.PURPLE, new PlayerBoard());
         pl2 = new UserPlayer("2", PlayerColor.GREEN, new PlayerBoard());
         pl3 = new UserPlayer("3", PlayerColor.YELLOW, new PlayerBoard());
@@ -49,6 +51,11 @@ class PowerupCardTest {
         game.startGame();
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void defaultMethods() {
         PowerupCard p1, p2, p3;
@@ -154,6 +161,29 @@ class PowerupCardTest {
 
     }
 
+    @Test
+    void targetingScopeOnFullBoard() {
+        PowerupCard targetingScope = drawPowerup("TARGETING SCOPE");
+
+        ArrayList<Integer> powerup = new ArrayList<>();
+        powerup.add(0);
+        ArrayList<Ammo> payingColors = new ArrayList<>();
+        payingColors.add(Ammo.RED);
+
+        pl2.getPlayerBoard().addDamage(pl3, 12);
+        userTargets.add(pl2.getUsername());
+
+        builder = new PowerupRequest.PowerupRequestBuilder(pl1.getUsername(), null, powerup);
+        builder = builder.targetPlayersUsername(userTargets);
+        builder = builder.ammoColor(payingColors);
+
+        powerupRequest = builder.build();
+        assertDoesNotThrow(() -> targetingScope.use(powerupRequest));
+
+        assertEquals(12, pl2.getPlayerBoard().getDamageCount());
+        assertEquals(PlayerColor.YELLOW, pl2.getPlayerBoard().getDamageColors().get(11));
+    }
+
     private PowerupCard drawPowerup(String name) {
         PowerupCard powerupCard = null;
 
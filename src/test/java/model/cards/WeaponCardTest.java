@@ -20,6 +20,7 @@ import model.cards.weaponstates.UnchargedWeapon;
 import model.cards.weaponstates.WeaponState;
 import model.player.*;
 import network.message.ShootRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import utility.WeaponParser;
@@ -73,7 +74,8 @@ class WeaponCardTest {
         target3 = new UserPlayer("target3", PlayerColor.YELLOW, new PlayerBoard());
         target4 = new UserPlayer("target4", PlayerColor.GREEN, new PlayerBoard());
 
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
         game.init();
         game.initializeDecks();
         game.setGameMap(1);
@@ -85,6 +87,11 @@ class WeaponCardTest {
         game.addPlayer((UserPlayer) target4);
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void status() {
         WeaponCard testWhisper = getWeaponByName("Whisper");
@@ -0,0 +1,95 @@
+package model.cards.effects;
+
+import enumerations.Properties;
+import enumerations.TargetType;
+import model.cards.Card;
+import model.cards.PowerupCard;
+import model.cards.WeaponCard;
+import org.junit.jupiter.api.Test;
+import utility.PowerupParser;
+import utility.WeaponParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectRulesTest {
+    private static void assertCompiled(Map<String, String> properties, TargetType targetType, EffectRules rules) {
+        assertEquals(targetType, rules.targetType);
+
+        assertNumber(properties, Properties.TARGET_NUM, Properties.MAX_TARGET_NUM, rules.targetNum, rules.exactTargetNum);
+        assertNumber(properties, Properties.DISTANCE, Properties.MIN_DISTANCE, rules.distance, rules.exactDistance);
+        assertNumber(properties, Properties.MOVE, null, rules.move, true);
+        assertNumber(properties, Properties.MOVE_TARGET, null, rules.moveTarget, true);
+        assertNumber(properties, Properties.MAX_MOVE_TARGET, null, rules.maxMoveTarget, true);
+
+        assertEquals(properties.containsKey(Properties.MOVE_INLINE.getJKey()), rules.moveInLine);
+        assertEquals(properties.containsKey(Properties.MOVE_TARGET_BEFORE.getJKey()), rules.checkMoveTargetBefore);
+        assertEquals(Boolean.parseBoolean(properties.get(Properties.MOVE_TARGET_BEFORE.getJKey())), rules.moveTargetBefore);
+        assertEquals(properties.containsKey(Properties.MOVE_TO_LAST_TARGET.getJKey()), rules.moveToLastTarget);
+        assertEquals(properties.containsKey(Properties.INLINE.getJKey()), rules.inLine);
+        assertEquals(properties.containsKey(Properties.SAME_POSITION.getJKey()), rules.samePosition);
+        assertEquals(properties.containsKey(Properties.VISIBLE.getJKey()), rules.checkVisible);
+        assertEquals(Boolean.parseBoolean(properties.get(Properties.VISIBLE.getJKey())), rules.visible);
+        assertEquals(properties.containsKey(Properties.CONCATENATED_VISIBLE.getJKey()), rules.concatenatedVisible);
+        assertEquals(properties.containsKey(Properties.TP.getJKey()), rules.teleport);
+    }
+
+    private static void assertNumber(Map<String, String> properties, Properties exact, Properties bound, int value, boolean exactValue) {
+        if (properties.containsKey(exact.getJKey())) {
+            assertEquals(Integer.parseInt(properties.get(exact.getJKey())), value);
+            assertTrue(exactValue);
+        } else if (bound != null && properties.containsKey(bound.getJKey())) {
+            assertEquals(Integer.parseInt(properties.get(bound.getJKey())), value);
+            assertFalse(exactValue);
+        } else {
+            assertEquals(EffectRules.ABSENT, value);
+        }
+    }
+
+    private static void assertCompiled(Effect effect) {
+        TargetType[] targets = effect.getTargets();
+        EffectRules[] rules = effect.getRules();
+
+        assertEquals(targets.length, rules.length);
+
+        if (targets.length > 1) {
+            for (int i = 0; i < targets.length; ++i) {
+                assertCompiled(EffectValidator.getSubMap(effect.getProperties(), targets[i]), targets[i], rules[i]);
+            }
+        } else {
+            assertCompiled(effect.getProperties(), targets[0], rules[0]);
+        }
+    }
+
+    @Test
+    void compilesEveryEffect() {
+        List<Effect> effects = new ArrayList<>();
+
+        for (Card card : WeaponParser.parseCards().toList()) {
+            effects.add(((WeaponCard) card).getBaseEffect());
+            effects.addAll(((WeaponCard) card).getSecondaryEffects());
+        }
+
+        for (Card card : PowerupParser.parseCards().toList()) {
+            effects.add(((PowerupCard) card).getBaseEffect());
+        }
+
+        for (Effect effect : effects) {
+            assertCompiled(effect);
+        }
+    }
+
+    @Test
+    void recompilesChangedProperties() {
+        WeaponBaseEffect effect = new WeaponBaseEffect(null, Map.of(Properties.TARGET_NUM.getJKey(), "1"),
+                new TargetType[]{TargetType.PLAYER}, "");
+        assertEquals(1, effect.getRules()[0].targetNum);
+
+        effect.setProperties(Map.of(Properties.MAX_TARGET_NUM.getJKey(), "3"));
+        assertEquals(3, effect.getRules()[0].targetNum);
+        assertFalse(effect.getRules()[0].exactTargetNum);
+    }
+}
@@ -3,6 +3,7 @@ package model.cards.effects;
 import exceptions.game.InvalidMapNumberException;
 import model.Game;
 import model.cards.WeaponCard;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,12 +14,18 @@ class EffectTest {
 
     @BeforeEach
     void before() throws InvalidMapNumberException {
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
         game.init();
         game.initializeDecks();
         game.setGameMap(1);
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void effectTest() {
         Effect effect = ((WeaponCard) game.getWeaponsCardsDeck().draw()).getBaseEffect();
@@ -0,0 +1,159 @@
+package model.cards.effects;
+
+import enumerations.PlayerColor;
+import enumerations.RoomColor;
+import enumerations.TargetType;
+import exceptions.game.InvalidMapNumberException;
+import model.Game;
+import model.cards.Card;
+import model.cards.WeaponCard;
+import model.map.GameMap;
+import model.player.PlayerBoard;
+import model.player.PlayerPosition;
+import model.player.UserPlayer;
+import network.message.ShootRequest;
+import utility.WeaponParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark measuring the validation of the effects of every weapon of {@code weapons.json}. Each effect is validated
+ * against a set of requests with one and two targets in different positions, so that both accepted and rejected
+ * requests are measured.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> model.cards.effects.EffectValidationBenchmark [rounds]}
+ */
+public class EffectValidationBenchmark {
+    private static final String SHOOTER = "shooter";
+    private static final String[] TARGETS = {"target1", "target2", "target3"};
+
+    public static void main(String[] args) throws InvalidMapNumberException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        Game game = new Game();
+        Game.bind(game);
+        game.init();
+        game.setGameMap(GameMap.MAP_1);
+
+        UserPlayer shooter = new UserPlayer(SHOOTER, PlayerColor.GREEN, new PlayerBoard());
+        shooter.setPosition(new PlayerPosition(1, 1));
+        game.addPlayer(shooter);
+
+        PlayerPosition[] targetPositions = {new PlayerPosition(1, 1), new PlayerPosition(0, 1), new PlayerPosition(2, 2)};
+        for (int i = 0; i < TARGETS.length; ++i) {
+            UserPlayer target = new UserPlayer(TARGETS[i], PlayerColor.values()[i], new PlayerBoard());
+            target.setPosition(targetPositions[i]);
+            game.addPlayer(target);
+        }
+
+        List<WeaponCard> weapons = new ArrayList<>();
+        for (Card card : WeaponParser.parseCards().toList()) {
+            weapons.add((WeaponCard) card);
+        }
+
+        System.out.printf("%-22s %8s %12s %12s%n", "weapon", "effects", "requests", "ns/validate");
+
+        long totalElapsed = 0;
+        long totalValidations = 0;
+
+        for (WeaponCard weapon : weapons) {
+            List<Effect> effects = new ArrayList<>();
+            effects.add(weapon.getBaseEffect());
+            effects.addAll(weapon.getSecondaryEffects());
+
+            List<Effect> validated = new ArrayList<>();
+            List<ShootRequest> requests = new ArrayList<>();
+
+            for (Effect effect : effects) {
+                for (ShootRequest request : requests(effect)) {
+                    // requests the validators reject with an exception are not measured
+                    try {
+                        effect.validate(request);
+                        validated.add(effect);
+                        requests.add(request);
+                    } catch (RuntimeException e) {
+                        // skipped
+                    }
+                }
+            }
+
+            run(validated, requests, rounds / 10);
+            long elapsed = run(validated, requests, rounds);
+            long validations = (long) rounds * requests.size();
+
+            totalElapsed += elapsed;
+            totalValidations += validations;
+
+            System.out.printf("%-22s %8d %12d %12.1f%n", weapon.getName(), effects.size(), requests.size(),
+                    validations > 0 ? (double) elapsed / validations : 0);
+        }
+
+        System.out.printf("%-22s %8s %12s %12.1f%n", "all", "", "", (double) totalElapsed / totalValidations);
+    }
+
+    /**
+     * @return the elapsed time in nanoseconds
+     */
+    private static long run(List<Effect> effects, List<ShootRequest> requests, int rounds) {
+        int accepted = 0;
+        long start = System.nanoTime();
+
+        for (int r = 0; r < rounds; ++r) {
+            for (int i = 0; i < requests.size(); ++i) {
+                if (effects.get(i).validate(requests.get(i))) {
+                    accepted++;
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        // keeps the validations from being optimized away
+        if (accepted == 42) {
+            System.out.println(accepted);
+        }
+
+        return elapsed;
+    }
+
+    private static List<ShootRequest> requests(Effect effect) {
+        List<ShootRequest> requests = new ArrayList<>();
+        TargetType[] targets = effect.getTargets();
+
+        for (int count = 1; count <= 2; ++count) {
+            for (int first = 0; first + count <= TARGETS.length; ++first) {
+                List<String> usernames = new ArrayList<>();
+                List<PlayerPosition> squares = new ArrayList<>();
+                List<PlayerPosition> moves = new ArrayList<>();
+
+                for (int i = first; i < first + count; ++i) {
+                    usernames.add(TARGETS[i]);
+                    squares.add(new PlayerPosition(i % GameMap.MAX_ROWS, i));
+                    moves.add(new PlayerPosition(1, i));
+                }
+
+                ShootRequest.ShootRequestBuilder builder = new ShootRequest.ShootRequestBuilder(SHOOTER, null, 0, 0)
+                        .senderMovePosition(new PlayerPosition(1, 2))
+                        .targetPlayersMovePositions(moves);
+
+                for (TargetType targetType : targets) {
+                    switch (targetType) {
+                        case PLAYER:
+                            builder.targetPlayersUsernames(usernames);
+                            break;
+                        case SQUARE:
+                            builder.targetPositions(squares);
+                            break;
+                        default:
+                            builder.targetRoomColor(RoomColor.values()[first % RoomColor.values().length]);
+                    }
+                }
+
+                requests.add(builder.build());
+            }
+        }
+
+        return requests;
+    }
+}
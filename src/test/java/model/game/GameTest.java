@@ -5,6 +5,7 @@ import exceptions.AdrenalinaException;
 import exceptions.game.*;
 import model.Game;
 import model.player.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -16,11 +17,17 @@ class GameTest {
 
     @BeforeEach
     void before() throws InvalidMapNumberException {
-        this.instance = Game.getInstance();
+        this.instance = new Game();
+        Game.bind(instance);
         Game.getInstance().init();
         Game.getInstance().setGameMap(1);
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void getInstance() {
         assertFalse(instance.isGameStarted());
@@ -29,6 +36,21 @@ class GameTest {
         assertEquals(instance, Game.getInstance());
     }
 
+    @Test
+    void binding() {
+        Game other = new Game();
+
+        assertEquals(instance, Game.bind(null));
+        assertThrows(IllegalStateException.class, Game::getInstance);
+
+        Game.bound(other, () -> assertEquals(other, Game.getInstance())).run();
+        assertThrows(IllegalStateException.class, Game::getInstance);
+
+        Game.bind(instance);
+        Game.bound(other, () -> assertEquals(other, Game.getInstance())).run();
+        assertEquals(instance, Game.getInstance());
+    }
+
     @Test
     void addPlayer() throws AdrenalinaException {
         instance.addPlayer(mock(UserPlayer.class));
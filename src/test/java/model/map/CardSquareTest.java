@@ -5,6 +5,7 @@ import enumerations.SquareAdjacency;
 import model.Game;
 import model.cards.AmmoTile;
 import model.cards.WeaponCard;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.internal.matchers.Null;
@@ -20,7 +21,8 @@ public class CardSquareTest {
 
     @BeforeEach
     void before() {
-        game = Game.getInstance();
+        game = new Game();
+        Game.bind(game);
         game.init();
         game.initializeDecks();
 
@@ -30,6 +32,11 @@ public class CardSquareTest {
                 SquareAdjacency.DOOR, SquareAdjacency.SQUARE, mock(AmmoTile.class));
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void defaultMethods() {
         assertThrows(NullPointerException.class, () -> noTileSquare.pickAmmoTile());
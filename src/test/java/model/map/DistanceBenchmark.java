@@ -0,0 +1,74 @@
+package model.map;
+
+import model.player.PlayerPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark measuring the time needed to compute the distances between every pair of squares of each map with the
+ * previous recursive path search and with the distances precomputed by {@link GameMap GameMap}.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> model.map.DistanceBenchmark [rounds]}
+ */
+public class DistanceBenchmark {
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+
+        System.out.printf("%-6s %8s %22s %22s%n", "map", "pairs", "path search (ns/pair)", "precomputed (ns/pair)");
+
+        for (int mapID = GameMap.MAP_1; mapID <= GameMap.MAP_4; ++mapID) {
+            GameMap gameMap = new GameMap(mapID);
+            List<PlayerPosition> squares = squares(gameMap);
+            int pairs = squares.size() * squares.size();
+
+            run(gameMap, squares, rounds / 10, true);
+            run(gameMap, squares, rounds / 10, false);
+
+            long legacy = run(gameMap, squares, rounds, true);
+            long precomputed = run(gameMap, squares, rounds, false);
+
+            System.out.printf("%-6d %8d %22.1f %22.1f%n", mapID, pairs,
+                    (double) legacy / rounds / pairs, (double) precomputed / rounds / pairs);
+        }
+    }
+
+    private static List<PlayerPosition> squares(GameMap gameMap) {
+        List<PlayerPosition> squares = new ArrayList<>();
+
+        for (int row = 0; row < GameMap.MAX_ROWS; ++row) {
+            for (int column = 0; column < GameMap.MAX_COLUMNS; ++column) {
+                if (gameMap.getSquare(row, column) != null) {
+                    squares.add(new PlayerPosition(row, column));
+                }
+            }
+        }
+
+        return squares;
+    }
+
+    /**
+     * @return the elapsed time in nanoseconds
+     */
+    private static long run(GameMap gameMap, List<PlayerPosition> squares, int rounds, boolean legacy) {
+        long sum = 0;
+        long start = System.nanoTime();
+
+        for (int r = 0; r < rounds; ++r) {
+            for (PlayerPosition from : squares) {
+                for (PlayerPosition to : squares) {
+                    sum += legacy ? LegacyPositionQueries.distance(from, to, gameMap) : to.distanceOf(from, gameMap);
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        // keeps the distances from being optimized away
+        if (sum == 42) {
+            System.out.println(sum);
+        }
+
+        return elapsed;
+    }
+}
@@ -8,8 +8,11 @@ import model.Game;
 import model.player.PlayerBoard;
 import model.player.PlayerPosition;
 import model.player.UserPlayer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,6 +20,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
 class GameMapTest {
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void mapInstances() {
         GameMap gameMap = new GameMap(GameMap.MAP_1);
@@ -45,7 +53,8 @@ class GameMapTest {
 
     @Test
     void playersOnMap() throws MaxPlayerException, GameAlreadyStartedException, NotEnoughPlayersException, GameNotReadyException, InvalidMapNumberException {
-        Game instance = Game.getInstance();
+        Game instance = new Game();
+        Game.bind(instance);
 
         instance.init();
         instance.setGameMap(GameMap.MAP_2);
@@ -107,4 +116,88 @@ class GameMapTest {
         assertEquals( 2, gameMap.getRoom(RoomColor.GREY).size());
         assertEquals( 1, gameMap.getRoom(RoomColor.PURPLE).size());
     }
+
+    @Test
+    void distancesMatchPathSearch() {
+        for (int mapID = GameMap.MAP_1; mapID <= GameMap.MAP_4; ++mapID) {
+            GameMap gameMap = new GameMap(mapID);
+
+            for (int fromRow = 0; fromRow < GameMap.MAX_ROWS; ++fromRow) {
+                for (int fromColumn = 0; fromColumn < GameMap.MAX_COLUMNS; ++fromColumn) {
+                    PlayerPosition from = new PlayerPosition(fromRow, fromColumn);
+                    if (gameMap.getSquare(from) == null) continue;
+
+                    for (int toRow = 0; toRow < GameMap.MAX_ROWS; ++toRow) {
+                        for (int toColumn = 0; toColumn < GameMap.MAX_COLUMNS; ++toColumn) {
+                            PlayerPosition to = new PlayerPosition(toRow, toColumn);
+                            if (gameMap.getSquare(to) == null) continue;
+
+                            assertEquals(LegacyPositionQueries.distance(from, to, gameMap), gameMap.distance(from, to),
+                                    "map " + mapID + " from " + from + " to " + to);
+                            assertEquals(gameMap.distance(from, to), to.distanceOf(from, gameMap));
+                        }
+                    }
+                }
+            }
+
+            // the copy shares the distances of the original
+            assertEquals(gameMap.distance(new PlayerPosition(0, 0), new PlayerPosition(2, 2)),
+                    new GameMap(gameMap).distance(new PlayerPosition(0, 0), new PlayerPosition(2, 2)));
+        }
+    }
+
+    @Test
+    void visibilityMatchesRooms() {
+        for (int mapID = GameMap.MAP_1; mapID <= GameMap.MAP_4; ++mapID) {
+            GameMap gameMap = new GameMap(mapID);
+
+            for (PlayerPosition from : squares(gameMap)) {
+                int expected = 0;
+
+                for (PlayerPosition to : squares(gameMap)) {
+                    boolean visible = LegacyPositionQueries.canSee(from, to, gameMap);
+                    assertEquals(visible, gameMap.canSee(from, to), "map " + mapID + " from " + from + " to " + to);
+
+                    if (visible) {
+                        expected |= GameMap.squareBit(to);
+                    }
+                }
+
+                assertEquals(expected, gameMap.getVisibleSquares(from));
+            }
+        }
+    }
+
+    @Test
+    void visiblePlayers() {
+        GameMap gameMap = new GameMap(GameMap.MAP_1);
+
+        UserPlayer p1 = new UserPlayer("tose", PlayerColor.YELLOW, mock(PlayerBoard.class));
+        UserPlayer p2 = new UserPlayer("gio", PlayerColor.GREEN, mock(PlayerBoard.class));
+        UserPlayer p3 = new UserPlayer("piro", PlayerColor.BLUE, mock(PlayerBoard.class));
+
+        p1.setPosition(new PlayerPosition(0, 0));
+        p2.setPosition(new PlayerPosition(2, 3));
+
+        PlayerPosition from = new PlayerPosition(0, 1);
+        int expected = (gameMap.canSee(from, p1.getPosition()) ? 1 : 0) | (gameMap.canSee(from, p2.getPosition()) ? 2 : 0);
+
+        assertEquals(1, expected & 1);
+        assertEquals(expected, gameMap.getVisiblePlayers(from, List.of(p1, p2, p3)));
+        assertEquals(0, gameMap.getVisiblePlayers(from, List.of()));
+    }
+
+    private static List<PlayerPosition> squares(GameMap gameMap) {
+        List<PlayerPosition> squares = new ArrayList<>();
+
+        for (int row = 0; row < GameMap.MAX_ROWS; ++row) {
+            for (int column = 0; column < GameMap.MAX_COLUMNS; ++column) {
+                if (gameMap.getSquare(row, column) != null) {
+                    squares.add(new PlayerPosition(row, column));
+                }
+            }
+        }
+
+        return squares;
+    }
 }
@@ -0,0 +1,159 @@
+package model.map;
+
+import enumerations.SquareAdjacency;
+import model.player.PlayerPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The recursive path search and the visibility check previously used by {@link PlayerPosition PlayerPosition}, kept
+ * as the reference the precomputed distances and visibility of {@link GameMap GameMap} are checked against
+ */
+final class LegacyPositionQueries {
+    private LegacyPositionQueries() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the minimum distance from {@code from} to {@code to}, explored starting from {@code from}
+     */
+    static int distance(PlayerPosition from, PlayerPosition to, GameMap map) {
+        List<Integer> cases = new ArrayList<>();
+        List<Integer> stepsList = new ArrayList<>();
+        List<PlayerPosition> alreadyVisited = new ArrayList<>();
+        PlayerPosition p1 = new PlayerPosition(to);
+        PlayerPosition p2 = new PlayerPosition(from);
+
+        if (p1.equals(p2)) {
+            return 0;
+        }
+
+        int steps = 0;
+
+        do {
+            alreadyVisited.add(new PlayerPosition(p2));
+            selectCases(cases, alreadyVisited, p2, map);
+            steps++;
+
+            if (cases.isEmpty()) {
+                steps = 1000;
+                break;
+            } else {
+                subProcessSwitches(alreadyVisited, stepsList, cases, p1, p2, steps, map);
+            }
+            cases.clear();
+        } while (!p1.equals(p2));
+
+        stepsList.add(steps);
+        int minSteps = 999;
+
+        for (Integer integer : stepsList) {
+            if (minSteps > integer) minSteps = integer;
+        }
+
+        return minSteps;
+    }
+
+    private static void subProcessDistanceOf(List<PlayerPosition> alreadyVisited, List<Integer> stepsList, PlayerPosition p1, PlayerPosition p2, int steps, GameMap map) {
+        List<Integer> cases = new ArrayList<>();
+
+        while (!p1.equals(p2)) {
+            alreadyVisited.add(new PlayerPosition(p2));
+            selectCases(cases, alreadyVisited, p2, map);
+            steps++;
+
+            if (cases.isEmpty()) {
+                stepsList.add(1000);
+                return;
+            } else {
+                subProcessSwitches(alreadyVisited, stepsList, cases, p1, p2, steps, map);
+            }
+            cases.clear();
+        }
+        stepsList.add(steps);
+    }
+
+    private static void subProcessSwitches(List<PlayerPosition> alreadyVisited, List<Integer> stepsList, List<Integer> cases, PlayerPosition p1, PlayerPosition p2, int steps, GameMap map) {
+        for (int i = 1; i < cases.size(); i++) {
+            switch (cases.get(i)) {
+                case 1:
+                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow() + 1, p2.getColumn()), steps, map);
+                    break;
+                case 2:
+                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow(), p2.getColumn() + 1), steps, map);
+                    break;
+                case 3:
+                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow() - 1, p2.getColumn()), steps, map);
+                    break;
+                default:
+                    subProcessDistanceOf(new ArrayList<>(alreadyVisited), stepsList, p1, new PlayerPosition(p2.getRow(), p2.getColumn() - 1), steps, map);
+            }
+        }
+
+        switch (cases.get(0)) {
+            case 1:
+                p2.setRow(p2.getRow() + 1);
+                break;
+            case 2:
+                p2.setColumn(p2.getColumn() + 1);
+                break;
+            case 3:
+                p2.setRow(p2.getRow() - 1);
+                break;
+            default:
+                p2.setColumn(p2.getColumn() - 1);
+        }
+    }
+
+    private static void selectCases(List<Integer> cases, List<PlayerPosition> alreadyVisited, PlayerPosition pos, GameMap map) {
+        Square current = map.getSquare(pos.getRow(), pos.getColumn());
+
+        if (passable(current.getSouth()) && !alreadyVisited.contains(new PlayerPosition(pos.getRow() + 1, pos.getColumn()))) {
+            cases.add(1);
+        }
+        if (passable(current.getEast()) && !alreadyVisited.contains(new PlayerPosition(pos.getRow(), pos.getColumn() + 1))) {
+            cases.add(2);
+        }
+        if (passable(current.getNorth()) && !alreadyVisited.contains(new PlayerPosition(pos.getRow() - 1, pos.getColumn()))) {
+            cases.add(3);
+        }
+        if (passable(current.getWest()) && !alreadyVisited.contains(new PlayerPosition(pos.getRow(), pos.getColumn() - 1))) {
+            cases.add(4);
+        }
+    }
+
+    private static boolean passable(SquareAdjacency adjacency) {
+        return adjacency == SquareAdjacency.DOOR || adjacency == SquareAdjacency.SQUARE;
+    }
+
+    /**
+     * @return {@code true} if {@code to} is in the room of {@code from} or in a room one of its doors leads to
+     */
+    static boolean canSee(PlayerPosition from, PlayerPosition to, GameMap map) {
+        Square targetSquare = map.getSquare(to);
+        Square playerSquare = map.getSquare(from);
+
+        if (targetSquare.getRoomColor().equals(playerSquare.getRoomColor())) {
+            return true;
+        }
+
+        if (playerSquare.getNorth() == SquareAdjacency.DOOR &&
+                map.getSquare(from.getRow() - 1, from.getColumn()).getRoomColor() == targetSquare.getRoomColor()) {
+            return true;
+        }
+
+        if (playerSquare.getEast() == SquareAdjacency.DOOR &&
+                map.getSquare(from.getRow(), from.getColumn() + 1).getRoomColor() == targetSquare.getRoomColor()) {
+            return true;
+        }
+
+        if (playerSquare.getSouth() == SquareAdjacency.DOOR &&
+                map.getSquare(from.getRow() + 1, from.getColumn()).getRoomColor() == targetSquare.getRoomColor()) {
+            return true;
+        }
+
+        return playerSquare.getWest() == SquareAdjacency.DOOR &&
+                map.getSquare(from.getRow(), from.getColumn() - 1).getRoomColor() == targetSquare.getRoomColor();
+    }
+}
@@ -0,0 +1,102 @@
+package model.player;
+
+import enumerations.PlayerColor;
+import enumerations.RoomColor;
+import exceptions.game.InvalidMapNumberException;
+import model.Game;
+import model.map.GameMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OccupancyIndexTest {
+    private Game game;
+    private GameMap map;
+    private UserPlayer p1;
+    private UserPlayer p2;
+
+    @BeforeEach
+    void before() throws InvalidMapNumberException {
+        game = new Game();
+        game.setGameMap(GameMap.MAP_2);
+        map = game.getGameMap();
+
+        p1 = new UserPlayer("tose", PlayerColor.YELLOW, mock(PlayerBoard.class));
+        p2 = new UserPlayer("gio", PlayerColor.GREEN, mock(PlayerBoard.class));
+        p1.setPosition(new PlayerPosition(0, 0));
+        p2.setPosition(new PlayerPosition(0, 1));
+
+        game.addPlayer(p1);
+        game.addPlayer(p2);
+    }
+
+    @Test
+    void followsMoves() {
+        PlayerPosition first = new PlayerPosition(0, 0);
+        RoomColor blue = map.getSquare(first).getRoomColor();
+
+        assertEquals(List.of(p1), map.getPlayersInSquare(first, game));
+        assertEquals(List.of(p1, p2), map.getPlayersInRoom(blue, game));
+
+        p1.changePosition(0, 1);
+        assertTrue(map.getPlayersInSquare(first, game).isEmpty());
+        assertEquals(List.of(p1, p2), map.getPlayersInSquare(new PlayerPosition(0, 1), game));
+
+        p2.setPosition(new PlayerPosition(2, 3));
+        assertEquals(List.of(p1), map.getPlayersInRoom(blue, game));
+        assertEquals(List.of(p2), map.getPlayersInRoom(map.getSquare(2, 3).getRoomColor(), game));
+
+        // dead players are removed from the map
+        p2.setPosition(null);
+        assertTrue(map.getPlayersInSquare(new PlayerPosition(2, 3), game).isEmpty());
+
+        OccupancyIndex index = game.getOccupancy(map);
+        assertEquals(0b01, index.getSquareMask(new PlayerPosition(0, 1)));
+        assertEquals(0b01, index.getRoomMask(blue));
+    }
+
+    @Test
+    void sharesListsUntilChange() {
+        PlayerPosition first = new PlayerPosition(0, 0);
+        List<Player> occupants = map.getPlayersInSquare(first, game);
+
+        assertSame(occupants, map.getPlayersInSquare(first, game));
+        assertThrows(UnsupportedOperationException.class, () -> occupants.add(p2));
+
+        p2.setPosition(new PlayerPosition(0, 0));
+        assertEquals(List.of(p1, p2), map.getPlayersInSquare(first, game));
+        assertEquals(List.of(p1), occupants);
+    }
+
+    @Test
+    void ignoresCopiesAndRebuilds() {
+        PlayerPosition first = new PlayerPosition(0, 0);
+
+        game.setBot(true);
+        game.buildTerminator();
+        Player bot = game.getBot();
+        bot.setPosition(new PlayerPosition(0, 0));
+        assertEquals(List.of(p1, bot), map.getPlayersInSquare(first, game));
+
+        // copies, like the one of the bot action, do not move the indexed player
+        Bot copy = new Bot((Bot) bot);
+        copy.changePosition(2, 3);
+        copy.setPosition(null);
+        assertEquals(List.of(p1, bot), map.getPlayersInSquare(first, game));
+
+        // players added after the first query are indexed
+        UserPlayer p3 = new UserPlayer("piro", PlayerColor.BLUE, mock(PlayerBoard.class));
+        p3.setPosition(new PlayerPosition(0, 0));
+        game.addPlayer(p3);
+        assertEquals(List.of(p1, p3, bot), map.getPlayersInSquare(first, game));
+
+        // the game reinitialized stops following its previous players
+        game.init();
+        p1.changePosition(1, 1);
+        assertTrue(new GameMap(GameMap.MAP_2).getPlayersInSquare(new PlayerPosition(1, 1), game).isEmpty());
+    }
+}
@@ -1,6 +1,7 @@
 package model.player;
 
 import enumerations.Ammo;
+import enumerations.PlayerColor;
 
 import exceptions.AdrenalinaException;
 import exceptions.playerboard.BoardAlreadyFlippedException;
@@ -10,6 +11,8 @@ import exceptions.playerboard.NotEnoughAmmoException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -57,6 +60,69 @@ class PlayerBoardTest {
         assertEquals(0, playerBoard.getMarkCount());
     }
 
+    @Test
+    void damageRanking() {
+        Player other = mock(Player.class);
+        when(other.getUsername()).thenReturn("Pluto");
+        when(other.getColor()).thenReturn(PlayerColor.GREEN);
+        when(damageDealer.getColor()).thenReturn(PlayerColor.BLUE);
+
+        playerBoard.addDamage(damageDealer, 2);
+        playerBoard.addMark(other, 1);
+        playerBoard.addDamage(other, 1);
+
+        assertEquals(List.of("Pippo", "Pippo", "Pluto", "Pluto"), playerBoard.getDamages());
+        assertEquals(List.of(PlayerColor.BLUE, PlayerColor.BLUE, PlayerColor.GREEN, PlayerColor.GREEN),
+                playerBoard.getDamageColors());
+        assertEquals(List.of("Pippo", "Pluto"), playerBoard.getDamageRanking());
+
+        playerBoard.addDamage(other, 1);
+        assertEquals(List.of("Pluto", "Pippo"), playerBoard.getDamageRanking());
+        assertEquals("Pippo", playerBoard.getDamageDealer(0));
+        assertEquals("Pluto", playerBoard.getDamageDealer(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> playerBoard.getDamageDealer(5));
+
+        playerBoard.onDeath();
+        assertTrue(playerBoard.getDamageRanking().isEmpty());
+    }
+
+    @Test
+    void setBack() {
+        playerBoard.addMark(damageDealer, 3);
+        PlayerBoard saved = new PlayerBoard(playerBoard);
+
+        playerBoard.addDamage(damageDealer, 1);
+        assertEquals(4, playerBoard.getDamageCount());
+        assertEquals(0, playerBoard.getMarkCount());
+
+        playerBoard.setDamages(saved);
+        playerBoard.setMarks(saved);
+
+        assertEquals(0, playerBoard.getDamageCount());
+        assertEquals(List.of("Pippo", "Pippo", "Pippo"), playerBoard.getMarks());
+    }
+
+    @Test
+    void setDealers() {
+        UserPlayer blue = new UserPlayer("Pluto", PlayerColor.BLUE, new PlayerBoard());
+        UserPlayer green = new UserPlayer("Paperino", PlayerColor.GREEN, new PlayerBoard());
+
+        playerBoard.setDamages(List.of(blue, green, blue));
+        playerBoard.setMarks(List.of(green));
+
+        assertEquals(List.of("Pluto", "Paperino", "Pluto"), playerBoard.getDamages());
+        assertEquals(List.of(PlayerColor.BLUE, PlayerColor.GREEN, PlayerColor.BLUE), playerBoard.getDamageColors());
+        assertEquals(List.of(PlayerColor.GREEN), playerBoard.getMarkColors());
+    }
+
+    @Test
+    void damageNoMarkOnFullBoard() {
+        playerBoard.addDamage(damageDealer, 11);
+        playerBoard.addDamageNoMark(damageDealer, 3);
+
+        assertEquals(12, playerBoard.getDamageCount());
+    }
+
     @Test
     void pointsAfterDeath() {
         assertArrayEquals(new Integer[]{8, 6, 4, 2, 1, 1}, playerBoard.getBoardPoints());
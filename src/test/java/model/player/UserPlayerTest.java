@@ -12,6 +12,7 @@ import model.cards.Deck;
 import model.cards.PowerupCard;
 import model.cards.WeaponCard;
 import model.map.GameMap;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import utility.PowerupParser;
@@ -30,6 +31,8 @@ class UserPlayerTest {
 
     @BeforeEach
     void before() {
+        Game.bind(new Game());
+
         players = new UserPlayer[5];
 
         for (int i = 0; i < 3; ++i) {
@@ -42,6 +45,11 @@ class UserPlayerTest {
         players[3].setPosition(new PlayerPosition(0, 0));
     }
 
+    @AfterEach
+    void after() {
+        Game.bind(null);
+    }
+
     @Test
     void player() throws InvalidMapNumberException {
         Player player = new UserPlayer("ciao");
@@ -0,0 +1,164 @@
+package network.message;
+
+import controller.GameManager;
+import enumerations.PlayerColor;
+import model.Game;
+import model.GameSerialized;
+import model.map.GameMap;
+import model.map.SpawnSquare;
+import model.map.Square;
+import model.player.PlayerPosition;
+import model.player.UserPlayer;
+import network.server.MessageSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GameStateTrackerTest {
+    private Game game;
+    private String turnOwner;
+
+    @BeforeEach
+    void before() {
+        GameManager gameManager = new GameManager(mock(MessageSender.class), new Game(), true, 5, 10000);
+
+        PlayerColor[] colors = PlayerColor.values();
+        for (int i = 0; i < 4; ++i) {
+            gameManager.onMessage(new LobbyMessage("player" + i, null, colors[i], false));
+        }
+
+        game = gameManager.getGameInstance();
+        turnOwner = gameManager.getTurnOwnerUsername();
+    }
+
+    /**
+     * Sends the message through the binary codec, like a client would receive it
+     */
+    private static Message send(Message message) throws IOException {
+        ByteBuffer frame = MessageFrame.encode(message, MessageCodec.BINARY);
+        frame.position(MessageFrame.HEADER_LENGTH);
+
+        return MessageFrame.decode(frame.slice());
+    }
+
+    private void assertSameState(GameSerialized expected, GameSerialized actual) throws IOException {
+        assertArrayEquals(BinaryCodec.encodeValue(expected), BinaryCodec.encodeValue(actual));
+    }
+
+    @Test
+    void firstUpdateIsFull() {
+        Map<String, Message> updates = new GameStateTracker().updates(game, turnOwner, false);
+
+        assertEquals(4, updates.size());
+        for (Message update : updates.values()) {
+            assertTrue(update instanceof GameStateMessage);
+            assertEquals(1, ((GameStateMessage) update).getStateVersion());
+        }
+    }
+
+    @Test
+    void deltaAppliedGivesFullState() throws IOException {
+        GameStateTracker tracker = new GameStateTracker();
+        GameStateMessage state = (GameStateMessage) send(tracker.updates(game, turnOwner, false).get("player1"));
+
+        UserPlayer moving = game.getPlayers().get(2);
+        moving.setPosition(new PlayerPosition(0, 0));
+        moving.getPlayerBoard().addDamage(game.getPlayers().get(0), 2);
+
+        Square picked = null;
+        for (int i = 0; i < GameMap.MAX_ROWS && picked == null; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS && picked == null; ++j) {
+                Square square = game.getGameMap().getSquare(i, j);
+                if (square instanceof SpawnSquare) {
+                    ((SpawnSquare) square).removeWeapon(((SpawnSquare) square).getWeapons()[0]);
+                    picked = square;
+                }
+            }
+        }
+        assertNotNull(picked);
+
+        GameDeltaMessage delta = (GameDeltaMessage) send(tracker.updates(game, turnOwner, true).get("player1"));
+
+        assertEquals(state.getStateVersion(), delta.getBaseVersion());
+        assertTrue(delta.getDelta().toString().contains("players=[2]"));
+        assertTrue(delta.getDelta().toString().contains("squares=[" + squareIndex(picked) + "]"));
+
+        GameStateMessage applied = delta.applyTo(state.getGameSerialized());
+        assertTrue(applied.isGrenadeUsage());
+        assertEquals(delta.getStateVersion(), applied.getStateVersion());
+        assertSameState(new GameSerialized(game, "player1"), applied.getGameSerialized());
+
+        // the previous state is not modified by the changes
+        assertNull(state.getGameSerialized().getPlayers().get(2).getPosition());
+    }
+
+    private int squareIndex(Square square) {
+        for (int i = 0; i < GameMap.MAX_ROWS; ++i) {
+            for (int j = 0; j < GameMap.MAX_COLUMNS; ++j) {
+                if (game.getGameMap().getSquare(i, j) == square) {
+                    return i * GameMap.MAX_COLUMNS + j;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Test
+    void unchangedStateSendsEmptyDelta() throws IOException {
+        GameStateTracker tracker = new GameStateTracker();
+        tracker.updates(game, turnOwner, false);
+
+        GameDeltaMessage delta = (GameDeltaMessage) tracker.updates(game, turnOwner, false).get("player0");
+
+        assertTrue(delta.getDelta().isEmpty());
+        assertTrue(MessageFrame.encode(delta, MessageCodec.BINARY).remaining() <
+                MessageFrame.encode(new GameStateMessage(game, "player0", turnOwner, false), MessageCodec.BINARY).remaining() / 4);
+    }
+
+    @Test
+    void sharedStateEncodedOnce() {
+        GameStateTracker tracker = new GameStateTracker();
+
+        List<Message> snapshots = new ArrayList<>(tracker.updates(game, turnOwner, false).values());
+        for (Message snapshot : snapshots) {
+            assertSame(((GameStateMessage) snapshots.get(0)).getSharedState(), ((GameStateMessage) snapshot).getSharedState());
+        }
+
+        game.getPlayers().get(1).setPosition(new PlayerPosition(1, 1));
+
+        List<Message> deltas = new ArrayList<>(tracker.updates(game, turnOwner, false).values());
+        for (Message delta : deltas) {
+            assertSame(((GameDeltaMessage) deltas.get(0)).getSharedDelta(), ((GameDeltaMessage) delta).getSharedDelta());
+        }
+
+        // the secret attributes are still different for every player
+        for (int i = 0; i < deltas.size(); ++i) {
+            GameSerialized state = ((GameDeltaMessage) deltas.get(i)).applyTo(((GameStateMessage) snapshots.get(i)).getGameSerialized()).getGameSerialized();
+            assertEquals(List.of(game.getPlayers().get(i).getPowerups()), List.of(state.getPowerupCards()));
+        }
+    }
+
+    @Test
+    void periodicAndReconnectionSnapshots() {
+        GameStateTracker tracker = new GameStateTracker(3);
+
+        assertTrue(tracker.updates(game, turnOwner, false).get("player0") instanceof GameStateMessage);
+        assertTrue(tracker.updates(game, turnOwner, false).get("player0") instanceof GameDeltaMessage);
+        assertTrue(tracker.updates(game, turnOwner, false).get("player0") instanceof GameDeltaMessage);
+        assertTrue(tracker.updates(game, turnOwner, false).get("player0") instanceof GameStateMessage);
+
+        GameStateMessage reconnection = tracker.snapshot(game, "player3", turnOwner, false);
+        GameDeltaMessage next = (GameDeltaMessage) tracker.updates(game, turnOwner, false).get("player3");
+        assertEquals(reconnection.getStateVersion(), next.getBaseVersion());
+        assertEquals(reconnection.getStateVersion() + 1, next.getStateVersion());
+    }
+}
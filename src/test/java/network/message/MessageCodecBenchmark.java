@@ -0,0 +1,125 @@
+package network.message;
+
+import controller.GameManager;
+import enumerations.*;
+import model.Game;
+import model.player.PlayerPoints;
+import model.player.PlayerPosition;
+import network.server.MessageSender;
+import network.server.Server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark comparing the {@link MessageCodec#BINARY binary} codec with the {@link MessageCodec#SERIALIZATION Java
+ * serialization}: for one sample message of every {@link MessageContent MessageContent} it reports the size of the
+ * frame body and the average nanoseconds needed to encode and decode it.
+ * <p>
+ * Not a unit test: run it with {@code java --add-opens java.base/java.lang=ALL-UNNAMED
+ * -cp target/classes:target/test-classes:<deps> network.message.MessageCodecBenchmark [iterations]}
+ */
+public class MessageCodecBenchmark {
+    private static final int DEFAULT_ITERATIONS = 20_000;
+    private static final MessageCodec[] CODECS = {MessageCodec.SERIALIZATION, MessageCodec.BINARY};
+
+    public static void main(String[] args) throws IOException {
+        Server.LOGGER.setLevel(Level.OFF);
+
+        int iterations = args.length == 0 ? DEFAULT_ITERATIONS : Integer.parseInt(args[0]);
+        Map<MessageContent, Message> samples = samples();
+
+        System.out.printf("%-20s %-18s %10s %14s %14s%n", "content", "codec", "bytes", "encode (ns)", "decode (ns)");
+        for (Map.Entry<MessageContent, Message> sample : samples.entrySet()) {
+            for (MessageCodec codec : CODECS) {
+                Message message = sample.getValue();
+
+                measure(message, codec, iterations / 10);
+                long[] result = measure(message, codec, iterations);
+
+                System.out.printf("%-20s %-18s %10d %14d %14d%n", sample.getKey(), codec.getClass().getSimpleName(),
+                        result[0], result[1], result[2]);
+            }
+        }
+
+        // the lobby timer of the started game is still scheduled
+        System.exit(0);
+    }
+
+    /**
+     * @return size of the body, encode and decode nanoseconds per message
+     */
+    private static long[] measure(Message message, MessageCodec codec, int iterations) throws IOException {
+        ByteBuffer body = null;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            body = MessageFrame.encode(message, codec);
+        }
+        long encode = (System.nanoTime() - start) / iterations;
+
+        body.position(MessageFrame.HEADER_LENGTH);
+        body = body.slice();
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            MessageFrame.decode(body.duplicate());
+        }
+        long decode = (System.nanoTime() - start) / iterations;
+
+        return new long[]{body.remaining(), encode, decode};
+    }
+
+    private static Map<MessageContent, Message> samples() {
+        GameManager gameManager = new GameManager(mock(MessageSender.class), new Game(), true, 5, 10000);
+        PlayerColor[] colors = PlayerColor.values();
+        for (int i = 0; i < 4; ++i) {
+            gameManager.onMessage(new LobbyMessage("player" + i, null, colors[i], false));
+        }
+
+        String token = "5f2b1c0e-8d4a-4f5e-9c1b-7a3e2d6f8b90";
+        PlayerPosition position = new PlayerPosition(1, 2);
+        GameStateMessage gameState = new GameStateMessage(gameManager.getGameInstance(), "player1", gameManager.getTurnOwnerUsername(), false);
+
+        Map<MessageContent, Message> samples = new EnumMap<>(MessageContent.class);
+        samples.put(MessageContent.CONNECTION, new ConnectionRequest("player1", MessageCodec.BINARY.getVersion()));
+        samples.put(MessageContent.CONNECTION_RESPONSE, new ConnectionResponse("Successfully connected", token, MessageStatus.OK));
+        samples.put(MessageContent.GET_IN_LOBBY, new LobbyMessage("player1", token, PlayerColor.GREEN, false));
+        samples.put(MessageContent.COLOR, new ColorRequest("player1", token));
+        samples.put(MessageContent.COLOR_RESPONSE, new ColorResponse(List.of(PlayerColor.BLUE, PlayerColor.GREY, PlayerColor.PURPLE)));
+        samples.put(MessageContent.LOBBY_VOTE, new GameVoteMessage("player1", token, 2));
+        samples.put(MessageContent.VOTE_RESPONSE, new GameVoteResponse("Vote added", MessageStatus.OK));
+        samples.put(MessageContent.PLAYERS_IN_LOBBY, new LobbyPlayersResponse(List.of("player0", "player1", "player2")));
+        samples.put(MessageContent.BOT_SPAWN, new BotSpawnRequest("player1", token, RoomColor.RED));
+        samples.put(MessageContent.DISCARD_POWERUP, new DiscardPowerupRequest("player1", token, 1));
+        samples.put(MessageContent.BOT_ACTION, new BotUseRequest("player1", token, position, "player2"));
+        samples.put(MessageContent.MOVE, new MoveRequest("player1", token, position));
+        samples.put(MessageContent.MOVE_PICK, new MovePickRequest("player1", token, position, List.of(0), null, null));
+        samples.put(MessageContent.SHOOT, new ShootRequest.ShootRequestBuilder("player1", token, 3, 1)
+                .targetPlayersUsernames(List.of("player2", "player3"))
+                .paymentPowerups(List.of(0))
+                .build());
+        samples.put(MessageContent.RELOAD, new ReloadRequest("player1", token, List.of(0, 1), List.of()));
+        samples.put(MessageContent.POWERUP_USAGE, new PowerupRequest.PowerupRequestBuilder("player1", token, List.of(1))
+                .targetPlayersUsername(List.of("player2"))
+                .build());
+        samples.put(MessageContent.PASS_TURN, new PassTurnRequest("player1", token));
+        samples.put(MessageContent.RESPONSE, new Response("Action completed", MessageStatus.OK));
+        samples.put(MessageContent.GAME_STATE, gameState);
+        samples.put(MessageContent.READY, new GameStartMessage("player0"));
+        samples.put(MessageContent.WINNER, new WinnersResponse(List.of(new PlayerPoints("player0", PlayerColor.GREEN, 42),
+                new PlayerPoints("player2", PlayerColor.BLUE, 42))));
+        samples.put(MessageContent.DISCONNECTION, new DisconnectionMessage("player3"));
+        samples.put(MessageContent.PING, new PingMessage());
+        samples.put(MessageContent.RECONNECTION, new ReconnectionMessage(token, gameState));
+        samples.put(MessageContent.GAME_LOAD, new GameLoadResponse("Game loaded", token, UserPlayerState.FIRST_ACTION, true));
+
+        return samples;
+    }
+}
@@ -0,0 +1,210 @@
+package network.message;
+
+import controller.GameManager;
+import enumerations.MessageContent;
+import enumerations.MessageStatus;
+import enumerations.PlayerColor;
+import model.Game;
+import model.GameSerialized;
+import model.player.PlayerPosition;
+import network.server.MessageSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MessageCodecTest {
+    private GameManager gameManager;
+
+    @BeforeEach
+    void before() {
+        gameManager = new GameManager(mock(MessageSender.class), new Game(), true, 5, 10000);
+
+        PlayerColor[] colors = PlayerColor.values();
+        for (int i = 0; i < 4; ++i) {
+            gameManager.onMessage(new LobbyMessage("player" + i, null, colors[i], false));
+        }
+    }
+
+    private static ByteBuffer body(ByteBuffer frame) {
+        frame.position(MessageFrame.HEADER_LENGTH);
+        return frame.slice();
+    }
+
+    private static Message roundTrip(Message message, MessageCodec codec) throws IOException {
+        return MessageFrame.decode(body(MessageFrame.encode(message, codec)));
+    }
+
+    @Test
+    void gameStateRoundTrip() throws IOException {
+        assertTrue(gameManager.getGameInstance().isGameStarted());
+
+        GameStateMessage message = new GameStateMessage(gameManager.getGameInstance(), "player1", gameManager.getTurnOwnerUsername(), false);
+        ByteBuffer encoded = body(MessageFrame.encode(message, MessageCodec.BINARY));
+        assertTrue(MessageCodec.BINARY.accepts(encoded));
+
+        GameStateMessage decoded = (GameStateMessage) MessageFrame.decode(encoded);
+        GameSerialized game = decoded.getGameSerialized();
+
+        assertEquals(MessageContent.GAME_STATE, decoded.getContent());
+        assertEquals(message.getTurnOwner(), decoded.getTurnOwner());
+        assertEquals(4, game.getPlayers().size());
+        assertNotNull(game.getBot());
+        assertEquals(message.getGameSerialized().getGameMap().getMapID(), game.getGameMap().getMapID());
+        assertEquals(message.getGameSerialized().getPowerups().size(), game.getPowerups().size());
+
+        // decoding does not lose anything: encoding again gives the same bytes
+        assertEquals(encoded, body(MessageFrame.encode(decoded, MessageCodec.BINARY)));
+    }
+
+    @Test
+    void binaryIsSmaller() throws IOException {
+        GameStateMessage message = new GameStateMessage(gameManager.getGameInstance(), "player1", gameManager.getTurnOwnerUsername(), false);
+
+        int binary = MessageFrame.encode(message, MessageCodec.BINARY).remaining();
+        int serialized = MessageFrame.encode(message, MessageCodec.SERIALIZATION).remaining();
+
+        assertTrue(binary < serialized);
+    }
+
+    @Test
+    void sharedStateFollowsCodec() throws IOException {
+        GameStateTracker tracker = new GameStateTracker();
+        String turnOwner = gameManager.getTurnOwnerUsername();
+
+        GameStateMessage state = tracker.snapshot(gameManager.getGameInstance(), "player1", turnOwner, false);
+        gameManager.getGameInstance().getPlayers().get(0).setPosition(new PlayerPosition(1, 1));
+        GameDeltaMessage delta = (GameDeltaMessage) tracker.updates(gameManager.getGameInstance(), turnOwner, false).get("player1");
+
+        GameStateMessage serializedState = (GameStateMessage) roundTrip(state, MessageCodec.SERIALIZATION);
+        GameDeltaMessage serializedDelta = (GameDeltaMessage) roundTrip(delta, MessageCodec.SERIALIZATION);
+
+        // the clients of the Java serialization never receive parts encoded with the binary codec
+        assertTrue(MessageCodec.SERIALIZATION.accepts(ByteBuffer.wrap(serializedState.getSharedState())));
+        assertTrue(MessageCodec.SERIALIZATION.accepts(ByteBuffer.wrap(serializedDelta.getSharedDelta())));
+        assertArrayEquals(state.getSharedState(), ((GameStateMessage) roundTrip(state, MessageCodec.BINARY)).getSharedState());
+
+        GameSerialized updated = serializedDelta.applyTo(serializedState.getGameSerialized()).getGameSerialized();
+
+        assertEquals(new PlayerPosition(1, 1), updated.getPlayers().get(0).getPosition());
+        assertEquals(delta.applyTo(state.getGameSerialized()).getGameSerialized().getPlayers().size(), updated.getPlayers().size());
+    }
+
+    @Test
+    void sharedStateIsCompact() throws IOException {
+        GameSerialized state = new GameSerialized(gameManager.getGameInstance());
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(state);
+        }
+
+        assertTrue(BinaryCodec.encodeValue(state).length * 2 < serialized.size());
+    }
+
+    @Test
+    void inheritedFieldsRoundTrip() throws IOException {
+        ShootRequest request = new ShootRequest.ShootRequestBuilder("tose", "token", 3, 1)
+                .targetPlayersUsernames(List.of("gio", "piro"))
+                .targetPositions(List.of(new PlayerPosition(1, 2)))
+                .paymentPowerups(List.of(4))
+                .moveInMiddle(true)
+                .build();
+
+        ShootRequest decoded = (ShootRequest) roundTrip(request, MessageCodec.BINARY);
+
+        assertEquals(MessageContent.SHOOT, decoded.getContent());
+        assertEquals("token", decoded.getToken());
+        assertEquals(List.of("gio", "piro"), decoded.getTargetPlayersUsername());
+        assertEquals(1, decoded.getTargetPositions().get(0).getRow());
+        assertEquals(List.of(4), decoded.getPaymentPowerups());
+        assertEquals(3, decoded.getWeaponID());
+        assertTrue(decoded.isMoveInMiddle());
+        assertFalse(decoded.isMoveSenderFirst());
+    }
+
+    @Test
+    void onlyDeclaredTypes() {
+        assertThrows(NotSerializableException.class, () -> BinaryCodec.encodeValue(new Object()));
+        assertThrows(NotSerializableException.class, () -> BinaryCodec.encodeValue(gameManager.getGameInstance()));
+
+        // an object of an unknown type id
+        assertThrows(InvalidClassException.class, () -> BinaryCodec.decodeValue(new byte[]{17, 127, 0}));
+    }
+
+    @Test
+    void simpleMessages() throws IOException {
+        for (MessageCodec codec : List.of(MessageCodec.BINARY, MessageCodec.SERIALIZATION)) {
+            LobbyMessage lobbyMessage = (LobbyMessage) roundTrip(new LobbyMessage("tose", "token", PlayerColor.GREEN, true), codec);
+            assertEquals("tose", lobbyMessage.getSenderUsername());
+            assertEquals("token", lobbyMessage.getToken());
+            assertEquals(PlayerColor.GREEN, lobbyMessage.getChosenColor());
+            assertTrue(lobbyMessage.isDisconnection());
+
+            ConnectionRequest connectionRequest = (ConnectionRequest) roundTrip(new ConnectionRequest("gio", MessageCodec.BINARY.getVersion()), codec);
+            assertEquals("gio", connectionRequest.getSenderUsername());
+            assertEquals(MessageCodec.BINARY.getVersion(), connectionRequest.getCodecVersion());
+
+            ColorResponse colorResponse = (ColorResponse) roundTrip(new ColorResponse(List.of(PlayerColor.BLUE, PlayerColor.GREY)), codec);
+            assertEquals(List.of(PlayerColor.BLUE, PlayerColor.GREY), colorResponse.getColorList());
+
+            Response response = (Response) roundTrip(new Response("ok", MessageStatus.OK), codec);
+            assertEquals("ok", response.getMessage());
+            assertEquals(MessageStatus.OK, response.getStatus());
+
+            DiscardPowerupRequest discardRequest = (DiscardPowerupRequest) roundTrip(new DiscardPowerupRequest("piro", null, -2), codec);
+            assertEquals(-2, discardRequest.getPowerup());
+            assertNull(discardRequest.getToken());
+        }
+    }
+
+    @Test
+    void negotiation() {
+        assertEquals(MessageCodec.SERIALIZATION, MessageCodec.forVersion(new ConnectionRequest("old").getCodecVersion()));
+        assertEquals(MessageCodec.BINARY, MessageCodec.forVersion(MessageCodec.BINARY.getVersion()));
+        assertEquals(MessageCodec.SERIALIZATION, MessageCodec.forVersion(MessageCodec.BINARY.getVersion() + 1));
+    }
+
+    @Test
+    void objectStream() throws IOException {
+        GameStateMessage state = new GameStateTracker().snapshot(gameManager.getGameInstance(), "player1", gameManager.getTurnOwnerUsername(), false);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // the stream of the original protocol, it starts with the header of the Java serialization
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            MessageFrame.writeObject(out, new ConnectionRequest("old"));
+            MessageFrame.writeObject(out, state);
+        }
+
+        assertTrue(MessageFrame.isObjectStream(Byte.toUnsignedInt(bytes.toByteArray()[0])));
+        assertFalse(MessageFrame.isObjectStream(MessageFrame.encode(new ConnectionRequest("new"), MessageCodec.BINARY).get(0)));
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(MessageContent.CONNECTION, MessageFrame.readObject(in).getContent());
+
+            GameStateMessage decoded = (GameStateMessage) MessageFrame.readObject(in);
+            assertTrue(MessageCodec.SERIALIZATION.accepts(ByteBuffer.wrap(decoded.getSharedState())));
+            assertEquals(4, decoded.getGameSerialized().getPlayers().size());
+        }
+    }
+
+    @Test
+    void invalidFrames() throws IOException {
+        assertThrows(StreamCorruptedException.class, () -> MessageFrame.decode(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+
+        ByteBuffer encoded = body(MessageFrame.encode(new LobbyMessage("tose", "token", PlayerColor.GREEN, false), MessageCodec.BINARY));
+        ByteBuffer truncated = ByteBuffer.wrap(encoded.array(), encoded.arrayOffset(), encoded.remaining() / 2).slice();
+        assertThrows(IOException.class, () -> MessageFrame.decode(truncated));
+
+        ByteBuffer newerVersion = ByteBuffer.wrap(new byte[]{BinaryCodec.MAGIC, BinaryCodec.VERSION + 1, 0});
+        assertThrows(StreamCorruptedException.class, () -> MessageFrame.decode(newerVersion));
+
+        ByteBuffer olderVersion = ByteBuffer.wrap(new byte[]{BinaryCodec.MAGIC, BinaryCodec.VERSION - 1, 0});
+        assertThrows(StreamCorruptedException.class, () -> MessageFrame.decode(olderVersion));
+    }
+}
@@ -0,0 +1,140 @@
+package network.server;
+
+import enumerations.PlayerColor;
+import network.message.DiscardPowerupRequest;
+import network.message.LobbyMessage;
+import network.message.Message;
+import utility.AsyncLogHandler;
+import utility.persistency.GameJournal;
+import utility.persistency.SaveStore;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.*;
+
+/**
+ * Benchmark measuring the latency of the in-game requests of a match (request dispatch plus the state updates sent
+ * to every player) with the server log disabled, written synchronously by a {@link FileHandler FileHandler} as the
+ * server did before, and written by the {@link AsyncLogHandler AsyncLogHandler}.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> network.server.LoggingBenchmark [requests]}
+ */
+public class LoggingBenchmark {
+    private static final int PLAYERS = 4;
+    private static final int HOUR_SECONDS = 3600;
+
+    private static final Map<String, String> TOKENS = new HashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Logger logger = Server.LOGGER;
+        logger.setUseParentHandlers(false);
+
+        GameRoom room = startRoom();
+
+        System.out.printf("%-10s %12s %12s %12s%n", "logging", "p50 (us)", "p99 (us)", "max (us)");
+
+        logger.setLevel(Level.OFF);
+        run(room, requests / 10);
+        report("disabled", run(room, requests));
+
+        File syncFile = File.createTempFile("server-sync", ".log");
+        FileHandler fileHandler = new FileHandler(syncFile.getPath());
+        fileHandler.setFormatter(new SimpleFormatter());
+        measure(logger, fileHandler, room, requests, "sync");
+
+        File asyncFile = File.createTempFile("server-async", ".log");
+        AsyncLogHandler asyncHandler = new AsyncLogHandler(AsyncLogHandler.DEFAULT_CAPACITY,
+                new StreamHandler(new FileOutputStream(asyncFile), new SimpleFormatter()));
+        measure(logger, asyncHandler, room, requests, "async");
+
+        System.out.printf("dropped by the async handler: %d%n", asyncHandler.getDropped());
+
+        syncFile.deleteOnExit();
+        asyncFile.deleteOnExit();
+        room.close();
+
+        // lobby timer of the started match is still scheduled
+        System.exit(0);
+    }
+
+    private static void measure(Logger logger, Handler handler, GameRoom room, int requests, String name) {
+        logger.setLevel(Level.INFO);
+        logger.addHandler(handler);
+
+        run(room, requests / 10);
+        report(name, run(room, requests));
+
+        logger.removeHandler(handler);
+        handler.close();
+    }
+
+    private static GameRoom startRoom() throws IOException {
+        SaveStore store = new SaveStore(Files.createTempDirectory("rooms"), GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+        GameRoom room = new GameRoom(0, true, 5, HOUR_SECONDS, HOUR_SECONDS * 1000, store);
+
+        for (int p = 0; p < PLAYERS; ++p) {
+            String username = "player" + p;
+            BenchmarkConnection connection = new BenchmarkConnection();
+
+            room.newPlayerLogin(username, connection);
+            TOKENS.put(username, connection.getToken());
+            room.onMessage(new LobbyMessage(username, connection.getToken(), PlayerColor.values()[p], false));
+        }
+
+        return room;
+    }
+
+    /**
+     * @return the latency of every request in nanoseconds
+     */
+    private static long[] run(GameRoom room, int requests) {
+        long[] latencies = new long[requests];
+
+        for (int i = 0; i < requests; ++i) {
+            String turnOwner = room.getGameManager().getTurnOwnerUsername();
+            Message request = new DiscardPowerupRequest(turnOwner, TOKENS.get(turnOwner), 0);
+
+            long start = System.nanoTime();
+            room.onMessage(request);
+            room.getGameManager().sendPrivateUpdates();
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        return latencies;
+    }
+
+    private static void report(String name, long[] latencies) {
+        Arrays.sort(latencies);
+
+        System.out.printf("%-10s %12.1f %12.1f %12.1f%n", name,
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) (latencies.length * 0.99)] / 1e3,
+                latencies[latencies.length - 1] / 1e3);
+    }
+
+    /**
+     * Connection discarding every message
+     */
+    private static class BenchmarkConnection extends Connection {
+        @Override
+        public void sendMessage(Message message) {
+            // messages are discarded
+        }
+
+        @Override
+        public void disconnect() {
+            // nothing to close
+        }
+
+        @Override
+        public void ping() {
+            // always alive
+        }
+    }
+}
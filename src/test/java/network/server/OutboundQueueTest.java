@@ -0,0 +1,216 @@
+package network.server;
+
+import network.client.RMIClientConnection;
+import network.message.GameDeltaMessage;
+import network.message.GameStateMessage;
+import network.message.Message;
+import network.message.PingMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OutboundQueueTest {
+    private TestConnection connection;
+    private OutboundQueue queue;
+    private int resyncs;
+
+    @BeforeEach
+    void before() {
+        OutboundQueue.configure(4, OutboundQueue.OverflowPolicy.RESYNC);
+
+        connection = new TestConnection();
+        queue = connection.getQueue();
+        resyncs = 0;
+        queue.setResyncListener(() -> resyncs++);
+    }
+
+    @AfterEach
+    void after() {
+        OutboundQueue.configure(OutboundQueue.DEFAULT_CAPACITY, OutboundQueue.OverflowPolicy.RESYNC);
+    }
+
+    private static GameStateMessage state(int version) {
+        return new GameStateMessage(new byte[0], null, "player", false, version);
+    }
+
+    private static GameDeltaMessage delta(int baseVersion) {
+        return new GameDeltaMessage(new byte[0], null, "player", false, baseVersion, baseVersion + 1);
+    }
+
+    @Test
+    void writerStartedOnce() {
+        assertTrue(queue.offer(new PingMessage()));
+        assertFalse(queue.offer(new PingMessage()));
+
+        assertNotNull(queue.poll());
+        assertNotNull(queue.poll());
+        assertNull(queue.poll());
+
+        assertTrue(queue.offer(new PingMessage()));
+    }
+
+    @Test
+    void stateSupersedesQueuedUpdates() {
+        Message ping = new PingMessage();
+
+        queue.offer(state(1));
+        queue.offer(ping);
+        queue.offer(delta(1));
+
+        GameStateMessage latest = state(3);
+        queue.offer(latest);
+
+        assertSame(ping, queue.poll());
+        assertSame(latest, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void overflowDropsUpdatesUntilResync() {
+        queue.offer(new PingMessage());
+        queue.offer(state(1));
+        queue.offer(delta(1));
+        queue.offer(delta(2));
+
+        queue.offer(delta(3));
+        assertEquals(1, resyncs);
+        assertTrue(connection.isConnected());
+
+        // the client can not apply the following changes
+        queue.offer(delta(4));
+
+        GameStateMessage snapshot = state(6);
+        queue.offer(snapshot);
+        queue.offer(delta(6));
+
+        assertTrue(queue.poll() instanceof PingMessage);
+        assertSame(snapshot, queue.poll());
+        assertTrue(queue.poll() instanceof GameDeltaMessage);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void overflowWithoutUpdatesDisconnects() {
+        for (int i = 0; i < 4; ++i) {
+            queue.offer(new PingMessage());
+        }
+
+        queue.offer(new PingMessage());
+
+        assertFalse(connection.isConnected());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void disconnectPolicy() {
+        OutboundQueue.configure(4, OutboundQueue.OverflowPolicy.DISCONNECT);
+
+        queue.offer(state(1));
+        for (int i = 1; i < 4; ++i) {
+            queue.offer(delta(i));
+        }
+
+        queue.offer(delta(4));
+
+        assertFalse(connection.isConnected());
+        assertEquals(0, resyncs);
+    }
+
+    @Test
+    void lastMessageWrittenBeforeClose() {
+        OutboundQueue.configure(1, OutboundQueue.OverflowPolicy.DISCONNECT);
+
+        Message ping = new PingMessage();
+        Message reply = new PingMessage();
+
+        assertTrue(queue.offer(ping));
+        assertFalse(queue.offerLast(reply));
+        assertTrue(queue.isClosing());
+
+        // nothing is queued after the last message
+        assertFalse(queue.offer(new PingMessage()));
+        assertFalse(queue.offerLast(new PingMessage()));
+
+        assertSame(ping, queue.poll());
+        assertSame(reply, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(connection.isConnected());
+    }
+
+    @Test
+    void rmiReplyDeliveredBeforeClose() throws InterruptedException {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        CountDownLatch closed = new CountDownLatch(1);
+
+        RMIClientConnection client = new RMIClientConnection() {
+            @Override
+            public void onMessage(Message message) {
+                received.add(message);
+            }
+
+            @Override
+            public void ping() {
+                // not needed
+            }
+
+            @Override
+            public void disconnectMe() {
+                received.add("disconnect");
+                closed.countDown();
+            }
+        };
+
+        RMIConnection rmiConnection = new RMIConnection(mock(Server.class), client);
+
+        Message reply = new PingMessage();
+        rmiConnection.sendAndClose(reply);
+
+        assertTrue(closed.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of(reply, "disconnect"), received);
+        assertFalse(rmiConnection.isConnected());
+    }
+
+    @Test
+    void policyParsing() {
+        assertEquals(OutboundQueue.OverflowPolicy.DISCONNECT, OutboundQueue.OverflowPolicy.getPolicy("Disconnect"));
+        assertEquals(OutboundQueue.OverflowPolicy.RESYNC, OutboundQueue.OverflowPolicy.getPolicy("resync"));
+        assertEquals(OutboundQueue.OverflowPolicy.RESYNC, OutboundQueue.OverflowPolicy.getPolicy(null));
+    }
+
+    private static class TestConnection extends Connection {
+        private boolean connected = true;
+
+        OutboundQueue getQueue() {
+            return outbound;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void sendMessage(Message message) {
+            outbound.offer(message);
+        }
+
+        @Override
+        public void disconnect() {
+            connected = false;
+            outbound.clear();
+        }
+
+        @Override
+        public void ping() {
+            // not needed
+        }
+    }
+}
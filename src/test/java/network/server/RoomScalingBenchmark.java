@@ -0,0 +1,157 @@
+package network.server;
+
+import enumerations.PlayerColor;
+import network.message.DiscardPowerupRequest;
+import network.message.LobbyMessage;
+import network.message.Message;
+import utility.persistency.GameJournal;
+import utility.persistency.SaveStore;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Benchmark measuring how the server scales with the number of concurrent matches hosted in one JVM.
+ * For every room count it reports the retained heap per started match and the number of in-game requests
+ * (request dispatch plus the private state updates sent to every player) processed per second with
+ * 1, 2, 4 and 8 worker threads.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> network.server.RoomScalingBenchmark [rooms...]}
+ */
+public class RoomScalingBenchmark {
+    private static final int PLAYERS_PER_ROOM = 4;
+    private static final int HOUR_SECONDS = 3600;
+    private static final int WARMUP_OPERATIONS = 2_000;
+    private static final int MEASURED_OPERATIONS = 20_000;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    private static final Map<String, String> TOKENS = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        Server.LOGGER.setLevel(Level.OFF);
+
+        int[] roomCounts = args.length == 0 ? new int[]{1, 10, 100, 500} : parse(args);
+
+        System.out.printf("%8s %16s %10s %16s%n", "rooms", "heap/match (KB)", "threads", "requests/s");
+        for (int roomCount : roomCounts) {
+            long before = usedHeap();
+            List<GameRoom> rooms = startRooms(roomCount);
+            long heapPerMatch = (usedHeap() - before) / roomCount;
+
+            for (int threads : THREAD_COUNTS) {
+                run(rooms, threads, WARMUP_OPERATIONS);
+                double throughput = run(rooms, threads, MEASURED_OPERATIONS);
+                System.out.printf("%8d %16d %10d %16.0f%n", roomCount, heapPerMatch / 1024, threads, throughput);
+            }
+
+            rooms.forEach(GameRoom::close);
+        }
+
+        // lobby timers of the started matches are still scheduled
+        System.exit(0);
+    }
+
+    private static int[] parse(String[] args) {
+        int[] values = new int[args.length];
+        for (int i = 0; i < args.length; ++i) {
+            values[i] = Integer.parseInt(args[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Creates the rooms and fills their lobbies so that every match is started
+     */
+    private static List<GameRoom> startRooms(int roomCount) throws Exception {
+        List<GameRoom> rooms = new ArrayList<>(roomCount);
+        SaveStore store = new SaveStore(Files.createTempDirectory("rooms"), GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+
+        for (int r = 0; r < roomCount; ++r) {
+            GameRoom room = new GameRoom(r, true, 5, HOUR_SECONDS, HOUR_SECONDS * 1000, store);
+
+            for (int p = 0; p < PLAYERS_PER_ROOM; ++p) {
+                String username = "room" + r + "player" + p;
+                BenchmarkConnection connection = new BenchmarkConnection();
+
+                room.newPlayerLogin(username, connection);
+                TOKENS.put(username, connection.getToken());
+                room.onMessage(new LobbyMessage(username, connection.getToken(), PlayerColor.values()[p], false));
+            }
+
+            rooms.add(room);
+        }
+
+        return rooms;
+    }
+
+    /**
+     * Processes the given number of requests spread across all the rooms
+     *
+     * @return the processed requests per second
+     */
+    private static double run(List<GameRoom> rooms, int threads, int operations) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong next = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; ++t) {
+            executor.execute(() -> {
+                long op;
+                while ((op = next.getAndIncrement()) < operations) {
+                    GameRoom room = rooms.get((int) (op % rooms.size()));
+
+                    // serialize on the room as the connection threads of one match would
+                    synchronized (room) {
+                        String turnOwner = room.getGameManager().getTurnOwnerUsername();
+                        Message request = new DiscardPowerupRequest(turnOwner, TOKENS.get(turnOwner), 0);
+
+                        room.onMessage(request);
+                        room.getGameManager().sendPrivateUpdates();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        return operations / (elapsed / 1e9);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Connection discarding every message
+     */
+    private static class BenchmarkConnection extends Connection {
+        @Override
+        public void sendMessage(Message message) {
+            // messages are discarded
+        }
+
+        @Override
+        public void disconnect() {
+            // nothing to close
+        }
+
+        @Override
+        public void ping() {
+            // always alive
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package network.server;
+
+import network.message.Message;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Benchmark measuring the contention on the sessions of the players. Every thread performs the lookups done by the
+ * server on each message, ping and disconnection: token validation, lookup by username, iteration over the
+ * connections and reverse lookup by connection, with an occasional reconnection. The {@link SessionRegistry
+ * SessionRegistry} is compared with the previous locked map scanned to find the owner of a connection.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> network.server.SessionRegistryBenchmark [sessions] [operations]}
+ */
+public class SessionRegistryBenchmark {
+    private static final int RECONNECT_EVERY = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads <= cores * 2; threads *= 2) {
+            threadCounts.add(threads);
+        }
+
+        System.out.printf("sessions=%d operations=%d cores=%d%n", sessionCount, operations, cores);
+        System.out.printf("%10s %20s %20s%n", "threads", "locked map (ops/s)", "registry (ops/s)");
+
+        for (int threads : threadCounts) {
+            LockedSessions locked = new LockedSessions(sessionCount);
+            RegistrySessions registry = new RegistrySessions(sessionCount);
+
+            run(locked, threads, operations / 10);
+            run(registry, threads, operations / 10);
+
+            System.out.printf("%10d %20.0f %20.0f%n", threads, run(locked, threads, operations), run(registry, threads, operations));
+        }
+    }
+
+    private static double run(Sessions sessions, int threads, int operations) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong next = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; ++t) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long op;
+
+                while ((op = next.getAndIncrement()) < operations) {
+                    int player = random.nextInt(sessions.size());
+
+                    if (op % RECONNECT_EVERY == 0) {
+                        sessions.reconnect(player);
+                    } else {
+                        sessions.lookup(player);
+                    }
+                }
+
+                done.countDown();
+            });
+        }
+
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        return operations / (elapsed / 1e9);
+    }
+
+    private interface Sessions {
+        int size();
+
+        void lookup(int player);
+
+        void reconnect(int player);
+    }
+
+    /**
+     * The registry used by the rooms
+     */
+    private static class RegistrySessions implements Sessions {
+        private final SessionRegistry registry = new SessionRegistry();
+        private final int size;
+
+        private RegistrySessions(int size) {
+            this.size = size;
+
+            for (int i = 0; i < size; ++i) {
+                registry.connect("player" + i, new BenchmarkConnection("token" + i));
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void lookup(int player) {
+            String username = "player" + player;
+
+            if (registry.isValid(username, "token" + player)) {
+                Connection connection = registry.getConnection(username);
+                registry.getUsername(connection);
+                registry.getConnections();
+            }
+        }
+
+        @Override
+        public void reconnect(int player) {
+            String username = "player" + player;
+            Connection previous = registry.getConnection(username);
+
+            if (previous != null) {
+                previous.disconnect();
+                registry.reconnect(username, new BenchmarkConnection("token" + player));
+            }
+        }
+    }
+
+    /**
+     * The previous sessions: a map guarded by the lock of the room, scanned to find the owner of a connection
+     */
+    private static class LockedSessions implements Sessions {
+        private final Lock lock = new ReentrantLock();
+        private final Map<String, Connection> clients = new HashMap<>();
+        private final int size;
+
+        private LockedSessions(int size) {
+            this.size = size;
+
+            for (int i = 0; i < size; ++i) {
+                clients.put("player" + i, new BenchmarkConnection("token" + i));
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void lookup(int player) {
+            String username = "player" + player;
+            Connection connection;
+
+            lock.lock();
+            try {
+                connection = clients.get(username);
+            } finally {
+                lock.unlock();
+            }
+
+            if (connection != null && ("token" + player).equals(connection.getToken())) {
+                lock.lock();
+                try {
+                    for (Map.Entry<String, Connection> client : clients.entrySet()) {
+                        if (connection.equals(client.getValue())) {
+                            break;
+                        }
+                    }
+
+                    new ArrayList<>(clients.values());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void reconnect(int player) {
+            lock.lock();
+            try {
+                clients.replace("player" + player, new BenchmarkConnection("token" + player));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Connection discarding every message
+     */
+    private static class BenchmarkConnection extends Connection {
+        private volatile boolean connected = true;
+
+        private BenchmarkConnection(String token) {
+            setToken(token);
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void sendMessage(Message message) {
+            // messages are discarded
+        }
+
+        @Override
+        public void disconnect() {
+            connected = false;
+        }
+
+        @Override
+        public void ping() {
+            // always alive
+        }
+    }
+}
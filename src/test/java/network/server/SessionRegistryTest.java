@@ -0,0 +1,157 @@
+package network.server;
+
+import network.message.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRegistryTest {
+    private SessionRegistry sessions;
+
+    @BeforeEach
+    void before() {
+        sessions = new SessionRegistry();
+    }
+
+    @Test
+    void lookups() {
+        TestConnection first = new TestConnection("token1");
+        TestConnection second = new TestConnection("token2");
+
+        assertTrue(sessions.connect("first", first));
+        assertTrue(sessions.connect("second", second));
+        assertFalse(sessions.connect("first", new TestConnection("token3")));
+
+        assertSame(first, sessions.getConnection("first"));
+        assertEquals("second", sessions.getUsername(second));
+        assertNull(sessions.getUsername(new TestConnection("token1")));
+
+        assertTrue(sessions.isValid("first", "token1"));
+        assertFalse(sessions.isValid("first", "token2"));
+        assertFalse(sessions.isValid("first", null));
+        assertFalse(sessions.isValid("unknown", "token1"));
+
+        sessions.remove("first");
+        assertFalse(sessions.contains("first"));
+        assertNull(sessions.getUsername(first));
+        assertEquals(1, sessions.size());
+    }
+
+    @Test
+    void reconnection() {
+        TestConnection old = new TestConnection("old");
+        TestConnection reconnected = new TestConnection("new");
+
+        sessions.connect("player", old);
+        assertFalse(sessions.reconnect("player", reconnected));
+
+        old.connected = false;
+        assertTrue(sessions.reconnect("player", reconnected));
+
+        assertSame(reconnected, sessions.getConnection("player"));
+        assertNull(sessions.getUsername(old));
+        assertEquals("player", sessions.getUsername(reconnected));
+        assertTrue(sessions.isValid("player", "new"));
+        assertFalse(sessions.isValid("player", "old"));
+
+        assertFalse(sessions.reconnect("unknown", new TestConnection("other")));
+    }
+
+    @Test
+    void reservedSessions() {
+        sessions.reserve("first");
+        sessions.reserve("second");
+
+        assertTrue(sessions.noneConnected());
+        assertTrue(sessions.getConnections().isEmpty());
+
+        assertTrue(sessions.reconnect("first", new TestConnection("first")));
+        assertFalse(sessions.allConnected());
+
+        assertTrue(sessions.reconnect("second", new TestConnection("second")));
+        assertTrue(sessions.allConnected());
+        assertEquals(2, sessions.getConnections().size());
+    }
+
+    @Test
+    void concurrentReconnections() throws Exception {
+        int attempts = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+
+        try {
+            for (int round = 0; round < 50; ++round) {
+                String username = "player" + round;
+                TestConnection old = new TestConnection("old");
+                sessions.connect(username, old);
+                old.connected = false;
+
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger bound = new AtomicInteger();
+                List<TestConnection> connections = new ArrayList<>();
+                List<Future<?>> futures = new ArrayList<>();
+
+                for (int i = 0; i < attempts; ++i) {
+                    TestConnection connection = new TestConnection("token" + i);
+                    connections.add(connection);
+
+                    futures.add(executor.submit(() -> {
+                        start.await();
+
+                        if (sessions.reconnect(username, connection)) {
+                            bound.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+
+                // a single connection wins and is the only one known by the registry
+                assertEquals(1, bound.get());
+                long known = connections.stream().filter(connection -> sessions.getUsername(connection) != null).count();
+                assertEquals(1, known);
+                assertSame(sessions.getConnection(username), connections.stream()
+                        .filter(connection -> username.equals(sessions.getUsername(connection))).findFirst().orElse(null));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class TestConnection extends Connection {
+        private volatile boolean connected = true;
+
+        private TestConnection(String token) {
+            setToken(token);
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void sendMessage(Message message) {
+            // not needed
+        }
+
+        @Override
+        public void disconnect() {
+            connected = false;
+        }
+
+        @Override
+        public void ping() {
+            // not needed
+        }
+    }
+}
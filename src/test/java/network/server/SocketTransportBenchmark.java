@@ -0,0 +1,223 @@
+package network.server;
+
+import network.message.ColorRequest;
+import network.message.ConnectionRequest;
+import network.message.Message;
+import network.message.MessageFrame;
+import utility.ExecutionMode;
+import utility.TaskExecutor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Load test comparing the blocking {@link SocketServer SocketServer} with the {@link NioSocketServer NioSocketServer}.
+ * Thousands of idle connections are opened together with some active ones that keep sending requests, echoed back by
+ * a stub {@link Server Server}. It reports the server threads, the RSS growth and the round trip latency.
+ * <p>
+ * Not a unit test, run one transport per JVM:
+ * {@code java --add-opens java.base/java.lang=ALL-UNNAMED -cp target/classes:target/test-classes:<deps>
+ * network.server.SocketTransportBenchmark nio|blocking [idle] [active] [seconds] [platform|virtual]}
+ */
+public class SocketTransportBenchmark {
+    private static final int SEND_INTERVAL_MILLIS = 20;
+
+    public static void main(String[] args) throws Exception {
+        Server.LOGGER.setLevel(Level.OFF);
+
+        String transport = args.length > 0 ? args[0] : "nio";
+        int idle = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int active = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        TaskExecutor.configure(ExecutionMode.getMode(args.length > 4 ? args[4] : "platform"));
+
+        int baseThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        long baseRss = rssKb();
+
+        int port = freePort();
+        Server server = echoServer();
+        if (transport.equals("nio")) {
+            new NioSocketServer(server, port, Runtime.getRuntime().availableProcessors()).startServer();
+        } else {
+            new SocketServer(server, port).startServer();
+        }
+
+        LoadClients clients = new LoadClients(port, idle, active);
+        clients.run(seconds * 1000L / 5); // warm up
+        clients.latencies.clear();
+        clients.run(seconds * 1000L);
+
+        long[] latencies = clients.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("transport=%s mode=%s idle=%d active=%d%n", transport, TaskExecutor.getMode(), idle, active);
+        System.out.printf("server threads: %d%n", ManagementFactory.getThreadMXBean().getThreadCount() - baseThreads);
+        System.out.printf("rss growth: %d MB%n", (rssKb() - baseRss) / 1024);
+        System.out.printf("requests: %d (%.0f/s)%n", latencies.length, latencies.length / (double) seconds);
+        System.out.printf("latency p50: %.3f ms, p99: %.3f ms, max: %.3f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1));
+
+        System.exit(0);
+    }
+
+    /**
+     * @return a stub server that answers every message with the message itself
+     */
+    private static Server echoServer() {
+        Map<String, Connection> connections = new ConcurrentHashMap<>();
+        Server server = mock(Server.class, withSettings().stubOnly());
+
+        doAnswer(invocation -> {
+            connections.put((String) invocation.getArguments()[0], (Connection) invocation.getArguments()[1]);
+            return null;
+        }).when(server).login(anyString(), any(Connection.class));
+
+        doAnswer(invocation -> {
+            Message message = (Message) invocation.getArguments()[0];
+            connections.get(message.getSenderUsername()).sendMessage(message);
+            return null;
+        }).when(server).onMessage(any(Message.class));
+
+        return server;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long rssKb() throws IOException {
+        for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return 0;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Simulated clients served by a single selector thread, so that the client side does not add threads
+     */
+    private static class LoadClients {
+        private final Selector selector;
+        private final List<LoadClient> activeClients;
+        private final List<Long> latencies;
+
+        LoadClients(int port, int idle, int active) throws IOException {
+            this.selector = Selector.open();
+            this.activeClients = new ArrayList<>();
+            this.latencies = new ArrayList<>();
+
+            for (int i = 0; i < idle + active; ++i) {
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+                channel.socket().setTcpNoDelay(true);
+                LoadClient client = new LoadClient("client" + i, channel);
+
+                client.write(new ConnectionRequest(client.username));
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ, client);
+
+                if (i >= idle) {
+                    activeClients.add(client);
+                }
+            }
+        }
+
+        void run(long millis) throws IOException {
+            long end = System.currentTimeMillis() + millis;
+
+            while (System.currentTimeMillis() < end) {
+                long now = System.nanoTime();
+                for (LoadClient client : activeClients) {
+                    if (client.sentAt == 0 && now >= client.nextSend) {
+                        client.sentAt = System.nanoTime();
+                        client.write(new ColorRequest(client.username, null));
+                    }
+                }
+
+                selector.select(1);
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    LoadClient client = (LoadClient) key.attachment();
+                    while (client.read()) {
+                        if (client.sentAt != 0) {
+                            long received = System.nanoTime();
+                            latencies.add(received - client.sentAt);
+                            client.sentAt = 0;
+                            client.nextSend = received + SEND_INTERVAL_MILLIS * 1_000_000L;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static class LoadClient {
+        private final String username;
+        private final SocketChannel channel;
+        private final ByteBuffer header = ByteBuffer.allocate(MessageFrame.HEADER_LENGTH);
+        private ByteBuffer body;
+        private long sentAt;
+        private long nextSend;
+
+        LoadClient(String username, SocketChannel channel) {
+            this.username = username;
+            this.channel = channel;
+        }
+
+        void write(Message message) throws IOException {
+            ByteBuffer frame = MessageFrame.encode(message);
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        }
+
+        /**
+         * @return {@code true} if a whole frame has been read
+         */
+        boolean read() throws IOException {
+            if (body == null) {
+                channel.read(header);
+                if (header.hasRemaining()) {
+                    return false;
+                }
+
+                header.flip();
+                body = ByteBuffer.allocate(header.getInt());
+                header.clear();
+            }
+
+            channel.read(body);
+            if (body.hasRemaining()) {
+                return false;
+            }
+
+            body = null;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package simulation;
+
+import enumerations.PlayerColor;
+import model.map.GameMap;
+
+/**
+ * Benchmark measuring how the number of matches played per second by the {@link MatchRunner MatchRunner} scales with
+ * the number of threads: the same tournament of five players matches is played with 1 to N threads, N being the
+ * number of available processors unless given. The results of the tournament are printed at the end.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> simulation.MatchRunnerBenchmark [matches] [threads]}
+ */
+public class MatchRunnerBenchmark {
+    private static final long SEED = 27;
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        MatchRunner runner = new MatchRunner(new SimulationEngine(), GameMap.MAP_1, false, 8, 5);
+
+        // warm up
+        runner.run(Math.max(matches / 4, maxThreads), SEED + 1, maxThreads);
+
+        System.out.printf("%-8s %10s %10s %10s %11s%n", "threads", "seconds", "matches/s", "speedup", "efficiency");
+
+        TournamentResult result = null;
+        double baseline = 0;
+
+        for (int threads = 1; threads <= maxThreads; ++threads) {
+            long start = System.nanoTime();
+            result = runner.run(matches, SEED, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            double throughput = matches / seconds;
+            if (threads == 1) {
+                baseline = throughput;
+            }
+
+            System.out.printf("%-8d %10.2f %10.1f %10.2f %10.0f%%%n",
+                    threads, seconds, throughput, throughput / baseline, throughput / baseline / threads * 100);
+        }
+
+        System.out.printf("%nmatches: %d, ended: %d, anomalies: %s, average turns: %.1f%n", result.getMatches(),
+                result.getMatches(MatchResult.Outcome.ENDED), result.getAnomalies(), result.getAverageTurns());
+        System.out.printf("%-8s %8s %14s %12s%n", "color", "wins", "avg points", "kill shots");
+
+        for (PlayerColor color : PlayerColor.values()) {
+            System.out.printf("%-8s %8d %14.1f %12d%n",
+                    color, result.getWins(color), result.getAveragePoints(color), result.getKillShots(color));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package simulation;
+
+import enumerations.PlayerColor;
+import model.map.GameMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchRunnerTest {
+    @Test
+    void aggregatesEveryMatch() {
+        MatchRunner runner = new MatchRunner(new SimulationEngine(), GameMap.MAP_2, true, 5, 3);
+        TournamentResult result = runner.run(6, 27, 2);
+
+        assertEquals(6, result.getMatches());
+
+        long ended = result.getMatches(MatchResult.Outcome.ENDED);
+        assertEquals(6 - ended, result.getAnomalies().size());
+
+        long wins = 0;
+        long killShots = 0;
+        for (PlayerColor color : PlayerColor.values()) {
+            wins += result.getWins(color);
+            killShots += result.getKillShots(color);
+        }
+
+        assertTrue(wins >= ended);
+        assertTrue(killShots >= 5 * ended);
+        assertTrue(result.getAverageTurns() > 0);
+    }
+
+    @Test
+    void matchesHaveTheirOwnSeed() {
+        Set<Long> seeds = new HashSet<>();
+
+        for (int i = 0; i < 1000; ++i) {
+            seeds.add(MatchRunner.matchSeed(27, i));
+        }
+
+        assertEquals(1000, seeds.size());
+        assertEquals(MatchRunner.matchSeed(27, 3), MatchRunner.matchSeed(27, 3));
+    }
+
+    @Test
+    void replayedMatchesAreIdentical() {
+        MatchRunner runner = new MatchRunner(new SimulationEngine(), GameMap.MAP_3, false, 5, 4);
+
+        for (int i = 0; i < 3; ++i) {
+            MatchResult first = runner.replay(27, i);
+            MatchResult second = runner.replay(27, i);
+
+            assertEquals(first.getOutcome(), second.getOutcome());
+            assertEquals(first.getTurns(), second.getTurns());
+            assertEquals(first.getMessages(), second.getMessages());
+            assertEquals(first.getRejected(), second.getRejected());
+            assertEquals(first.getWinners(), second.getWinners());
+            assertEquals(first.getKillShots(), second.getKillShots());
+        }
+    }
+}
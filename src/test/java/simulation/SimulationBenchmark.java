@@ -0,0 +1,110 @@
+package simulation;
+
+import model.map.GameMap;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark playing whole matches between {@link RandomAgent RandomAgents} with the {@link SimulationEngine
+ * SimulationEngine}, on every map, with and without the Terminator and with every number of skulls. Lobbies are full:
+ * five players without the Terminator, four with it. For each configuration it reports the matches played per
+ * second, the bytes allocated per match and the distribution of the length of the matches in turns.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> simulation.SimulationBenchmark [matches]}
+ */
+public class SimulationBenchmark {
+    private static final long SEED = 27;
+    private static final int MIN_SKULLS = 5;
+    private static final int MAX_SKULLS = 8;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        SimulationEngine engine = new SimulationEngine();
+
+        // warm up
+        for (int map = GameMap.MAP_1; map <= GameMap.MAP_4; ++map) {
+            run(engine, map, map % 2 == 0, MIN_SKULLS, matches, new ArrayList<>(), new EnumMap<>(MatchResult.Outcome.class));
+        }
+
+        System.out.printf("%-4s %-4s %-6s %8s %8s %10s %12s %6s %6s %6s %6s%n",
+                "map", "bot", "skulls", "matches", "ended", "matches/s", "KB/match", "min", "p50", "p90", "max");
+
+        List<Integer> allTurns = new ArrayList<>();
+        Map<MatchResult.Outcome, Integer> allOutcomes = new EnumMap<>(MatchResult.Outcome.class);
+        long allElapsed = 0;
+        long allAllocated = 0;
+
+        for (int map = GameMap.MAP_1; map <= GameMap.MAP_4; ++map) {
+            for (boolean bot : new boolean[]{false, true}) {
+                for (int skulls = MIN_SKULLS; skulls <= MAX_SKULLS; ++skulls) {
+                    List<Integer> turns = new ArrayList<>();
+                    Map<MatchResult.Outcome, Integer> outcomes = new EnumMap<>(MatchResult.Outcome.class);
+
+                    long allocated = THREADS.getCurrentThreadAllocatedBytes();
+                    long start = System.nanoTime();
+                    run(engine, map, bot, skulls, matches, turns, outcomes);
+                    long elapsed = System.nanoTime() - start;
+                    allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+
+                    int[] sorted = turns.stream().mapToInt(Integer::intValue).sorted().toArray();
+                    System.out.printf("%-4d %-4s %-6d %8d %8d %10.1f %12d %6d %6d %6d %6d%n",
+                            map, bot ? "yes" : "no", skulls, matches, outcomes.getOrDefault(MatchResult.Outcome.ENDED, 0),
+                            matches / (elapsed / 1e9), allocated / matches / 1024,
+                            sorted[0], percentile(sorted, 50), percentile(sorted, 90), sorted[sorted.length - 1]);
+
+                    allTurns.addAll(turns);
+                    outcomes.forEach((outcome, count) -> allOutcomes.merge(outcome, count, Integer::sum));
+                    allElapsed += elapsed;
+                    allAllocated += allocated;
+                }
+            }
+        }
+
+        int played = allTurns.size();
+        System.out.printf("%nmatches: %d, outcomes: %s%n", played, allOutcomes);
+        System.out.printf("matches/s: %.1f, KB/match: %d%n", played / (allElapsed / 1e9), allAllocated / played / 1024);
+        printHistogram(allTurns);
+    }
+
+    private static void run(SimulationEngine engine, int map, boolean bot, int skulls, int matches,
+                            List<Integer> turns, Map<MatchResult.Outcome, Integer> outcomes) {
+        int players = bot ? 4 : 5;
+
+        for (int i = 0; i < matches; ++i) {
+            List<Agent> agents = new ArrayList<>();
+            for (int j = 0; j < players; ++j) {
+                agents.add(new RandomAgent(SEED + ((map * 16L + skulls * 2L + (bot ? 1 : 0)) * 1000 + i) * 8 + j));
+            }
+
+            MatchResult result = engine.play(map, bot, skulls, agents);
+            turns.add(result.getTurns());
+            outcomes.merge(result.getOutcome(), 1, Integer::sum);
+        }
+    }
+
+    private static int percentile(int[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    /**
+     * Prints the number of matches for each range of ten turns
+     */
+    private static void printHistogram(List<Integer> turns) {
+        int[] buckets = new int[turns.stream().mapToInt(Integer::intValue).max().orElse(0) / 10 + 1];
+        turns.forEach(length -> buckets[length / 10]++);
+
+        int max = Arrays.stream(buckets).max().orElse(1);
+        System.out.println("turns");
+        for (int i = 0; i < buckets.length; ++i) {
+            System.out.printf("%3d-%-3d %6d %s%n", i * 10, i * 10 + 9, buckets[i], "#".repeat(buckets[i] * 50 / max));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package simulation;
+
+import model.Game;
+import model.map.GameMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationEngineTest {
+    private static List<Agent> randomAgents(int players, long seed) {
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < players; ++i) {
+            agents.add(new RandomAgent(seed + i));
+        }
+
+        return agents;
+    }
+
+    @Test
+    void matchesEnd() {
+        SimulationEngine engine = new SimulationEngine();
+
+        for (int map = GameMap.MAP_1; map <= GameMap.MAP_4; ++map) {
+            boolean bot = map % 2 == 0;
+            MatchResult result = engine.play(map, bot, 5, randomAgents(bot ? 3 : 5, map));
+
+            assertEquals(MatchResult.Outcome.ENDED, result.getOutcome(), () -> String.valueOf(result.getFailure()));
+            assertFalse(result.getWinners().isEmpty());
+            assertTrue(result.getTurns() > 0);
+        }
+    }
+
+    @Test
+    void gameIsNotShared() {
+        Game game = new Game();
+        int players = game.getPlayers().size();
+
+        Game.bind(game);
+        try {
+            new SimulationEngine().play(GameMap.MAP_1, true, 5, randomAgents(4, 0));
+
+            assertSame(game, Game.getInstance());
+            assertEquals(players, game.getPlayers().size());
+        } finally {
+            Game.bind(null);
+        }
+    }
+
+    @Test
+    void invalidSettings() {
+        SimulationEngine engine = new SimulationEngine();
+
+        assertThrows(IllegalArgumentException.class, () -> engine.play(5, false, 5, randomAgents(3, 0)));
+        assertThrows(IllegalArgumentException.class, () -> engine.play(GameMap.MAP_1, false, 9, randomAgents(3, 0)));
+        assertThrows(IllegalArgumentException.class, () -> engine.play(GameMap.MAP_1, true, 5, randomAgents(5, 0)));
+    }
+
+    @Test
+    void truncatesLongMatches() {
+        MatchResult result = new SimulationEngine(10).play(GameMap.MAP_2, false, 8, randomAgents(3, 0));
+
+        assertEquals(MatchResult.Outcome.TRUNCATED, result.getOutcome());
+        assertEquals(10, result.getMessages() + result.getRejected());
+    }
+}
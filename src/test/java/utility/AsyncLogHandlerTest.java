@@ -0,0 +1,130 @@
+package utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogHandlerTest {
+    private static LogRecord record(String message, Object... parameters) {
+        LogRecord logRecord = new LogRecord(Level.INFO, message);
+        logRecord.setParameters(parameters);
+        logRecord.setLoggerName("test");
+        return logRecord;
+    }
+
+    @Test
+    void publishesInOrder() {
+        CapturingHandler target = new CapturingHandler();
+        AsyncLogHandler handler = new AsyncLogHandler(128, target);
+
+        for (int i = 0; i < 100; ++i) {
+            handler.publish(record("record {0}", i));
+        }
+
+        handler.flush();
+        handler.close();
+
+        assertEquals(100, target.messages.size());
+        for (int i = 0; i < 100; ++i) {
+            assertEquals("record " + i, target.messages.get(i));
+        }
+
+        assertTrue(target.flushes > 0);
+        assertTrue(target.closed);
+    }
+
+    @Test
+    void formatsOnWriterThread() {
+        CapturingHandler target = new CapturingHandler();
+        AsyncLogHandler handler = new AsyncLogHandler(16, target);
+
+        handler.publish(record("lazy {0}", "value"));
+        handler.close();
+
+        assertEquals(Collections.singletonList("lazy value"), target.messages);
+        assertNotEquals(Thread.currentThread().getName(), target.threads.get(0));
+    }
+
+    @Test
+    void dropsWhenFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingHandler target = new CapturingHandler() {
+            @Override
+            public void publish(LogRecord logRecord) {
+                blocked.countDown();
+
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                super.publish(logRecord);
+            }
+        };
+        AsyncLogHandler handler = new AsyncLogHandler(4, target);
+
+        // the writer is stuck on the first record while the buffer fills
+        handler.publish(record("first"));
+        assertTrue(blocked.await(2, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 10; ++i) {
+            handler.publish(record("record {0}", i));
+        }
+
+        assertEquals(6, handler.getDropped());
+
+        release.countDown();
+        handler.close();
+
+        assertEquals(6, target.messages.size());
+        assertTrue(target.messages.get(5).startsWith("6 log records dropped"));
+    }
+
+    @Test
+    void respectsLevel() {
+        CapturingHandler target = new CapturingHandler();
+        AsyncLogHandler handler = new AsyncLogHandler(16, target);
+        handler.setLevel(Level.WARNING);
+
+        handler.publish(record("discarded"));
+        handler.close();
+
+        assertTrue(target.messages.isEmpty());
+    }
+
+    private static class CapturingHandler extends Handler {
+        private final SimpleFormatter formatter = new SimpleFormatter();
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        private int flushes;
+        private boolean closed;
+
+        @Override
+        public void publish(LogRecord logRecord) {
+            messages.add(formatter.formatMessage(logRecord));
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+    private final TimerWheel wheel = new TimerWheel(5, 8, () -> Runnable::run);
+
+    @Test
+    void runsAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        wheel.schedule(latch::countDown, 30);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void waitsMoreRounds() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // the wheel makes a revolution every 40 milliseconds
+        wheel.schedule(latch::countDown, 130);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(130));
+    }
+
+    @Test
+    void cancelledNeverRuns() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 20);
+        wheel.schedule(latch::countDown, 60);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void resetTimers() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        int timers = 1000;
+        CountDownLatch latch = new CountDownLatch(timers);
+
+        for (int i = 0; i < timers; ++i) {
+            // every timer is reset like a move timer after each message, only the last one runs
+            TimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 10);
+            timeout.cancel();
+            wheel.schedule(() -> {
+                runs.incrementAndGet();
+                latch.countDown();
+            }, i % 100);
+        }
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(timers, runs.get());
+        assertEquals(0, wheel.pending());
+    }
+}
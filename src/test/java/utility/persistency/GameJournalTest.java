@@ -0,0 +1,81 @@
+package utility.persistency;
+
+import controller.GameManager;
+import exceptions.game.ReloadException;
+import model.map.GameMap;
+import network.message.Message;
+import network.server.MessageSender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.Agent;
+import simulation.MatchResult;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+    private static final MessageSender NO_CLIENTS = new MessageSender() {
+        @Override
+        public void sendMessage(String username, Message message) {
+            // no client is connected
+        }
+
+        @Override
+        public void sendMessageToAll(Message message) {
+            // no client is connected
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoveredMatchesAreIdentical() throws IOException {
+        int[] maxMessages = {60, 250, 900, SimulationEngine.DEFAULT_MAX_MESSAGES};
+
+        for (int i = 0; i < maxMessages.length; ++i) {
+            Path snapshotFile = dir.resolve("game" + i + ".adrenaline");
+            Path journalFile = dir.resolve("game" + i + ".journal");
+            GameJournal journal = new GameJournal(snapshotFile, journalFile, 8);
+            List<GameManager> played = new ArrayList<>();
+
+            SimulationEngine engine = new SimulationEngine(maxMessages[i], manager -> {
+                manager.setJournal(journal);
+                played.add(manager);
+            });
+            MatchResult result = engine.play(GameMap.MAP_2, true, 5, agents(i), 27 + i);
+
+            assertNotEquals(MatchResult.Outcome.CRASHED, result.getOutcome());
+            assertTrue(Files.exists(snapshotFile));
+
+            GameManager recovered = new GameJournal(snapshotFile, journalFile, 8).recover(NO_CLIENTS, 0);
+
+            assertArrayEquals(SaveFormat.encode(played.get(0), 0), SaveFormat.encode(recovered, 0), "match " + i);
+        }
+    }
+
+    @Test
+    void missingSnapshot() {
+        GameJournal journal = new GameJournal(dir.resolve("missing.adrenaline"), dir.resolve("missing.journal"), 8);
+
+        assertThrows(ReloadException.class, () -> journal.recover(NO_CLIENTS, 0));
+        assertThrows(IllegalArgumentException.class, () -> new GameJournal(dir.resolve("a"), dir.resolve("b"), 0));
+    }
+
+    private static List<Agent> agents(int match) {
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < 4; ++i) {
+            agents.add(new RandomAgent(match * 8L + i));
+        }
+
+        return agents;
+    }
+}
@@ -0,0 +1,184 @@
+package utility.persistency;
+
+import controller.GameManager;
+import network.message.Message;
+import network.server.MessageSender;
+import simulation.Agent;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Benchmark comparing the ways of saving a match. The same simulated matches are played without saving, writing the
+ * whole match at every turn boundary on the thread of the match, queuing it to the {@link SaveWriter SaveWriter} as
+ * {@link SaveGame SaveGame} does, and journaling every input with a {@link GameJournal GameJournal}: the save cost per
+ * input is the time added to the match divided by the number of inputs. The matches are truncated at a random point, as a crash would, and then recovered from the save file and
+ * from the journal.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> utility.persistency.JournalBenchmark [matches] [sync]}
+ */
+public class JournalBenchmark {
+    private static final long SEED = 27;
+
+    private static final MessageSender NO_CLIENTS = new MessageSender() {
+        @Override
+        public void sendMessage(String username, Message message) {
+            // no client is connected
+        }
+
+        @Override
+        public void sendMessageToAll(Message message) {
+            // no client is connected
+        }
+    };
+
+    public static void main(String[] args) throws IOException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        SaveWriter.configure(args.length > 1 && Boolean.parseBoolean(args[1]));
+
+        Path dir = Files.createTempDirectory("journal");
+        Path saveFile = dir.resolve("gameSaved.adrenaline");
+        Path snapshotFile = dir.resolve("snapshot.adrenaline");
+        Path journalFile = dir.resolve("gameSaved.journal");
+
+        Consumer<GameManager> noSave = manager -> {
+        };
+        Consumer<GameManager> fullSave = manager -> manager.setSaver(saved -> {
+            try {
+                SaveWriter.writeFile(saveFile, SaveFormat.encode(saved, 0));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Consumer<GameManager> asyncSave = manager -> manager.setSaver(saved -> {
+            try {
+                SaveWriter.snapshot(saveFile, null, SaveFormat.encode(saved, 0));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Consumer<GameManager> journal = manager -> manager.setJournal(
+                new GameJournal(snapshotFile, journalFile, GameJournal.DEFAULT_SNAPSHOT_INTERVAL));
+
+        // warm up
+        play(noSave, matches / 4);
+        play(fullSave, matches / 4);
+        play(asyncSave, matches / 4);
+        play(journal, matches / 4);
+
+        long inputs = play(noSave, matches)[0];
+        long baseline = play(noSave, matches)[1];
+        long saving = play(fullSave, matches)[1];
+        long asyncSaving = play(asyncSave, matches)[1];
+        long journaling = play(journal, matches)[1];
+        SaveWriter.flush();
+
+        System.out.printf("matches: %d, inputs/match: %.1f%n%n", matches, (double) inputs / matches);
+        System.out.printf("%-10s %14s %16s%n", "save", "ms/match", "us/input saved");
+        System.out.printf("%-10s %14.2f %16s%n", "none", baseline / 1e6 / matches, "-");
+        System.out.printf("%-10s %14.2f %16.2f%n", "full", saving / 1e6 / matches, (saving - baseline) / 1e3 / inputs);
+        System.out.printf("%-10s %14.2f %16.2f%n", "async", asyncSaving / 1e6 / matches, (asyncSaving - baseline) / 1e3 / inputs);
+        System.out.printf("%-10s %14.2f %16.2f%n", "journal", journaling / 1e6 / matches, (journaling - baseline) / 1e3 / inputs);
+
+        // warm up
+        recover(dir, matches / 4);
+        long[] recovery = recover(dir, matches);
+        long recovered = Math.max(recovery[0], 1);
+
+        System.out.printf("%nrecovered matches: %d, journal bytes/match: %d%n", recovery[0], recovery[1] / recovered);
+        System.out.printf("%-10s %14s%n", "recovery", "ms/match");
+        System.out.printf("%-10s %14.2f%n", "full", recovery[2] / 1e6 / recovered);
+        System.out.printf("%-10s %14.2f%n", "journal", recovery[3] / 1e6 / recovered);
+        System.out.printf("%nsave writer: %s%n", SaveWriter.metrics());
+    }
+
+    /**
+     * Plays the matches truncated at a random point, saving them both ways, and recovers them
+     *
+     * @return the number of recovered matches, the bytes of their journals and the nanoseconds taken to recover them
+     * from the save file and from the journal
+     */
+    private static long[] recover(Path dir, int matches) throws IOException {
+        Path saveFile = dir.resolve("gameSaved.adrenaline");
+        Path snapshotFile = dir.resolve("snapshot.adrenaline");
+        Path journalFile = dir.resolve("gameSaved.journal");
+        long fullRecovery = 0;
+        long journalRecovery = 0;
+        long replayed = 0;
+        int recovered = 0;
+
+        for (int i = 0; i < matches; ++i) {
+            int maxMessages = 100 + (int) ((SEED + i) * 7919 % 900);
+            long start;
+
+            SaveWriter.flush();
+            Files.deleteIfExists(saveFile);
+            Files.deleteIfExists(snapshotFile);
+            Files.deleteIfExists(journalFile);
+
+            new SimulationEngine(maxMessages, manager -> {
+                // the match is both journaled and saved at every turn boundary
+                GameJournal matchJournal = new GameJournal(snapshotFile, journalFile, GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+                manager.setJournal(matchJournal);
+                manager.setSaver(saved -> {
+                    matchJournal.save(saved);
+                    try {
+                        SaveWriter.writeFile(saveFile, SaveFormat.encode(saved, 0));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }).play(1 + i % 4, false, 8, agents(i), SEED + i);
+            SaveWriter.flush();
+
+            if (!Files.exists(saveFile) || !Files.exists(snapshotFile)) {
+                continue;
+            }
+
+            start = System.nanoTime();
+            SaveGame.readSnapshot(saveFile, NO_CLIENTS, 0);
+            fullRecovery += System.nanoTime() - start;
+
+            replayed += Files.size(journalFile);
+            start = System.nanoTime();
+            new GameJournal(snapshotFile, journalFile, GameJournal.DEFAULT_SNAPSHOT_INTERVAL).recover(NO_CLIENTS, 0);
+            journalRecovery += System.nanoTime() - start;
+
+            ++recovered;
+        }
+
+        return new long[]{recovered, replayed, fullRecovery, journalRecovery};
+    }
+
+    /**
+     * @return the number of inputs of the matches and the nanoseconds taken to play them
+     */
+    private static long[] play(Consumer<GameManager> setup, int matches) {
+        long inputs = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < matches; ++i) {
+            inputs += new SimulationEngine(SimulationEngine.DEFAULT_MAX_MESSAGES, setup)
+                    .play(1 + i % 4, false, 8, agents(i), SEED + i).getMessages();
+        }
+
+        return new long[]{inputs, System.nanoTime() - start};
+    }
+
+    private static List<Agent> agents(int match) {
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < 5; ++i) {
+            agents.add(new RandomAgent(SEED + match * 8L + i));
+        }
+
+        return agents;
+    }
+}
@@ -0,0 +1,106 @@
+package utility.persistency;
+
+import model.map.GameMap;
+import simulation.Agent;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the {@link MatchReplay MatchReplay}. Simulated matches are recorded with and without keyframes after
+ * the first one: the size of the recordings, the time taken to verify them and the time taken to seek random points
+ * of the matches are compared. A recording written by a server can be given instead, to use a real match as a
+ * fixture: it is verified and then sought with its own keyframes.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> utility.persistency.MatchReplayBenchmark [matches|recording file] [seeks]}
+ */
+public class MatchReplayBenchmark {
+    private static final long SEED = 91;
+
+    public static void main(String[] args) throws IOException {
+        int seeks = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            MatchRecording recording = MatchRecording.read(Paths.get(args[0]));
+
+            System.out.printf("recording: %d inputs, %d turns, %d keyframes%n%n", recording.getInputs(),
+                    recording.getTurns(), recording.getKeyframes());
+            System.out.printf("%-10s %14s %14s %14s%n", "keyframes", "bytes/input", "verify us/in", "seek us");
+            print("recorded", List.of(recording), seeks);
+            return;
+        }
+
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<MatchRecording> keyframed = new ArrayList<>();
+        List<MatchRecording> unkeyframed = new ArrayList<>();
+
+        for (int i = 0; i < matches; ++i) {
+            keyframed.add(record(i, MatchRecorder.DEFAULT_KEYFRAME_INTERVAL));
+            unkeyframed.add(record(i, Integer.MAX_VALUE));
+        }
+
+        // warm up
+        measure(keyframed, seeks / 4);
+        measure(unkeyframed, seeks / 4);
+
+        System.out.printf("matches: %d, seeks: %d%n%n", matches, seeks);
+        System.out.printf("%-10s %14s %14s %14s%n", "keyframes", "bytes/input", "verify us/in", "seek us");
+        print("keyframes", keyframed, seeks);
+        print("none", unkeyframed, seeks);
+    }
+
+    private static void print(String name, List<MatchRecording> recordings, int seeks) {
+        long inputs = recordings.stream().mapToLong(MatchRecording::getInputs).sum();
+        long bytes = recordings.stream().mapToLong(recording -> recording.encode().length).sum();
+        long[] result = measure(recordings, seeks);
+
+        System.out.printf("%-10s %14.1f %14.1f %14.1f%n", name, (double) bytes / inputs, result[0] / 1e3 / inputs,
+                result[1] / 1e3 / ((long) seeks * recordings.size()));
+    }
+
+    /**
+     * Verifies every recording and seeks random points of it
+     *
+     * @return the nanoseconds taken to verify the recordings and to seek them
+     */
+    private static long[] measure(List<MatchRecording> recordings, int seeks) {
+        long[] result = new long[2];
+        Random random = new Random(SEED);
+
+        for (MatchRecording recording : recordings) {
+            MatchReplay replay = new MatchReplay(recording);
+
+            long start = System.nanoTime();
+            if (replay.verify() != -1) {
+                throw new IllegalStateException("The replay does not follow the recording");
+            }
+            result[0] += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < seeks; ++i) {
+                replay.seek(random.nextInt(recording.getInputs() + 1));
+            }
+            result[1] += System.nanoTime() - start;
+        }
+
+        return result;
+    }
+
+    private static MatchRecording record(int match, int keyframeInterval) {
+        MatchRecorder recorder = new MatchRecorder(keyframeInterval, true);
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < 4; ++i) {
+            agents.add(new RandomAgent(SEED + match * 8L + i));
+        }
+
+        new SimulationEngine(SimulationEngine.DEFAULT_MAX_MESSAGES, manager -> manager.setRecorder(recorder))
+                .play(GameMap.MAP_1 + match % 4, match % 2 == 0, 5 + match % 4, agents, SEED + match);
+        return recorder.getRecording();
+    }
+}
@@ -0,0 +1,96 @@
+package utility.persistency;
+
+import controller.GameManager;
+import exceptions.game.ReloadException;
+import model.map.GameMap;
+import org.junit.jupiter.api.Test;
+import simulation.Agent;
+import simulation.MatchResult;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchReplayTest {
+    @Test
+    void replayFollowsRecordedMatch() throws IOException {
+        int[] maxMessages = {300, SimulationEngine.DEFAULT_MAX_MESSAGES};
+
+        for (int i = 0; i < maxMessages.length; ++i) {
+            MatchRecorder recorder = new MatchRecorder(16, true);
+            List<GameManager> played = new ArrayList<>();
+
+            MatchResult result = new SimulationEngine(maxMessages[i], manager -> {
+                manager.setRecorder(recorder);
+                played.add(manager);
+            }).play(GameMap.MAP_3, i % 2 == 0, 5, agents(i), 51 + i);
+
+            assertNotEquals(MatchResult.Outcome.CRASHED, result.getOutcome());
+
+            MatchRecording recording = MatchRecording.decode(recorder.getRecording().encode());
+            MatchReplay replay = new MatchReplay(recording);
+
+            assertEquals(played.get(0).getGameInstance().getSeed(), recording.getSeed());
+            assertEquals(GameMap.MAP_3, recording.getMapId());
+            assertEquals(4, recording.getPlayers().size());
+            assertTrue(recording.getTurns() > 1);
+            assertTrue(recording.getKeyframes() > recording.getInputs() / 64);
+            assertEquals(-1, replay.verify(), "match " + i);
+
+            assertArrayEquals(SaveFormat.encode(played.get(0), 0),
+                    SaveFormat.encode(replay.seek(recording.getInputs()), 0), "match " + i);
+
+            for (int inputs = 1; inputs <= recording.getInputs(); inputs += 37) {
+                assertEquals(recording.getEntry(inputs - 1).stateHash, MatchRecording.stateHash(replay.seek(inputs)));
+            }
+
+            for (int turn = 1; turn <= recording.getTurns(); turn += 5) {
+                GameManager atTurn = replay.seekTurn(turn);
+                assertEquals(recording.getEntry(recording.getTurnStart(turn) - 1).stateHash, MatchRecording.stateHash(atTurn));
+            }
+        }
+    }
+
+    @Test
+    void divergenceIsFound() {
+        MatchRecorder recorder = new MatchRecorder(16, true);
+
+        new SimulationEngine(400, manager -> manager.setRecorder(recorder))
+                .play(GameMap.MAP_1, false, 5, agents(7), 77);
+
+        MatchRecording recording = recorder.getRecording();
+        List<MatchRecording.Entry> entries = new ArrayList<>();
+        List<MatchRecording.Keyframe> keyframes = new ArrayList<>();
+
+        for (int i = 0; i < recording.getInputs(); ++i) {
+            MatchRecording.Entry entry = recording.getEntry(i);
+            entries.add(i != 100 ? entry :
+                    new MatchRecording.Entry(entry.input, entry.message, entry.randomCount, ~entry.stateHash, entry.turnPassed));
+        }
+
+        for (int i = 0; i < recording.getKeyframes(); ++i) {
+            keyframes.add(recording.getKeyframe(i));
+        }
+
+        MatchRecording tampered = new MatchRecording(recording.getSeed(), recording.getMapId(), recording.getPlayers(),
+                true, entries, keyframes);
+
+        assertEquals(100, new MatchReplay(tampered).verify());
+        assertThrows(ReloadException.class, () -> MatchRecording.decode(new byte[]{1, 2, 3, 4, 5, 6}));
+        assertThrows(IllegalArgumentException.class, () -> new MatchReplay(recording).seek(recording.getInputs() + 1));
+    }
+
+    private static List<Agent> agents(int match) {
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < 4; ++i) {
+            agents.add(new RandomAgent(match * 8L + i));
+        }
+
+        return agents;
+    }
+}
@@ -7,9 +7,16 @@ import model.player.Bot;
 import model.player.UserPlayer;
 
 import java.io.Serializable;
-import java.util.*;
-
-public class NotTransientPlayer implements Serializable {
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * The attributes of a player that the saves written before the {@link SaveFormat SaveFormat} kept apart, see
+ * {@link PersistencyClass PersistencyClass}
+ */
+class NotTransientPlayer implements Serializable {
     private static final long serialVersionUID = -9213961725005653060L;
 
     private String userName;
@@ -34,28 +41,4 @@ public class NotTransientPlayer implements Serializable {
         this.userName = bot.getUsername();
         this.points = bot.getPoints();
     }
-
-    public String getUserName() {
-        return userName;
-    }
-
-    public int getPoints() {
-        return points;
-    }
-
-    public Set<PossibleAction> getPossibleActions() {
-        return possibleActions;
-    }
-
-    public PossiblePlayerState getPlayerState() {
-        return playerState;
-    }
-
-    public List<PowerupCard> getPowerups() {
-        return powerups;
-    }
-
-    public PowerupCard getSpawningCard() {
-        return spawningCard;
-    }
 }
@@ -6,10 +6,16 @@ import model.Game;
 import model.player.Bot;
 import model.player.UserPlayer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.List;
 
+/**
+ * The status of a match as the servers before the {@link SaveFormat SaveFormat} serialized it in their saves, kept to
+ * compare the two formats
+ */
 class PersistencyClass implements Serializable {
     private static final long serialVersionUID = 2545891111714662670L;
 
@@ -23,16 +29,20 @@ class PersistencyClass implements Serializable {
         this.playersCopy = setPlayersCopy();
     }
 
-    GameManager getGameManager() {
-        return this.gameManager;
-    }
-
-    TurnManager getTurnManager() {
-        return this.turnManager;
-    }
+    /**
+     * Serializes the status of the match as the saves written before the {@link SaveFormat SaveFormat}
+     *
+     * @return the serialized status
+     * @throws IOException if the status can not be serialized
+     */
+    byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32768);
+
+        try (ObjectOutputStream outGame = new ObjectOutputStream(bytes)) {
+            outGame.writeObject(this);
+        }
 
-    List<NotTransientPlayer> getPlayersCopy() {
-        return this.playersCopy;
+        return bytes.toByteArray();
     }
 
     private ArrayList<NotTransientPlayer> setPlayersCopy() {
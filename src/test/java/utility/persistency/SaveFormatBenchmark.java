@@ -0,0 +1,116 @@
+package utility.persistency;
+
+import controller.GameManager;
+import network.message.Message;
+import network.server.MessageSender;
+import simulation.Agent;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark comparing the {@link SaveFormat SaveFormat} with the Java serialization of a
+ * {@link PersistencyClass PersistencyClass}, the saves written before it. Simulated matches are truncated at a random
+ * point and saved both ways: the size of the saves and the time taken to write and to read them are compared.
+ * <p>
+ * Not a unit test: run it with {@code java -cp target/classes:target/test-classes:<deps> utility.persistency.SaveFormatBenchmark [matches] [rounds]}
+ */
+public class SaveFormatBenchmark {
+    private static final long SEED = 27;
+
+    private static final MessageSender NO_CLIENTS = new MessageSender() {
+        @Override
+        public void sendMessage(String username, Message message) {
+            // no client is connected
+        }
+
+        @Override
+        public void sendMessageToAll(Message message) {
+            // no client is connected
+        }
+    };
+
+    public static void main(String[] args) throws IOException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        List<GameManager> played = new ArrayList<>();
+
+        for (int i = 0; i < matches; ++i) {
+            int maxMessages = 100 + (int) ((SEED + i) * 7919 % 1500);
+            List<GameManager> match = new ArrayList<>();
+
+            boolean bot = i % 2 == 0;
+
+            new SimulationEngine(maxMessages, match::add).play(1 + i % 4, bot, 8, agents(i, bot ? 4 : 5), SEED + i);
+            played.add(match.get(0));
+        }
+
+        // warm up
+        measure(played, Math.max(1, rounds / 4));
+        long[] result = measure(played, rounds);
+        long saves = (long) matches * rounds;
+
+        System.out.printf("matches: %d, rounds: %d%n%n", matches, rounds);
+        System.out.printf("%-10s %14s %14s %14s%n", "format", "bytes/save", "write us", "read us");
+        System.out.printf("%-10s %14d %14.1f %14.1f%n", "java", result[0] / saves, result[1] / 1e3 / saves, result[2] / 1e3 / saves);
+        System.out.printf("%-10s %14d %14.1f %14.1f%n", "compact", result[3] / saves, result[4] / 1e3 / saves, result[5] / 1e3 / saves);
+    }
+
+    /**
+     * Saves and reads every match in both formats
+     *
+     * @return the bytes of the saves and the nanoseconds taken to write and to read them, in the Java serialization
+     * and in the {@link SaveFormat SaveFormat}
+     */
+    private static long[] measure(List<GameManager> played, int rounds) throws IOException {
+        long[] result = new long[6];
+
+        for (int round = 0; round < rounds; ++round) {
+            for (GameManager gameManager : played) {
+                long start = System.nanoTime();
+                byte[] legacy = new PersistencyClass(gameManager).serialize();
+                result[1] += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                deserialize(legacy);
+                result[2] += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                byte[] compact = SaveFormat.encode(gameManager, 0);
+                result[4] += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                SaveFormat.decode(compact, NO_CLIENTS, 0);
+                result[5] += System.nanoTime() - start;
+
+                result[0] += legacy.length;
+                result[3] += compact.length;
+            }
+        }
+
+        return result;
+    }
+
+    private static Object deserialize(byte[] save) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(save))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static List<Agent> agents(int match, int players) {
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < players; ++i) {
+            agents.add(new RandomAgent(SEED + match * 8L + i));
+        }
+
+        return agents;
+    }
+}
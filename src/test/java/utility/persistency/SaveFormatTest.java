@@ -0,0 +1,78 @@
+package utility.persistency;
+
+import controller.GameManager;
+import exceptions.game.ReloadException;
+import model.map.GameMap;
+import network.message.Message;
+import network.server.MessageSender;
+import org.junit.jupiter.api.Test;
+import simulation.Agent;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveFormatTest {
+    private static final MessageSender NO_CLIENTS = new MessageSender() {
+        @Override
+        public void sendMessage(String username, Message message) {
+            // no client is connected
+        }
+
+        @Override
+        public void sendMessageToAll(Message message) {
+            // no client is connected
+        }
+    };
+
+    @Test
+    void readMatchesAreWrittenBack() throws IOException {
+        int[] maxMessages = {1, 40, 200, 700, SimulationEngine.DEFAULT_MAX_MESSAGES};
+
+        for (int i = 0; i < maxMessages.length; ++i) {
+            GameManager played = play(maxMessages[i], i);
+            byte[] save = SaveFormat.encode(played, 42);
+
+            SaveFormat.Snapshot snapshot = SaveFormat.decode(save, NO_CLIENTS, 0);
+
+            assertEquals(SaveFormat.VERSION, snapshot.getVersion());
+            assertEquals(42, snapshot.getJournalSequence());
+            assertEquals(played.getGameState(), snapshot.getGameManager().getGameState());
+            assertEquals(played.getGameInstance().getSeed(), snapshot.getGameManager().getGameInstance().getSeed());
+            assertArrayEquals(save, SaveFormat.encode(snapshot.getGameManager(), 42), "match " + i);
+        }
+    }
+
+    @Test
+    void serializedSaveIsRefused() throws IOException {
+        byte[] serializedSave = new PersistencyClass(play(300, 7)).serialize();
+
+        assertThrows(ReloadException.class, () -> SaveFormat.decode(serializedSave, NO_CLIENTS, 0));
+    }
+
+    @Test
+    void newerVersionIsRefused() throws IOException {
+        byte[] save = SaveFormat.encode(play(100, 3), 0);
+        ByteBuffer.wrap(save).putShort(Integer.BYTES, (short) (SaveFormat.VERSION + 1));
+
+        assertThrows(ReloadException.class, () -> SaveFormat.decode(save, NO_CLIENTS, 0));
+        assertThrows(ReloadException.class, () -> SaveFormat.decode(new byte[]{1, 2, 3}, NO_CLIENTS, 0));
+    }
+
+    private static GameManager play(int maxMessages, int match) {
+        List<GameManager> played = new ArrayList<>();
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < 4; ++i) {
+            agents.add(new RandomAgent(match * 8L + i));
+        }
+
+        new SimulationEngine(maxMessages, played::add).play(GameMap.MAP_1 + match % 4, match % 2 == 0, 5, agents, 11 + match);
+        return played.get(0);
+    }
+}
@@ -0,0 +1,143 @@
+package utility.persistency;
+
+import controller.GameManager;
+import exceptions.game.ReloadException;
+import model.map.GameMap;
+import network.message.Message;
+import network.server.MessageSender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.Agent;
+import simulation.MatchResult;
+import simulation.RandomAgent;
+import simulation.SimulationEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveStoreTest {
+    private static final MessageSender NO_CLIENTS = new MessageSender() {
+        @Override
+        public void sendMessage(String username, Message message) {
+            // no client is connected
+        }
+
+        @Override
+        public void sendMessageToAll(Message message) {
+            // no client is connected
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void interruptedMatchIsResumed() throws IOException {
+        SaveStore store = new SaveStore(dir, 8);
+        List<GameManager> played = new ArrayList<>();
+
+        MatchResult result = play(store, 120, 1, played);
+        SaveWriter.flush();
+
+        assertNotEquals(MatchResult.Outcome.ENDED, result.getOutcome());
+        GameManager match = played.get(0);
+        long gameId = match.getGameInstance().getSeed();
+
+        SaveStore reopened = new SaveStore(dir, 8);
+        assertEquals(List.of(gameId), new ArrayList<>(reopened.getResumableGames().keySet()));
+        assertEquals(4, reopened.getUsernames(gameId).size());
+
+        for (String username : reopened.getUsernames(gameId)) {
+            assertEquals(gameId, reopened.findGame(username));
+        }
+
+        GameManager recovered = reopened.newJournal(gameId).recover(NO_CLIENTS, 0);
+        assertArrayEquals(SaveFormat.encode(match, 0), SaveFormat.encode(recovered, 0));
+        assertNull(reopened.findGame("nobody"));
+    }
+
+    @Test
+    void endedMatchIsDeleted() throws IOException {
+        SaveStore store = new SaveStore(dir, 8);
+        List<GameManager> played = new ArrayList<>();
+
+        MatchResult result = play(store, SimulationEngine.DEFAULT_MAX_MESSAGES, 2, played);
+        SaveWriter.flush();
+
+        assertEquals(MatchResult.Outcome.ENDED, result.getOutcome());
+        long gameId = played.get(0).getGameInstance().getSeed();
+
+        assertTrue(store.getResumableGames().isEmpty());
+        assertFalse(Files.exists(store.snapshotFile(gameId).getParent()));
+        assertTrue(new SaveStore(dir, 8).getResumableGames().isEmpty());
+    }
+
+    @Test
+    void unresumableMatchIsDiscarded() throws IOException {
+        SaveStore store = new SaveStore(dir, 8);
+        List<GameManager> played = new ArrayList<>();
+
+        play(store, 120, 1, played);
+        SaveWriter.flush();
+
+        long gameId = played.get(0).getGameInstance().getSeed();
+        Files.write(store.snapshotFile(gameId), new byte[]{1, 2, 3});
+
+        SaveStore reopened = new SaveStore(dir, 8);
+        assertThrows(ReloadException.class, () -> reopened.newJournal(gameId).recover(NO_CLIENTS, 0));
+
+        reopened.discard(gameId);
+        SaveWriter.flush();
+
+        assertTrue(reopened.getResumableGames().isEmpty());
+        assertNull(reopened.findGame(played.get(0).getGameInstance().getPlayers().get(0).getUsername()));
+        assertTrue(Files.exists(store.snapshotFile(gameId)));
+
+        assertTrue(new SaveStore(dir, 8).getResumableGames().isEmpty());
+        SaveWriter.flush();
+        assertFalse(Files.exists(store.snapshotFile(gameId).getParent()));
+    }
+
+    @Test
+    void indexIsCompacted() throws IOException {
+        SaveStore store = new SaveStore(dir, 8);
+        List<GameManager> played = new ArrayList<>();
+
+        play(store, 120, 3, played);
+
+        for (int i = 0; i < 100; ++i) {
+            play(store, 60, 4 + i, played);
+            store.ended(played.get(played.size() - 1).getGameInstance().getSeed());
+        }
+
+        SaveWriter.flush();
+        long gameId = played.get(0).getGameInstance().getSeed();
+
+        assertTrue(Files.size(dir.resolve(SaveStore.INDEX_FILE)) < 64 * 100);
+        assertEquals(List.of(gameId), new ArrayList<>(new SaveStore(dir, 8).getResumableGames().keySet()));
+
+        try (var entries = Files.list(dir)) {
+            assertEquals(2, entries.count());
+        }
+    }
+
+    private static MatchResult play(SaveStore store, int maxMessages, int match, List<GameManager> played) {
+        List<Agent> agents = new ArrayList<>();
+
+        for (int i = 0; i < 4; ++i) {
+            agents.add(new RandomAgent(match * 8L + i));
+        }
+
+        SimulationEngine engine = new SimulationEngine(maxMessages, manager -> {
+            manager.setJournal(store.newJournal(manager.getGameInstance().getSeed()));
+            played.add(manager);
+        });
+
+        return engine.play(GameMap.MAP_1 + match % 4, true, 5, agents, 31 + match);
+    }
+}
@@ -0,0 +1,94 @@
+package utility.persistency;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveWriterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void lastSnapshotAndFollowingEntries() throws IOException {
+        Path file = dir.resolve("game.adrenaline");
+        Path journalFile = dir.resolve("game.journal");
+
+        for (byte i = 0; i < 50; ++i) {
+            SaveWriter.append(journalFile, new byte[]{i});
+
+            if (i % 10 == 9) {
+                SaveWriter.snapshot(file, journalFile, new byte[]{i, i});
+            }
+        }
+
+        SaveWriter.append(journalFile, new byte[]{50});
+        SaveWriter.append(journalFile, new byte[]{51});
+        SaveWriter.flush();
+
+        assertArrayEquals(new byte[]{49, 49}, Files.readAllBytes(file));
+        assertArrayEquals(new byte[]{50, 51}, Files.readAllBytes(journalFile));
+        assertFalse(Files.exists(dir.resolve("game.adrenaline.tmp")));
+    }
+
+    @Test
+    void failedWrite() throws IOException {
+        Path file = dir.resolve("game.adrenaline");
+        long failures = SaveWriter.getFailures();
+
+        SaveWriter.snapshot(dir.resolve("missing").resolve("game.adrenaline"), null, new byte[]{1});
+        SaveWriter.snapshot(file, null, new byte[]{2});
+        SaveWriter.flush();
+
+        assertEquals(failures + 1, SaveWriter.getFailures());
+        assertArrayEquals(new byte[]{2}, Files.readAllBytes(file));
+        assertTrue(SaveWriter.metrics().contains("failures " + SaveWriter.getFailures()));
+    }
+
+    @Test
+    void failedSnapshotKeepsEntries() throws IOException {
+        Path file = dir.resolve("missing").resolve("game.adrenaline");
+        Path journalFile = dir.resolve("game.journal");
+        AtomicInteger failed = new AtomicInteger();
+
+        for (byte i = 0; i < 20; ++i) {
+            SaveWriter.append(journalFile, new byte[]{i});
+
+            if (i % 10 == 9) {
+                SaveWriter.snapshot(file, journalFile, new byte[]{i, i}, failed::incrementAndGet);
+            }
+        }
+
+        SaveWriter.append(journalFile, new byte[]{20});
+        SaveWriter.flush();
+
+        byte[] entries = new byte[21];
+        for (byte i = 0; i < entries.length; ++i) {
+            entries[i] = i;
+        }
+
+        assertArrayEquals(entries, Files.readAllBytes(journalFile));
+        assertTrue(failed.get() > 0);
+    }
+
+    @Test
+    void deletedDirectory() throws IOException {
+        Path gameDir = Files.createDirectory(dir.resolve("game"));
+        long coalesced = SaveWriter.getCoalesced();
+        long deletions = SaveWriter.getDeletions();
+
+        SaveWriter.append(gameDir.resolve("journal"), new byte[]{1});
+        SaveWriter.snapshot(gameDir.resolve("snapshot.adrenaline"), null, new byte[]{2});
+        SaveWriter.delete(gameDir);
+        SaveWriter.flush();
+
+        assertFalse(Files.exists(gameDir));
+        assertEquals(deletions + 1, SaveWriter.getDeletions());
+        assertTrue(SaveWriter.getCoalesced() >= coalesced);
+    }
+}